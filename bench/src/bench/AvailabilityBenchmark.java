@@ -0,0 +1,92 @@
+package bench;
+
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import model.Reservation;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability reads: the room-level overlap check used on every booking,
+ * the free-rooms search for a stay, and the reservations of a date window.
+ * Stays are drawn from the seeded range (a few years back to three months ahead).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"200", "2000"})
+    public int rooms;
+
+    @Param({"20000", "200000"})
+    public int reservations;
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final RoomDAO roomDAO = new RoomDAO();
+    private final LocalDate today = LocalDate.now();
+    private int firstRoomId;
+
+    /**
+     * Per-thread source of random stays
+     */
+    @State(Scope.Thread)
+    public static class Stays {
+        private final SplittableRandom random = new SplittableRandom(7);
+
+        LocalDate checkin(LocalDate today) {
+            return today.plusDays(random.nextInt(-365, 90));
+        }
+
+        int nights() {
+            return 1 + random.nextInt(7);
+        }
+
+        int room(int firstRoomId, int rooms) {
+            return firstRoomId + random.nextInt(rooms);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchDatabase.start();
+        BenchDatabase.seed(rooms, Math.max(1000, reservations / 10), reservations, 42);
+        firstRoomId = roomDAO.getAllRooms().stream().mapToInt(Room::getId).min().orElse(1);
+    }
+
+    @Benchmark
+    public boolean isRoomAvailable(Stays stays) {
+        LocalDate checkin = stays.checkin(today);
+        return reservationDAO.isRoomAvailable(stays.room(firstRoomId, rooms), checkin, checkin.plusDays(stays.nights()));
+    }
+
+    @Benchmark
+    public List<Room> getAvailableRoomsForDateRange(Stays stays) {
+        LocalDate checkin = stays.checkin(today);
+        return roomDAO.getAvailableRoomsForDateRange(checkin, checkin.plusDays(stays.nights()));
+    }
+
+    @Benchmark
+    public List<Reservation> getReservationsByDateRange(Stays stays) {
+        LocalDate start = stays.checkin(today);
+        return reservationDAO.getReservationsByDateRange(start, start.plusDays(7));
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import tools.DaoDatasetSink;
+import tools.DatasetGenerator;
+import tools.SchemaScript;
+import util.DBConnection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Embedded database for the benchmarks: an in-memory H2 database in MySQL
+ * mode, created from schema.sql and seeded by DatasetGenerator through the
+ * batch DAO methods.
+ *
+ * Must be started before anything touches DBConnection, since the JDBC URL
+ * is read once. Seeding is deterministic for a given seed, so every fork of
+ * a benchmark sees the same data.
+ *
+ * Configuration (system properties):
+ * hotel.bench.schema path of schema.sql (default: see SchemaScript.locate)
+ */
+public final class BenchDatabase {
+
+    private static boolean started = false;
+
+    private BenchDatabase() {
+    }
+
+    /**
+     * Point DBConnection at a fresh in-memory database and create the schema
+     */
+    public static synchronized void start() throws SQLException, IOException {
+        if (started) {
+            return;
+        }
+        System.setProperty("hotel.db.url", "jdbc:h2:mem:hotel_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("hotel.db.username", "sa");
+        System.setProperty("hotel.db.password", "");
+        System.setProperty("hotel.db.driver", "org.h2.Driver");
+
+        String schema = System.getProperty("hotel.bench.schema");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            SchemaScript.apply(conn, schema != null ? Path.of(schema) : SchemaScript.locate());
+        }
+        started = true;
+    }
+
+    /**
+     * Seed the tables
+     * @param rooms Number of rooms
+     * @param guests Number of guests
+     * @param reservations Number of reservations, spread over the rooms without overlapping stays
+     * @param seed Random seed
+     */
+    public static void seed(int rooms, int guests, int reservations, long seed) throws SQLException {
+        new DatasetGenerator(seed).setRooms(rooms).setGuests(guests).setReservations(reservations)
+                .writeTo(new DaoDatasetSink());
+    }
+}
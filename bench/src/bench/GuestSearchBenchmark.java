@@ -0,0 +1,50 @@
+package bench;
+
+import dao.GuestDAO;
+import model.Guest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guest name search (LIKE '%term%') as typed in the guest and reservation
+ * screens, with short and full-name terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuestSearchBenchmark {
+
+    @Param({"1000", "50000", "500000"})
+    public int guests;
+
+    @Param({"Ma", "Nadia Rossi"})
+    public String term;
+
+    private final GuestDAO guestDAO = new GuestDAO();
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchDatabase.start();
+        BenchDatabase.seed(10, guests, 0, 42);
+    }
+
+    @Benchmark
+    public List<Guest> searchGuestsByName() {
+        return guestDAO.searchGuestsByName(term);
+    }
+}
@@ -0,0 +1,117 @@
+package bench;
+
+import model.Guest;
+import model.GuestFactory;
+import model.GuestType;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+import model.RoomComponent;
+import model.decorator.MinibarDecorator;
+import model.decorator.SpaDecorator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.DatasetGenerator;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory model paths run for every table row: the active-stay test,
+ * guest creation through the factory and decorated room pricing. Each
+ * invocation processes the whole parameterised batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Reservation[] reservations;
+    private Room[] rooms;
+    private RoomComponent[] decorated;
+    private String[] names;
+    private GuestType[] types;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ReservationStatus[] statuses = ReservationStatus.values();
+        LocalDate today = LocalDate.now();
+        DatasetGenerator generator = new DatasetGenerator(42).setRooms(size);
+        List<Room> roomList = generator.generateRooms();
+        List<Guest> guestList = generator.generateGuests(size);
+
+        reservations = new Reservation[size];
+        rooms = new Room[size];
+        decorated = new RoomComponent[size];
+        names = new String[size];
+        types = new GuestType[size];
+        for (int i = 0; i < size; i++) {
+            LocalDate checkin = today.plusDays(random.nextInt(-30, 30));
+            reservations[i] = new Reservation(1, 1, checkin, checkin.plusDays(1 + random.nextInt(7)));
+            reservations[i].setStatus(statuses[random.nextInt(statuses.length)]);
+
+            rooms[i] = roomList.get(i);
+            decorated[i] = new SpaDecorator(new MinibarDecorator(rooms[i]));
+
+            Guest guest = guestList.get(i);
+            names[i] = guest.getName();
+            types[i] = GuestType.valueOf(guest.getGuestType());
+        }
+    }
+
+    @Benchmark
+    public int reservationIsActive() {
+        int active = 0;
+        for (Reservation reservation : reservations) {
+            if (reservation.isActive()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    @Benchmark
+    public void guestFactory(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            Guest guest = GuestFactory.createGuest(types[i], names[i], "+1-555-0000000", 0.15);
+            blackhole.consume(guest);
+        }
+    }
+
+    @Benchmark
+    public double decorateAndPrice() {
+        double total = 0;
+        for (Room room : rooms) {
+            total += new SpaDecorator(new MinibarDecorator(room)).getPrice();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double decoratedPrice() {
+        double total = 0;
+        for (RoomComponent room : decorated) {
+            total += room.getPrice();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,65 @@
+package bench;
+
+import dao.GuestDAO;
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import model.Guest;
+import model.Reservation;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single reservation insert: the row, its change journal entry and the room
+ * status update in one transaction. The table grows during the run, so keep
+ * iterations short compared to the seeded volume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationWriteBenchmark {
+
+    @Param({"20000", "200000"})
+    public int reservations;
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final SplittableRandom random = new SplittableRandom(11);
+    private int firstRoomId;
+    private int rooms;
+    private int firstGuestId;
+    private int guests;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchDatabase.start();
+        rooms = 500;
+        guests = Math.max(1000, reservations / 10);
+        BenchDatabase.seed(rooms, guests, reservations, 42);
+        firstRoomId = new RoomDAO().getAllRooms().stream().mapToInt(Room::getId).min().orElse(1);
+        firstGuestId = new GuestDAO().getAllGuests().stream().mapToInt(Guest::getId).min().orElse(1);
+    }
+
+    @Benchmark
+    public boolean createReservation() {
+        LocalDate checkin = LocalDate.now().plusDays(200 + random.nextInt(600));
+        Reservation reservation = new Reservation(firstGuestId + random.nextInt(guests),
+                firstRoomId + random.nextInt(rooms), checkin, checkin.plusDays(1 + random.nextInt(7)));
+        return reservationDAO.createReservation(reservation);
+    }
+}
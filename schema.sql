@@ -0,0 +1,112 @@
+-- Hotel Management database schema (MySQL)
+
+CREATE DATABASE IF NOT EXISTS hotel_management;
+USE hotel_management;
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    number      VARCHAR(20)    NOT NULL UNIQUE,
+    type        VARCHAR(50)    NOT NULL,
+    status      VARCHAR(30)    NOT NULL DEFAULT 'Available',
+    base_price  DECIMAL(10, 2) NOT NULL,
+    description VARCHAR(255),
+    -- Bitmask of model.Amenity values (1 = Spa Access, 2 = Minibar)
+    amenities   INT            NOT NULL DEFAULT 0,
+    -- Optimistic locking: every update increments it, edits write WHERE version = <version read>
+    version     INT            NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS guests (
+    id            INT AUTO_INCREMENT PRIMARY KEY,
+    name          VARCHAR(100) NOT NULL,
+    contact       VARCHAR(100) NOT NULL UNIQUE,
+    guest_type    VARCHAR(20)  NOT NULL DEFAULT 'REGULAR',
+    discount_rate DOUBLE       NOT NULL DEFAULT 0,
+    version       INT          NOT NULL DEFAULT 0,
+    INDEX idx_guests_name (name)
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id            INT AUTO_INCREMENT PRIMARY KEY,
+    guest_id      INT       NOT NULL,
+    room_id       INT       NOT NULL,
+    checkin_date  DATE      NOT NULL,
+    checkout_date DATE      NOT NULL,
+    created_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- model.ReservationStatus: BOOKED, CHECKED_IN, CHECKED_OUT, CANCELLED, NO_SHOW
+    status        VARCHAR(20) NOT NULL DEFAULT 'BOOKED',
+    version       INT       NOT NULL DEFAULT 0,
+    FOREIGN KEY (guest_id) REFERENCES guests (id),
+    FOREIGN KEY (room_id) REFERENCES rooms (id),
+    INDEX idx_reservations_room_dates (room_id, checkin_date, checkout_date),
+    INDEX idx_reservations_checkout (checkout_date),
+    INDEX idx_reservations_status (status, checkin_date),
+    INDEX idx_reservations_created (created_at)
+);
+
+-- Reservations that checked out before the archive horizon (see archive.ReservationArchiver).
+-- Same columns as reservations; ids are kept so history reads can UNION ALL both tables.
+CREATE TABLE IF NOT EXISTS reservations_archive (
+    id            INT       NOT NULL PRIMARY KEY,
+    guest_id      INT       NOT NULL,
+    room_id       INT       NOT NULL,
+    checkin_date  DATE      NOT NULL,
+    checkout_date DATE      NOT NULL,
+    created_at    TIMESTAMP NOT NULL,
+    status        VARCHAR(20) NOT NULL,
+    version       INT       NOT NULL DEFAULT 0,
+    archived_at   TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (guest_id) REFERENCES guests (id),
+    FOREIGN KEY (room_id) REFERENCES rooms (id),
+    INDEX idx_archive_room_dates (room_id, checkin_date),
+    INDEX idx_archive_guest (guest_id),
+    INDEX idx_archive_checkout (checkout_date),
+    INDEX idx_archive_status (status)
+);
+
+-- Change journal: one row per guest/room/reservation write, inserted in the same
+-- transaction (see dao.ChangeDAO). Workstations poll for seq > last seen (sync.ChangePoller);
+-- the archiver purges entries older than hotel.changes.retentionHours.
+CREATE TABLE IF NOT EXISTS changes (
+    seq        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity     VARCHAR(20) NOT NULL,
+    entity_id  INT         NOT NULL,
+    operation  VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_changes_changed_at (changed_at)
+);
+
+-- ---------------------------------------------------------------------------
+-- Upgrading an existing database
+-- ---------------------------------------------------------------------------
+
+-- Amenities bitmask (replaces parsing "Spa Access"/"Minibar" out of descriptions)
+-- ALTER TABLE rooms ADD COLUMN amenities INT NOT NULL DEFAULT 0;
+-- UPDATE rooms SET amenities = (description LIKE '%Spa Access%') * 1 + (description LIKE '%Minibar%') * 2;
+
+-- Reservation archive (hot/cold split of reservations)
+-- ALTER TABLE reservations ADD INDEX idx_reservations_room_dates (room_id, checkin_date, checkout_date),
+--                          ADD INDEX idx_reservations_checkout (checkout_date);
+-- Then create reservations_archive as above; the archiver fills it on its first run.
+
+-- Reservation lifecycle status (backfilled from the stay dates)
+-- ALTER TABLE reservations ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'BOOKED',
+--                          ADD INDEX idx_reservations_status (status, checkin_date);
+-- UPDATE reservations SET status = CASE WHEN checkout_date <= CURRENT_DATE THEN 'CHECKED_OUT'
+--                                       WHEN checkin_date <= CURRENT_DATE THEN 'CHECKED_IN'
+--                                       ELSE 'BOOKED' END;
+-- ALTER TABLE reservations_archive ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'CHECKED_OUT' AFTER created_at,
+--                                  ADD INDEX idx_archive_status (status);
+
+-- Paged tables (ORDER BY ... LIMIT/OFFSET on the default sort columns)
+-- ALTER TABLE guests ADD INDEX idx_guests_name (name);
+-- ALTER TABLE reservations ADD INDEX idx_reservations_created (created_at);
+
+-- Change journal for multi-workstation refresh
+-- Create changes as above; clients start polling from the newest entry.
+
+-- Optimistic locking (version columns)
+-- ALTER TABLE rooms ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- ALTER TABLE guests ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- ALTER TABLE reservations ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- ALTER TABLE reservations_archive ADD COLUMN version INT NOT NULL DEFAULT 0 AFTER status;
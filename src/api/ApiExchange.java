@@ -0,0 +1,211 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One API request: query parameter parsing and response writing.
+ * JSON responses are sent with chunked transfer encoding and written as they
+ * are produced; the connection stays open for the next request (keep-alive).
+ */
+class ApiExchange {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final HttpExchange exchange;
+    private Map<String, String> params = new HashMap<>();
+    private int status = 0;
+
+    ApiExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Decode the query parameters; call before reading any parameter
+     * @throws ApiException 400 if the query is not properly percent-encoded
+     */
+    void parseQuery() {
+        try {
+            params = parseQuery(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Malformed query string: " + e.getMessage());
+        }
+    }
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+    /**
+     * Part of the path after the route prefix, without slashes
+     * @param prefix Route prefix, e.g. "/api/rooms"
+     * @return e.g. "12" for /api/rooms/12, "" for /api/rooms
+     */
+    String pathAfter(String prefix) {
+        String path = exchange.getRequestURI().getPath();
+        String rest = path.length() > prefix.length() ? path.substring(prefix.length()) : "";
+        while (rest.startsWith("/")) {
+            rest = rest.substring(1);
+        }
+        while (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        return rest;
+    }
+
+    boolean has(String name) {
+        String value = params.get(name);
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * @return Parameter value, or null if absent or empty
+     */
+    String param(String name) {
+        return has(name) ? params.get(name) : null;
+    }
+
+    int intParam(String name, int defaultValue, int min, int max) {
+        if (!has(name)) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(params.get(name));
+            if (value < min || value > max) {
+                throw ApiException.badRequest(name + " must be between " + min + " and " + max);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest(name + " must be a number");
+        }
+    }
+
+    LocalDate dateParam(String name) {
+        if (!has(name)) {
+            throw ApiException.badRequest(name + " is required (yyyy-mm-dd)");
+        }
+        try {
+            return LocalDate.parse(params.get(name));
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest(name + " must be a date (yyyy-mm-dd)");
+        }
+    }
+
+    /**
+     * Parse a numeric id path segment
+     */
+    static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw ApiException.notFound("Unknown resource: " + segment);
+        }
+    }
+
+    void setHeader(String name, String value) {
+        exchange.getResponseHeaders().set(name, value);
+    }
+
+    /**
+     * Send the headers of a JSON response and return a writer for the body
+     * (chunked; close the writer to finish the response)
+     */
+    JsonWriter startJson(int status) throws IOException {
+        setHeader("Content-Type", "application/json; charset=utf-8");
+        OutputStream body = start(status, 0);
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * Send the headers of a server-sent event stream and return a writer for
+     * the events (chunked; close the writer to end the stream)
+     */
+    Writer startEvents() throws IOException {
+        setHeader("Content-Type", "text/event-stream; charset=utf-8");
+        setHeader("Cache-Control", "no-cache");
+        OutputStream body = start(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Send a complete text response with a known length
+     */
+    void sendText(int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        setHeader("Content-Type", contentType);
+        try (OutputStream body = start(status, bytes.length == 0 ? -1 : bytes.length)) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Send an error as {"error": message} unless the response has already started
+     */
+    void sendError(int status, String message) throws IOException {
+        if (isStarted()) {
+            return;
+        }
+        try (JsonWriter json = startJson(status)) {
+            json.beginObject().name("error").value(message).endObject();
+        }
+    }
+
+    boolean isStarted() {
+        return status != 0;
+    }
+
+    /**
+     * @return Status sent, 0 if no response was started
+     */
+    int status() {
+        return status;
+    }
+
+    /**
+     * Read and discard the request body (the API only serves GET), so the
+     * connection can be reused for the next request
+     */
+    void discardRequestBody() {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            // The client went away; the server closes the exchange
+        }
+    }
+
+    void close() {
+        exchange.close();
+    }
+
+    private OutputStream start(int status, long length) throws IOException {
+        this.status = status;
+        exchange.sendResponseHeaders(status, length);
+        return exchange.getResponseBody();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,93 @@
+package api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters of the API server, served at /metrics in the Prometheus
+ * text format. Counters are LongAdders so that recording a request never
+ * contends between request threads.
+ */
+class ApiMetrics {
+
+    /**
+     * Counters of one route
+     */
+    static class RouteStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    void started() {
+        inFlight.increment();
+    }
+
+    /**
+     * Record a finished request
+     * @param route Route name, e.g. "rooms"
+     * @param status HTTP status sent
+     * @param nanos Time spent handling the request
+     */
+    void finished(String route, int status, long nanos) {
+        inFlight.decrement();
+        RouteStats stats = routes.computeIfAbsent(route, name -> new RouteStats());
+        stats.requests.increment();
+        if (status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        }
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Write every counter in the Prometheus text exposition format
+     */
+    void write(Writer out) throws IOException {
+        Map<String, RouteStats> sorted = new TreeMap<>(routes);
+
+        out.write("# TYPE hotel_api_requests_in_flight gauge\n");
+        out.write("hotel_api_requests_in_flight " + inFlight.sum() + "\n");
+
+        out.write("# TYPE hotel_api_requests_total counter\n");
+        for (Map.Entry<String, RouteStats> entry : sorted.entrySet()) {
+            line(out, "hotel_api_requests_total", entry.getKey(), null, entry.getValue().requests.sum());
+        }
+        out.write("# TYPE hotel_api_errors_total counter\n");
+        for (Map.Entry<String, RouteStats> entry : sorted.entrySet()) {
+            line(out, "hotel_api_errors_total", entry.getKey(), "client", entry.getValue().clientErrors.sum());
+            line(out, "hotel_api_errors_total", entry.getKey(), "server", entry.getValue().serverErrors.sum());
+        }
+        out.write("# TYPE hotel_api_request_seconds_sum counter\n");
+        for (Map.Entry<String, RouteStats> entry : sorted.entrySet()) {
+            out.write("hotel_api_request_seconds_sum{route=\"" + entry.getKey() + "\"} "
+                    + seconds(entry.getValue().totalNanos.sum()) + "\n");
+        }
+        out.write("# TYPE hotel_api_request_seconds_max gauge\n");
+        for (Map.Entry<String, RouteStats> entry : sorted.entrySet()) {
+            out.write("hotel_api_request_seconds_max{route=\"" + entry.getKey() + "\"} "
+                    + seconds(entry.getValue().maxNanos.get()) + "\n");
+        }
+    }
+
+    private static void line(Writer out, String metric, String route, String kind, long value) throws IOException {
+        out.write(metric + "{route=\"" + route + "\"" + (kind != null ? ",kind=\"" + kind + "\"" : "") + "} "
+                + value + "\n");
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,333 @@
+package api;
+
+import controller.GuestController;
+import controller.ReservationController;
+import controller.RoomController;
+import controller.StatisticsController;
+import metrics.DaoMetrics;
+import metrics.FxStallWatchdog;
+import model.Amenity;
+import model.DashboardStatistics;
+import model.Guest;
+import model.Reservation;
+import model.ReservationFilter;
+import model.ReservationStatus;
+import model.Room;
+import model.RoomFilter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Request handlers of the API, one per resource. Everything goes through the
+ * existing controllers.
+ *
+ * Lists are JSON arrays written while they are read. With offset/limit the
+ * response is one page and X-Total-Count carries the full count; without
+ * them an unfiltered room or reservation list is streamed from a
+ * forward-only cursor and other lists are read page by page.
+ *
+ * Each stream holds its own database connection outside the pool, so at
+ * most hotel.api.maxStreams (default 4) run at once; further streaming
+ * requests get 503 with Retry-After and can retry or ask for pages.
+ */
+class ApiRoutes {
+
+    // Rows per query when a list is read page by page
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_LIMIT = 10_000;
+
+    /**
+     * Streams a whole list into a JSON writer
+     */
+    private interface StreamQuery {
+        void stream(JsonWriter json) throws Exception;
+    }
+
+    /**
+     * Reads one page of a list
+     */
+    private interface PageQuery<T> {
+        List<T> fetch(int offset, int limit);
+    }
+
+    /**
+     * Writes one list item
+     */
+    private interface ItemWriter<T> {
+        void write(JsonWriter json, T item) throws IOException;
+    }
+
+    private final RoomController roomController = new RoomController();
+    private final GuestController guestController = new GuestController();
+    private final ReservationController reservationController = new ReservationController();
+    private final StatisticsController statisticsController = new StatisticsController();
+    private final ApiMetrics metrics;
+
+    // Dashboard statistics are shared by all requests for a short time
+    private final long statisticsCacheMillis = Long.getLong("hotel.api.statisticsCacheMillis", 1000);
+
+    // Streaming lists open a dedicated connection each, so their number is bounded
+    private final Semaphore streams = new Semaphore(Math.max(1, Integer.getInteger("hotel.api.maxStreams", 4)));
+    private volatile DashboardStatistics cachedStatistics;
+    private volatile long cachedStatisticsAt;
+
+    ApiRoutes(ApiMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * GET /api/rooms[/{id}]
+     * Filters (one at a time): type, status, amenities=SPA_ACCESS,MINIBAR, checkin+checkout
+     * Paging and sorting: offset, limit, sort (number, id, type, status, description), order=desc
+     */
+    void rooms(ApiExchange request) throws Exception {
+        String id = request.pathAfter("/api/rooms");
+        if (!id.isEmpty()) {
+            Room room = roomController.getRoomById(ApiExchange.parseId(id));
+            if (room == null) {
+                throw ApiException.notFound("Room " + id + " not found");
+            }
+            try (JsonWriter json = request.startJson(200)) {
+                ModelJson.room(json, room);
+            }
+            return;
+        }
+
+        RoomFilter filter = roomFilter(request);
+        String sortKey = request.param("sort");
+        boolean ascending = !"desc".equalsIgnoreCase(request.param("order"));
+        if (filter == null && !isPaged(request) && sortKey == null) {
+            writeStream(request, json -> roomController.streamAllRooms(room -> {
+                ModelJson.room(json, room);
+                return true;
+            }));
+            return;
+        }
+
+        RoomFilter query = filter != null ? filter : RoomFilter.all();
+        if (isPaged(request)) {
+            request.setHeader("X-Total-Count", Integer.toString(roomController.countRooms(query)));
+        }
+        writePages(request, (offset, limit) -> roomController.getRoomsPage(query, sortKey, ascending, offset, limit),
+                ModelJson::room);
+    }
+
+    /**
+     * GET /api/guests[/{id}]
+     * Filters: name (substring). Paging and sorting: offset, limit, sort (name, id, contact, type), order=desc
+     */
+    void guests(ApiExchange request) throws Exception {
+        String id = request.pathAfter("/api/guests");
+        if (!id.isEmpty()) {
+            Guest guest = guestController.getGuestById(ApiExchange.parseId(id));
+            if (guest == null) {
+                throw ApiException.notFound("Guest " + id + " not found");
+            }
+            try (JsonWriter json = request.startJson(200)) {
+                ModelJson.guest(json, guest);
+            }
+            return;
+        }
+
+        String name = request.param("name") != null ? request.param("name") : "";
+        String sortKey = request.param("sort");
+        boolean ascending = !"desc".equalsIgnoreCase(request.param("order"));
+        if (isPaged(request)) {
+            request.setHeader("X-Total-Count", Integer.toString(guestController.countGuests(name)));
+        }
+        writePages(request, (offset, limit) -> guestController.getGuestsPage(name, sortKey, ascending, offset, limit),
+                ModelJson::guest);
+    }
+
+    /**
+     * GET /api/reservations[/{id}]
+     * Filters: status=BOOKED,CHECKED_IN, history=true (finished, including archived), guest (name substring)
+     * Paging and sorting: offset, limit, sort (created, checkin, checkout, guest, room, status), order=asc
+     */
+    void reservations(ApiExchange request) throws Exception {
+        String id = request.pathAfter("/api/reservations");
+        if (!id.isEmpty()) {
+            Reservation reservation = reservationController.getReservationById(ApiExchange.parseId(id));
+            if (reservation == null) {
+                throw ApiException.notFound("Reservation " + id + " not found");
+            }
+            try (JsonWriter json = request.startJson(200)) {
+                ModelJson.reservation(json, reservation);
+            }
+            return;
+        }
+
+        ReservationFilter filter = reservationFilter(request);
+        String sortKey = request.param("sort");
+        boolean ascending = "asc".equalsIgnoreCase(request.param("order"));
+        if (filter == null && !isPaged(request) && sortKey == null) {
+            writeStream(request, json -> reservationController.streamAllReservations(reservation -> {
+                ModelJson.reservation(json, reservation);
+                return true;
+            }));
+            return;
+        }
+
+        ReservationFilter query = filter != null ? filter : ReservationFilter.all();
+        if (isPaged(request)) {
+            request.setHeader("X-Total-Count", Integer.toString(reservationController.countReservations(query)));
+        }
+        writePages(request, (offset, limit) ->
+                        reservationController.getReservationsPage(query, sortKey, ascending, offset, limit),
+                ModelJson::reservation);
+    }
+
+    /**
+     * GET /api/availability?checkin=yyyy-mm-dd&checkout=yyyy-mm-dd
+     * Available rooms without a reservation overlapping the stay
+     */
+    void availability(ApiExchange request) throws Exception {
+        LocalDate checkin = request.dateParam("checkin");
+        LocalDate checkout = request.dateParam("checkout");
+        if (!checkout.isAfter(checkin)) {
+            throw ApiException.badRequest("checkout must be after checkin");
+        }
+        List<Room> rooms = roomController.getAvailableRoomsForDateRange(checkin, checkout);
+        try (JsonWriter json = request.startJson(200)) {
+            json.beginArray();
+            for (Room room : rooms) {
+                ModelJson.room(json, room);
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * GET /api/statistics
+     * Dashboard counts, cached for hotel.api.statisticsCacheMillis
+     */
+    void statistics(ApiExchange request) throws Exception {
+        DashboardStatistics statistics = cachedStatistics;
+        long now = System.currentTimeMillis();
+        if (statistics == null || now - cachedStatisticsAt > statisticsCacheMillis) {
+            statistics = statisticsController.getDashboardStatistics();
+            cachedStatistics = statistics;
+            cachedStatisticsAt = now;
+        }
+        try (JsonWriter json = request.startJson(200)) {
+            ModelJson.statistics(json, statistics);
+        }
+    }
+
+    /**
+     * GET /metrics
+     * Request, database and FX thread counters in the Prometheus text format
+     */
+    void metrics(ApiExchange request) throws Exception {
+        StringWriter text = new StringWriter();
+        metrics.write(text);
+        DaoMetrics.getInstance().write(text);
+        FxStallWatchdog.getInstance().write(text);
+        request.sendText(200, "text/plain; version=0.0.4; charset=utf-8", text.toString());
+    }
+
+    private boolean isPaged(ApiExchange request) {
+        return request.has("offset") || request.has("limit");
+    }
+
+    /**
+     * Write a streamed list as a JSON array, or fail with 503 when
+     * hotel.api.maxStreams streams are already running
+     */
+    private void writeStream(ApiExchange request, StreamQuery query) throws Exception {
+        if (!streams.tryAcquire()) {
+            request.setHeader("Retry-After", "1");
+            throw new ApiException(503, "Too many streaming requests; retry later or use offset/limit");
+        }
+        try (JsonWriter json = request.startJson(200)) {
+            json.beginArray();
+            query.stream(json);
+            json.endArray();
+        } finally {
+            streams.release();
+        }
+    }
+
+    /**
+     * Write a list as a JSON array, reading it PAGE_SIZE rows at a time
+     */
+    private <T> void writePages(ApiExchange request, PageQuery<T> query, ItemWriter<T> writer) throws IOException {
+        int offset = request.intParam("offset", 0, 0, Integer.MAX_VALUE);
+        int remaining = request.intParam("limit", Integer.MAX_VALUE, 0, isPaged(request) ? MAX_LIMIT : Integer.MAX_VALUE);
+
+        try (JsonWriter json = request.startJson(200)) {
+            json.beginArray();
+            while (remaining > 0) {
+                int size = Math.min(PAGE_SIZE, remaining);
+                List<T> page = query.fetch(offset, size);
+                for (T item : page) {
+                    writer.write(json, item);
+                }
+                if (page.size() < size) {
+                    break;
+                }
+                offset += page.size();
+                remaining -= page.size();
+            }
+            json.endArray();
+        }
+    }
+
+    private RoomFilter roomFilter(ApiExchange request) {
+        if (request.has("type")) {
+            return RoomFilter.byType(request.param("type"));
+        }
+        if (request.has("status")) {
+            return RoomFilter.byStatus(request.param("status"));
+        }
+        if (request.has("amenities")) {
+            EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+            for (String name : request.param("amenities").split(",")) {
+                try {
+                    amenities.add(Amenity.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw ApiException.badRequest("Unknown amenity: " + name);
+                }
+            }
+            return RoomFilter.withAmenities(Amenity.toMask(amenities));
+        }
+        if (request.has("checkin") || request.has("checkout")) {
+            return RoomFilter.availableBetween(request.dateParam("checkin"), request.dateParam("checkout"));
+        }
+        return null;
+    }
+
+    private ReservationFilter reservationFilter(ApiExchange request) {
+        ReservationFilter filter = null;
+        if ("true".equalsIgnoreCase(request.param("history"))) {
+            filter = ReservationFilter.past();
+        } else if (request.has("status")) {
+            EnumSet<ReservationStatus> statuses = EnumSet.noneOf(ReservationStatus.class);
+            for (String name : request.param("status").split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                try {
+                    statuses.add(ReservationStatus.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw ApiException.badRequest("Unknown status: " + name);
+                }
+            }
+            if (statuses.isEmpty()) {
+                throw ApiException.badRequest("status must name at least one status");
+            }
+            ReservationStatus first = statuses.iterator().next();
+            statuses.remove(first);
+            filter = ReservationFilter.withStatus(first, statuses.toArray(new ReservationStatus[0]));
+        }
+        if (request.has("guest")) {
+            filter = (filter != null ? filter : ReservationFilter.all()).withGuestName(request.param("guest"));
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,187 @@
+package api;
+
+import async.BackgroundExecutor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import metrics.Operations;
+import model.Change;
+import sync.ChangePoller;
+import util.DBConnection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Read-only HTTP/JSON API over the hotel data, for dashboards and other
+ * systems. Each request runs on its own virtual thread, so a request that
+ * waits on the database or a slow client does not hold up the others;
+ * connections are kept alive between requests.
+ *
+ * Endpoints (GET only):
+ * /api/rooms[/{id}], /api/guests[/{id}], /api/reservations[/{id}],
+ * /api/availability, /api/statistics, /api/events (server-sent events), /metrics
+ *
+ * Configuration (system properties):
+ * hotel.api.port       port to listen on; the server is only started from the UI when this is set (default 8080)
+ * hotel.api.host       address to bind (default 127.0.0.1)
+ * hotel.api.backlog    pending connections queued by the OS (default 1024)
+ * hotel.api.maxStreams unpaged lists streamed at once, each on its own connection (default 4)
+ */
+public class ApiServer {
+
+    private static ApiServer instance = null;
+
+    private final String host = System.getProperty("hotel.api.host", "127.0.0.1");
+    private final int port = Integer.getInteger("hotel.api.port", 8080);
+    private final int backlog = Integer.getInteger("hotel.api.backlog", 1024);
+
+    private final ApiMetrics metrics = new ApiMetrics();
+    private final ApiRoutes routes = new ApiRoutes(metrics);
+    private final EventFeed events = new EventFeed();
+    private final Consumer<List<Change>> changeListener = events::onChanges;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * One route handler
+     */
+    private interface Route {
+        void handle(ApiExchange request) throws Exception;
+    }
+
+    private ApiServer() {
+    }
+
+    public static synchronized ApiServer getInstance() {
+        if (instance == null) {
+            instance = new ApiServer();
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if a port was configured with -Dhotel.api.port
+     */
+    public static boolean isConfigured() {
+        return System.getProperty("hotel.api.port") != null;
+    }
+
+    /**
+     * Bind the port and start serving requests
+     * @return true if the server is running
+     */
+    public synchronized boolean start() {
+        if (server != null) {
+            return true;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        } catch (IOException e) {
+            System.err.println("Error starting API server on " + host + ":" + port + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+        server.setExecutor(executor);
+
+        context("/api/rooms", "rooms", routes::rooms);
+        context("/api/guests", "guests", routes::guests);
+        context("/api/reservations", "reservations", routes::reservations);
+        context("/api/availability", "availability", routes::availability);
+        context("/api/statistics", "statistics", routes::statistics);
+        context("/api/events", "events", events::serve);
+        context("/metrics", "metrics", routes::metrics);
+        context("/", "unknown", request -> {
+            throw ApiException.notFound("Unknown resource");
+        });
+
+        events.start();
+        ChangePoller.getInstance().addBackgroundListener(changeListener);
+        // Already running when started from the UI
+        ChangePoller.getInstance().start();
+
+        server.start();
+        System.out.println("API server listening on http://" + host + ":" + server.getAddress().getPort());
+        return true;
+    }
+
+    /**
+     * Stop accepting requests; requests in progress get a second to finish
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            ChangePoller.getInstance().removeBackgroundListener(changeListener);
+            events.stop();
+            server.stop(1);
+            executor.shutdown();
+            server = null;
+            executor = null;
+        }
+    }
+
+    private void context(String path, String name, Route route) {
+        server.createContext(path, exchange -> handle(exchange, name, route));
+    }
+
+    private void handle(HttpExchange exchange, String name, Route route) {
+        long start = System.nanoTime();
+        ApiExchange request = new ApiExchange(exchange);
+        metrics.started();
+        try {
+            request.discardRequestBody();
+            request.parseQuery();
+            if (!"GET".equals(request.method())) {
+                request.setHeader("Allow", "GET");
+                throw new ApiException(405, "Only GET is supported");
+            }
+            // DAO calls of the request are labelled with its route in JFR recordings
+            Operations.callInAction("api." + name, () -> {
+                route.handle(request);
+                return null;
+            });
+        } catch (ApiException e) {
+            sendError(request, e.getStatus(), e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            e.printStackTrace();
+            sendError(request, 500, "Internal server error");
+        } finally {
+            metrics.finished(name, request.status(), System.nanoTime() - start);
+            request.close();
+        }
+    }
+
+    private void sendError(ApiExchange request, int status, String message) {
+        try {
+            request.sendError(status, message);
+        } catch (IOException e) {
+            // The client went away
+        }
+    }
+
+    /**
+     * Run the API server without the UI
+     */
+    public static void main(String[] args) {
+        ApiServer apiServer = getInstance();
+        if (!apiServer.start()) {
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop();
+            ChangePoller.getInstance().stop();
+            BackgroundExecutor.shutdown();
+            try {
+                DBConnection.getInstance().shutdown();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connections: " + e.getMessage());
+            }
+        }, "api-shutdown"));
+    }
+}
@@ -0,0 +1,273 @@
+package api;
+
+import controller.ReservationController;
+import controller.RoomController;
+import model.Change;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes room and reservation changes to connected clients as server-sent
+ * events (GET /api/events).
+ *
+ * The feed is driven by the change journal that the RoomDAO and
+ * ReservationDAO write paths fill, so writes from every workstation are
+ * reported. Changes are coalesced per room (and per reservation) for a short
+ * window: ten status flips of one room within the window become one event
+ * carrying the latest state, read once from the database.
+ *
+ * Events:
+ * room        {id, number, status, version, operation}
+ * reservation {id, roomId, roomNumber, guestName, checkin, checkout, status, version, operation}
+ * checkin     a reservation that is now CHECKED_IN (same data as reservation)
+ * checkout    a reservation that is now CHECKED_OUT (same data as reservation)
+ * resync      events were dropped for this client; reload the data
+ *
+ * Every client has a bounded queue. A client that falls so far behind that
+ * its queue fills up loses the queued events and gets a single resync event
+ * instead, so a slow consumer never holds memory or blocks the others.
+ *
+ * Configuration (system properties):
+ * hotel.api.events.coalesceMillis    coalescing window (default 250)
+ * hotel.api.events.clientBuffer      events queued per client (default 256)
+ * hotel.api.events.maxClients        connected clients (default 100)
+ * hotel.api.events.heartbeatSeconds  keep-alive comment when idle (default 15)
+ */
+class EventFeed {
+
+    // Queued to end a client's stream
+    private static final String CLOSE = "";
+    private static final String RESYNC = "event: resync\ndata: {}\n\n";
+
+    private final RoomController roomController = new RoomController();
+    private final ReservationController reservationController = new ReservationController();
+
+    private final long coalesceMillis = Long.getLong("hotel.api.events.coalesceMillis", 250);
+    private final int clientBuffer = Integer.getInteger("hotel.api.events.clientBuffer", 256);
+    private final int maxClients = Integer.getInteger("hotel.api.events.maxClients", 100);
+    private final long heartbeatSeconds = Long.getLong("hotel.api.events.heartbeatSeconds", 15);
+
+    private final Set<BlockingQueue<String>> clients = ConcurrentHashMap.newKeySet();
+
+    // Changes waiting for the end of the coalescing window, by entity and id
+    private final Map<String, Change> pending = new LinkedHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private boolean flushScheduled = false;
+
+    /**
+     * Start the coalescing timer
+     */
+    synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-event-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the timer and end every client's stream
+     */
+    synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        pending.clear();
+        flushScheduled = false;
+        for (BlockingQueue<String> queue : clients) {
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+    }
+
+    /**
+     * Change poller listener: queue the room and reservation changes of one
+     * poll until the coalescing window ends
+     */
+    void onChanges(List<Change> changes) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler == null) {
+                return;
+            }
+            for (Change change : changes) {
+                if (change.getEntity() == Change.Entity.GUEST) {
+                    continue;
+                }
+                String key = change.getEntity() + ":" + change.getEntityId();
+                Change previous = pending.get(key);
+                // An insert followed by updates is still reported as an insert
+                if (previous != null && previous.getOperation() == Change.Operation.INSERT
+                        && change.getOperation() == Change.Operation.UPDATE) {
+                    continue;
+                }
+                pending.put(key, change);
+            }
+            if (!pending.isEmpty() && !flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flushSafely, coalesceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stream events to one client until it disconnects or the feed stops
+     */
+    void serve(ApiExchange request) throws InterruptedException {
+        if (clients.size() >= maxClients) {
+            throw new ApiException(503, "Too many event clients");
+        }
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(clientBuffer);
+        clients.add(queue);
+        try (Writer out = request.startEvents()) {
+            // Comment line so the client sees the stream is open
+            out.write(": connected\n\n");
+            out.flush();
+            while (true) {
+                String event = queue.poll(heartbeatSeconds, TimeUnit.SECONDS);
+                if (event == null) {
+                    out.write(": keep-alive\n\n");
+                } else if (event.isEmpty()) {
+                    break;
+                } else {
+                    out.write(event);
+                    // Write whatever else is already queued before flushing
+                    while ((event = queue.poll()) != null && !event.isEmpty()) {
+                        out.write(event);
+                    }
+                    if (event != null) {
+                        break;
+                    }
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away
+        } finally {
+            clients.remove(queue);
+        }
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Error publishing events: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * End of the coalescing window: read the current state of each changed
+     * row and queue one event per row for every client
+     */
+    private void flush() {
+        List<Change> changes;
+        synchronized (this) {
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+            flushScheduled = false;
+        }
+        for (Change change : changes) {
+            String event = change.getEntity() == Change.Entity.ROOM ? roomEvent(change) : reservationEvent(change);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    private void publish(String event) {
+        for (BlockingQueue<String> queue : clients) {
+            if (!queue.offer(event)) {
+                // Too slow: drop its backlog and tell it to reload
+                queue.clear();
+                queue.offer(RESYNC);
+            }
+        }
+    }
+
+    private String roomEvent(Change change) {
+        Room room = change.getOperation() == Change.Operation.DELETE
+                ? null : roomController.getRoomById(change.getEntityId());
+        try {
+            StringWriter data = new StringWriter();
+            JsonWriter json = new JsonWriter(data);
+            json.beginObject().name("id").value(change.getEntityId());
+            if (room != null) {
+                json.name("number").value(room.getNumber())
+                        .name("status").value(room.getStatus())
+                        .name("version").value(room.getVersion());
+            }
+            json.name("operation").value(room != null ? change.getOperation().name() : Change.Operation.DELETE.name())
+                    .endObject()
+                    .flush();
+            return format("room", data.toString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String reservationEvent(Change change) {
+        Reservation reservation = change.getOperation() == Change.Operation.DELETE
+                ? null : reservationController.getReservationById(change.getEntityId());
+        String name = "reservation";
+        if (reservation != null && change.getOperation() == Change.Operation.UPDATE) {
+            if (reservation.getStatus() == ReservationStatus.CHECKED_IN) {
+                name = "checkin";
+            } else if (reservation.getStatus() == ReservationStatus.CHECKED_OUT) {
+                name = "checkout";
+            }
+        }
+        try {
+            StringWriter data = new StringWriter();
+            JsonWriter json = new JsonWriter(data);
+            json.beginObject().name("id").value(change.getEntityId());
+            if (reservation != null) {
+                json.name("roomId").value(reservation.getRoomId())
+                        .name("roomNumber").value(reservation.getRoomNumber())
+                        .name("guestName").value(reservation.getGuestName())
+                        .name("checkin").value(reservation.getCheckinDate())
+                        .name("checkout").value(reservation.getCheckoutDate())
+                        .name("status").value(reservation.getStatus().name())
+                        .name("version").value(reservation.getVersion());
+            }
+            json.name("operation")
+                    .value(reservation != null ? change.getOperation().name() : Change.Operation.DELETE.name())
+                    .endObject()
+                    .flush();
+            return format(name, data.toString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String format(String event, String data) {
+        return "event: " + event + "\ndata: " + data + "\n\n";
+    }
+}
@@ -0,0 +1,97 @@
+package api;
+
+import model.Amenity;
+import model.DashboardStatistics;
+import model.Guest;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+import model.VipGuest;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * JSON representation of the model objects served by the API.
+ */
+final class ModelJson {
+
+    private ModelJson() {
+    }
+
+    static void room(JsonWriter json, Room room) throws IOException {
+        json.beginObject()
+                .name("id").value(room.getId())
+                .name("number").value(room.getNumber())
+                .name("type").value(room.getType())
+                .name("status").value(room.getStatus())
+                .name("basePrice").value(room.getBasePrice())
+                .name("description").value(room.getDescription())
+                .name("amenities").beginArray();
+        for (Amenity amenity : room.getAmenitySet()) {
+            json.value(amenity.name());
+        }
+        json.endArray()
+                .name("version").value(room.getVersion())
+                .endObject();
+    }
+
+    static void guest(JsonWriter json, Guest guest) throws IOException {
+        json.beginObject()
+                .name("id").value(guest.getId())
+                .name("name").value(guest.getName())
+                .name("contact").value(guest.getContact())
+                .name("type").value(guest.getGuestType());
+        if (guest instanceof VipGuest) {
+            json.name("discountRate").value(((VipGuest) guest).getDiscountRate());
+        }
+        json.name("version").value(guest.getVersion())
+                .endObject();
+    }
+
+    static void reservation(JsonWriter json, Reservation reservation) throws IOException {
+        json.beginObject()
+                .name("id").value(reservation.getId())
+                .name("guestId").value(reservation.getGuestId())
+                .name("guestName").value(reservation.getGuestName())
+                .name("roomId").value(reservation.getRoomId())
+                .name("roomNumber").value(reservation.getRoomNumber())
+                .name("roomType").value(reservation.getRoomType())
+                .name("checkin").value(reservation.getCheckinDate())
+                .name("checkout").value(reservation.getCheckoutDate())
+                .name("status").value(reservation.getStatus().name())
+                .name("createdAt").value(reservation.getCreatedAt())
+                .name("version").value(reservation.getVersion())
+                .endObject();
+    }
+
+    static void statistics(JsonWriter json, DashboardStatistics statistics) throws IOException {
+        json.beginObject()
+                .name("generatedAt").value(statistics.getGeneratedAt())
+                .name("rooms").beginObject()
+                .name("total").value(statistics.getTotalRooms())
+                .name("available").value(statistics.getAvailableRooms())
+                .name("occupied").value(statistics.getOccupiedRooms())
+                .name("byType").beginObject();
+        for (Map.Entry<String, Integer> entry : statistics.getRoomCountsByType().entrySet()) {
+            json.name(entry.getKey()).beginObject()
+                    .name("count").value(entry.getValue().intValue())
+                    .name("averagePrice").value(statistics.getAveragePriceByType(entry.getKey()))
+                    .endObject();
+        }
+        json.endObject()
+                .endObject()
+                .name("guests").beginObject()
+                .name("total").value(statistics.getTotalGuests())
+                .name("vip").value(statistics.getVipGuests())
+                .name("regular").value(statistics.getRegularGuests())
+                .endObject()
+                .name("reservations").beginObject()
+                .name("total").value(statistics.getTotalReservations());
+        for (ReservationStatus status : ReservationStatus.values()) {
+            json.name(status.name()).value(statistics.getReservationCount(status));
+        }
+        json.endObject()
+                .endObject();
+    }
+}
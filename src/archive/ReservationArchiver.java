@@ -0,0 +1,104 @@
+package archive;
+
+import dao.ChangeDAO;
+import dao.ReservationArchiveDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that periodically moves old reservations to the archive.
+ *
+ * Configuration (system properties):
+ * hotel.archive.horizonDays     reservations that checked out more than this many days ago are archived (default 365)
+ * hotel.archive.intervalMinutes time between runs (default 1440)
+ * hotel.archive.batchSize       reservations moved per transaction (default 500)
+ * hotel.changes.retentionHours  change journal entries older than this are purged on each run (default 24)
+ */
+public class ReservationArchiver {
+
+    private static ReservationArchiver instance = null;
+
+    private final ReservationArchiveDAO archiveDAO = new ReservationArchiveDAO();
+    private final int horizonDays = Integer.getInteger("hotel.archive.horizonDays", 365);
+    private final long intervalMinutes = Long.getLong("hotel.archive.intervalMinutes", 24 * 60);
+    private final int batchSize = Integer.getInteger("hotel.archive.batchSize", 500);
+    private final ChangeDAO changeDAO = new ChangeDAO();
+    private final long changeRetentionHours = Long.getLong("hotel.changes.retentionHours", 24);
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> job;
+
+    private ReservationArchiver() {
+    }
+
+    public static synchronized ReservationArchiver getInstance() {
+        if (instance == null) {
+            instance = new ReservationArchiver();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the scheduled job; the first run happens after a short delay so
+     * it does not compete with application start-up
+     */
+    public synchronized void start() {
+        if (job != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-archiver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        job = scheduler.scheduleWithFixedDelay(this::runSafely, 1, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop the scheduled job; a batch in progress is allowed to finish
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+            job = null;
+        }
+    }
+
+    /**
+     * Archive everything older than the horizon now
+     * @return Number of reservations archived
+     */
+    public int runOnce() {
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        long start = System.currentTimeMillis();
+        int archived = archiveDAO.archiveReservationsBefore(cutoff, batchSize);
+        if (archived > 0) {
+            System.out.println("Archived " + archived + " reservation(s) checked out before " + cutoff +
+                    " in " + (System.currentTimeMillis() - start) + " ms.");
+        }
+        return archived;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+            // Every poller is far past entries this old
+            changeDAO.purgeChangesBefore(LocalDateTime.now().minusHours(changeRetentionHours));
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run retries
+            System.err.println("Error running reservation archiver: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
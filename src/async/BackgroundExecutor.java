@@ -0,0 +1,38 @@
+package async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared executor for blocking work (database calls) started from the UI.
+ * Each task gets its own virtual thread, so a slow query never holds up
+ * other requests; concurrency against the database is bounded by the
+ * connection pool.
+ */
+public final class BackgroundExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("background-", 0).factory());
+
+    private BackgroundExecutor() {
+    }
+
+    public static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Run a task on its own virtual thread
+     * @param task Task to run
+     */
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Stop accepting work (on application exit)
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
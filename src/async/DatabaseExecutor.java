@@ -0,0 +1,63 @@
+package async;
+
+import metrics.Operations;
+import util.DBConnection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs database calls asynchronously and returns CompletableFutures, so
+ * independent queries can run in parallel and be combined.
+ *
+ * Every call gets its own virtual thread, but at most as many run at once
+ * as the connection pool has connections; the rest wait for a permit
+ * without holding a connection, so a burst of calls never runs into the
+ * pool timeout.
+ *
+ * A call must not wait for another DatabaseExecutor future: with every
+ * permit held by waiting calls, the call they wait for could never start.
+ */
+public final class DatabaseExecutor {
+
+    private static final Semaphore PERMITS = new Semaphore(DBConnection.getPoolSize(), true);
+
+    private DatabaseExecutor() {
+    }
+
+    /**
+     * Run a database call in the background
+     * @param call Blocking call
+     * @return Future completed with the call's result, or exceptionally with its failure
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> call) {
+        // The call runs on behalf of the caller's action
+        String action = Operations.currentAction();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PERMITS.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return Operations.callInAction(action, call);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                PERMITS.release();
+            }
+        }, BackgroundExecutor.getExecutor());
+    }
+
+    /**
+     * @return Calls currently waiting for a permit
+     */
+    public static int getQueueLength() {
+        return PERMITS.getQueueLength();
+    }
+}
@@ -0,0 +1,55 @@
+package async;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Coalesces bursts of events (keystrokes) into a single action.
+ *
+ * Every trigger restarts the delay; the action runs on the FX thread once
+ * no trigger has arrived for the whole delay. Must be used from the FX thread.
+ */
+public class Debouncer {
+
+    // Default pause after the last keystroke before a search runs
+    public static final Duration DEFAULT_DELAY = Duration.millis(150);
+
+    private final PauseTransition pause;
+    private final Runnable action;
+
+    public Debouncer(Runnable action) {
+        this(DEFAULT_DELAY, action);
+    }
+
+    /**
+     * @param delay Quiet period before the action runs
+     * @param action Action to run on the FX thread
+     */
+    public Debouncer(Duration delay, Runnable action) {
+        this.action = action;
+        this.pause = new PauseTransition(delay);
+        this.pause.setOnFinished(e -> action.run());
+    }
+
+    /**
+     * Schedule the action, restarting the delay if it is already pending
+     */
+    public void trigger() {
+        pause.playFromStart();
+    }
+
+    /**
+     * Run the action now and drop the pending trigger (e.g. on Enter)
+     */
+    public void flush() {
+        pause.stop();
+        action.run();
+    }
+
+    /**
+     * Drop the pending trigger without running the action
+     */
+    public void cancel() {
+        pause.stop();
+    }
+}
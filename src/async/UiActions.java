@@ -0,0 +1,25 @@
+package async;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import metrics.Operations;
+
+/**
+ * Names the action handlers of the screens, so each click is recorded as a
+ * JFR UiActionEvent and the background work it starts carries its name.
+ */
+public final class UiActions {
+
+    private UiActions() {
+    }
+
+    /**
+     * Wrap an event handler as a named UI action
+     * @param action Screen and action, e.g. "RoomManagement.add"
+     * @param handler The handler
+     * @return Handler recording the action
+     */
+    public static <E extends Event> EventHandler<E> named(String action, EventHandler<E> handler) {
+        return event -> Operations.runAction(action, () -> handler.handle(event));
+    }
+}
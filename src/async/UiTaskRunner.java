@@ -0,0 +1,166 @@
+package async;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.scene.control.Alert;
+import metrics.Operations;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Runs blocking work for a screen off the JavaFX application thread.
+ *
+ * Work is wrapped in a JavaFX Task and executed on a virtual thread; the
+ * success and failure callbacks run back on the FX thread. Requests that
+ * share a key supersede each other: starting a new one cancels the one
+ * still running, so a stale result (an earlier filter, a slower refresh)
+ * can never overwrite a newer one. Cancelling does not interrupt the
+ * thread, since interrupting a virtual thread blocked in socket I/O closes
+ * the pooled connection it is using; the superseded query runs to its end
+ * and its result is dropped. Writes should use a null key so they
+ * are never cancelled half-way. The work and its callbacks run on behalf of
+ * the UI action that started them (see metrics.Operations).
+ *
+ * All methods must be called on the FX thread.
+ */
+public class UiTaskRunner {
+
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private int activeCount = 0;
+
+    /**
+     * Callback receiving a task's result on the FX thread
+     */
+    @FunctionalInterface
+    public interface ResultHandler<T> {
+        void handle(T result);
+    }
+
+    /**
+     * Run work in the background; failures are reported in an error dialog
+     * @param key Supersede key (null for work that must not be cancelled)
+     * @param work Blocking work, executed off the FX thread
+     * @param onSuccess Receives the result on the FX thread
+     * @return The started task
+     */
+    public <T> Task<T> run(String key, Callable<T> work, ResultHandler<T> onSuccess) {
+        return run(key, work, onSuccess, this::showError);
+    }
+
+    /**
+     * Run work in the background
+     * @param key Supersede key (null for work that must not be cancelled)
+     * @param work Blocking work, executed off the FX thread
+     * @param onSuccess Receives the result on the FX thread
+     * @param onFailure Receives the failure on the FX thread
+     * @return The started task
+     */
+    public <T> Task<T> run(String key, Callable<T> work, ResultHandler<T> onSuccess, Consumer<Throwable> onFailure) {
+        checkFxThread();
+        if (key != null) {
+            cancel(key);
+        }
+
+        String action = Operations.currentAction();
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return Operations.callInAction(action, work);
+            }
+        };
+        // A task that finished just as it was superseded may still report
+        // success; only the current request for a key delivers its result
+        task.setOnSucceeded(e -> {
+            boolean current = finish(key, task);
+            if (current) {
+                Operations.runInAction(action, () -> onSuccess.handle(task.getValue()));
+            }
+        });
+        task.setOnFailed(e -> {
+            boolean current = finish(key, task);
+            if (!current) {
+                return;
+            }
+            Throwable error = task.getException();
+            System.err.println("Background task failed: " + error.getMessage());
+            error.printStackTrace();
+            Operations.runInAction(action, () -> onFailure.accept(error));
+        });
+        task.setOnCancelled(e -> finish(key, task));
+
+        if (key != null) {
+            running.put(key, task);
+        }
+        activeCount++;
+        busy.set(true);
+        BackgroundExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancel the running request with the given key, if any
+     * @param key Supersede key
+     */
+    public void cancel(String key) {
+        Task<?> previous = running.remove(key);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /**
+     * Cancel every keyed request (e.g. when the screen is closed)
+     */
+    public void cancelAll() {
+        for (Task<?> task : running.values().toArray(new Task<?>[0])) {
+            task.cancel(false);
+        }
+        running.clear();
+    }
+
+    /**
+     * True while at least one request is running; bind loading indicators to it
+     * @return Busy property
+     */
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    public boolean isBusy() {
+        return busy.get();
+    }
+
+    /**
+     * Bookkeeping when a task ends
+     * @return true if the task was still the current request for its key
+     */
+    private boolean finish(String key, Task<?> task) {
+        boolean current = key == null || running.get(key) == task;
+        if (key != null && current) {
+            running.remove(key);
+        }
+        activeCount--;
+        busy.set(activeCount > 0);
+        return current;
+    }
+
+    private void showError(Throwable error) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText("The operation failed: " + error.getMessage());
+        alert.showAndWait();
+    }
+
+    private static void checkFxThread() {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("UiTaskRunner must be used from the JavaFX application thread");
+        }
+    }
+}
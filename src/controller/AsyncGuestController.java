@@ -0,0 +1,103 @@
+package controller;
+
+import async.DatabaseExecutor;
+import dao.UpdateResult;
+import model.Guest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of GuestController. Every call runs on the
+ * DatabaseExecutor and returns at once; independent calls run in parallel.
+ */
+public class AsyncGuestController {
+    private final GuestController guestController;
+
+    public AsyncGuestController() {
+        this(new GuestController());
+    }
+
+    public AsyncGuestController(GuestController guestController) {
+        this.guestController = guestController;
+    }
+
+    /**
+     * Create a new guest
+     * @param guest Guest object to create
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> createGuest(Guest guest) {
+        return DatabaseExecutor.supply(() -> guestController.createGuest(guest));
+    }
+
+    /**
+     * Get all guests
+     * @return Future with the list of all guests
+     */
+    public CompletableFuture<List<Guest>> getAllGuests() {
+        return DatabaseExecutor.supply(guestController::getAllGuests);
+    }
+
+    /**
+     * Get guest by ID
+     * @param id Guest ID
+     * @return Future with the guest, or null if not found
+     */
+    public CompletableFuture<Guest> getGuestById(int id) {
+        return DatabaseExecutor.supply(() -> guestController.getGuestById(id));
+    }
+
+    /**
+     * Search guests by name
+     * @param name Name (or part of it)
+     * @return Future with the matching guests
+     */
+    public CompletableFuture<List<Guest>> searchGuestsByName(String name) {
+        return DatabaseExecutor.supply(() -> guestController.searchGuestsByName(name));
+    }
+
+    /**
+     * Count guests whose name contains the search term
+     * @param name Search term ("" for all)
+     * @return Future with the number of matching guests
+     */
+    public CompletableFuture<Integer> countGuests(String name) {
+        return DatabaseExecutor.supply(() -> guestController.countGuests(name));
+    }
+
+    /**
+     * Get one page of guests whose name contains the search term
+     * @return Future with the guests of the page
+     */
+    public CompletableFuture<List<Guest>> getGuestsPage(String name, String sortKey, boolean ascending,
+                                                        int offset, int limit) {
+        return DatabaseExecutor.supply(() -> guestController.getGuestsPage(name, sortKey, ascending, offset, limit));
+    }
+
+    /**
+     * Update guest information
+     * @param guest Guest with updated information and the version it was read with
+     * @return Future with UPDATED, CONFLICT, NOT_FOUND or ERROR
+     */
+    public CompletableFuture<UpdateResult> updateGuest(Guest guest) {
+        return DatabaseExecutor.supply(() -> guestController.updateGuest(guest));
+    }
+
+    /**
+     * Delete guest
+     * @param id Guest ID to delete
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> deleteGuest(int id) {
+        return DatabaseExecutor.supply(() -> guestController.deleteGuest(id));
+    }
+
+    /**
+     * Get all VIP guests
+     * @return Future with the VIP guests
+     */
+    public CompletableFuture<List<Guest>> getVipGuests() {
+        return DatabaseExecutor.supply(guestController::getVipGuests);
+    }
+}
@@ -0,0 +1,140 @@
+package controller;
+
+import async.DatabaseExecutor;
+import dao.UpdateResult;
+import model.Reservation;
+import model.ReservationFilter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of ReservationController. Every call runs on the
+ * DatabaseExecutor and returns at once; independent calls run in parallel.
+ */
+public class AsyncReservationController {
+    private final ReservationController reservationController;
+
+    public AsyncReservationController() {
+        this(new ReservationController());
+    }
+
+    public AsyncReservationController(ReservationController reservationController) {
+        this.reservationController = reservationController;
+    }
+
+    /**
+     * Create a new reservation
+     * @param reservation Reservation object to create
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> createReservation(Reservation reservation) {
+        return DatabaseExecutor.supply(() -> reservationController.createReservation(reservation));
+    }
+
+    /**
+     * Get all reservations
+     * @return Future with the list of all reservations
+     */
+    public CompletableFuture<List<Reservation>> getAllReservations() {
+        return DatabaseExecutor.supply(reservationController::getAllReservations);
+    }
+
+    /**
+     * Get reservation by ID
+     * @param id Reservation ID
+     * @return Future with the reservation, or null if not found
+     */
+    public CompletableFuture<Reservation> getReservationById(int id) {
+        return DatabaseExecutor.supply(() -> reservationController.getReservationById(id));
+    }
+
+    /**
+     * Get reservations of a guest
+     * @param guestId Guest ID
+     * @return Future with the guest's reservations
+     */
+    public CompletableFuture<List<Reservation>> getReservationsByGuest(int guestId) {
+        return DatabaseExecutor.supply(() -> reservationController.getReservationsByGuest(guestId));
+    }
+
+    /**
+     * Get active (checked-in) reservations
+     * @return Future with the active reservations
+     */
+    public CompletableFuture<List<Reservation>> getActiveReservations() {
+        return DatabaseExecutor.supply(reservationController::getActiveReservations);
+    }
+
+    /**
+     * Get upcoming reservations
+     * @return Future with the upcoming reservations
+     */
+    public CompletableFuture<List<Reservation>> getUpcomingReservations() {
+        return DatabaseExecutor.supply(reservationController::getUpcomingReservations);
+    }
+
+    /**
+     * Count reservations matching a filter
+     * @param filter Reservation filter
+     * @return Future with the number of matching reservations
+     */
+    public CompletableFuture<Integer> countReservations(ReservationFilter filter) {
+        return DatabaseExecutor.supply(() -> reservationController.countReservations(filter));
+    }
+
+    /**
+     * Get one page of reservations matching a filter
+     * @return Future with the reservations of the page
+     */
+    public CompletableFuture<List<Reservation>> getReservationsPage(ReservationFilter filter, String sortKey,
+                                                                    boolean ascending, int offset, int limit) {
+        return DatabaseExecutor.supply(() ->
+                reservationController.getReservationsPage(filter, sortKey, ascending, offset, limit));
+    }
+
+    /**
+     * Update reservation
+     * @param reservation Reservation with updated information and the version it was read with
+     * @return Future with UPDATED, CONFLICT, NOT_FOUND or ERROR
+     */
+    public CompletableFuture<UpdateResult> updateReservation(Reservation reservation) {
+        return DatabaseExecutor.supply(() -> reservationController.updateReservation(reservation));
+    }
+
+    /**
+     * Delete reservation
+     * @param reservationId Reservation ID to delete
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> deleteReservation(int reservationId) {
+        return DatabaseExecutor.supply(() -> reservationController.deleteReservation(reservationId));
+    }
+
+    /**
+     * Check if a room is free for a stay
+     * @return Future with true if no reservation overlaps the stay
+     */
+    public CompletableFuture<Boolean> isRoomAvailable(int roomId, LocalDate checkinDate, LocalDate checkoutDate) {
+        return DatabaseExecutor.supply(() -> reservationController.isRoomAvailable(roomId, checkinDate, checkoutDate));
+    }
+
+    /**
+     * Check in the guest of a reservation
+     * @param reservationId Reservation ID
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> checkInGuest(int reservationId) {
+        return DatabaseExecutor.supply(() -> reservationController.checkInGuest(reservationId));
+    }
+
+    /**
+     * Check out the guest of a reservation
+     * @param reservationId Reservation ID
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> checkOutGuest(int reservationId) {
+        return DatabaseExecutor.supply(() -> reservationController.checkOutGuest(reservationId));
+    }
+}
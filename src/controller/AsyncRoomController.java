@@ -0,0 +1,124 @@
+package controller;
+
+import async.DatabaseExecutor;
+import dao.UpdateResult;
+import model.Room;
+import model.RoomFilter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of RoomController. Every call runs on the
+ * DatabaseExecutor and returns at once; independent calls run in parallel.
+ */
+public class AsyncRoomController {
+    private final RoomController roomController;
+
+    public AsyncRoomController() {
+        this(new RoomController());
+    }
+
+    public AsyncRoomController(RoomController roomController) {
+        this.roomController = roomController;
+    }
+
+    /**
+     * Create a new room
+     * @param room Room object to create
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> createRoom(Room room) {
+        return DatabaseExecutor.supply(() -> roomController.createRoom(room));
+    }
+
+    /**
+     * Get all rooms
+     * @return Future with the list of all rooms
+     */
+    public CompletableFuture<List<Room>> getAllRooms() {
+        return DatabaseExecutor.supply(roomController::getAllRooms);
+    }
+
+    /**
+     * Get room by ID
+     * @param id Room ID
+     * @return Future with the room, or null if not found
+     */
+    public CompletableFuture<Room> getRoomById(int id) {
+        return DatabaseExecutor.supply(() -> roomController.getRoomById(id));
+    }
+
+    /**
+     * Get all available rooms
+     * @return Future with the available rooms
+     */
+    public CompletableFuture<List<Room>> getAvailableRooms() {
+        return DatabaseExecutor.supply(roomController::getAvailableRooms);
+    }
+
+    /**
+     * Get rooms with no reservation overlapping a stay
+     * @param checkinDate Check-in date
+     * @param checkoutDate Check-out date
+     * @return Future with the available rooms
+     */
+    public CompletableFuture<List<Room>> getAvailableRoomsForDateRange(LocalDate checkinDate, LocalDate checkoutDate) {
+        return DatabaseExecutor.supply(() -> roomController.getAvailableRoomsForDateRange(checkinDate, checkoutDate));
+    }
+
+    /**
+     * Count rooms matching a filter
+     * @param filter Room filter
+     * @return Future with the number of matching rooms
+     */
+    public CompletableFuture<Integer> countRooms(RoomFilter filter) {
+        return DatabaseExecutor.supply(() -> roomController.countRooms(filter));
+    }
+
+    /**
+     * Get one page of rooms matching a filter
+     * @return Future with the rooms of the page
+     */
+    public CompletableFuture<List<Room>> getRoomsPage(RoomFilter filter, String sortKey, boolean ascending,
+                                                      int offset, int limit) {
+        return DatabaseExecutor.supply(() -> roomController.getRoomsPage(filter, sortKey, ascending, offset, limit));
+    }
+
+    /**
+     * Update room information
+     * @param room Room with updated information and the version it was read with
+     * @return Future with UPDATED, CONFLICT, NOT_FOUND or ERROR
+     */
+    public CompletableFuture<UpdateResult> updateRoom(Room room) {
+        return DatabaseExecutor.supply(() -> roomController.updateRoom(room));
+    }
+
+    /**
+     * Update room status
+     * @param roomId Room ID
+     * @param status New status
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> updateRoomStatus(int roomId, String status) {
+        return DatabaseExecutor.supply(() -> roomController.updateRoomStatus(roomId, status));
+    }
+
+    /**
+     * Delete room
+     * @param id Room ID to delete
+     * @return Future with true if successful
+     */
+    public CompletableFuture<Boolean> deleteRoom(int id) {
+        return DatabaseExecutor.supply(() -> roomController.deleteRoom(id));
+    }
+
+    /**
+     * Get all distinct room types
+     * @return Future with the room types
+     */
+    public CompletableFuture<List<String>> getAllRoomTypes() {
+        return DatabaseExecutor.supply(roomController::getAllRoomTypes);
+    }
+}
@@ -1,8 +1,13 @@
 package controller;
 
+import dao.BatchResult;
 import dao.GuestDAO;
+import dao.UpdateResult;
+import metrics.Operations;
 import model.Guest;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public class GuestController {
     private GuestDAO guestDAO;
@@ -17,7 +22,16 @@ public class GuestController {
      * @return true if successful, false otherwise
      */
     public boolean createGuest(Guest guest) {
-        return guestDAO.createGuest(guest);
+        return Operations.record("GuestController.createGuest", 0, () -> guestDAO.createGuest(guest));
+    }
+
+    /**
+     * Create many guests in batched transactions
+     * @param guests Guests to create
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createGuests(List<Guest> guests) {
+        return Operations.record("GuestController.createGuests", 0, () -> guestDAO.createGuests(guests));
     }
 
     /**
@@ -46,6 +60,28 @@ public class GuestController {
         return guestDAO.searchGuestsByName(name);
     }
 
+    /**
+     * Count guests whose name contains the given text
+     * @param name Name fragment (null or blank counts every guest)
+     * @return Number of matching guests
+     */
+    public int countGuests(String name) {
+        return guestDAO.countGuests(name);
+    }
+
+    /**
+     * Get one page of guests whose name contains the given text
+     * @param name Name fragment (null or blank matches every guest)
+     * @param sortKey Column sort key
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Guests of the page
+     */
+    public List<Guest> getGuestsPage(String name, String sortKey, boolean ascending, int offset, int limit) {
+        return guestDAO.getGuestsPage(name, sortKey, ascending, offset, limit);
+    }
+
     /**
      * Search guest by contact
      * @param contact Contact to search for
@@ -57,11 +93,11 @@ public class GuestController {
 
     /**
      * Update guest information
-     * @param guest Guest object with updated information
-     * @return true if successful, false otherwise
+     * @param guest Guest object with updated information and the version it was read at
+     * @return UPDATED, CONFLICT if the guest was changed by someone else, NOT_FOUND or ERROR
      */
-    public boolean updateGuest(Guest guest) {
-        return guestDAO.updateGuest(guest);
+    public UpdateResult updateGuest(Guest guest) {
+        return Operations.record("GuestController.updateGuest", guest.getId(), () -> guestDAO.updateGuest(guest));
     }
 
     /**
@@ -70,7 +106,7 @@ public class GuestController {
      * @return true if successful, false otherwise
      */
     public boolean deleteGuest(int id) {
-        return guestDAO.deleteGuest(id);
+        return Operations.record("GuestController.deleteGuest", id, () -> guestDAO.deleteGuest(id));
     }
 
     /**
@@ -211,7 +247,7 @@ public class GuestController {
             return false;
         }
 
-        return updateGuest(guest);
+        return updateGuest(guest) == UpdateResult.UPDATED;
     }
 
     /**
@@ -236,4 +272,13 @@ public class GuestController {
 
         return stats.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Find which of the given contacts are already registered
+     * @param contacts Contacts to look up
+     * @return Registered contacts among them
+     */
+    public Set<String> findRegisteredContacts(Collection<String> contacts) {
+        return guestDAO.findRegisteredContacts(contacts);
+    }
+}
@@ -1,137 +1,254 @@
 package controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import async.UiTaskRunner;
+import dao.UpdateResult;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.scene.control.Alert;
+import model.DashboardStatistics;
 import model.Guest;
 import model.GuestType;
 import model.GuestFactory;
 import model.VipGuest;
-import model.RegularGuest;
+import paging.PagedDataSource;
+import paging.PagedList;
+import paging.SortOrder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
 
 public class GuestManagementController {
     private GuestController guestController = new GuestController();
-    private ObservableList<Guest> guestList = FXCollections.observableArrayList();
+    private StatisticsController statisticsController = new StatisticsController();
+    private final UiTaskRunner tasks = new UiTaskRunner();
+    // Lazily paged table rows; only the pages around the visible rows are kept
+    private final PagedList<Guest> guestList = new PagedList<>("guests", tasks);
+    private String currentSearchTerm;
+
+    private enum WriteOutcome { SUCCESS, DUPLICATE_CONTACT, CONFLICT, NOT_FOUND, FAILED }
+
+    public GuestManagementController() {
+        // Refreshes patch changed rows in place instead of rebuilding the table;
+        // the version makes sure edits start from the latest copy of a row
+        guestList.setRowIdentity(Guest::getId, guest -> Arrays.asList(guest.getName(), guest.getContact(),
+                guest.getGuestType(), guest.getVersion()));
+    }
 
-    public ObservableList<Guest> getGuestList() {
+    public PagedList<Guest> getGuestList() {
         return guestList;
     }
 
-    public boolean addGuest(String name, String contact, GuestType selectedType) {
+    /**
+     * Busy while a guest request is running; bind the loading indicator to it
+     * @return Busy property
+     */
+    public ReadOnlyBooleanProperty busyProperty() {
+        return tasks.busyProperty();
+    }
+
+    /**
+     * Cancel pending list loads (when the screen is closed)
+     */
+    public void cancelPendingRequests() {
+        tasks.cancelAll();
+    }
+
+    public void addGuest(String name, String contact, GuestType selectedType, Runnable onSuccess) {
         if (!validateInput(name, contact)) {
-            return false;
+            return;
         }
 
         if (selectedType == null) {
             showAlert("Validation Error", "Please select a guest type!", Alert.AlertType.WARNING);
-            return false;
-        }
-
-        // Check if contact is already registered
-        if (guestController.isContactRegistered(contact)) {
-            showAlert("Validation Error", "Contact number is already registered!", Alert.AlertType.WARNING);
-            return false;
+            return;
         }
 
         // Create appropriate guest type
         Guest guest = GuestFactory.createGuest(selectedType, name, contact, 0.25);
 
-        if (guestController.createGuest(guest)) {
-            showAlert("Success", "Guest added successfully!", Alert.AlertType.INFORMATION);
-            refreshGuestList();
-            return true;
-        } else {
-            showAlert("Error", "Failed to add guest. Please try again.", Alert.AlertType.ERROR);
-            return false;
-        }
+        tasks.run(null, () -> {
+            // Check if contact is already registered
+            if (guestController.isContactRegistered(contact)) {
+                return WriteOutcome.DUPLICATE_CONTACT;
+            }
+            return guestController.createGuest(guest) ? WriteOutcome.SUCCESS : WriteOutcome.FAILED;
+        }, outcome -> {
+            switch (outcome) {
+                case SUCCESS:
+                    showAlert("Success", "Guest added successfully!", Alert.AlertType.INFORMATION);
+                    guestList.refresh();
+                    onSuccess.run();
+                    break;
+                case DUPLICATE_CONTACT:
+                    showAlert("Validation Error", "Contact number is already registered!", Alert.AlertType.WARNING);
+                    break;
+                default:
+                    showAlert("Error", "Failed to add guest. Please try again.", Alert.AlertType.ERROR);
+                    break;
+            }
+        });
     }
 
-    public boolean updateGuest(Guest selected, String name, String contact, GuestType selectedType) {
+    public void updateGuest(Guest selected, String name, String contact, GuestType selectedType, Runnable onSuccess) {
         if (selected == null) {
             showAlert("Selection Error", "Please select a guest to update!", Alert.AlertType.WARNING);
-            return false;
+            return;
         }
 
         if (!validateInput(name, contact)) {
-            return false;
+            return;
         }
 
         if (selectedType == null) {
             showAlert("Validation Error", "Please select a guest type!", Alert.AlertType.WARNING);
-            return false;
+            return;
         }
 
-        // Check if contact is already registered by another guest
-        if (guestController.isContactRegistered(contact, selected.getId())) {
-            showAlert("Validation Error", "Contact number is already registered by another guest!", Alert.AlertType.WARNING);
-            return false;
-        }
+        // The selected row keeps the values the edit started from
+        Guest edited = copyGuest(selectedType, name, contact, selected);
+        edited.setVersion(selected.getVersion());
 
-        // Check if guest type has changed
-        boolean typeChanged = false;
-        if ((selected instanceof VipGuest && selectedType == GuestType.REGULAR) ||
-                (selected instanceof RegularGuest && selectedType == GuestType.VIP)) {
-            typeChanged = true;
-        }
+        tasks.run(null, () -> {
+            // Check if contact is already registered by another guest
+            if (guestController.isContactRegistered(contact, selected.getId())) {
+                return WriteOutcome.DUPLICATE_CONTACT;
+            }
+            switch (saveGuest(selected, edited)) {
+                case UPDATED:
+                    return WriteOutcome.SUCCESS;
+                case CONFLICT:
+                    return WriteOutcome.CONFLICT;
+                case NOT_FOUND:
+                    return WriteOutcome.NOT_FOUND;
+                default:
+                    return WriteOutcome.FAILED;
+            }
+        }, outcome -> {
+            switch (outcome) {
+                case SUCCESS:
+                    showAlert("Success", "Guest updated successfully!", Alert.AlertType.INFORMATION);
+                    guestList.refresh();
+                    onSuccess.run();
+                    break;
+                case DUPLICATE_CONTACT:
+                    showAlert("Validation Error", "Contact number is already registered by another guest!", Alert.AlertType.WARNING);
+                    break;
+                case CONFLICT:
+                    showAlert("Update Conflict", "Another user changed the same details of this guest. " +
+                            "The list has been reloaded; please apply your changes again.", Alert.AlertType.WARNING);
+                    guestList.refresh();
+                    break;
+                case NOT_FOUND:
+                    showAlert("Update Failed", "This guest was deleted by another user.", Alert.AlertType.WARNING);
+                    guestList.refresh();
+                    break;
+                default:
+                    showAlert("Error", "Failed to update guest. Please try again.", Alert.AlertType.ERROR);
+                    break;
+            }
+        });
+    }
 
-        if (typeChanged) {
-            // If type changed, we need to create a new guest object and update it
-            Guest newGuest = GuestFactory.createGuest(selectedType, name, contact, 0.25);
-            newGuest.setId(selected.getId());
+    /**
+     * Write the edited guest. If another clerk changed the guest in the meantime,
+     * their changes are merged with these edits and the update is retried;
+     * CONFLICT is only returned when both changed the same field.
+     * Runs on a background thread.
+     */
+    private UpdateResult saveGuest(Guest original, Guest edited) {
+        for (int attempt = 1; ; attempt++) {
+            UpdateResult result = guestController.updateGuest(edited);
+            if (result != UpdateResult.CONFLICT || attempt == ThreeWayMerge.MAX_ATTEMPTS) {
+                return result;
+            }
 
-            if (guestController.updateGuest(newGuest)) {
-                showAlert("Success", "Guest updated successfully!", Alert.AlertType.INFORMATION);
-                refreshGuestList();
-                return true;
-            } else {
-                showAlert("Error", "Failed to update guest. Please try again.", Alert.AlertType.ERROR);
-                return false;
+            Guest current = guestController.getGuestById(edited.getId());
+            if (current == null) {
+                return UpdateResult.NOT_FOUND;
             }
-        } else {
-            // Just update name and contact
-            selected.setName(name);
-            selected.setContact(contact);
-
-            if (guestController.updateGuest(selected)) {
-                showAlert("Success", "Guest updated successfully!", Alert.AlertType.INFORMATION);
-                refreshGuestList();
-                return true;
-            } else {
-                showAlert("Error", "Failed to update guest. Please try again.", Alert.AlertType.ERROR);
-                return false;
+            ThreeWayMerge merge = new ThreeWayMerge();
+            String name = merge.field(original.getName(), edited.getName(), current.getName());
+            String contact = merge.field(original.getContact(), edited.getContact(), current.getContact());
+            String type = merge.field(original.getGuestType(), edited.getGuestType(), current.getGuestType());
+            if (merge.hasConflict()) {
+                return UpdateResult.CONFLICT;
+            }
+            if (!contact.equals(edited.getContact()) && guestController.isContactRegistered(contact, edited.getId())) {
+                return UpdateResult.CONFLICT;
             }
+
+            Guest merged = copyGuest(GuestType.valueOf(type), name, contact,
+                    type.equals(current.getGuestType()) ? current : edited);
+            merged.setVersion(current.getVersion());
+            original = current;
+            edited = merged;
         }
     }
 
-    public boolean deleteGuest(Guest selected) {
+    /**
+     * Build a guest with new details, keeping the id and VIP discount of the source
+     */
+    private Guest copyGuest(GuestType type, String name, String contact, Guest source) {
+        double discountRate = source instanceof VipGuest ? ((VipGuest) source).getDiscountRate() : 0.25;
+        Guest guest = GuestFactory.createGuest(type, name, contact, discountRate);
+        guest.setId(source.getId());
+        return guest;
+    }
+
+    public void deleteGuest(Guest selected, Runnable onSuccess) {
         if (selected == null) {
             showAlert("Selection Error", "Please select a guest to delete!", Alert.AlertType.WARNING);
-            return false;
+            return;
         }
 
-        if (guestController.deleteGuest(selected.getId())) {
-            showAlert("Success", "Guest deleted successfully!", Alert.AlertType.INFORMATION);
-            refreshGuestList();
-            return true;
-        } else {
-            showAlert("Error", "Failed to delete guest. Guest may have active reservations.", Alert.AlertType.ERROR);
-            return false;
-        }
+        tasks.run(null, () -> guestController.deleteGuest(selected.getId()), deleted -> {
+            if (deleted) {
+                showAlert("Success", "Guest deleted successfully!", Alert.AlertType.INFORMATION);
+                guestList.refresh();
+                onSuccess.run();
+            } else {
+                showAlert("Error", "Failed to delete guest. Guest may have active reservations.", Alert.AlertType.ERROR);
+            }
+        });
     }
 
-    public void searchGuests(String searchTerm) {
-        if (searchTerm.isEmpty()) {
-            refreshGuestList();
-            return;
-        }
+    /**
+     * Search guests by name. The table is re-counted and pages are fetched as it
+     * scrolls; a newer search supersedes one still running.
+     * @param searchTerm Name fragment (empty lists every guest)
+     * @param onLoaded Called on the FX thread once the list has the new row count
+     */
+    public void searchGuests(String searchTerm, Runnable onLoaded) {
+        loadGuests(searchTerm, onLoaded);
+    }
 
-        guestList.clear();
-        guestList.addAll(guestController.searchGuestsByName(searchTerm));
+    /**
+     * Drop an in-flight search or load (a new keystroke is about to replace it)
+     */
+    public void cancelSearch() {
+        guestList.cancel();
     }
 
     public void refreshGuestList() {
-        guestList.clear();
-        guestList.addAll(guestController.getAllGuests());
+        refreshGuestList(() -> { });
+    }
+
+    public void refreshGuestList(Runnable onLoaded) {
+        if ("".equals(currentSearchTerm)) {
+            // Same query: patch the rows that changed
+            guestList.setOnReloaded(onLoaded);
+            guestList.refresh();
+        } else {
+            loadGuests("", onLoaded);
+        }
+    }
+
+    /**
+     * Load the statistics snapshot in the background
+     * @param onLoaded Receives the snapshot on the FX thread
+     */
+    public void loadStatistics(Consumer<DashboardStatistics> onLoaded) {
+        tasks.run("statistics", statisticsController::getDashboardStatistics, onLoaded::accept);
     }
 
     public int getTotalGuestsCount() {
@@ -142,6 +259,31 @@ public class GuestManagementController {
         return guestController.getVipGuestsCount();
     }
 
+    public DashboardStatistics getStatistics() {
+        return statisticsController.getDashboardStatistics();
+    }
+
+    /**
+     * Point the table at a new query; filtering and sorting run in the database
+     */
+    private void loadGuests(String searchTerm, Runnable onLoaded) {
+        currentSearchTerm = searchTerm;
+        guestList.setOnReloaded(onLoaded);
+        guestList.setSource(new PagedDataSource<Guest>() {
+            @Override
+            public int count() {
+                return guestController.countGuests(searchTerm);
+            }
+
+            @Override
+            public List<Guest> fetch(int offset, int limit, SortOrder sort) {
+                String sortKey = sort != null ? sort.getKey() : "name";
+                boolean ascending = sort == null || sort.isAscending();
+                return guestController.getGuestsPage(searchTerm, sortKey, ascending, offset, limit);
+            }
+        });
+    }
+
     public String getGuestTypeFromGuest(Guest guest) {
         if (guest instanceof VipGuest) {
             return "VIP";
@@ -1,9 +1,16 @@
 package controller;
 
+import dao.BatchResult;
 import dao.ReservationDAO;
+import dao.RowHandler;
+import dao.UpdateResult;
+import metrics.Operations;
 import model.Reservation;
+import model.ReservationFilter;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public class ReservationController {
     private ReservationDAO reservationDAO;
@@ -18,7 +25,29 @@ public class ReservationController {
      * @return true if successful, false otherwise
      */
     public boolean createReservation(Reservation reservation) {
-        return reservationDAO.createReservation(reservation);
+        return Operations.record("ReservationController.createReservation", 0,
+                () -> reservationDAO.createReservation(reservation));
+    }
+
+    /**
+     * Create many reservations in batched transactions
+     * @param reservations Reservations to create
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createReservations(List<Reservation> reservations) {
+        return Operations.record("ReservationController.createReservations", 0,
+                () -> reservationDAO.createReservations(reservations));
+    }
+
+    /**
+     * Create many reservations in batched transactions
+     * @param reservations Reservations to create
+     * @param markRoomsOccupied true to mark the booked rooms as occupied
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createReservations(List<Reservation> reservations, boolean markRoomsOccupied) {
+        return Operations.record("ReservationController.createReservations", 0,
+                () -> reservationDAO.createReservations(reservations, markRoomsOccupied));
     }
 
     /**
@@ -82,13 +111,101 @@ public class ReservationController {
         return reservationDAO.getReservationsByDateRange(startDate, endDate);
     }
 
+    /**
+     * Get every reservation, including archived ones
+     * @return List of all reservations ever made
+     */
+    public List<Reservation> getReservationHistory() {
+        return reservationDAO.getReservationHistory();
+    }
+
+    /**
+     * Get every reservation of a guest, including archived ones
+     * @param guestId Guest ID
+     * @return List of reservations for the guest
+     */
+    public List<Reservation> getReservationHistoryByGuest(int guestId) {
+        return reservationDAO.getReservationHistoryByGuest(guestId);
+    }
+
+    /**
+     * Get every reservation of a room, including archived ones
+     * @param roomId Room ID
+     * @return List of reservations for the room
+     */
+    public List<Reservation> getReservationHistoryByRoom(int roomId) {
+        return reservationDAO.getReservationHistoryByRoom(roomId);
+    }
+
+    /**
+     * Get all past reservations, including archived ones
+     * @return List of past reservations
+     */
+    public List<Reservation> getPastReservations() {
+        return reservationDAO.getPastReservations();
+    }
+
+    /**
+     * Count reservations matching a filter
+     * @param filter Reservation filter
+     * @return Number of matching reservations
+     */
+    public int countReservations(ReservationFilter filter) {
+        return reservationDAO.countReservations(filter);
+    }
+
+    /**
+     * Get one page of reservations matching a filter
+     * @param filter Reservation filter
+     * @param sortKey Column sort key
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Reservations of the page
+     */
+    public List<Reservation> getReservationsPage(ReservationFilter filter, String sortKey, boolean ascending,
+                                                 int offset, int limit) {
+        return reservationDAO.getReservationsPage(filter, sortKey, ascending, offset, limit);
+    }
+
+    /**
+     * Stream all reservations ordered by check-in date without loading them into a list
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamAllReservations(RowHandler<Reservation> handler) throws Exception {
+        return reservationDAO.streamAllReservations(handler);
+    }
+
+    /**
+     * Stream every reservation, including archived ones, ordered by check-in date
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamReservationHistory(RowHandler<Reservation> handler) throws Exception {
+        return reservationDAO.streamReservationHistory(handler);
+    }
+
+    /**
+     * Stream the reservations of guests currently in house
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamActiveReservations(RowHandler<Reservation> handler) throws Exception {
+        return reservationDAO.streamActiveReservations(handler);
+    }
+
     /**
      * Update reservation information
-     * @param reservation Reservation object with updated information
-     * @return true if successful, false otherwise
+     * @param reservation Reservation object with updated information and the version it was read at
+     * @return UPDATED, CONFLICT if the reservation was changed by someone else, NOT_FOUND or ERROR
      */
-    public boolean updateReservation(Reservation reservation) {
-        return reservationDAO.updateReservation(reservation);
+    public UpdateResult updateReservation(Reservation reservation) {
+        return Operations.record("ReservationController.updateReservation", reservation.getId(),
+                () -> reservationDAO.updateReservation(reservation));
     }
 
     /**
@@ -97,7 +214,8 @@ public class ReservationController {
      * @return true if successful, false otherwise
      */
     public boolean deleteReservation(int reservationId) {
-        return reservationDAO.deleteReservation(reservationId);
+        return Operations.record("ReservationController.deleteReservation", reservationId,
+                () -> reservationDAO.deleteReservation(reservationId));
     }
 
     /**
@@ -123,6 +241,14 @@ public class ReservationController {
         return reservationDAO.isRoomAvailable(roomId, checkinDate, checkoutDate, excludeReservationId);
     }
 
+    /**
+     * Find overlapping stays in the same room among booked and checked-in reservations
+     * @return One {roomId, reservationId, otherReservationId} entry per overlapping pair
+     */
+    public List<int[]> findDoubleBookings() {
+        return reservationDAO.findDoubleBookings();
+    }
+
     /**
      * Check if reservation exists
      * @param id Reservation ID
@@ -140,6 +266,23 @@ public class ReservationController {
         return reservationDAO.getTotalReservationsCount();
     }
 
+    /**
+     * Find which of the given stays already exist, live or archived
+     * @param stays Stays to look up
+     * @return Keys (built with ReservationDAO.stayKey) of the stays that exist
+     */
+    public Set<String> findExistingStayKeys(Collection<Reservation> stays) {
+        return reservationDAO.findExistingStayKeys(stays);
+    }
+
+    /**
+     * Get number of reservations ever made, including archived ones
+     * @return Count of live and archived reservations
+     */
+    public int getReservationHistoryCount() {
+        return reservationDAO.getReservationHistoryCount();
+    }
+
     /**
      * Get count of active reservations
      * @return Count of active reservations
@@ -157,20 +300,42 @@ public class ReservationController {
     }
 
     /**
-     * Check out a guest (update room status to available)
+     * Check out a guest (CHECKED_IN -> CHECKED_OUT, room becomes available)
      * @param reservationId Reservation ID
-     * @return true if successful, false otherwise
+     * @return true if successful, false if the guest is not checked in
      */
     public boolean checkOutGuest(int reservationId) {
-        return reservationDAO.checkOutGuest(reservationId);
+        return Operations.record("ReservationController.checkOutGuest", reservationId,
+                () -> reservationDAO.checkOutGuest(reservationId));
     }
 
     /**
-     * Check in a guest (update room status to occupied)
+     * Check in a guest (BOOKED -> CHECKED_IN, room becomes occupied)
      * @param reservationId Reservation ID
-     * @return true if successful, false otherwise
+     * @return true if successful, false if the reservation is not booked
      */
     public boolean checkInGuest(int reservationId) {
-        return reservationDAO.checkInGuest(reservationId);
+        return Operations.record("ReservationController.checkInGuest", reservationId,
+                () -> reservationDAO.checkInGuest(reservationId));
+    }
+
+    /**
+     * Cancel a booked reservation and release its room
+     * @param reservationId Reservation ID
+     * @return true if successful, false if the reservation is not booked
+     */
+    public boolean cancelReservation(int reservationId) {
+        return Operations.record("ReservationController.cancelReservation", reservationId,
+                () -> reservationDAO.cancelReservation(reservationId));
+    }
+
+    /**
+     * Mark a booked reservation as a no-show and release its room
+     * @param reservationId Reservation ID
+     * @return true if successful, false if the reservation is not booked
+     */
+    public boolean markNoShow(int reservationId) {
+        return Operations.record("ReservationController.markNoShow", reservationId,
+                () -> reservationDAO.markNoShow(reservationId));
     }
 }
\ No newline at end of file
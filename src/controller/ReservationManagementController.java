@@ -1,19 +1,26 @@
 package controller;
 
+import dao.UpdateResult;
 import model.Guest;
 import model.Reservation;
+import model.ReservationFilter;
+import model.ReservationStatus;
 import model.Room;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import paging.PagedDataSource;
+import paging.SortOrder;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class ReservationManagementController {
     private ReservationController reservationController = new ReservationController();
     private GuestController guestController = new GuestController();
     private RoomController roomController = new RoomController();
+    private AsyncGuestController asyncGuestController = new AsyncGuestController(guestController);
+    private AsyncRoomController asyncRoomController = new AsyncRoomController(roomController);
 
     public boolean createReservation(Guest guest, Room room, LocalDate checkin, LocalDate checkout) {
         // Check room availability one more time
@@ -27,48 +34,128 @@ public class ReservationManagementController {
         return reservationController.createReservation(reservation);
     }
 
-    public boolean updateReservation(Reservation reservation, Guest guest, Room room, LocalDate checkin, LocalDate checkout) {
-        // Update the reservation
-        reservation.setGuest(guest);
-        reservation.setRoom(room);
-        reservation.setCheckinDate(checkin);
-        reservation.setCheckoutDate(checkout);
+    /**
+     * Save the edited reservation. If another clerk changed it in the meantime,
+     * their changes are merged with these edits and the update is retried;
+     * CONFLICT is returned when both changed the same field or when the merged
+     * stay is invalid (inverted dates, overlap with another reservation).
+     * @param reservation Reservation as it was read (not modified)
+     * @return UPDATED, CONFLICT, NOT_FOUND or ERROR
+     */
+    public UpdateResult updateReservation(Reservation reservation, Guest guest, Room room, LocalDate checkin, LocalDate checkout) {
+        Reservation original = reservation;
+        Reservation edited = copyReservation(reservation, guest, room, checkin, checkout);
+        edited.setVersion(reservation.getVersion());
 
-        return reservationController.updateReservation(reservation);
+        for (int attempt = 1; ; attempt++) {
+            UpdateResult result = reservationController.updateReservation(edited);
+            if (result != UpdateResult.CONFLICT || attempt == ThreeWayMerge.MAX_ATTEMPTS) {
+                return result;
+            }
+
+            Reservation current = reservationController.getReservationById(edited.getId());
+            if (current == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            Reservation merged = mergeReservation(original, edited, current);
+            if (merged == null || !isValidMerge(merged)) {
+                return UpdateResult.CONFLICT;
+            }
+            original = current;
+            edited = merged;
+        }
     }
 
-    public boolean deleteReservation(int reservationId) {
-        return reservationController.deleteReservation(reservationId);
+    /**
+     * Merge the user's edits with the reservation as it is now stored
+     * @return Reservation to write at the current version, or null if both changed the same field
+     */
+    private Reservation mergeReservation(Reservation base, Reservation mine, Reservation theirs) {
+        ThreeWayMerge merge = new ThreeWayMerge();
+        int guestId = merge.field(base.getGuestId(), mine.getGuestId(), theirs.getGuestId());
+        int roomId = merge.field(base.getRoomId(), mine.getRoomId(), theirs.getRoomId());
+        LocalDate checkin = merge.field(base.getCheckinDate(), mine.getCheckinDate(), theirs.getCheckinDate());
+        LocalDate checkout = merge.field(base.getCheckoutDate(), mine.getCheckoutDate(), theirs.getCheckoutDate());
+        if (merge.hasConflict()) {
+            return null;
+        }
+
+        Reservation merged = copyReservation(theirs,
+                guestId == mine.getGuestId() ? mine.getGuest() : theirs.getGuest(),
+                roomId == mine.getRoomId() ? mine.getRoom() : theirs.getRoom(),
+                checkin, checkout);
+        merged.setVersion(theirs.getVersion());
+        return merged;
     }
 
-    public List<Reservation> searchReservations(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return getAllReservations();
+    /**
+     * Each side's dates and room were valid on their own, but combining them
+     * can invert the stay or overlap another reservation of the room
+     * @return True if the merged reservation can be written
+     */
+    private boolean isValidMerge(Reservation merged) {
+        // Past check-in dates are allowed: the stay may already have started
+        if (!validateReservation(merged.getGuest(), merged.getRoom(),
+                merged.getCheckinDate(), merged.getCheckoutDate(), true).isValid()) {
+            return false;
         }
+        return reservationController.isRoomAvailable(merged.getRoomId(),
+                merged.getCheckinDate(), merged.getCheckoutDate(), merged.getId());
+    }
 
-        return getAllReservations().stream()
-                .filter(r -> r.getGuest() != null &&
-                        r.getGuest().getName().toLowerCase().contains(searchTerm.toLowerCase()))
-                .collect(Collectors.toList());
+    private Reservation copyReservation(Reservation source, Guest guest, Room room, LocalDate checkin, LocalDate checkout) {
+        Reservation copy = new Reservation(guest, room, checkin, checkout);
+        copy.setId(source.getId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setStatus(source.getStatus());
+        return copy;
     }
 
-    public List<Reservation> filterReservations(String filterType) {
-        switch (filterType) {
+    public boolean deleteReservation(int reservationId) {
+        return reservationController.deleteReservation(reservationId);
+    }
+
+    /**
+     * Paged source for the reservation table; filtering and sorting run in the database
+     * @param filterType All, Active, Future or Past
+     * @param searchTerm Guest name fragment (empty matches every guest)
+     * @return Data source for the table
+     */
+    public PagedDataSource<Reservation> getReservationSource(String filterType, String searchTerm) {
+        ReservationFilter filter;
+        SortOrder defaultSort;
+        switch (filterType != null ? filterType : "All") {
             case "Active":
-                return getAllReservations().stream()
-                        .filter(r -> r.isActive())
-                        .collect(Collectors.toList());
+                filter = ReservationFilter.withStatus(ReservationStatus.CHECKED_IN);
+                defaultSort = new SortOrder("checkin", true);
+                break;
             case "Future":
-                return getAllReservations().stream()
-                        .filter(r -> r.getCheckinDate().isAfter(LocalDate.now()))
-                        .collect(Collectors.toList());
+                filter = ReservationFilter.withStatus(ReservationStatus.BOOKED);
+                defaultSort = new SortOrder("checkin", true);
+                break;
             case "Past":
-                return getAllReservations().stream()
-                        .filter(r -> r.getCheckoutDate().isBefore(LocalDate.now()))
-                        .collect(Collectors.toList());
+                // Past stays may already have been moved to the archive
+                filter = ReservationFilter.past();
+                defaultSort = new SortOrder("checkin", false);
+                break;
             default:
-                return getAllReservations();
+                filter = ReservationFilter.all();
+                defaultSort = new SortOrder("created", false);
         }
+        ReservationFilter query = filter.withGuestName(searchTerm);
+
+        return new PagedDataSource<Reservation>() {
+            @Override
+            public int count() {
+                return reservationController.countReservations(query);
+            }
+
+            @Override
+            public List<Reservation> fetch(int offset, int limit, SortOrder sort) {
+                SortOrder order = sort != null ? sort : defaultSort;
+                return reservationController.getReservationsPage(query, order.getKey(), order.isAscending(), offset, limit);
+            }
+        };
     }
 
     public boolean isRoomAvailable(int roomId, LocalDate checkin, LocalDate checkout) {
@@ -76,6 +163,11 @@ public class ReservationManagementController {
     }
 
     public ValidationResult validateReservation(Guest guest, Room room, LocalDate checkin, LocalDate checkout) {
+        return validateReservation(guest, room, checkin, checkout, false);
+    }
+
+    public ValidationResult validateReservation(Guest guest, Room room, LocalDate checkin, LocalDate checkout,
+                                                boolean allowPastCheckin) {
         if (guest == null) {
             return new ValidationResult(false, "Please select a guest!");
         }
@@ -91,12 +183,28 @@ public class ReservationManagementController {
         if (checkin.isAfter(checkout) || checkin.isEqual(checkout)) {
             return new ValidationResult(false, "Check-out date must be after check-in date!");
         }
-        if (checkin.isBefore(LocalDate.now())) {
+        if (!allowPastCheckin && checkin.isBefore(LocalDate.now())) {
             return new ValidationResult(false, "Check-in date cannot be in the past!");
         }
         return new ValidationResult(true, "");
     }
 
+    public boolean checkInGuest(int reservationId) {
+        return reservationController.checkInGuest(reservationId);
+    }
+
+    public boolean checkOutGuest(int reservationId) {
+        return reservationController.checkOutGuest(reservationId);
+    }
+
+    public boolean cancelReservation(int reservationId) {
+        return reservationController.cancelReservation(reservationId);
+    }
+
+    public boolean markNoShow(int reservationId) {
+        return reservationController.markNoShow(reservationId);
+    }
+
     public List<Reservation> getAllReservations() {
         return reservationController.getAllReservations();
     }
@@ -109,6 +217,35 @@ public class ReservationManagementController {
         return roomController.getAvailableRooms();
     }
 
+    /**
+     * Load the guest and room choices of the reservation form; both queries
+     * run at the same time
+     * @return Future with all guests and the available rooms
+     */
+    public CompletableFuture<FormData> loadFormData() {
+        CompletableFuture<List<Guest>> guests = asyncGuestController.getAllGuests();
+        CompletableFuture<List<Room>> rooms = asyncRoomController.getAvailableRooms();
+        return guests.thenCombine(rooms, FormData::new);
+    }
+
+    public static class FormData {
+        private final List<Guest> guests;
+        private final List<Room> availableRooms;
+
+        public FormData(List<Guest> guests, List<Room> availableRooms) {
+            this.guests = guests;
+            this.availableRooms = availableRooms;
+        }
+
+        public List<Guest> getGuests() {
+            return guests;
+        }
+
+        public List<Room> getAvailableRooms() {
+            return availableRooms;
+        }
+    }
+
     public static class ValidationResult {
         private final boolean valid;
         private final String message;
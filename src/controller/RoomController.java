@@ -1,8 +1,16 @@
 package controller;
 
+import dao.BatchResult;
 import dao.RoomDAO;
+import dao.RowHandler;
+import dao.UpdateResult;
+import metrics.Operations;
+import model.Amenity;
 import model.Room;
+import model.RoomFilter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.time.LocalDate;
 
 public class RoomController {
@@ -18,7 +26,16 @@ public class RoomController {
      * @return true if successful, false otherwise
      */
     public boolean createRoom(Room room) {
-        return roomDAO.createRoom(room);
+        return Operations.record("RoomController.createRoom", 0, () -> roomDAO.createRoom(room));
+    }
+
+    /**
+     * Create many rooms in batched transactions
+     * @param rooms Rooms to create
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createRooms(List<Room> rooms) {
+        return Operations.record("RoomController.createRooms", 0, () -> roomDAO.createRooms(rooms));
     }
 
     /**
@@ -29,6 +46,16 @@ public class RoomController {
         return roomDAO.getAllRooms();
     }
 
+    /**
+     * Stream all rooms ordered by number without loading them into a list
+     * @param handler Receives every room; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamAllRooms(RowHandler<Room> handler) throws Exception {
+        return roomDAO.streamAllRooms(handler);
+    }
+
     /**
      * Get room by ID
      * @param id Room ID
@@ -83,6 +110,28 @@ public class RoomController {
         return roomDAO.getAvailableRoomsForDateRange(checkinDate, checkoutDate);
     }
 
+    /**
+     * Count rooms matching a filter
+     * @param filter Room filter
+     * @return Number of matching rooms
+     */
+    public int countRooms(RoomFilter filter) {
+        return roomDAO.countRooms(filter);
+    }
+
+    /**
+     * Get one page of rooms matching a filter
+     * @param filter Room filter
+     * @param sortKey Column sort key
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Rooms of the page
+     */
+    public List<Room> getRoomsPage(RoomFilter filter, String sortKey, boolean ascending, int offset, int limit) {
+        return roomDAO.getRoomsPage(filter, sortKey, ascending, offset, limit);
+    }
+
     /**
      * Get rooms within a price range
      * @param minPrice Minimum price
@@ -103,13 +152,31 @@ public class RoomController {
         return roomDAO.getAvailableRoomsByPriceRange(minPrice, maxPrice);
     }
 
+    /**
+     * Get rooms offering all the given amenities
+     * @param amenities Required amenities
+     * @return List of matching rooms
+     */
+    public List<Room> getRoomsByAmenities(Set<Amenity> amenities) {
+        return roomDAO.getRoomsByAmenities(amenities);
+    }
+
+    /**
+     * Get available rooms offering all the given amenities
+     * @param amenities Required amenities
+     * @return List of matching available rooms
+     */
+    public List<Room> getAvailableRoomsByAmenities(Set<Amenity> amenities) {
+        return roomDAO.getAvailableRoomsByAmenities(amenities);
+    }
+
     /**
      * Update room information
-     * @param room Room object with updated information
-     * @return true if successful, false otherwise
+     * @param room Room object with updated information and the version it was read at
+     * @return UPDATED, CONFLICT if the room was changed by someone else, NOT_FOUND or ERROR
      */
-    public boolean updateRoom(Room room) {
-        return roomDAO.updateRoom(room);
+    public UpdateResult updateRoom(Room room) {
+        return Operations.record("RoomController.updateRoom", room.getId(), () -> roomDAO.updateRoom(room));
     }
 
     /**
@@ -119,7 +186,8 @@ public class RoomController {
      * @return true if successful, false otherwise
      */
     public boolean updateRoomStatus(int roomId, String status) {
-        return roomDAO.updateRoomStatus(roomId, status);
+        return Operations.record("RoomController.updateRoomStatus", roomId,
+                () -> roomDAO.updateRoomStatus(roomId, status));
     }
 
     /**
@@ -129,7 +197,8 @@ public class RoomController {
      * @return true if successful, false otherwise
      */
     public boolean updateRoomPrice(int roomId, double newPrice) {
-        return roomDAO.updateRoomPrice(roomId, newPrice);
+        return Operations.record("RoomController.updateRoomPrice", roomId,
+                () -> roomDAO.updateRoomPrice(roomId, newPrice));
     }
 
     /**
@@ -138,7 +207,7 @@ public class RoomController {
      * @return true if successful, false otherwise
      */
     public boolean deleteRoom(int id) {
-        return roomDAO.deleteRoom(id);
+        return Operations.record("RoomController.deleteRoom", id, () -> roomDAO.deleteRoom(id));
     }
 
     /**
@@ -234,4 +303,13 @@ public class RoomController {
     public Room getMostExpensiveAvailableRoom() {
         return roomDAO.getMostExpensiveAvailableRoom();
     }
-}
\ No newline at end of file
+
+    /**
+     * Find which of the given room numbers are already taken
+     * @param numbers Room numbers to look up
+     * @return Taken numbers among them
+     */
+    public Set<String> findTakenRoomNumbers(Collection<String> numbers) {
+        return roomDAO.findTakenRoomNumbers(numbers);
+    }
+}
@@ -1,17 +1,26 @@
 package controller;
 
+import dao.UpdateResult;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import model.Amenity;
+import model.DashboardStatistics;
 import model.Room;
 import model.RoomComponent;
+import model.RoomFilter;
 import model.decorator.MinibarDecorator;
 import model.decorator.SpaDecorator;
+import paging.PagedDataSource;
+import paging.SortOrder;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 public class RoomManagementController {
     private RoomController roomController = new RoomController();
+    private StatisticsController statisticsController = new StatisticsController();
 
     public boolean addRoom(String number, String type, String status, double basePrice,
                            boolean hasSpa, boolean hasMinibar) {
@@ -20,91 +29,127 @@ public class RoomManagementController {
             return false;
         }
 
+        // Save the base room
+        return roomController.createRoom(buildRoom(number, type, status, basePrice, hasSpa, hasMinibar));
+    }
+
+    public Room buildRoom(String number, String type, String status, double basePrice,
+                          boolean hasSpa, boolean hasMinibar) {
         // Create base room
         Room room = new Room(number.trim(), type, status, basePrice);
 
-        // Apply decorators and build description
-        RoomComponent decoratedRoom = room;
-        String description = type + " Room";
-
-        if (hasSpa) {
-            decoratedRoom = new SpaDecorator(decoratedRoom);
-            description += ", Spa Access";
-        }
-
-        if (hasMinibar) {
-            decoratedRoom = new MinibarDecorator(decoratedRoom);
-            description += ", Minibar";
-        }
-
-        // Set the final description on the base room
-        room.setDescription(description);
-
-        // Save the base room
-        return roomController.createRoom(room);
+        // Store amenities and the matching display description
+        applyAmenities(room, hasSpa, hasMinibar);
+        return room;
     }
 
-    public boolean updateRoom(RoomComponent selected, String number, String type, String status,
-                              double basePrice, boolean hasSpa, boolean hasMinibar) {
+    /**
+     * Save the edited room. If another clerk changed the room in the meantime,
+     * their changes are merged with these edits and the update is retried;
+     * CONFLICT is only returned when both changed the same field.
+     * @return UPDATED, CONFLICT, NOT_FOUND, or ERROR (also when the room number is taken)
+     */
+    public UpdateResult updateRoom(RoomComponent selected, String number, String type, String status,
+                                   double basePrice, boolean hasSpa, boolean hasMinibar) {
         // Check if room number is taken by another room
         if (roomController.isRoomNumberTaken(number, selected.getId())) {
-            return false;
+            return UpdateResult.ERROR;
         }
 
-        // Get the base room (unwrap decorators)
-        Room baseRoom = getBaseRoom(selected);
-        baseRoom.setNumber(number.trim());
-        baseRoom.setType(type);
-        baseRoom.setStatus(status);
-        baseRoom.setBasePrice(basePrice);
+        // The base room (decorators unwrapped) holds the values the edit started from
+        Room original = getBaseRoom(selected);
+        Room edited = buildRoom(number, type, status, basePrice, hasSpa, hasMinibar);
+        edited.setId(original.getId());
+        edited.setVersion(original.getVersion());
 
-        // Apply decorators and build description
-        RoomComponent decoratedRoom = baseRoom;
-        String description = type + " Room";
+        for (int attempt = 1; ; attempt++) {
+            UpdateResult result = roomController.updateRoom(edited);
+            if (result != UpdateResult.CONFLICT || attempt == ThreeWayMerge.MAX_ATTEMPTS) {
+                return result;
+            }
 
-        if (hasSpa) {
-            decoratedRoom = new SpaDecorator(decoratedRoom);
-            description += ", Spa Access";
+            Room current = roomController.getRoomById(edited.getId());
+            if (current == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            Room merged = mergeRoom(original, edited, current);
+            if (merged == null) {
+                return UpdateResult.CONFLICT;
+            }
+            if (!merged.getNumber().equals(edited.getNumber())
+                    && roomController.isRoomNumberTaken(merged.getNumber(), merged.getId())) {
+                return UpdateResult.ERROR;
+            }
+            original = current;
+            edited = merged;
         }
+    }
 
-        if (hasMinibar) {
-            decoratedRoom = new MinibarDecorator(decoratedRoom);
-            description += ", Minibar";
+    /**
+     * Merge the user's edits with the room as it is now stored
+     * @return Room to write at the current version, or null if both changed the same field
+     */
+    private Room mergeRoom(Room base, Room mine, Room theirs) {
+        ThreeWayMerge merge = new ThreeWayMerge();
+        Room merged = new Room();
+        merged.setId(theirs.getId());
+        merged.setVersion(theirs.getVersion());
+        merged.setNumber(merge.field(base.getNumber(), mine.getNumber(), theirs.getNumber()));
+        merged.setType(merge.field(base.getType(), mine.getType(), theirs.getType()));
+        merged.setStatus(merge.field(base.getStatus(), mine.getStatus(), theirs.getStatus()));
+        merged.setBasePrice(merge.field(base.getBasePrice(), mine.getBasePrice(), theirs.getBasePrice()));
+        int amenities = merge.field(base.getAmenities(), mine.getAmenities(), theirs.getAmenities());
+        if (merge.hasConflict()) {
+            return null;
         }
 
-        // Set the final description on the base room
-        baseRoom.setDescription(description);
-
-        return roomController.updateRoom(baseRoom);
+        // The description is derived from the type and amenities
+        EnumSet<Amenity> amenitySet = Amenity.fromMask(amenities);
+        applyAmenities(merged, amenitySet.contains(Amenity.SPA_ACCESS), amenitySet.contains(Amenity.MINIBAR));
+        return merged;
     }
 
     public boolean deleteRoom(int roomId) {
         return roomController.deleteRoom(roomId);
     }
 
-    public List<Room> searchByDateRange(LocalDate checkin, LocalDate checkout) {
-        return roomController.getAvailableRoomsForDateRange(checkin, checkout);
+    /**
+     * Paged source for the room table; filtering and sorting run in the database
+     * @param filter Room filter
+     * @return Data source for the table
+     */
+    public PagedDataSource<RoomComponent> getRoomSource(RoomFilter filter) {
+        return new PagedDataSource<RoomComponent>() {
+            @Override
+            public int count() {
+                return roomController.countRooms(filter);
+            }
+
+            @Override
+            public List<RoomComponent> fetch(int offset, int limit, SortOrder sort) {
+                String sortKey = sort != null ? sort.getKey() : "number";
+                boolean ascending = sort == null || sort.isAscending();
+                return new ArrayList<>(roomController.getRoomsPage(filter, sortKey, ascending, offset, limit));
+            }
+        };
     }
 
-    public List<Room> filterByType(String selectedType) {
+    public RoomFilter searchByDateRange(LocalDate checkin, LocalDate checkout) {
+        return RoomFilter.availableBetween(checkin, checkout);
+    }
+
+    public RoomFilter filterByType(String selectedType) {
         if (selectedType != null && !selectedType.equals("All")) {
-            return roomController.getRoomsByType(selectedType);
+            return RoomFilter.byType(selectedType);
         }
-        return roomController.getAllRooms();
+        return RoomFilter.all();
     }
 
-    public List<Room> filterByStatus(String selectedStatus) {
+    public RoomFilter filterByStatus(String selectedStatus) {
         if (selectedStatus == null || selectedStatus.equals("All")) {
-            return roomController.getAllRooms();
-        } else if (selectedStatus.equals("Available")) {
-            return roomController.getAvailableRooms();
-        } else {
-            // Filter by specific status
-            List<Room> allRooms = roomController.getAllRooms();
-            return allRooms.stream()
-                    .filter(room -> room.getStatus().equals(selectedStatus))
-                    .toList();
+            return RoomFilter.all();
         }
+        return RoomFilter.byStatus(selectedStatus);
     }
 
     public List<String> getAllRoomTypes() {
@@ -131,25 +176,48 @@ public class RoomManagementController {
         return roomController.getOccupiedRoomsCount();
     }
 
+    public DashboardStatistics getStatistics() {
+        return statisticsController.getDashboardStatistics();
+    }
+
     public double calculateTotalPrice(RoomComponent room) {
         // Get base price
         Room baseRoom = getBaseRoom(room);
         double totalPrice = baseRoom.getBasePrice();
 
-        // Check for decorators in description and add their costs
-        String description = room.getDescription();
-        if (description != null) {
-            if (description.contains("Spa Access")) {
-                totalPrice += 50.0; // Spa decorator cost
-            }
-            if (description.contains("Minibar")) {
-                totalPrice += 25.0; // Minibar decorator cost
-            }
+        // Add the cost of every amenity stored on the room
+        for (Amenity amenity : baseRoom.getAmenitySet()) {
+            totalPrice += amenity.getPrice();
         }
 
         return totalPrice;
     }
 
+    public RoomFilter filterByAmenities(boolean hasSpa, boolean hasMinibar) {
+        return RoomFilter.withAmenities(Amenity.toMask(toAmenities(hasSpa, hasMinibar)));
+    }
+
+    private void applyAmenities(Room room, boolean hasSpa, boolean hasMinibar) {
+        EnumSet<Amenity> amenities = toAmenities(hasSpa, hasMinibar);
+        StringBuilder description = new StringBuilder(room.getType() + " Room");
+        for (Amenity amenity : amenities) {
+            description.append(", ").append(amenity.getLabel());
+        }
+        room.setAmenities(Amenity.toMask(amenities));
+        room.setDescription(description.toString());
+    }
+
+    private EnumSet<Amenity> toAmenities(boolean hasSpa, boolean hasMinibar) {
+        EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        if (hasSpa) {
+            amenities.add(Amenity.SPA_ACCESS);
+        }
+        if (hasMinibar) {
+            amenities.add(Amenity.MINIBAR);
+        }
+        return amenities;
+    }
+
     public Room getBaseRoom(RoomComponent roomComponent) {
         // Unwrap decorators to get the base Room object
         while (!(roomComponent instanceof Room)) {
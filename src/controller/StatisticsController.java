@@ -0,0 +1,20 @@
+package controller;
+
+import dao.StatisticsDAO;
+import model.DashboardStatistics;
+
+public class StatisticsController {
+    private StatisticsDAO statisticsDAO;
+
+    public StatisticsController() {
+        this.statisticsDAO = new StatisticsDAO();
+    }
+
+    /**
+     * Get room, guest and reservation KPIs in one snapshot
+     * @return Dashboard statistics snapshot
+     */
+    public DashboardStatistics getDashboardStatistics() {
+        return statisticsDAO.getDashboardStatistics();
+    }
+}
@@ -0,0 +1,43 @@
+package controller;
+
+import java.util.Objects;
+
+/**
+ * Field-by-field merge used when an optimistic update hits a conflict.
+ *
+ * For each field the value the user started from (base), the value the user
+ * entered (mine) and the value now in the database (theirs) are compared:
+ * a field only one side changed takes that side's value; a field both sides
+ * changed to different values is a real conflict.
+ */
+class ThreeWayMerge {
+
+    // Attempts of an update before a conflict is reported to the user
+    static final int MAX_ATTEMPTS = 3;
+
+    private boolean conflict = false;
+
+    /**
+     * Merge one field
+     * @param base Value when the record was read
+     * @param mine Value entered by the user
+     * @param theirs Value currently stored
+     * @return Merged value (mine when the field conflicts)
+     */
+    <V> V field(V base, V mine, V theirs) {
+        if (Objects.equals(mine, base)) {
+            return theirs;
+        }
+        if (!Objects.equals(theirs, base) && !Objects.equals(theirs, mine)) {
+            conflict = true;
+        }
+        return mine;
+    }
+
+    /**
+     * @return true if at least one field was changed differently by both sides
+     */
+    boolean hasConflict() {
+        return conflict;
+    }
+}
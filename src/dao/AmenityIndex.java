@@ -0,0 +1,148 @@
+package dao;
+
+import model.Amenity;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from amenity to the IDs of the rooms offering it.
+ * Each amenity keeps a bitmap of room IDs, so multi-amenity filters are
+ * plain bitmap intersections. Kept up to date by RoomDAO writes.
+ *
+ * Writes made while a snapshot is being read are recorded and replayed on
+ * top of it, so a room written between the snapshot query and load() is
+ * not lost.
+ */
+public class AmenityIndex {
+
+    // Singleton instance, shared by every RoomDAO
+    private static AmenityIndex instance = null;
+
+    private final EnumMap<Amenity, BitSet> roomsByAmenity = new EnumMap<>(Amenity.class);
+    private final BitSet allRooms = new BitSet();
+    private boolean loaded = false;
+    // Writes made while a snapshot is being read ({roomId, mask}, mask -1 = removed); non-null during a load
+    private List<int[]> writesDuringLoad;
+
+    private AmenityIndex() {
+        for (Amenity amenity : Amenity.values()) {
+            roomsByAmenity.put(amenity, new BitSet());
+        }
+    }
+
+    /**
+     * Get the singleton instance of AmenityIndex
+     * @return AmenityIndex singleton instance
+     */
+    public static synchronized AmenityIndex getInstance() {
+        if (instance == null) {
+            instance = new AmenityIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Check if the index has been populated from the database
+     * @return true if loaded, false otherwise
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Start recording writes; call before reading the snapshot passed to load()
+     */
+    public synchronized void beginLoad() {
+        writesDuringLoad = new ArrayList<>();
+    }
+
+    /**
+     * Give up a load started with beginLoad() (the snapshot could not be read)
+     */
+    public synchronized void abortLoad() {
+        writesDuringLoad = null;
+    }
+
+    /**
+     * Replace the index content with a full snapshot, then apply the writes
+     * recorded since beginLoad()
+     * @param amenitiesByRoom Amenity bitmask for every room ID
+     */
+    public synchronized void load(Map<Integer, Integer> amenitiesByRoom) {
+        allRooms.clear();
+        for (BitSet rooms : roomsByAmenity.values()) {
+            rooms.clear();
+        }
+        for (Map.Entry<Integer, Integer> entry : amenitiesByRoom.entrySet()) {
+            index(entry.getKey(), entry.getValue());
+        }
+        if (writesDuringLoad != null) {
+            for (int[] write : writesDuringLoad) {
+                if (write[1] < 0) {
+                    unindex(write[0]);
+                } else {
+                    index(write[0], write[1]);
+                }
+            }
+            writesDuringLoad = null;
+        }
+        loaded = true;
+    }
+
+    /**
+     * Add or replace the amenities of a room (ignored until the index is loaded)
+     * @param roomId Room ID
+     * @param mask Amenity bitmask
+     */
+    public synchronized void put(int roomId, int mask) {
+        if (writesDuringLoad != null) {
+            writesDuringLoad.add(new int[] {roomId, mask});
+        }
+        if (loaded) {
+            index(roomId, mask);
+        }
+    }
+
+    /**
+     * Remove a room from the index
+     * @param roomId Room ID
+     */
+    public synchronized void remove(int roomId) {
+        if (writesDuringLoad != null) {
+            writesDuringLoad.add(new int[] {roomId, -1});
+        }
+        unindex(roomId);
+    }
+
+    /**
+     * Get the IDs of the rooms offering every requested amenity
+     * @param amenities Required amenities (empty means all rooms)
+     * @return Bitmap of matching room IDs (a copy, safe to modify)
+     */
+    public synchronized BitSet roomsWithAll(Set<Amenity> amenities) {
+        BitSet result = (BitSet) allRooms.clone();
+        for (Amenity amenity : amenities) {
+            result.and(roomsByAmenity.get(amenity));
+        }
+        return result;
+    }
+
+    private void unindex(int roomId) {
+        allRooms.clear(roomId);
+        for (BitSet rooms : roomsByAmenity.values()) {
+            rooms.clear(roomId);
+        }
+    }
+
+    private void index(int roomId, int mask) {
+        allRooms.set(roomId);
+        for (Map.Entry<Amenity, BitSet> entry : roomsByAmenity.entrySet()) {
+            entry.getValue().set(roomId, (mask & entry.getKey().getBit()) != 0);
+        }
+    }
+}
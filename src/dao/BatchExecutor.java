@@ -0,0 +1,157 @@
+package dao;
+
+import metrics.DaoMetrics;
+import model.Change;
+import util.DBConnection;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs JDBC batch inserts in chunked transactions.
+ * Each chunk is sent with addBatch/executeBatch and committed on its own.
+ * If a chunk fails it is rolled back and replayed row by row so that only
+ * the offending rows are reported as failures.
+ * Every inserted row is added to the change journal in its chunk's transaction.
+ */
+class BatchExecutor {
+
+    static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * Binds one item to the insert statement parameters
+     */
+    interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * Extra writes executed in the same transaction as a chunk
+     * (for example status updates on related rows)
+     */
+    interface ChunkHook<T> {
+        void afterInsert(Connection conn, List<T> items) throws SQLException;
+    }
+
+    /**
+     * Receives the generated key of every inserted item
+     */
+    interface KeyConsumer<T> {
+        void accept(T item, int key);
+    }
+
+    private BatchExecutor() {}
+
+    static <T> BatchResult insert(String sql, Change.Entity entity, List<T> items, int chunkSize, RowBinder<T> binder,
+                                  KeyConsumer<T> keyConsumer, ChunkHook<T> hook) {
+        BatchResult result = new BatchResult(items.size());
+        if (items.isEmpty()) {
+            return result;
+        }
+
+        DaoMetrics.Call call = DaoMetrics.start("BatchExecutor.insert");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (int start = 0; start < items.size(); start += chunkSize) {
+                    int end = Math.min(start + chunkSize, items.size());
+                    if (!insertChunk(conn, stmt, entity, items, start, end, binder, keyConsumer, hook, result)) {
+                        insertRowByRow(conn, stmt, entity, items, start, end, binder, keyConsumer, hook, result);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error executing batch insert: " + e.getMessage());
+            e.printStackTrace();
+            for (int row = 0; row < items.size(); row++) {
+                if (result.getGeneratedKey(row) == 0 && !result.getFailures().containsKey(row)) {
+                    result.recordFailure(row, e.getMessage());
+                }
+            }
+        } finally {
+            call.end();
+        }
+        return result;
+    }
+
+    private static <T> boolean insertChunk(Connection conn, PreparedStatement stmt, Change.Entity entity,
+                                           List<T> items, int start, int end,
+                                           RowBinder<T> binder, KeyConsumer<T> keyConsumer, ChunkHook<T> hook,
+                                           BatchResult result) throws SQLException {
+        int[] keys = new int[end - start];
+        try {
+            for (int row = start; row < end; row++) {
+                binder.bind(stmt, items.get(row));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                int offset = 0;
+                while (generatedKeys.next() && offset < keys.length) {
+                    keys[offset++] = generatedKeys.getInt(1);
+                }
+            }
+
+            if (hook != null) {
+                hook.afterInsert(conn, items.subList(start, end));
+            }
+            List<Integer> ids = new ArrayList<>(keys.length);
+            for (int key : keys) {
+                ids.add(key);
+            }
+            ChangeDAO.recordAll(conn, entity, ids, Change.Operation.INSERT);
+            conn.commit();
+            SingleFlight.getInstance().invalidate();
+        } catch (SQLException e) {
+            conn.rollback();
+            stmt.clearBatch();
+            return false;
+        }
+
+        for (int row = start; row < end; row++) {
+            keyConsumer.accept(items.get(row), keys[row - start]);
+            result.recordSuccess(row, keys[row - start]);
+        }
+        return true;
+    }
+
+    private static <T> void insertRowByRow(Connection conn, PreparedStatement stmt, Change.Entity entity,
+                                           List<T> items, int start, int end,
+                                           RowBinder<T> binder, KeyConsumer<T> keyConsumer, ChunkHook<T> hook,
+                                           BatchResult result) throws SQLException {
+        for (int row = start; row < end; row++) {
+            T item = items.get(row);
+            try {
+                binder.bind(stmt, item);
+                stmt.executeUpdate();
+
+                int key = 0;
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        key = generatedKeys.getInt(1);
+                    }
+                }
+
+                if (hook != null) {
+                    hook.afterInsert(conn, List.of(item));
+                }
+                ChangeDAO.record(conn, entity, key, Change.Operation.INSERT);
+                conn.commit();
+                SingleFlight.getInstance().invalidate();
+
+                keyConsumer.accept(item, key);
+                result.recordSuccess(row, key);
+            } catch (SQLException e) {
+                conn.rollback();
+                result.recordFailure(row, e.getMessage());
+            }
+        }
+    }
+}
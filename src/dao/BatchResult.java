@@ -0,0 +1,69 @@
+package dao;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a batch write: the generated key of every row that was
+ * inserted and the error message of every row that was rejected.
+ * Rows are identified by their index in the submitted list.
+ */
+public class BatchResult {
+    private final int[] generatedKeys;
+    private final Map<Integer, String> failures = new TreeMap<>();
+    private int successCount;
+
+    public BatchResult(int size) {
+        this.generatedKeys = new int[size];
+    }
+
+    void recordSuccess(int row, int generatedKey) {
+        generatedKeys[row] = generatedKey;
+        successCount++;
+    }
+
+    void recordFailure(int row, String message) {
+        failures.put(row, message);
+    }
+
+    public int getSize() {
+        return generatedKeys.length;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    public boolean isFullySuccessful() {
+        return failures.isEmpty() && successCount == generatedKeys.length;
+    }
+
+    /**
+     * Get the key generated for a row
+     * @param row Index of the row in the submitted list
+     * @return Generated ID, or 0 if the row failed
+     */
+    public int getGeneratedKey(int row) {
+        return generatedKeys[row];
+    }
+
+    /**
+     * Get the rows that failed
+     * @return Error message by row index, in row order
+     */
+    public Map<Integer, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{size=" + generatedKeys.length +
+                ", succeeded=" + successCount +
+                ", failed=" + failures.size() + "}";
+    }
+}
@@ -0,0 +1,208 @@
+package dao;
+
+import metrics.DaoMetrics;
+import model.Change;
+import util.DBConnection;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Change journal shared by every workstation.
+ * DAO writes add a row to the changes table in the same transaction as the
+ * write itself, so a committed write always has its journal entry and a
+ * rolled back one never does. Clients poll for entries after the last
+ * sequence they have seen (see sync.ChangePoller).
+ */
+public class ChangeDAO {
+
+    /**
+     * Writes executed in one transaction together with their journal entries
+     */
+    interface Work {
+        /**
+         * @return true to commit, false to roll back
+         */
+        boolean run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Run the work in a transaction on the given connection; commits when it
+     * returns true and rolls back when it returns false or throws
+     * @param conn Connection to use (auto-commit is restored afterwards)
+     * @param work Writes and journal entries
+     * @return Result of the work
+     * @throws SQLException if a statement or the commit fails
+     */
+    static boolean inTransaction(Connection conn, Work work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            if (work.run(conn)) {
+                conn.commit();
+                SingleFlight.getInstance().invalidate();
+                return true;
+            }
+            conn.rollback();
+            return false;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Add a journal entry in the current transaction
+     * @param conn Connection of the running transaction
+     * @param entity Kind of row written
+     * @param id ID of the row written
+     * @param operation What was done to it
+     * @throws SQLException if the insert fails
+     */
+    static void record(Connection conn, Change.Entity entity, int id, Change.Operation operation) throws SQLException {
+        String sql = "INSERT INTO changes (entity, entity_id, operation) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, entity.name());
+            stmt.setInt(2, id);
+            stmt.setString(3, operation.name());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Add one journal entry per row in the current transaction
+     * @param conn Connection of the running transaction
+     * @param entity Kind of rows written
+     * @param ids IDs of the rows written
+     * @param operation What was done to them
+     * @throws SQLException if the insert fails
+     */
+    static void recordAll(Connection conn, Change.Entity entity, Collection<Integer> ids,
+                          Change.Operation operation) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO changes (entity, entity_id, operation) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int id : ids) {
+                stmt.setString(1, entity.name());
+                stmt.setInt(2, id);
+                stmt.setString(3, operation.name());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Journal an update of the room booked by a reservation, for writes that
+     * change the room status without the caller knowing the room ID
+     * @param conn Connection of the running transaction
+     * @param reservationId Reservation whose room was written
+     * @throws SQLException if the insert fails
+     */
+    static void recordRoomOf(Connection conn, int reservationId) throws SQLException {
+        String sql = "INSERT INTO changes (entity, entity_id, operation) " +
+                "SELECT ?, room_id, ? FROM reservations WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, Change.Entity.ROOM.name());
+            stmt.setString(2, Change.Operation.UPDATE.name());
+            stmt.setInt(3, reservationId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Tell the DAOs whether this process applies other workstations' changes
+     * to its caches; the uniqueness filters only answer checks while it does
+     * @param following true once the change poller has its starting position, false when it stops
+     */
+    public static void setFollowingChanges(boolean following) {
+        UniqueKeyFilter.setFollowingChanges(following);
+    }
+
+    /**
+     * Get the sequence of the newest journal entry
+     * @return Latest sequence, 0 if the journal is empty, -1 on error
+     */
+    public long getLatestSequence() {
+        String sql = "SELECT COALESCE(MAX(seq), 0) FROM changes";
+        DaoMetrics.Call call = DaoMetrics.start("ChangeDAO.getLatestSequence");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error getting latest change sequence: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return -1;
+    }
+
+    /**
+     * Get journal entries written after a sequence, oldest first
+     * @param afterSequence Last sequence already seen
+     * @param limit Maximum number of entries
+     * @return Entries in sequence order (empty on error)
+     */
+    public List<Change> getChangesSince(long afterSequence, int limit) {
+        List<Change> changes = new ArrayList<>();
+        String sql = "SELECT seq, entity, entity_id, operation FROM changes WHERE seq > ? ORDER BY seq LIMIT ?";
+        DaoMetrics.Call call = DaoMetrics.start("ChangeDAO.getChangesSince");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, afterSequence);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    changes.add(new Change(rs.getLong("seq"),
+                            Change.Entity.valueOf(rs.getString("entity")),
+                            rs.getInt("entity_id"),
+                            Change.Operation.valueOf(rs.getString("operation"))));
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error getting changes: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return changes;
+    }
+
+    /**
+     * Delete journal entries older than a point in time
+     * @param cutoff Entries written before this are deleted
+     * @return Number of entries deleted
+     */
+    public int purgeChangesBefore(LocalDateTime cutoff) {
+        String sql = "DELETE FROM changes WHERE changed_at < ?";
+        DaoMetrics.Call call = DaoMetrics.start("ChangeDAO.purgeChangesBefore");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error purging changes: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        } finally {
+            call.end();
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package dao;
 
+import metrics.DaoMetrics;
 import model.*;
 import util.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class GuestDAO {
 
+    private final SingleFlight reads = SingleFlight.getInstance();
+
+    // Registered contacts, shared by every GuestDAO
+    private static final UniqueKeyFilter CONTACTS = new UniqueKeyFilter("guest contact", GuestDAO::loadContacts);
+
     /**
      * Create a new guest
      * @param guest Guest object to create
@@ -15,62 +24,201 @@ public class GuestDAO {
      */
     public boolean createGuest(Guest guest) {
         String sql = "INSERT INTO guests (name, contact, guest_type, discount_rate) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, guest.getName());
-            stmt.setString(2, guest.getContact());
-            stmt.setString(3, guest.getGuestType());
-
-            // Set discount rate for VIP guests
-            if (guest instanceof VipGuest) {
-                stmt.setDouble(4, ((VipGuest) guest).getDiscountRate());
-            } else {
-                stmt.setDouble(4, 0.0);
-            }
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.createGuest");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean success = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, guest.getName());
+                    stmt.setString(2, guest.getContact());
+                    stmt.setString(3, guest.getGuestType());
+
+                    // Set discount rate for VIP guests
+                    if (guest instanceof VipGuest) {
+                        stmt.setDouble(4, ((VipGuest) guest).getDiscountRate());
+                    } else {
+                        stmt.setDouble(4, 0.0);
+                    }
 
-            boolean success = stmt.executeUpdate() > 0;
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
 
-            // Set the generated ID back to the guest object
-            if (success) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        guest.setId(generatedKeys.getInt(1));
+                    // Set the generated ID back to the guest object
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            guest.setId(generatedKeys.getInt(1));
+                        }
                     }
+                    ChangeDAO.record(tx, Change.Entity.GUEST, guest.getId(), Change.Operation.INSERT);
+                    return true;
                 }
-            }
+            });
 
+            if (success) {
+                CONTACTS.add(guest.getContact());
+            }
             return success;
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error creating guest: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
+    /**
+     * Create many guests using JDBC batches in chunked transactions
+     * @param guests Guests to create (generated IDs are set back on them)
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createGuests(List<Guest> guests) {
+        String sql = "INSERT INTO guests (name, contact, guest_type, discount_rate) VALUES (?, ?, ?, ?)";
+        BatchResult result = BatchExecutor.insert(sql, Change.Entity.GUEST, guests, BatchExecutor.DEFAULT_CHUNK_SIZE,
+                (stmt, guest) -> {
+                    stmt.setString(1, guest.getName());
+                    stmt.setString(2, guest.getContact());
+                    stmt.setString(3, guest.getGuestType());
+                    stmt.setDouble(4, guest instanceof VipGuest ? ((VipGuest) guest).getDiscountRate() : 0.0);
+                },
+                (guest, id) -> {
+                    guest.setId(id);
+                    CONTACTS.add(guest.getContact());
+                },
+                null);
+
+        if (result.getFailureCount() > 0) {
+            System.err.println("Batch guest insert: " + result.getFailureCount() + " row(s) rejected");
+        }
+        return result;
+    }
+
     /**
      * Get all guests
      * @return List of all guests
      */
     public List<Guest> getAllGuests() {
+        try {
+            return reads.loadList("GuestDAO.getAllGuests", this::fetchAllGuests);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving guests: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Guest> fetchAllGuests() throws SQLException {
         List<Guest> guests = new ArrayList<>();
         String sql = "SELECT * FROM guests ORDER BY name";
 
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.fetchAllGuests");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Guest guest = createGuestFromResultSet(rs);
                 guests.add(guest);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving guests: " + e.getMessage());
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
+        }
+        return guests;
+    }
+
+    /**
+     * Count guests whose name contains the given text (for paged tables)
+     * @param name Name fragment (null or blank counts every guest)
+     * @return Number of matching guests
+     */
+    public int countGuests(String name) {
+        boolean filtered = name != null && !name.trim().isEmpty();
+        String sql = "SELECT COUNT(*) FROM guests" + (filtered ? " WHERE name LIKE ?" : "");
+
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.countGuests");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (filtered) {
+                stmt.setString(1, "%" + name.trim() + "%");
+            }
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error counting guests: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return 0;
+    }
+
+    /**
+     * Get one page of guests whose name contains the given text
+     * @param name Name fragment (null or blank matches every guest)
+     * @param sortKey id, name, contact or type (others sort by name)
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Guests of the page
+     */
+    public List<Guest> getGuestsPage(String name, String sortKey, boolean ascending, int offset, int limit) {
+        List<Guest> guests = new ArrayList<>();
+        boolean filtered = name != null && !name.trim().isEmpty();
+        String direction = ascending ? " ASC" : " DESC";
+        // id breaks ties so rows never move between pages
+        String sql = "SELECT * FROM guests" + (filtered ? " WHERE name LIKE ?" : "") +
+                " ORDER BY " + sortColumn(sortKey) + direction + ", id" + direction + " LIMIT ? OFFSET ?";
+
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getGuestsPage");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (filtered) {
+                stmt.setString(index++, "%" + name.trim() + "%");
+            }
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                call.row();
+                guests.add(createGuestFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error retrieving guests page: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return guests;
     }
 
+    /**
+     * Map a table sort key to a column; unknown keys fall back to the name
+     */
+    private String sortColumn(String sortKey) {
+        if (sortKey == null) {
+            return "name";
+        }
+        switch (sortKey) {
+            case "id": return "id";
+            case "contact": return "contact";
+            case "type": return "guest_type";
+            default: return "name";
+        }
+    }
+
     /**
      * Get guest by ID
      * @param id Guest ID
@@ -78,6 +226,7 @@ public class GuestDAO {
      */
     public Guest getGuestById(int id) {
         String sql = "SELECT * FROM guests WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getGuestById");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -85,11 +234,15 @@ public class GuestDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
+                call.row();
                 return createGuestFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error finding guest by ID: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
@@ -103,6 +256,7 @@ public class GuestDAO {
         List<Guest> guests = new ArrayList<>();
         String sql = "SELECT * FROM guests WHERE name LIKE ? ORDER BY name";
 
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.searchGuestsByName");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -110,12 +264,16 @@ public class GuestDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Guest guest = createGuestFromResultSet(rs);
                 guests.add(guest);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error searching guests by name: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return guests;
     }
@@ -127,6 +285,7 @@ public class GuestDAO {
      */
     public Guest getGuestByContact(String contact) {
         String sql = "SELECT * FROM guests WHERE contact = ?";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getGuestByContact");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -134,41 +293,65 @@ public class GuestDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
+                call.row();
                 return createGuestFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error finding guest by contact: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
 
     /**
-     * Update guest information
-     * @param guest Guest object with updated information
-     * @return true if successful, false otherwise
+     * Update guest information if nobody else changed the guest since it was read
+     * @param guest Guest object with updated information and the version it was read at
+     * @return UPDATED (the guest's version is incremented), CONFLICT, NOT_FOUND or ERROR
      */
-    public boolean updateGuest(Guest guest) {
-        String sql = "UPDATE guests SET name = ?, contact = ?, guest_type = ?, discount_rate = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    public UpdateResult updateGuest(Guest guest) {
+        String sql = "UPDATE guests SET name = ?, contact = ?, guest_type = ?, discount_rate = ?, version = version + 1 " +
+                "WHERE id = ? AND version = ?";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.updateGuest");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean updated = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setString(1, guest.getName());
+                    stmt.setString(2, guest.getContact());
+                    stmt.setString(3, guest.getGuestType());
+
+                    if (guest instanceof VipGuest) {
+                        stmt.setDouble(4, ((VipGuest) guest).getDiscountRate());
+                    } else {
+                        stmt.setDouble(4, 0.0);
+                    }
+                    stmt.setInt(5, guest.getId());
+                    stmt.setInt(6, guest.getVersion());
 
-            stmt.setString(1, guest.getName());
-            stmt.setString(2, guest.getContact());
-            stmt.setString(3, guest.getGuestType());
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.GUEST, guest.getId(), Change.Operation.UPDATE);
+                    return true;
+                }
+            });
 
-            if (guest instanceof VipGuest) {
-                stmt.setDouble(4, ((VipGuest) guest).getDiscountRate());
-            } else {
-                stmt.setDouble(4, 0.0);
+            if (updated) {
+                guest.setVersion(guest.getVersion() + 1);
+                CONTACTS.add(guest.getContact());
+                return UpdateResult.UPDATED;
             }
-            stmt.setInt(5, guest.getId());
-
-            return stmt.executeUpdate() > 0;
+            // No row matched: either the version moved on or the guest is gone
+            return guestExists(guest.getId()) ? UpdateResult.CONFLICT : UpdateResult.NOT_FOUND;
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating guest: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return UpdateResult.ERROR;
+        } finally {
+            call.end();
         }
     }
 
@@ -185,15 +368,25 @@ public class GuestDAO {
         }
 
         String sql = "DELETE FROM guests WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.deleteGuest");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.GUEST, id, Change.Operation.DELETE);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error deleting guest: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
@@ -204,6 +397,7 @@ public class GuestDAO {
      */
     public boolean guestExists(int id) {
         String sql = "SELECT COUNT(*) FROM guests WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.guestExists");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -214,8 +408,11 @@ public class GuestDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking if guest exists: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -226,7 +423,8 @@ public class GuestDAO {
      * @return true if guest has active reservations, false otherwise
      */
     public boolean hasActiveReservations(int guestId) {
-        String sql = "SELECT COUNT(*) FROM reservations WHERE guest_id = ? AND checkout_date >= CURRENT_DATE";
+        String sql = "SELECT COUNT(*) FROM reservations WHERE guest_id = ? AND status IN ('BOOKED', 'CHECKED_IN')";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.hasActiveReservations");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -237,8 +435,11 @@ public class GuestDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking active reservations: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -249,6 +450,7 @@ public class GuestDAO {
      */
     public int getTotalGuestsCount() {
         String sql = "SELECT COUNT(*) FROM guests";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getTotalGuestsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -257,8 +459,11 @@ public class GuestDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting total guests count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -269,6 +474,7 @@ public class GuestDAO {
      */
     public int getVipGuestsCount() {
         String sql = "SELECT COUNT(*) FROM guests WHERE guest_type = 'VIP'";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getVipGuestsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -277,8 +483,11 @@ public class GuestDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting VIP guests count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -291,17 +500,22 @@ public class GuestDAO {
         List<Guest> guests = new ArrayList<>();
         String sql = "SELECT * FROM guests WHERE guest_type = 'VIP' ORDER BY name";
 
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getVipGuests");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Guest guest = createGuestFromResultSet(rs);
                 guests.add(guest);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving VIP guests: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return guests;
     }
@@ -314,17 +528,22 @@ public class GuestDAO {
         List<Guest> guests = new ArrayList<>();
         String sql = "SELECT * FROM guests WHERE guest_type = 'REGULAR' ORDER BY name";
 
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.getRegularGuests");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Guest guest = createGuestFromResultSet(rs);
                 guests.add(guest);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving regular guests: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return guests;
     }
@@ -336,7 +555,13 @@ public class GuestDAO {
      * @return true if contact exists, false otherwise
      */
     public boolean isContactRegistered(String contact, int excludeId) {
+        // Definitely not registered: no need to ask the database
+        if (!CONTACTS.mightExist(contact)) {
+            return false;
+        }
+
         String sql = "SELECT COUNT(*) FROM guests WHERE contact = ? AND id != ?";
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.isContactRegistered");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -348,8 +573,11 @@ public class GuestDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking contact registration: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -363,6 +591,108 @@ public class GuestDAO {
         return isContactRegistered(contact, -1);
     }
 
+    /**
+     * Find which of the given contacts are already registered (for import dedupe)
+     * @param contacts Contacts to look up, e.g. one import chunk
+     * @return Registered contacts among them
+     */
+    public Set<String> findRegisteredContacts(Collection<String> contacts) {
+        Set<String> registered = new HashSet<>();
+        if (contacts.isEmpty()) {
+            return registered;
+        }
+        StringBuilder sql = new StringBuilder("SELECT contact FROM guests WHERE contact IN (");
+        for (int i = 0; i < contacts.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.findRegisteredContacts");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int param = 1;
+            for (String contact : contacts) {
+                stmt.setString(param++, contact);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    registered.add(rs.getString("contact"));
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error looking up guest contacts: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return registered;
+    }
+
+    /**
+     * Add the contacts of guests written by another workstation to the
+     * uniqueness filter
+     * @param guestIds Guests to re-read
+     */
+    public void reindexContacts(Collection<Integer> guestIds) {
+        if (guestIds.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("SELECT contact FROM guests WHERE id IN (");
+        for (int i = 0; i < guestIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.reindexContacts");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int param = 1;
+            for (int id : guestIds) {
+                stmt.setInt(param++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    CONTACTS.add(rs.getString("contact"));
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error reindexing guest contacts: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+    }
+
+    /**
+     * Read every contact for the uniqueness filter
+     * @return Contacts
+     * @throws SQLException if the query fails
+     */
+    private static Collection<String> loadContacts() throws SQLException {
+        List<String> contacts = new ArrayList<>();
+        DaoMetrics.Call call = DaoMetrics.start("GuestDAO.loadContacts");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT contact FROM guests")) {
+            while (rs.next()) {
+                call.row();
+                contacts.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
+        }
+        return contacts;
+    }
+
     /**
      * Helper method to create Guest object from ResultSet using Factory Pattern
      * @param rs ResultSet containing guest data
@@ -386,6 +716,7 @@ public class GuestDAO {
         guest=GuestFactory.createGuest(guestType,name,contact,discountRate);
 
         guest.setId(id);
+        guest.setVersion(rs.getInt("version"));
         return guest;
     }
 }
\ No newline at end of file
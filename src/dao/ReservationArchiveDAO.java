@@ -0,0 +1,133 @@
+package dao;
+
+import metrics.DaoMetrics;
+import model.Change;
+import util.DBConnection;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves finished reservations from the live reservations table to
+ * reservations_archive, keeping the live table small so that the hot-path
+ * queries (availability checks, active/upcoming lists) only scan current data.
+ */
+public class ReservationArchiveDAO {
+
+    static final String RESERVATION_COLUMNS = "id, guest_id, room_id, checkin_date, checkout_date, created_at, status, version";
+
+    /**
+     * Archive every reservation that checked out before the cutoff date.
+     * Rows are moved in batches; each batch is copied and deleted in its own
+     * transaction so a failure never loses or duplicates a reservation.
+     * @param cutoff Reservations with checkout_date strictly before this date are archived
+     * @param batchSize Maximum number of reservations moved per transaction
+     * @return Number of reservations archived (stops at the first failed batch)
+     */
+    public int archiveReservationsBefore(LocalDate cutoff, int batchSize) {
+        int archived = 0;
+        DaoMetrics.Call call = DaoMetrics.start("ReservationArchiveDAO.archiveReservationsBefore");
+        try (Connection conn = DBConnection.getInstance().createConnection()) {
+            conn.setAutoCommit(false);
+            while (true) {
+                List<Integer> ids = findArchivableIds(conn, cutoff, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                archived += moveBatch(conn, ids);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error archiving reservations: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return archived;
+    }
+
+    /**
+     * Get number of archived reservations
+     * @return Count of reservations in the archive
+     */
+    public int getArchivedReservationsCount() {
+        String sql = "SELECT COUNT(*) FROM reservations_archive";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationArchiveDAO.getArchivedReservationsCount");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error getting archived reservations count: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return 0;
+    }
+
+    private List<Integer> findArchivableIds(Connection conn, LocalDate cutoff, int batchSize) throws SQLException {
+        List<Integer> ids = new ArrayList<>(batchSize);
+        String sql = "SELECT id FROM reservations WHERE checkout_date < ? ORDER BY id LIMIT ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(cutoff));
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        conn.commit();
+        return ids;
+    }
+
+    /**
+     * Copy one batch into the archive and delete it from the live table
+     * @return Number of reservations moved
+     */
+    private int moveBatch(Connection conn, List<Integer> ids) throws SQLException {
+        String inList = placeholders(ids.size());
+        String copySql = "INSERT INTO reservations_archive (" + RESERVATION_COLUMNS + ", archived_at) " +
+                "SELECT " + RESERVATION_COLUMNS + ", CURRENT_TIMESTAMP FROM reservations WHERE id IN (" + inList + ")";
+        String deleteSql = "DELETE FROM reservations WHERE id IN (" + inList + ")";
+
+        try (PreparedStatement copy = conn.prepareStatement(copySql);
+             PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                copy.setInt(i + 1, ids.get(i));
+                delete.setInt(i + 1, ids.get(i));
+            }
+
+            int copied = copy.executeUpdate();
+            int deleted = delete.executeUpdate();
+            if (copied != deleted) {
+                throw new SQLException("Archive batch mismatch: copied " + copied + ", deleted " + deleted);
+            }
+            // Archived rows leave the live table; open reservation lists drop them
+            ChangeDAO.recordAll(conn, Change.Entity.RESERVATION, ids, Change.Operation.DELETE);
+            conn.commit();
+            SingleFlight.getInstance().invalidate();
+            return deleted;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+}
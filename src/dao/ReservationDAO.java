@@ -1,76 +1,143 @@
 package dao;
 
+import metrics.DaoMetrics;
 import model.*;
 import util.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.time.LocalDate;
 
 public class ReservationDAO {
 
+    private final SingleFlight reads = SingleFlight.getInstance();
+
     /**
      * Create a new reservation
      * @param reservation Reservation object to create
      * @return true if successful, false otherwise
      */
     public boolean createReservation(Reservation reservation) {
-        String sql = "INSERT INTO reservations (guest_id, room_id, checkin_date, checkout_date, created_at) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, reservation.getGuestId());
-            stmt.setInt(2, reservation.getRoomId());
-            stmt.setDate(3, Date.valueOf(reservation.getCheckinDate()));
-            stmt.setDate(4, Date.valueOf(reservation.getCheckoutDate()));
-            stmt.setTimestamp(5, Timestamp.valueOf(reservation.getCreatedAt()));
-
-            boolean success = stmt.executeUpdate() > 0;
-
-            // Set the generated ID back to the reservation object
-            if (success) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        reservation.setId(generatedKeys.getInt(1));
+        String sql = "INSERT INTO reservations (guest_id, room_id, checkin_date, checkout_date, created_at, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.createReservation");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setInt(1, reservation.getGuestId());
+                    stmt.setInt(2, reservation.getRoomId());
+                    stmt.setDate(3, Date.valueOf(reservation.getCheckinDate()));
+                    stmt.setDate(4, Date.valueOf(reservation.getCheckoutDate()));
+                    stmt.setTimestamp(5, Timestamp.valueOf(reservation.getCreatedAt()));
+                    stmt.setString(6, reservation.getStatus().name());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
                     }
-                }
 
-                // Update room status to occupied
-                updateRoomStatus(reservation.getRoomId(), "Occupied");
-            }
+                    // Set the generated ID back to the reservation object
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            reservation.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                    ChangeDAO.record(tx, Change.Entity.RESERVATION, reservation.getId(), Change.Operation.INSERT);
 
-            return success;
+                    // Update room status to occupied
+                    updateRoomStatus(tx, reservation.getRoomId(), "Occupied");
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error creating reservation: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
+        }
+    }
+
+    /**
+     * Create many reservations using JDBC batches in chunked transactions
+     * The booked rooms are marked as occupied in the same transactions
+     * @param reservations Reservations to create (generated IDs are set back on them)
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createReservations(List<Reservation> reservations) {
+        return createReservations(reservations, true);
+    }
+
+    /**
+     * Create many reservations using JDBC batches in chunked transactions
+     * @param reservations Reservations to create (generated IDs are set back on them)
+     * @param markRoomsOccupied true to batch-update the booked rooms to occupied
+     *                          (pass false when importing historical stays)
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createReservations(List<Reservation> reservations, boolean markRoomsOccupied) {
+        String sql = "INSERT INTO reservations (guest_id, room_id, checkin_date, checkout_date, created_at, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        BatchResult result = BatchExecutor.insert(sql, Change.Entity.RESERVATION, reservations, BatchExecutor.DEFAULT_CHUNK_SIZE,
+                (stmt, reservation) -> {
+                    stmt.setInt(1, reservation.getGuestId());
+                    stmt.setInt(2, reservation.getRoomId());
+                    stmt.setDate(3, Date.valueOf(reservation.getCheckinDate()));
+                    stmt.setDate(4, Date.valueOf(reservation.getCheckoutDate()));
+                    stmt.setTimestamp(5, Timestamp.valueOf(reservation.getCreatedAt()));
+                    stmt.setString(6, reservation.getStatus().name());
+                },
+                Reservation::setId,
+                markRoomsOccupied ? this::markRoomsOccupied : null);
+
+        if (result.getFailureCount() > 0) {
+            System.err.println("Batch reservation insert: " + result.getFailureCount() + " row(s) rejected");
         }
+        return result;
     }
 
     /**
-     * Get all reservations with guest and room details
-     * @return List of all reservations
+     * Get all current reservations with guest and room details
+     * Archived reservations are not included, see getReservationHistory()
+     * @return List of all reservations in the live table
      */
     public List<Reservation> getAllReservations() {
+        try {
+            return reads.loadList("ReservationDAO.getAllReservations", this::fetchAllReservations);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving all reservations: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Reservation> fetchAllReservations() throws SQLException {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
                 "JOIN rooms rm ON r.room_id = rm.id " +
                 "ORDER BY r.created_at DESC";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.fetchAllReservations");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving all reservations: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return reservations;
     }
@@ -81,13 +148,14 @@ public class ReservationDAO {
      * @return Reservation object or null if not found
      */
     public Reservation getReservationById(int id) {
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
                 "JOIN rooms rm ON r.room_id = rm.id " +
                 "WHERE r.id = ?";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationById");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -95,11 +163,15 @@ public class ReservationDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
+                call.row();
                 return createReservationFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error finding reservation by ID: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
@@ -107,11 +179,11 @@ public class ReservationDAO {
     /**
      * Get reservations by guest ID
      * @param guestId Guest ID
-     * @return List of reservations for the specified guest
+     * @return List of reservations for the specified guest (archived ones excluded)
      */
     public List<Reservation> getReservationsByGuest(int guestId) {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
@@ -119,6 +191,7 @@ public class ReservationDAO {
                 "WHERE r.guest_id = ? " +
                 "ORDER BY r.checkin_date DESC";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationsByGuest");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -126,12 +199,16 @@ public class ReservationDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving reservations by guest: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return reservations;
     }
@@ -141,26 +218,40 @@ public class ReservationDAO {
      * @return List of active reservations
      */
     public List<Reservation> getActiveReservations() {
+        try {
+            return reads.loadList("ReservationDAO.getActiveReservations", this::fetchActiveReservations);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving active reservations: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Reservation> fetchActiveReservations() throws SQLException {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
                 "JOIN rooms rm ON r.room_id = rm.id " +
-                "WHERE CURRENT_DATE >= r.checkin_date AND CURRENT_DATE < r.checkout_date " +
+                "WHERE r.status = 'CHECKED_IN' " +
                 "ORDER BY r.checkin_date";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.fetchActiveReservations");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving active reservations: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return reservations;
     }
@@ -170,26 +261,40 @@ public class ReservationDAO {
      * @return List of upcoming reservations
      */
     public List<Reservation> getUpcomingReservations() {
+        try {
+            return reads.loadList("ReservationDAO.getUpcomingReservations", this::fetchUpcomingReservations);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving upcoming reservations: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Reservation> fetchUpcomingReservations() throws SQLException {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
                 "JOIN rooms rm ON r.room_id = rm.id " +
-                "WHERE r.checkin_date > CURRENT_DATE " +
+                "WHERE r.status = 'BOOKED' " +
                 "ORDER BY r.checkin_date";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.fetchUpcomingReservations");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving upcoming reservations: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return reservations;
     }
@@ -197,11 +302,11 @@ public class ReservationDAO {
     /**
      * Get reservations by room ID
      * @param roomId Room ID
-     * @return List of reservations for the specified room
+     * @return List of reservations for the specified room (archived ones excluded)
      */
     public List<Reservation> getReservationsByRoom(int roomId) {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
@@ -209,6 +314,7 @@ public class ReservationDAO {
                 "WHERE r.room_id = ? " +
                 "ORDER BY r.checkin_date DESC";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationsByRoom");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -216,12 +322,16 @@ public class ReservationDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving reservations by room: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return reservations;
     }
@@ -234,7 +344,7 @@ public class ReservationDAO {
      */
     public List<Reservation> getReservationsByDateRange(LocalDate startDate, LocalDate endDate) {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, " +
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
                 "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
                 "FROM reservations r " +
                 "JOIN guests g ON r.guest_id = g.id " +
@@ -244,6 +354,7 @@ public class ReservationDAO {
                 "OR (r.checkin_date < ? AND r.checkout_date > ?) " +
                 "ORDER BY r.checkin_date";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationsByDateRange");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -257,37 +368,366 @@ public class ReservationDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Reservation reservation = createReservationFromResultSet(rs);
                 reservations.add(reservation);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving reservations by date range: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return reservations;
     }
 
     /**
-     * Update reservation information
-     * @param reservation Reservation object with updated information
-     * @return true if successful, false otherwise
+     * Stream all reservations with guest and room details, ordered by check-in date.
+     * Rows are read from a forward-only cursor and never collected in a list.
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamAllReservations(RowHandler<Reservation> handler) throws Exception {
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
+                "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
+                "FROM reservations r " +
+                "JOIN guests g ON r.guest_id = g.id " +
+                "JOIN rooms rm ON r.room_id = rm.id " +
+                "ORDER BY r.checkin_date, r.id";
+        return streamReservations(sql, handler);
+    }
+
+    /**
+     * Stream every reservation ever made, including archived ones, with guest and
+     * room details, ordered by check-in date (the reservations report).
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamReservationHistory(RowHandler<Reservation> handler) throws Exception {
+        String columns = ReservationArchiveDAO.RESERVATION_COLUMNS;
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
+                "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
+                "FROM (SELECT " + columns + " FROM reservations " +
+                "UNION ALL " +
+                "SELECT " + columns + " FROM reservations_archive) r " +
+                "JOIN guests g ON r.guest_id = g.id " +
+                "JOIN rooms rm ON r.room_id = rm.id " +
+                "ORDER BY r.checkin_date, r.id";
+        return streamReservations(sql, handler);
+    }
+
+    /**
+     * Stream the reservations of guests currently in house, ordered by room number.
+     * @param handler Receives every reservation; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
      */
-    public boolean updateReservation(Reservation reservation) {
-        String sql = "UPDATE reservations SET guest_id=?, room_id=?, checkin_date=?, checkout_date=? WHERE id=?";
+    public long streamActiveReservations(RowHandler<Reservation> handler) throws Exception {
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
+                "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
+                "FROM reservations r " +
+                "JOIN guests g ON r.guest_id = g.id " +
+                "JOIN rooms rm ON r.room_id = rm.id " +
+                "WHERE r.status = 'CHECKED_IN' " +
+                "ORDER BY rm.number";
+        return streamReservations(sql, handler);
+    }
+
+    private long streamReservations(String sql, RowHandler<Reservation> handler) throws Exception {
+        long count = 0;
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.streamReservations");
+        try (Connection conn = DBConnection.getInstance().createConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DBConnection.enableStreaming(stmt);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    call.row();
+                    count++;
+                    if (!handler.handle(createReservationFromResultSet(rs))) {
+                        break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
+        }
+        return count;
+    }
+
+    /**
+     * Get every reservation, including archived ones, with guest and room details
+     * @return List of all reservations ever made, most recent check-in first
+     */
+    public List<Reservation> getReservationHistory() {
+        return getHistory("1 = 1", null, "Error retrieving reservation history: ");
+    }
+
+    /**
+     * Get every reservation of a guest, including archived ones
+     * @param guestId Guest ID
+     * @return List of reservations for the guest, most recent check-in first
+     */
+    public List<Reservation> getReservationHistoryByGuest(int guestId) {
+        return getHistory("guest_id = ?", guestId, "Error retrieving reservation history by guest: ");
+    }
+
+    /**
+     * Get every reservation of a room, including archived ones
+     * @param roomId Room ID
+     * @return List of reservations for the room, most recent check-in first
+     */
+    public List<Reservation> getReservationHistoryByRoom(int roomId) {
+        return getHistory("room_id = ?", roomId, "Error retrieving reservation history by room: ");
+    }
+
+    /**
+     * Get all reservations that have checked out, including archived ones
+     * @return List of past reservations, most recent check-in first
+     */
+    public List<Reservation> getPastReservations() {
+        return getHistory("status IN ('CHECKED_OUT', 'CANCELLED', 'NO_SHOW')", null, "Error retrieving past reservations: ");
+    }
+
+    /**
+     * Query the live and archive tables together.
+     * The condition is applied to each table before the UNION ALL so both
+     * sides can use their own indexes.
+     */
+    private List<Reservation> getHistory(String condition, Integer param, String errorMessage) {
+        List<Reservation> reservations = new ArrayList<>();
+        String columns = ReservationArchiveDAO.RESERVATION_COLUMNS;
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
+                "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
+                "FROM (SELECT " + columns + " FROM reservations WHERE " + condition + " " +
+                "UNION ALL " +
+                "SELECT " + columns + " FROM reservations_archive WHERE " + condition + ") r " +
+                "JOIN guests g ON r.guest_id = g.id " +
+                "JOIN rooms rm ON r.room_id = rm.id " +
+                "ORDER BY r.checkin_date DESC";
+
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getHistory");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, reservation.getGuestId());
-            stmt.setInt(2, reservation.getRoomId());
-            stmt.setDate(3, Date.valueOf(reservation.getCheckinDate()));
-            stmt.setDate(4, Date.valueOf(reservation.getCheckoutDate()));
-            stmt.setInt(5, reservation.getId());
+            if (param != null) {
+                stmt.setInt(1, param);
+                stmt.setInt(2, param);
+            }
+            ResultSet rs = stmt.executeQuery();
 
-            return stmt.executeUpdate() > 0;
+            while (rs.next()) {
+                call.row();
+                reservations.add(createReservationFromResultSet(rs));
+            }
         } catch (SQLException e) {
+            call.failed();
+            System.err.println(errorMessage + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return reservations;
+    }
+
+    /**
+     * Count reservations matching a filter (for paged tables)
+     * @param filter Reservation filter
+     * @return Number of matching reservations
+     */
+    public int countReservations(ReservationFilter filter) {
+        List<String> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) " + filteredFrom(filter, params);
+
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.countReservations");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindStrings(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error counting reservations: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return 0;
+    }
+
+    /**
+     * Get one page of reservations matching a filter
+     * @param filter Reservation filter
+     * @param sortKey guest, contact, room, type, checkin, checkout, status or created (others sort by created)
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Reservations of the page
+     */
+    public List<Reservation> getReservationsPage(ReservationFilter filter, String sortKey, boolean ascending,
+                                                 int offset, int limit) {
+        List<Reservation> reservations = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        String direction = ascending ? " ASC" : " DESC";
+        // r.id breaks ties so rows never move between pages
+        String sql = "SELECT r.*, g.name as guest_name, g.contact as guest_contact, g.guest_type, g.discount_rate, " +
+                "rm.number as room_number, rm.type as room_type, rm.status as room_status " +
+                filteredFrom(filter, params) +
+                " ORDER BY " + sortColumn(sortKey) + direction + ", r.id" + direction +
+                " LIMIT ? OFFSET ?";
+
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationsPage");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = bindStrings(stmt, params);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                call.row();
+                reservations.add(createReservationFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error retrieving reservations page: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return reservations;
+    }
+
+    /**
+     * Build the FROM ... WHERE part of a filtered reservation query
+     * @param filter Reservation filter
+     * @param params Receives the parameter values in order
+     * @return SQL fragment using the aliases r, g and rm
+     */
+    private String filteredFrom(ReservationFilter filter, List<String> params) {
+        StringBuilder statusCondition = new StringBuilder();
+        if (!filter.getStatuses().isEmpty()) {
+            statusCondition.append("status IN (");
+            boolean first = true;
+            for (ReservationStatus status : filter.getStatuses()) {
+                statusCondition.append(first ? "?" : ", ?");
+                first = false;
+            }
+            statusCondition.append(")");
+        }
+
+        StringBuilder sql = new StringBuilder("FROM ");
+        List<String> conditions = new ArrayList<>();
+        if (filter.isIncludeArchived()) {
+            String columns = ReservationArchiveDAO.RESERVATION_COLUMNS;
+            String where = statusCondition.length() > 0 ? " WHERE " + statusCondition : "";
+            sql.append("(SELECT ").append(columns).append(" FROM reservations").append(where)
+                    .append(" UNION ALL SELECT ").append(columns).append(" FROM reservations_archive").append(where)
+                    .append(") r");
+            addStatusParams(filter, params);
+            addStatusParams(filter, params);
+        } else {
+            sql.append("reservations r");
+            if (statusCondition.length() > 0) {
+                conditions.add("r." + statusCondition);
+                addStatusParams(filter, params);
+            }
+        }
+        sql.append(" JOIN guests g ON r.guest_id = g.id JOIN rooms rm ON r.room_id = rm.id");
+
+        if (filter.getGuestName() != null) {
+            conditions.add("g.name LIKE ?");
+            params.add("%" + filter.getGuestName() + "%");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return sql.toString();
+    }
+
+    private void addStatusParams(ReservationFilter filter, List<String> params) {
+        for (ReservationStatus status : filter.getStatuses()) {
+            params.add(status.name());
+        }
+    }
+
+    private int bindStrings(PreparedStatement stmt, List<String> params) throws SQLException {
+        int index = 1;
+        for (String param : params) {
+            stmt.setString(index++, param);
+        }
+        return index;
+    }
+
+    /**
+     * Map a table sort key to a column; unknown keys fall back to the creation time
+     */
+    private String sortColumn(String sortKey) {
+        if (sortKey == null) {
+            return "r.created_at";
+        }
+        switch (sortKey) {
+            case "guest": return "g.name";
+            case "contact": return "g.contact";
+            case "room": return "rm.number";
+            case "type": return "rm.type";
+            case "checkin": return "r.checkin_date";
+            case "checkout": return "r.checkout_date";
+            case "status": return "r.status";
+            default: return "r.created_at";
+        }
+    }
+
+    /**
+     * Update reservation information if nobody else changed the reservation since it was read
+     * @param reservation Reservation object with updated information and the version it was read at
+     * @return UPDATED (the reservation's version is incremented), CONFLICT, NOT_FOUND or ERROR
+     */
+    public UpdateResult updateReservation(Reservation reservation) {
+        String sql = "UPDATE reservations SET guest_id=?, room_id=?, checkin_date=?, checkout_date=?, version=version+1 " +
+                "WHERE id=? AND version=?";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.updateReservation");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean updated = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setInt(1, reservation.getGuestId());
+                    stmt.setInt(2, reservation.getRoomId());
+                    stmt.setDate(3, Date.valueOf(reservation.getCheckinDate()));
+                    stmt.setDate(4, Date.valueOf(reservation.getCheckoutDate()));
+                    stmt.setInt(5, reservation.getId());
+                    stmt.setInt(6, reservation.getVersion());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.RESERVATION, reservation.getId(), Change.Operation.UPDATE);
+                    return true;
+                }
+            });
+
+            if (updated) {
+                reservation.setVersion(reservation.getVersion() + 1);
+                return UpdateResult.UPDATED;
+            }
+            // No row matched: either the version moved on or the reservation is gone
+            return reservationExists(reservation.getId()) ? UpdateResult.CONFLICT : UpdateResult.NOT_FOUND;
+        } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating reservation: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return UpdateResult.ERROR;
+        } finally {
+            call.end();
         }
     }
 
@@ -304,22 +744,28 @@ public class ReservationDAO {
         }
 
         String sql = "DELETE FROM reservations WHERE id=?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, reservationId);
-            boolean success = stmt.executeUpdate() > 0;
-
-            // Update room status back to available
-            if (success) {
-                updateRoomStatus(reservation.getRoomId(), "Available");
-            }
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.deleteReservation");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setInt(1, reservationId);
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.RESERVATION, reservationId, Change.Operation.DELETE);
 
-            return success;
+                    // Update room status back to available unless another guest is checked into it
+                    releaseRoom(tx, reservation.getRoomId(), reservationId);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error deleting reservation: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
@@ -332,8 +778,9 @@ public class ReservationDAO {
      */
     public boolean isRoomAvailable(int roomId, LocalDate checkinDate, LocalDate checkoutDate) {
         String sql = "SELECT COUNT(*) FROM reservations WHERE room_id = ? AND " +
-                "(checkin_date < ? AND checkout_date > ?)";
+                "(checkin_date < ? AND checkout_date > ?) AND status IN ('BOOKED', 'CHECKED_IN')";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.isRoomAvailable");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -346,8 +793,11 @@ public class ReservationDAO {
                 return rs.getInt(1) == 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking room availability: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -362,8 +812,9 @@ public class ReservationDAO {
      */
     public boolean isRoomAvailable(int roomId, LocalDate checkinDate, LocalDate checkoutDate, int excludeReservationId) {
         String sql = "SELECT COUNT(*) FROM reservations WHERE room_id = ? AND id != ? AND " +
-                "(checkin_date < ? AND checkout_date > ?)";
+                "(checkin_date < ? AND checkout_date > ?) AND status IN ('BOOKED', 'CHECKED_IN')";
 
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.isRoomAvailable");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -377,12 +828,47 @@ public class ReservationDAO {
                 return rs.getInt(1) == 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking room availability: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
 
+    /**
+     * Find double bookings: overlapping stays in the same room among the
+     * reservations that hold their room (BOOKED or CHECKED_IN)
+     * @return One {roomId, reservationId, otherReservationId} entry per overlapping pair
+     */
+    public List<int[]> findDoubleBookings() {
+        List<int[]> overlaps = new ArrayList<>();
+        String sql = "SELECT a.room_id, a.id, b.id FROM reservations a " +
+                "JOIN reservations b ON b.room_id = a.room_id AND b.id > a.id " +
+                "AND b.checkin_date < a.checkout_date AND b.checkout_date > a.checkin_date " +
+                "AND b.status IN ('BOOKED', 'CHECKED_IN') " +
+                "WHERE a.status IN ('BOOKED', 'CHECKED_IN') ORDER BY a.room_id, a.id";
+
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.findDoubleBookings");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                call.row();
+                overlaps.add(new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)});
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error finding double bookings: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return overlaps;
+    }
+
     /**
      * Check if reservation exists
      * @param id Reservation ID
@@ -390,6 +876,7 @@ public class ReservationDAO {
      */
     public boolean reservationExists(int id) {
         String sql = "SELECT COUNT(*) FROM reservations WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.reservationExists");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -400,8 +887,11 @@ public class ReservationDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking if reservation exists: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -412,6 +902,7 @@ public class ReservationDAO {
      */
     public int getTotalReservationsCount() {
         String sql = "SELECT COUNT(*) FROM reservations";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getTotalReservationsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -420,8 +911,90 @@ public class ReservationDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting total reservations count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return 0;
+    }
+
+    /**
+     * Natural key of a stay: the same guest in the same room from the same day
+     * @return Key as returned by findExistingStayKeys
+     */
+    public static String stayKey(int guestId, int roomId, LocalDate checkinDate) {
+        return guestId + "|" + roomId + "|" + checkinDate;
+    }
+
+    /**
+     * Find which of the given stays already exist, live or archived (for import dedupe)
+     * @param stays Stays to look up, e.g. one import chunk
+     * @return Keys (built with stayKey) of the stays that exist
+     */
+    public Set<String> findExistingStayKeys(Collection<Reservation> stays) {
+        Set<String> keys = new HashSet<>();
+        if (stays.isEmpty()) {
+            return keys;
+        }
+        StringBuilder tuples = new StringBuilder();
+        for (int i = 0; i < stays.size(); i++) {
+            tuples.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        String sql = "SELECT guest_id, room_id, checkin_date FROM reservations " +
+                "WHERE (guest_id, room_id, checkin_date) IN (" + tuples + ") " +
+                "UNION ALL SELECT guest_id, room_id, checkin_date FROM reservations_archive " +
+                "WHERE (guest_id, room_id, checkin_date) IN (" + tuples + ")";
+
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.findExistingStayKeys");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int param = 1;
+            for (int table = 0; table < 2; table++) {
+                for (Reservation stay : stays) {
+                    stmt.setInt(param++, stay.getGuestId());
+                    stmt.setInt(param++, stay.getRoomId());
+                    stmt.setDate(param++, Date.valueOf(stay.getCheckinDate()));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    keys.add(stayKey(rs.getInt("guest_id"), rs.getInt("room_id"), rs.getDate("checkin_date").toLocalDate()));
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error looking up existing stays: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return keys;
+    }
+
+    /**
+     * Get number of reservations ever made, including archived ones
+     * @return Count of live and archived reservations
+     */
+    public int getReservationHistoryCount() {
+        String sql = "SELECT (SELECT COUNT(*) FROM reservations) + (SELECT COUNT(*) FROM reservations_archive)";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getReservationHistoryCount");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error getting reservation history count: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -431,7 +1004,8 @@ public class ReservationDAO {
      * @return Count of active reservations
      */
     public int getActiveReservationsCount() {
-        String sql = "SELECT COUNT(*) FROM reservations WHERE CURRENT_DATE >= checkin_date AND CURRENT_DATE < checkout_date";
+        String sql = "SELECT COUNT(*) FROM reservations WHERE status = 'CHECKED_IN'";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getActiveReservationsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -440,8 +1014,11 @@ public class ReservationDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting active reservations count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -451,7 +1028,8 @@ public class ReservationDAO {
      * @return Count of upcoming reservations
      */
     public int getUpcomingReservationsCount() {
-        String sql = "SELECT COUNT(*) FROM reservations WHERE checkin_date > CURRENT_DATE";
+        String sql = "SELECT COUNT(*) FROM reservations WHERE status = 'BOOKED'";
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.getUpcomingReservationsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -460,57 +1038,166 @@ public class ReservationDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting upcoming reservations count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
 
     /**
-     * Check out a guest (update room status to available)
+     * Check in a guest: BOOKED -> CHECKED_IN and the room becomes occupied
      * @param reservationId Reservation ID
-     * @return true if successful, false otherwise
+     * @return true if the transition was applied, false if the reservation is not booked
+     */
+    public boolean checkInGuest(int reservationId) {
+        return transition(reservationId, ReservationStatus.BOOKED, ReservationStatus.CHECKED_IN, "Occupied");
+    }
+
+    /**
+     * Check out a guest: CHECKED_IN -> CHECKED_OUT and the room becomes available
+     * @param reservationId Reservation ID
+     * @return true if the transition was applied, false if the guest is not checked in
      */
     public boolean checkOutGuest(int reservationId) {
-        Reservation reservation = getReservationById(reservationId);
-        if (reservation == null) {
-            return false;
-        }
-        return updateRoomStatus(reservation.getRoomId(), "Available");
+        return transition(reservationId, ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT, "Available");
     }
 
     /**
-     * Check in a guest (update room status to occupied)
+     * Cancel a reservation: BOOKED -> CANCELLED and the room is released
+     * (unless another guest is checked into it)
      * @param reservationId Reservation ID
-     * @return true if successful, false otherwise
+     * @return true if the transition was applied, false if the reservation is not booked
      */
-    public boolean checkInGuest(int reservationId) {
-        Reservation reservation = getReservationById(reservationId);
-        if (reservation == null) {
+    public boolean cancelReservation(int reservationId) {
+        return transition(reservationId, ReservationStatus.BOOKED, ReservationStatus.CANCELLED, "Available");
+    }
+
+    /**
+     * Mark a reservation as a no-show: BOOKED -> NO_SHOW and the room is released
+     * (unless another guest is checked into it)
+     * @param reservationId Reservation ID
+     * @return true if the transition was applied, false if the reservation is not booked
+     */
+    public boolean markNoShow(int reservationId) {
+        return transition(reservationId, ReservationStatus.BOOKED, ReservationStatus.NO_SHOW, "Available");
+    }
+
+    /**
+     * Apply a lifecycle transition to the reservation and its room in one transaction.
+     * The expected current status is part of the WHERE clause, so concurrent or
+     * repeated transitions cannot both succeed.
+     * @param reservationId Reservation ID
+     * @param from Status the reservation must currently have
+     * @param to New reservation status
+     * @param roomStatus New room status
+     * @return true if the transition was applied
+     */
+    private boolean transition(int reservationId, ReservationStatus from, ReservationStatus to, String roomStatus) {
+        String reservationSql = "UPDATE reservations SET status = ?, version = version + 1 WHERE id = ? AND status = ?";
+        // A room is only released if no other guest is checked into it
+        String roomSql = "UPDATE rooms SET status = ?, version = version + 1 " +
+                "WHERE id = (SELECT room_id FROM reservations WHERE id = ?)" +
+                (to == ReservationStatus.CHECKED_IN ? "" : " AND NOT EXISTS (SELECT 1 FROM reservations o " +
+                        "WHERE o.room_id = rooms.id AND o.status = 'CHECKED_IN' AND o.id <> ?)");
+        DaoMetrics.Call call = DaoMetrics.start("ReservationDAO.transition");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(reservationSql)) {
+                    stmt.setString(1, to.name());
+                    stmt.setInt(2, reservationId);
+                    stmt.setString(3, from.name());
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
+                ChangeDAO.record(tx, Change.Entity.RESERVATION, reservationId, Change.Operation.UPDATE);
+
+                try (PreparedStatement stmt = tx.prepareStatement(roomSql)) {
+                    stmt.setString(1, roomStatus);
+                    stmt.setInt(2, reservationId);
+                    if (to != ReservationStatus.CHECKED_IN) {
+                        stmt.setInt(3, reservationId);
+                    }
+                    if (stmt.executeUpdate() > 0) {
+                        ChangeDAO.recordRoomOf(tx, reservationId);
+                    }
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error changing reservation status to " + to + ": " + e.getMessage());
+            e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
-        return updateRoomStatus(reservation.getRoomId(), "Occupied");
     }
 
     /**
-     * Update room status
+     * Update room status in the running transaction
+     * @param conn Connection of the running transaction
      * @param roomId Room ID
      * @param status New status
-     * @return true if successful, false otherwise
+     * @throws SQLException if the update fails
      */
-    private boolean updateRoomStatus(int roomId, String status) {
-        String sql = "UPDATE rooms SET status=? WHERE id=?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+    private void updateRoomStatus(Connection conn, int roomId, String status) throws SQLException {
+        String sql = "UPDATE rooms SET status=?, version=version+1 WHERE id=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, status);
             stmt.setInt(2, roomId);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating room status: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            if (stmt.executeUpdate() > 0) {
+                ChangeDAO.record(conn, Change.Entity.ROOM, roomId, Change.Operation.UPDATE);
+            }
+        }
+    }
+
+    /**
+     * Set a room available unless a reservation other than the given one is checked into it
+     * (same guard as transition)
+     * @param conn Connection of the running transaction
+     * @param roomId Room ID
+     * @param reservationId Reservation that no longer holds the room
+     * @throws SQLException if the update fails
+     */
+    private void releaseRoom(Connection conn, int roomId, int reservationId) throws SQLException {
+        String sql = "UPDATE rooms SET status = 'Available', version = version + 1 WHERE id = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM reservations o " +
+                "WHERE o.room_id = rooms.id AND o.status = 'CHECKED_IN' AND o.id <> ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, roomId);
+            stmt.setInt(2, reservationId);
+            if (stmt.executeUpdate() > 0) {
+                ChangeDAO.record(conn, Change.Entity.ROOM, roomId, Change.Operation.UPDATE);
+            }
+        }
+    }
+
+    /**
+     * Batch-update the rooms of freshly inserted reservations to occupied
+     * @param conn Connection of the running batch transaction
+     * @param reservations Reservations inserted in the current chunk
+     * @throws SQLException if the update fails (the chunk is rolled back)
+     */
+    private void markRoomsOccupied(Connection conn, List<Reservation> reservations) throws SQLException {
+        String sql = "UPDATE rooms SET status=?, version=version+1 WHERE id=?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Reservation reservation : reservations) {
+                stmt.setString(1, "Occupied");
+                stmt.setInt(2, reservation.getRoomId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        List<Integer> roomIds = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            roomIds.add(reservation.getRoomId());
         }
+        ChangeDAO.recordAll(conn, Change.Entity.ROOM, roomIds, Change.Operation.UPDATE);
     }
 
     /**
@@ -556,6 +1243,8 @@ public class ReservationDAO {
         if (createdAt != null) {
             reservation.setCreatedAt(createdAt.toLocalDateTime());
         }
+        reservation.setStatus(ReservationStatus.fromString(rs.getString("status")));
+        reservation.setVersion(rs.getInt("version"));
 
         return reservation;
     }}
@@ -1,47 +1,106 @@
 package dao;
 
+import metrics.DaoMetrics;
+import model.Amenity;
+import model.Change;
 import model.Room;
+import model.RoomFilter;
 import util.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.time.LocalDate;
 
 public class RoomDAO {
 
+    private final SingleFlight reads = SingleFlight.getInstance();
+
+    // Room numbers in use, shared by every RoomDAO
+    private static final UniqueKeyFilter ROOM_NUMBERS = new UniqueKeyFilter("room number", RoomDAO::loadRoomNumbers);
+    // Serialises the first load of the amenity index
+    private static final Object AMENITY_INDEX_LOAD = new Object();
+
     /**
      * Create a new room
      * @param room Room object to create
      * @return true if successful, false otherwise
      */
     public boolean createRoom(Room room) {
-        String sql = "INSERT INTO rooms (number, type, status, base_price, description) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, room.getNumber());
-            stmt.setString(2, room.getType());
-            stmt.setString(3, room.getStatus());
-            stmt.setDouble(4, room.getBasePrice());
-            stmt.setString(5, room.getDescription());
-
-            boolean success = stmt.executeUpdate() > 0;
+        String sql = "INSERT INTO rooms (number, type, status, base_price, description, amenities) VALUES (?, ?, ?, ?, ?, ?)";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.createRoom");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean success = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, room.getNumber());
+                    stmt.setString(2, room.getType());
+                    stmt.setString(3, room.getStatus());
+                    stmt.setDouble(4, room.getBasePrice());
+                    stmt.setString(5, room.getDescription());
+                    stmt.setInt(6, room.getAmenities());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
 
-            // Set the generated ID back to the room object
-            if (success) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        room.setId(generatedKeys.getInt(1));
+                    // Set the generated ID back to the room object
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            room.setId(generatedKeys.getInt(1));
+                        }
                     }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, room.getId(), Change.Operation.INSERT);
+                    return true;
                 }
-            }
+            });
 
+            if (success) {
+                indexAmenities(room);
+                ROOM_NUMBERS.add(room.getNumber());
+            }
             return success;
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error creating room: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
+        }
+    }
+
+    /**
+     * Create many rooms using JDBC batches in chunked transactions
+     * @param rooms Rooms to create (generated IDs are set back on them)
+     * @return Generated keys and per-row failures
+     */
+    public BatchResult createRooms(List<Room> rooms) {
+        String sql = "INSERT INTO rooms (number, type, status, base_price, description, amenities) VALUES (?, ?, ?, ?, ?, ?)";
+        BatchResult result = BatchExecutor.insert(sql, Change.Entity.ROOM, rooms, BatchExecutor.DEFAULT_CHUNK_SIZE,
+                (stmt, room) -> {
+                    stmt.setString(1, room.getNumber());
+                    stmt.setString(2, room.getType());
+                    stmt.setString(3, room.getStatus());
+                    stmt.setDouble(4, room.getBasePrice());
+                    stmt.setString(5, room.getDescription());
+                    stmt.setInt(6, room.getAmenities());
+                },
+                (room, id) -> {
+                    room.setId(id);
+                    indexAmenities(room);
+                    ROOM_NUMBERS.add(room.getNumber());
+                },
+                null);
+
+        if (result.getFailureCount() > 0) {
+            System.err.println("Batch room insert: " + result.getFailureCount() + " row(s) rejected");
         }
+        return result;
     }
 
     /**
@@ -49,24 +108,71 @@ public class RoomDAO {
      * @return List of all rooms
      */
     public List<Room> getAllRooms() {
+        try {
+            return reads.loadList("RoomDAO.getAllRooms", this::fetchAllRooms);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving rooms: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Room> fetchAllRooms() throws SQLException {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.fetchAllRooms");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving rooms: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return rooms;
     }
 
+    /**
+     * Stream all rooms ordered by number from a forward-only cursor
+     * @param handler Receives every room; return false to stop
+     * @return Number of rows handled
+     * @throws Exception if the query or the handler fails
+     */
+    public long streamAllRooms(RowHandler<Room> handler) throws Exception {
+        String sql = "SELECT * FROM rooms ORDER BY number";
+        long count = 0;
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.streamAllRooms");
+        try (Connection conn = DBConnection.getInstance().createConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DBConnection.enableStreaming(stmt);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    call.row();
+                    count++;
+                    if (!handler.handle(createRoomFromResultSet(rs))) {
+                        break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
+        }
+        return count;
+    }
+
     /**
      * Get room by ID
      * @param id Room ID
@@ -74,6 +180,7 @@ public class RoomDAO {
      */
     public Room getRoomById(int id) {
         String sql = "SELECT * FROM rooms WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomById");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -81,11 +188,15 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
+                call.row();
                 return createRoomFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error finding room by ID: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
@@ -97,6 +208,7 @@ public class RoomDAO {
      */
     public Room getRoomByNumber(String number) {
         String sql = "SELECT * FROM rooms WHERE number = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomByNumber");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -104,11 +216,15 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
+                call.row();
                 return createRoomFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error finding room by number: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
@@ -118,20 +234,34 @@ public class RoomDAO {
      * @return List of available rooms
      */
     public List<Room> getAvailableRooms() {
+        try {
+            return reads.loadList("RoomDAO.getAvailableRooms", this::fetchAvailableRooms);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving available rooms: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Room> fetchAvailableRooms() throws SQLException {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE status = 'Available' ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.fetchAvailableRooms");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving available rooms: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return rooms;
     }
@@ -145,6 +275,7 @@ public class RoomDAO {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE type = ? ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomsByType");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -152,12 +283,16 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving rooms by type: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
@@ -168,9 +303,20 @@ public class RoomDAO {
      * @return List of available rooms of specified type
      */
     public List<Room> getAvailableRoomsByType(String type) {
+        try {
+            return reads.loadList("RoomDAO.getAvailableRoomsByType:" + type, () -> fetchAvailableRoomsByType(type));
+        } catch (SQLException e) {
+            System.err.println("Error retrieving available rooms by type: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Room> fetchAvailableRoomsByType(String type) throws SQLException {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE type = ? AND status = 'Available' ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.fetchAvailableRoomsByType");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -178,12 +324,15 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving available rooms by type: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return rooms;
     }
@@ -196,10 +345,12 @@ public class RoomDAO {
      */
     public List<Room> getAvailableRoomsForDateRange(LocalDate checkinDate, LocalDate checkoutDate) {
         List<Room> rooms = new ArrayList<>();
-        String sql = "SELECT r.* FROM rooms r WHERE r.status = 'Available' AND r.id NOT IN " +
-                "(SELECT DISTINCT room_id FROM reservations WHERE " +
-                "(checkin_date < ? AND checkout_date > ?)) ORDER BY r.number";
+        String sql = "SELECT r.* FROM rooms r WHERE r.status = 'Available' AND NOT EXISTS " +
+                "(SELECT 1 FROM reservations res WHERE res.room_id = r.id " +
+                "AND res.status IN ('BOOKED', 'CHECKED_IN') " +
+                "AND res.checkin_date < ? AND res.checkout_date > ?) ORDER BY r.number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getAvailableRoomsForDateRange");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -208,16 +359,143 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving available rooms for date range: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
 
+    /**
+     * Count rooms matching a filter (for paged tables)
+     * @param filter Room filter
+     * @return Number of matching rooms
+     */
+    public int countRooms(RoomFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM rooms r" + filteredWhere(filter, params);
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.countRooms");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParams(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error counting rooms: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return 0;
+    }
+
+    /**
+     * Get one page of rooms matching a filter
+     * @param filter Room filter
+     * @param sortKey id, number, type, status or description (others sort by number)
+     * @param ascending Sort direction
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @return Rooms of the page
+     */
+    public List<Room> getRoomsPage(RoomFilter filter, String sortKey, boolean ascending, int offset, int limit) {
+        List<Room> rooms = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String direction = ascending ? " ASC" : " DESC";
+        // id breaks ties so rows never move between pages
+        String sql = "SELECT r.* FROM rooms r" + filteredWhere(filter, params) +
+                " ORDER BY " + sortColumn(sortKey) + direction + ", r.id" + direction + " LIMIT ? OFFSET ?";
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomsPage");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = bindParams(stmt, params);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                call.row();
+                rooms.add(createRoomFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error retrieving rooms page: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return rooms;
+    }
+
+    /**
+     * Build the WHERE part of a filtered room query
+     * @param filter Room filter
+     * @param params Receives the parameter values in order
+     * @return SQL fragment using the alias r (empty if nothing is filtered)
+     */
+    private String filteredWhere(RoomFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getType() != null) {
+            conditions.add("r.type = ?");
+            params.add(filter.getType());
+        }
+        if (filter.getStatus() != null) {
+            conditions.add("r.status = ?");
+            params.add(filter.getStatus());
+        }
+        if (filter.getAmenities() != 0) {
+            conditions.add("(r.amenities & ?) = ?");
+            params.add(filter.getAmenities());
+            params.add(filter.getAmenities());
+        }
+        if (filter.getFreeFrom() != null && filter.getFreeUntil() != null) {
+            conditions.add("NOT EXISTS (SELECT 1 FROM reservations res WHERE res.room_id = r.id " +
+                    "AND res.status IN ('BOOKED', 'CHECKED_IN') " +
+                    "AND res.checkin_date < ? AND res.checkout_date > ?)");
+            params.add(Date.valueOf(filter.getFreeUntil()));
+            params.add(Date.valueOf(filter.getFreeFrom()));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private int bindParams(PreparedStatement stmt, List<Object> params) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        return index;
+    }
+
+    /**
+     * Map a table sort key to a column; unknown keys fall back to the room number
+     */
+    private String sortColumn(String sortKey) {
+        if (sortKey == null) {
+            return "r.number";
+        }
+        switch (sortKey) {
+            case "id": return "r.id";
+            case "type": return "r.type";
+            case "status": return "r.status";
+            case "description": return "r.description";
+            default: return "r.number";
+        }
+    }
+
     /**
      * Get rooms within a price range
      * @param minPrice Minimum price
@@ -228,6 +506,7 @@ public class RoomDAO {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE base_price >= ? AND base_price <= ? ORDER BY base_price, number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomsByPriceRange");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -236,12 +515,16 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving rooms by price range: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
@@ -256,6 +539,7 @@ public class RoomDAO {
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE status = 'Available' AND base_price >= ? AND base_price <= ? ORDER BY base_price, number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getAvailableRoomsByPriceRange");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -264,25 +548,36 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error retrieving available rooms by price range: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
 
     /**
      * Search rooms by description keyword
+     * Amenity keywords (e.g. "Minibar") are answered from the amenity index
      * @param keyword Keyword to search in description
      * @return List of rooms matching the keyword
      */
     public List<Room> searchRoomsByDescription(String keyword) {
+        Amenity amenity = Amenity.fromLabel(keyword);
+        if (amenity != null) {
+            return getRoomsByAmenities(Set.of(amenity));
+        }
+
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE description LIKE ? ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.searchRoomsByDescription");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -290,25 +585,36 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error searching rooms by description: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
 
     /**
      * Search available rooms by description keyword
+     * Amenity keywords (e.g. "Minibar") are answered from the amenity index
      * @param keyword Keyword to search in description
      * @return List of available rooms matching the keyword
      */
     public List<Room> searchAvailableRoomsByDescription(String keyword) {
+        Amenity amenity = Amenity.fromLabel(keyword);
+        if (amenity != null) {
+            return getAvailableRoomsByAmenities(Set.of(amenity));
+        }
+
         List<Room> rooms = new ArrayList<>();
         String sql = "SELECT * FROM rooms WHERE status = 'Available' AND description LIKE ? ORDER BY number";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.searchAvailableRoomsByDescription");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -316,38 +622,82 @@ public class RoomDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                call.row();
                 Room room = createRoomFromResultSet(rs);
                 rooms.add(room);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error searching available rooms by description: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return rooms;
     }
 
     /**
-     * Update room information
-     * @param room Room object with updated information
-     * @return true if successful, false otherwise
+     * Get rooms offering all the given amenities
+     * @param amenities Required amenities
+     * @return List of matching rooms
      */
-    public boolean updateRoom(Room room) {
-        String sql = "UPDATE rooms SET number = ?, type = ?, status = ?, base_price = ?, description = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    public List<Room> getRoomsByAmenities(Set<Amenity> amenities) {
+        return getRoomsByIds(roomIdsWithAmenities(amenities), false);
+    }
+
+    /**
+     * Get available rooms offering all the given amenities
+     * @param amenities Required amenities
+     * @return List of matching available rooms
+     */
+    public List<Room> getAvailableRoomsByAmenities(Set<Amenity> amenities) {
+        return getRoomsByIds(roomIdsWithAmenities(amenities), true);
+    }
 
-            stmt.setString(1, room.getNumber());
-            stmt.setString(2, room.getType());
-            stmt.setString(3, room.getStatus());
-            stmt.setDouble(4, room.getBasePrice());
-            stmt.setString(5, room.getDescription());
-            stmt.setInt(6, room.getId());
+    /**
+     * Update room information if nobody else changed the room since it was read
+     * @param room Room object with updated information and the version it was read at
+     * @return UPDATED (the room's version is incremented), CONFLICT, NOT_FOUND or ERROR
+     */
+    public UpdateResult updateRoom(Room room) {
+        String sql = "UPDATE rooms SET number = ?, type = ?, status = ?, base_price = ?, description = ?, amenities = ?, " +
+                "version = version + 1 WHERE id = ? AND version = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.updateRoom");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean updated = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setString(1, room.getNumber());
+                    stmt.setString(2, room.getType());
+                    stmt.setString(3, room.getStatus());
+                    stmt.setDouble(4, room.getBasePrice());
+                    stmt.setString(5, room.getDescription());
+                    stmt.setInt(6, room.getAmenities());
+                    stmt.setInt(7, room.getId());
+                    stmt.setInt(8, room.getVersion());
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, room.getId(), Change.Operation.UPDATE);
+                    return true;
+                }
+            });
 
-            return stmt.executeUpdate() > 0;
+            if (updated) {
+                room.setVersion(room.getVersion() + 1);
+                indexAmenities(room);
+                ROOM_NUMBERS.add(room.getNumber());
+                return UpdateResult.UPDATED;
+            }
+            // No row matched: either the version moved on or the room is gone
+            return roomExists(room.getId()) ? UpdateResult.CONFLICT : UpdateResult.NOT_FOUND;
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating room: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return UpdateResult.ERROR;
+        } finally {
+            call.end();
         }
     }
 
@@ -358,18 +708,28 @@ public class RoomDAO {
      * @return true if successful, false otherwise
      */
     public boolean updateRoomStatus(int roomId, String status) {
-        String sql = "UPDATE rooms SET status = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            stmt.setInt(2, roomId);
-
-            return stmt.executeUpdate() > 0;
+        String sql = "UPDATE rooms SET status = ?, version = version + 1 WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.updateRoomStatus");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setString(1, status);
+                    stmt.setInt(2, roomId);
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, roomId, Change.Operation.UPDATE);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating room status: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
@@ -380,17 +740,27 @@ public class RoomDAO {
      * @return true if successful, false otherwise
      */
     public boolean updateRoomPrice(int roomId, double newPrice) {
-        String sql = "UPDATE rooms SET base_price = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDouble(1, newPrice);
-            stmt.setInt(2, roomId);
-
-            return stmt.executeUpdate() > 0;
+        String sql = "UPDATE rooms SET base_price = ?, version = version + 1 WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.updateRoomPrice");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setDouble(1, newPrice);
+                    stmt.setInt(2, roomId);
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, roomId, Change.Operation.UPDATE);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating room price: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -402,18 +772,28 @@ public class RoomDAO {
      * @return true if successful, false otherwise
      */
     public boolean updateRoomDescription(int roomId, String description) {
-        String sql = "UPDATE rooms SET description = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, description);
-            stmt.setInt(2, roomId);
-
-            return stmt.executeUpdate() > 0;
+        String sql = "UPDATE rooms SET description = ?, version = version + 1 WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.updateRoomDescription");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            return ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setString(1, description);
+                    stmt.setInt(2, roomId);
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, roomId, Change.Operation.UPDATE);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error updating room description: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
@@ -430,15 +810,29 @@ public class RoomDAO {
         }
 
         String sql = "DELETE FROM rooms WHERE id = ?";
-        try (Connection conn = DBConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.deleteRoom");
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean success = ChangeDAO.inTransaction(conn, tx -> {
+                try (PreparedStatement stmt = tx.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    ChangeDAO.record(tx, Change.Entity.ROOM, id, Change.Operation.DELETE);
+                    return true;
+                }
+            });
+            if (success) {
+                AmenityIndex.getInstance().remove(id);
+            }
+            return success;
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error deleting room: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            call.end();
         }
     }
 
@@ -449,6 +843,7 @@ public class RoomDAO {
      */
     public boolean roomExists(int id) {
         String sql = "SELECT COUNT(*) FROM rooms WHERE id = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.roomExists");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -459,8 +854,11 @@ public class RoomDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking if room exists: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -472,7 +870,13 @@ public class RoomDAO {
      * @return true if room number exists, false otherwise
      */
     public boolean isRoomNumberTaken(String number, int excludeId) {
+        // Definitely free: no need to ask the database
+        if (!ROOM_NUMBERS.mightExist(number)) {
+            return false;
+        }
+
         String sql = "SELECT COUNT(*) FROM rooms WHERE number = ? AND id != ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.isRoomNumberTaken");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -484,8 +888,11 @@ public class RoomDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking room number: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -505,7 +912,8 @@ public class RoomDAO {
      * @return true if room has active reservations, false otherwise
      */
     public boolean hasActiveReservations(int roomId) {
-        String sql = "SELECT COUNT(*) FROM reservations WHERE room_id = ? AND checkout_date >= CURRENT_DATE";
+        String sql = "SELECT COUNT(*) FROM reservations WHERE room_id = ? AND status IN ('BOOKED', 'CHECKED_IN')";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.hasActiveReservations");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -516,8 +924,11 @@ public class RoomDAO {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error checking active reservations: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return false;
     }
@@ -528,6 +939,7 @@ public class RoomDAO {
      */
     public int getTotalRoomsCount() {
         String sql = "SELECT COUNT(*) FROM rooms";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getTotalRoomsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -536,8 +948,11 @@ public class RoomDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting total rooms count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -548,6 +963,7 @@ public class RoomDAO {
      */
     public int getAvailableRoomsCount() {
         String sql = "SELECT COUNT(*) FROM rooms WHERE status = 'Available'";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getAvailableRoomsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -556,8 +972,11 @@ public class RoomDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting available rooms count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
@@ -568,6 +987,7 @@ public class RoomDAO {
      */
     public int getOccupiedRoomsCount() {
         String sql = "SELECT COUNT(*) FROM rooms WHERE status = 'Occupied'";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getOccupiedRoomsCount");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -576,30 +996,87 @@ public class RoomDAO {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting occupied rooms count: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0;
     }
 
+    /**
+     * Find which of the given room numbers are already taken (for import dedupe)
+     * @param numbers Room numbers to look up, e.g. one import chunk
+     * @return Taken numbers among them
+     */
+    public Set<String> findTakenRoomNumbers(Collection<String> numbers) {
+        Set<String> taken = new HashSet<>();
+        if (numbers.isEmpty()) {
+            return taken;
+        }
+        StringBuilder sql = new StringBuilder("SELECT number FROM rooms WHERE number IN (");
+        for (int i = 0; i < numbers.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.findTakenRoomNumbers");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int param = 1;
+            for (String number : numbers) {
+                stmt.setString(param++, number);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    taken.add(rs.getString("number"));
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error looking up room numbers: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return taken;
+    }
+
     /**
      * Get all distinct room types
      * @return List of room types
      */
     public List<String> getAllRoomTypes() {
+        try {
+            return reads.loadList("RoomDAO.getAllRoomTypes", this::fetchAllRoomTypes);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving room types: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private List<String> fetchAllRoomTypes() throws SQLException {
         List<String> types = new ArrayList<>();
         String sql = "SELECT DISTINCT type FROM rooms ORDER BY type";
 
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.fetchAllRoomTypes");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
+                call.row();
                 types.add(rs.getString("type"));
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving room types: " + e.getMessage());
-            e.printStackTrace();
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
         }
         return types;
     }
@@ -611,6 +1088,7 @@ public class RoomDAO {
      */
     public double getAverageRoomPriceByType(String type) {
         String sql = "SELECT AVG(base_price) FROM rooms WHERE type = ?";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getAverageRoomPriceByType");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -621,8 +1099,11 @@ public class RoomDAO {
                 return rs.getDouble(1);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting average room price by type: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return 0.0;
     }
@@ -633,16 +1114,21 @@ public class RoomDAO {
      */
     public Room getCheapestAvailableRoom() {
         String sql = "SELECT * FROM rooms WHERE status = 'Available' ORDER BY base_price ASC LIMIT 1";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getCheapestAvailableRoom");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             if (rs.next()) {
+                call.row();
                 return createRoomFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting cheapest available room: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
@@ -653,20 +1139,202 @@ public class RoomDAO {
      */
     public Room getMostExpensiveAvailableRoom() {
         String sql = "SELECT * FROM rooms WHERE status = 'Available' ORDER BY base_price DESC LIMIT 1";
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getMostExpensiveAvailableRoom");
         try (Connection conn = DBConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             if (rs.next()) {
+                call.row();
                 return createRoomFromResultSet(rs);
             }
         } catch (SQLException e) {
+            call.failed();
             System.err.println("Error getting most expensive available room: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            call.end();
         }
         return null;
     }
 
+    /**
+     * Resolve the rooms offering all the given amenities from the amenity index
+     * @param amenities Required amenities
+     * @return Bitmap of matching room IDs
+     */
+    private BitSet roomIdsWithAmenities(Set<Amenity> amenities) {
+        AmenityIndex index = AmenityIndex.getInstance();
+        if (!index.isLoaded()) {
+            // One caller loads; the others wait for it instead of loading again
+            synchronized (AMENITY_INDEX_LOAD) {
+                if (!index.isLoaded()) {
+                    loadAmenityIndex(index);
+                }
+            }
+        }
+        return index.roomsWithAll(amenities);
+    }
+
+    /**
+     * Populate the amenity index from the rooms table
+     * @param index Index to populate
+     */
+    private void loadAmenityIndex(AmenityIndex index) {
+        Map<Integer, Integer> amenitiesByRoom = new HashMap<>();
+        String sql = "SELECT id, amenities FROM rooms";
+
+        // Room writes from here on are replayed over the snapshot
+        index.beginLoad();
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.loadAmenityIndex");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                call.row();
+                amenitiesByRoom.put(rs.getInt("id"), rs.getInt("amenities"));
+            }
+            index.load(amenitiesByRoom);
+        } catch (SQLException e) {
+            call.failed();
+            index.abortLoad();
+            System.err.println("Error loading amenity index: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+    }
+
+    /**
+     * Re-read the amenity index entries and room numbers of rooms written by
+     * another workstation
+     * @param roomIds Rooms to re-read (rooms that no longer exist are removed from the amenity index)
+     */
+    public void reindexRooms(Collection<Integer> roomIds) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        AmenityIndex index = AmenityIndex.getInstance();
+
+        StringBuilder sql = new StringBuilder("SELECT id, number, amenities FROM rooms WHERE id IN (");
+        for (int i = 0; i < roomIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.reindexRooms");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int param = 1;
+            for (int id : roomIds) {
+                stmt.setInt(param++, id);
+            }
+            Map<Integer, Integer> amenitiesByRoom = new HashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    call.row();
+                    amenitiesByRoom.put(rs.getInt("id"), rs.getInt("amenities"));
+                    ROOM_NUMBERS.add(rs.getString("number"));
+                }
+            }
+            for (int id : roomIds) {
+                Integer mask = amenitiesByRoom.get(id);
+                if (mask != null) {
+                    index.put(id, mask);
+                } else {
+                    index.remove(id);
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error reindexing rooms: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+    }
+
+    /**
+     * Keep the amenity index in sync after a room write
+     * @param room Room that was written
+     */
+    private void indexAmenities(Room room) {
+        AmenityIndex.getInstance().put(room.getId(), room.getAmenities());
+    }
+
+    /**
+     * Load rooms by ID
+     * @param ids Bitmap of room IDs
+     * @param availableOnly true to keep only available rooms
+     * @return List of rooms ordered by number
+     */
+    private List<Room> getRoomsByIds(BitSet ids, boolean availableOnly) {
+        List<Room> rooms = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return rooms;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM rooms WHERE id IN (");
+        for (int i = 0; i < ids.cardinality(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        if (availableOnly) {
+            sql.append(" AND status = 'Available'");
+        }
+        sql.append(" ORDER BY number");
+
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getRoomsByIds");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int param = 1;
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                stmt.setInt(param++, id);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                call.row();
+                Room room = createRoomFromResultSet(rs);
+                rooms.add(room);
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error retrieving rooms by amenities: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return rooms;
+    }
+
+    /**
+     * Read every room number for the uniqueness filter
+     * @return Room numbers
+     * @throws SQLException if the query fails
+     */
+    private static Collection<String> loadRoomNumbers() throws SQLException {
+        List<String> numbers = new ArrayList<>();
+        DaoMetrics.Call call = DaoMetrics.start("RoomDAO.loadRoomNumbers");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT number FROM rooms")) {
+            while (rs.next()) {
+                call.row();
+                numbers.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.end();
+        }
+        return numbers;
+    }
+
     /**
      * Helper method to create Room object from ResultSet
      * @param rs ResultSet containing room data
@@ -681,6 +1349,8 @@ public class RoomDAO {
         room.setStatus(rs.getString("status"));
         room.setBasePrice(rs.getDouble("base_price"));
         room.setDescription(rs.getString("description"));
+        room.setAmenities(rs.getInt("amenities"));
+        room.setVersion(rs.getInt("version"));
         return room;
     }
 }
\ No newline at end of file
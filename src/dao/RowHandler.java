@@ -0,0 +1,16 @@
+package dao;
+
+/**
+ * Receives rows one by one from a streaming DAO query.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+
+    /**
+     * Handle one row
+     * @param row Row mapped to a model object
+     * @return true to continue, false to stop streaming (e.g. on cancellation)
+     * @throws Exception if the row cannot be handled; streaming stops and the error is rethrown
+     */
+    boolean handle(T row) throws Exception;
+}
@@ -0,0 +1,155 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces identical concurrent reads. The first caller for a key runs the
+ * query; callers arriving while it runs (or within the reuse window after it
+ * finished) wait for and share its result instead of running it again.
+ *
+ * A read that fails (query error, pool timeout, interrupt) is not shared as
+ * a result: the caller that ran it and every caller waiting on it get the
+ * exception, and the next caller runs the query again.
+ *
+ * Every committed write invalidates all shared results, including reads
+ * still in flight, so a read started after a write never gets data from
+ * before it. Changes from other workstations invalidate them when the change
+ * poller picks them up.
+ *
+ * Keys are the method and its arguments; only use it for reads with few
+ * distinct keys (lists without parameters, room types, ...).
+ *
+ * Configuration (system properties):
+ * hotel.dao.coalesceMillis how long a finished read is reused (default 50; 0 shares in-flight reads only)
+ */
+public class SingleFlight {
+
+    private static SingleFlight instance = null;
+
+    /**
+     * A query that reports failure by throwing
+     */
+    @FunctionalInterface
+    public interface Read<V> {
+        V read() throws SQLException;
+    }
+
+    /**
+     * One execution of a read
+     */
+    private static class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final long generation;
+        volatile long finishedAt;
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final long reuseNanos = Long.getLong("hotel.dao.coalesceMillis", 50) * 1_000_000L;
+    private final ConcurrentMap<Object, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private SingleFlight() {
+    }
+
+    public static synchronized SingleFlight getInstance() {
+        if (instance == null) {
+            instance = new SingleFlight();
+        }
+        return instance;
+    }
+
+    /**
+     * Run a read, or share the result of an identical one
+     * @param key Method and arguments, e.g. List.of("RoomDAO.getAvailableRoomsByType", type)
+     * @param read The query
+     * @return Result of the query (shared between callers; do not modify)
+     * @throws SQLException if the query failed, for this caller or the one whose read it shared
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V load(Object key, Read<V> read) throws SQLException {
+        while (true) {
+            Flight current = flights.get(key);
+            if (current != null && isReusable(current)) {
+                return (V) await(current);
+            }
+            Flight flight = new Flight(generation.get());
+            boolean mine = current == null
+                    ? flights.putIfAbsent(key, flight) == null
+                    : flights.replace(key, current, flight);
+            if (!mine) {
+                // Another caller started the read first; share it
+                continue;
+            }
+            try {
+                V value = read.read();
+                flight.finishedAt = System.nanoTime();
+                flight.result.complete(value);
+                return value;
+            } catch (SQLException | RuntimeException | Error e) {
+                flights.remove(key, flight);
+                flight.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                if (reuseNanos == 0) {
+                    flights.remove(key, flight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a list read, or share the rows of an identical one. Every caller
+     * gets its own list, but the elements are shared: they must not be
+     * modified (edits work on a copy, as the management screens do).
+     * @throws SQLException if the query failed
+     */
+    public <T> List<T> loadList(Object key, Read<List<T>> read) throws SQLException {
+        return new ArrayList<>(load(key, read));
+    }
+
+    /**
+     * Forget every shared result (after a write)
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        flights.clear();
+    }
+
+    private boolean isReusable(Flight flight) {
+        if (flight.generation != generation.get()) {
+            return false;
+        }
+        if (!flight.result.isDone()) {
+            return true;
+        }
+        return !flight.result.isCompletedExceptionally() && System.nanoTime() - flight.finishedAt < reuseNanos;
+    }
+
+    private static Object await(Flight flight) throws SQLException {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw new SQLException("Shared read failed: " + cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dao;
+
+import metrics.DaoMetrics;
+import model.DashboardStatistics;
+import util.DBConnection;
+import java.sql.*;
+
+public class StatisticsDAO {
+
+    // One round-trip: every KPI group comes back as a row tagged with its category
+    private static final String STATISTICS_SQL =
+            "SELECT 'ROOM' AS category, status AS group_key, type AS sub_key, " +
+            "COUNT(*) AS total, SUM(base_price) AS price_sum " +
+            "FROM rooms GROUP BY status, type " +
+            "UNION ALL " +
+            "SELECT 'GUEST', guest_type, NULL, COUNT(*), NULL " +
+            "FROM guests GROUP BY guest_type " +
+            "UNION ALL " +
+            "SELECT 'RESERVATION', status, NULL, COUNT(*), NULL " +
+            "FROM reservations GROUP BY status " +
+            "UNION ALL " +
+            "SELECT 'RESERVATION', status, NULL, COUNT(*), NULL " +
+            "FROM reservations_archive GROUP BY status";
+
+    /**
+     * Get every dashboard KPI in a single grouped query
+     * @return Statistics snapshot (empty if the query fails)
+     */
+    public DashboardStatistics getDashboardStatistics() {
+        DashboardStatistics statistics = new DashboardStatistics();
+
+        DaoMetrics.Call call = DaoMetrics.start("StatisticsDAO.getDashboardStatistics");
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(STATISTICS_SQL)) {
+
+            while (rs.next()) {
+                call.row();
+                String category = rs.getString("category");
+                String groupKey = rs.getString("group_key");
+                int total = rs.getInt("total");
+
+                switch (category) {
+                    case "ROOM":
+                        statistics.addRoomGroup(groupKey, rs.getString("sub_key"), total, rs.getDouble("price_sum"));
+                        break;
+                    case "GUEST":
+                        statistics.addGuestGroup(groupKey != null ? groupKey : "REGULAR", total);
+                        break;
+                    case "RESERVATION":
+                        statistics.addReservationGroup(groupKey, total);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (SQLException e) {
+            call.failed();
+            System.err.println("Error retrieving dashboard statistics: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            call.end();
+        }
+        return statistics;
+    }
+}
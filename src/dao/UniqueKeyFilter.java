@@ -0,0 +1,185 @@
+package dao;
+
+import util.BloomFilter;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Bloom filter over the values of a unique column (room numbers, guest
+ * contacts), so uniqueness checks can answer "definitely free" without a
+ * query; only possible matches go to the database.
+ *
+ * Keys are folded the way the column collation (utf8mb4_0900_ai_ci)
+ * compares them: compatibility forms (full-width letters, ligatures) are
+ * decomposed, accents dropped, case ignored and the expansions sharp s,
+ * ae and oe spelled out. The fold is only used where it is known to agree with the
+ * collation, i.e. when it ends in printable ASCII; any other value gets a
+ * "maybe", and while the column holds such a value no check is answered
+ * from the filter at all, since it might equal an ASCII value.
+ *
+ * The filter is loaded from the database on first use, extended by local
+ * writes and by changes from other workstations as the change poller reads
+ * them, and rebuilt from the database once it holds more keys than it was
+ * sized for. Values that are changed or deleted stay in it and only cost a
+ * fallback query. Without the poller (API-only server, importer, load
+ * generator) other workstations' writes would be missed, so the filter is
+ * only consulted while this process follows the change journal (see
+ * ChangeDAO.setFollowingChanges) and is reloaded whenever following starts.
+ */
+class UniqueKeyFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    // Incremented each time this process starts following the change journal
+    private static volatile int followEpoch = 0;
+    private static volatile boolean following = false;
+
+    private final String name;
+    private final Callable<Collection<String>> loader;
+
+    private volatile BloomFilter filter;
+    private volatile int filterEpoch;
+    // Values in the filter whose fold is not known to match the collation
+    private volatile int unfoldable;
+    // Keys added while a load is running; non-null during the load
+    private List<String> addedDuringLoad;
+
+    /**
+     * @param name Column described in log messages
+     * @param loader Reads every current value of the column; throws if the read fails
+     */
+    UniqueKeyFilter(String name, Callable<Collection<String>> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    static synchronized void setFollowingChanges(boolean follow) {
+        if (follow && !following) {
+            followEpoch++;
+        }
+        following = follow;
+    }
+
+    /**
+     * @param value Column value
+     * @return false if no row can have this value, true if one may
+     */
+    boolean mightExist(String value) {
+        String key = value != null && following ? normalize(value) : null;
+        if (key == null) {
+            return true;
+        }
+        BloomFilter current = ensureLoaded();
+        return current == null || unfoldable > 0 || current.mightContain(key);
+    }
+
+    /**
+     * Record a value that was written
+     * @param value Column value
+     */
+    synchronized void add(String value) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        if (addedDuringLoad != null) {
+            addedDuringLoad.add(key);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            if (key == null) {
+                unfoldable++;
+                return;
+            }
+            current.put(key);
+            if (current.getInsertions() > current.getCapacity()) {
+                // Too full to stay accurate; reload at the next check
+                filter = null;
+            }
+        }
+    }
+
+    /**
+     * @return Folded key, or null if the fold is not known to match the collation
+     */
+    static String normalize(String value) {
+        String folded = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .replace("\u00df", "ss").replace("\u00e6", "ae").replace("\u00c6", "ae")
+                .replace("\u0153", "oe").replace("\u0152", "oe");
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return null;
+            }
+        }
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The filter, or null if it is not available (still loading in
+     *         another thread, or the load failed); callers then query
+     */
+    private BloomFilter ensureLoaded() {
+        int epoch = followEpoch;
+        BloomFilter current = filter;
+        if (current != null && filterEpoch == epoch) {
+            return current;
+        }
+        synchronized (this) {
+            if (filter != null && filterEpoch != epoch) {
+                // Written while no one followed the journal; may miss other workstations' values
+                filter = null;
+            }
+            if (filter != null || addedDuringLoad != null) {
+                return filter;
+            }
+            addedDuringLoad = new ArrayList<>();
+        }
+
+        BloomFilter loaded = null;
+        int loadedUnfoldable = 0;
+        try {
+            Collection<String> values = loader.call();
+            loaded = new BloomFilter(Math.max(MIN_CAPACITY, values.size() * 2L), FALSE_POSITIVE_RATE);
+            for (String value : values) {
+                if (value == null) {
+                    continue;
+                }
+                String key = normalize(value);
+                if (key == null) {
+                    loadedUnfoldable++;
+                } else {
+                    loaded.put(key);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading " + name + " filter: " + e.getMessage());
+            e.printStackTrace();
+            loaded = null;
+        }
+
+        synchronized (this) {
+            if (loaded != null) {
+                for (String key : addedDuringLoad) {
+                    if (key == null) {
+                        loadedUnfoldable++;
+                    } else {
+                        loaded.put(key);
+                    }
+                }
+                unfoldable = loadedUnfoldable;
+                filterEpoch = epoch;
+                filter = loaded;
+            }
+            addedDuringLoad = null;
+        }
+        return loaded;
+    }
+}
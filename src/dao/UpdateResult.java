@@ -0,0 +1,15 @@
+package dao;
+
+/**
+ * Outcome of an optimistic update (UPDATE ... WHERE id = ? AND version = ?).
+ */
+public enum UpdateResult {
+    /** The row was written and its version incremented */
+    UPDATED,
+    /** The row was changed by someone else since it was read */
+    CONFLICT,
+    /** The row no longer exists */
+    NOT_FOUND,
+    /** The database call failed */
+    ERROR
+}
@@ -0,0 +1,70 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line entry point for bulk CSV imports.
+ *
+ * Usage: CsvImport &lt;guests|rooms|reservations&gt; &lt;file.csv&gt; [--historical] [--threads=N]
+ *
+ * Rejected records are written to &lt;file.csv&gt;.rejects.csv. Re-running the
+ * same command after an interruption resumes from the last checkpoint.
+ */
+public class CsvImport {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CsvImport <guests|rooms|reservations> <file.csv> [--historical] [--threads=N]");
+            System.exit(1);
+        }
+
+        boolean historical = false;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--historical")) {
+                historical = true;
+            } else if (args[i].startsWith("--threads=")) {
+                threads = Integer.parseInt(args[i].substring("--threads=".length()));
+            }
+        }
+
+        Path input = Paths.get(args[1]);
+        Path rejects = input.resolveSibling(input.getFileName() + ".rejects.csv");
+
+        ImportProgress result;
+        switch (args[0].toLowerCase()) {
+            case "guests":
+                result = run(new GuestCsvMapper(), input, rejects, threads);
+                break;
+            case "rooms":
+                result = run(new RoomCsvMapper(), input, rejects, threads);
+                break;
+            case "reservations":
+                result = run(new ReservationCsvMapper(historical), input, rejects, threads);
+                break;
+            default:
+                System.err.println("Unknown import type: " + args[0]);
+                System.exit(1);
+                return;
+        }
+
+        System.out.println("Import complete: " + result);
+        if (result.getRejected() > 0 || result.getDuplicates() > 0) {
+            System.out.println("Rejected records written to " + rejects);
+        }
+    }
+
+    private static <T> ImportProgress run(CsvRowMapper<T> mapper, Path input, Path rejects, int threads)
+            throws IOException {
+        return new CsvImportPipeline<>(mapper)
+                .setValidationThreads(threads)
+                .setProgressListener(progress -> {
+                    if (!progress.isFinished()) {
+                        System.out.println(progress);
+                    }
+                })
+                .run(input, rejects);
+    }
+}
@@ -0,0 +1,345 @@
+package importer;
+
+import dao.BatchResult;
+import util.CsvReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Streaming CSV import: parse -> parallel validation -> dedupe -> batched insert.
+ *
+ * A reader thread parses the file and hands fixed-size chunks to a pool of
+ * validation workers. Validated chunks are consumed strictly in file order by
+ * the calling thread, which deduplicates, inserts them in batches and then
+ * records a checkpoint. At most a few chunks are in flight at any time, and
+ * dedupe keys are only held for the current chunk, so memory stays bounded
+ * regardless of file and table size.
+ *
+ * Each chunk is deduplicated against itself and, with one keyed query
+ * through the mapper, against the database. Earlier chunks of the file are
+ * committed by then, so their records are found in the database too.
+ * Rows written by someone else between the query and the insert are left
+ * to the unique constraints (room number, guest contact) and end up as
+ * rejected batch rows.
+ *
+ * Rejected records go to a reject file with their record number and reason.
+ * If the run is interrupted, running it again on the same file resumes after
+ * the last checkpointed chunk. A chunk committed just before a crash but not
+ * yet checkpointed is read again; its rows are then rejected as duplicates
+ * through the mapper's dedupe key, which is why every mapper defines one.
+ */
+public class CsvImportPipeline<T> {
+
+    private final CsvRowMapper<T> mapper;
+    private int chunkSize = 1000;
+    private int validationThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private Consumer<ImportProgress> progressListener = progress -> {};
+
+    public CsvImportPipeline(CsvRowMapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    public CsvImportPipeline<T> setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public CsvImportPipeline<T> setValidationThreads(int validationThreads) {
+        this.validationThreads = validationThreads;
+        return this;
+    }
+
+    public CsvImportPipeline<T> setProgressListener(Consumer<ImportProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Get the checkpoint file used to resume an import
+     * @param input Import file
+     * @return Checkpoint file next to the import file
+     */
+    public static Path checkpointFileFor(Path input) {
+        return input.resolveSibling(input.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Run the import
+     * @param input CSV file with a header row
+     * @param rejectFile File receiving rejected records (appended to when resuming)
+     * @return Final progress
+     * @throws IOException if the input, reject or checkpoint file cannot be accessed
+     */
+    public ImportProgress run(Path input, Path rejectFile) throws IOException {
+        Path checkpointFile = checkpointFileFor(input);
+        long resumeAfter = readCheckpoint(checkpointFile);
+        long startTime = System.currentTimeMillis();
+
+        BlockingQueue<Future<Chunk<T>>> inFlight = new ArrayBlockingQueue<>(validationThreads * 2);
+        ExecutorService validators = Executors.newFixedThreadPool(validationThreads);
+
+        long processed = 0;
+        long imported = 0;
+        long rejected = 0;
+        long duplicates = 0;
+        Thread readerThread = null;
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(input, StandardCharsets.UTF_8));
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE,
+                     resumeAfter > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            Map<String, Integer> columns = readHeader(reader);
+            if (resumeAfter == 0) {
+                rejects.write("record,reason,data");
+                rejects.newLine();
+            }
+
+            readerThread = new Thread(() -> readChunks(reader, columns, resumeAfter, validators, inFlight),
+                    "csv-import-reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+
+            while (true) {
+                Chunk<T> chunk = await(inFlight.take());
+                if (chunk.error != null) {
+                    throw new IOException("Import aborted at record " + chunk.lastRecordNumber, chunk.error);
+                }
+                if (chunk.endOfInput) {
+                    break;
+                }
+
+                for (Reject reject : chunk.rejects) {
+                    writeReject(rejects, reject.recordNumber, reject.reason, reject.values);
+                }
+                rejected += chunk.rejects.size();
+
+                // Dedupe against the database (including earlier chunks) and earlier records of the chunk
+                Set<String> existingKeys = mapper.findExistingKeys(chunk.items);
+                Set<String> chunkKeys = new HashSet<>();
+                List<T> toInsert = new ArrayList<>();
+                List<Integer> sourceIndex = new ArrayList<>();
+                for (int i = 0; i < chunk.items.size(); i++) {
+                    T item = chunk.items.get(i);
+                    String key = mapper.getDedupeKey(item);
+                    if (key != null && (existingKeys.contains(key) || !chunkKeys.add(key))) {
+                        duplicates++;
+                        writeReject(rejects, chunk.recordNumbers.get(i), "Duplicate of an existing record", chunk.values.get(i));
+                        continue;
+                    }
+                    toInsert.add(item);
+                    sourceIndex.add(i);
+                }
+
+                if (!toInsert.isEmpty()) {
+                    BatchResult result = mapper.insert(toInsert);
+                    imported += result.getSuccessCount();
+                    for (Map.Entry<Integer, String> failure : result.getFailures().entrySet()) {
+                        int i = sourceIndex.get(failure.getKey());
+                        writeReject(rejects, chunk.recordNumbers.get(i), failure.getValue(), chunk.values.get(i));
+                        rejected++;
+                    }
+                }
+
+                rejects.flush();
+                writeCheckpoint(checkpointFile, chunk.lastRecordNumber);
+                processed += chunk.size;
+                progressListener.accept(new ImportProgress(processed, imported, rejected, duplicates,
+                        resumeAfter, System.currentTimeMillis() - startTime, false));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            if (readerThread != null) {
+                readerThread.interrupt();
+            }
+            validators.shutdownNow();
+        }
+
+        Files.deleteIfExists(checkpointFile);
+        ImportProgress result = new ImportProgress(processed, imported, rejected, duplicates,
+                resumeAfter, System.currentTimeMillis() - startTime, true);
+        progressListener.accept(result);
+        return result;
+    }
+
+    private Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        String[] header = reader.readRecord();
+        if (header == null) {
+            throw new IOException("Import file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim().toLowerCase();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+
+        for (String required : mapper.getRequiredColumns()) {
+            if (!columns.containsKey(required.toLowerCase())) {
+                throw new IOException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Reader stage: parse records and submit chunks for validation.
+     * Blocks when too many chunks are in flight, which bounds memory use.
+     * The consumer interrupts it when it stops; it then exits without
+     * enqueuing anything more.
+     */
+    private void readChunks(CsvReader reader, Map<String, Integer> columns, long resumeAfter,
+                            ExecutorService validators, BlockingQueue<Future<Chunk<T>>> inFlight) {
+        long lastRecord = 0;
+        try {
+            List<CsvRecord> records = new ArrayList<>(chunkSize);
+            String[] values;
+            while ((values = reader.readRecord()) != null) {
+                lastRecord = reader.getRecordNumber();
+                if (lastRecord <= resumeAfter || isBlank(values)) {
+                    continue;
+                }
+                records.add(new CsvRecord(lastRecord, values, columns));
+                if (records.size() == chunkSize) {
+                    submit(records, validators, inFlight);
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!records.isEmpty()) {
+                submit(records, validators, inFlight);
+            }
+            inFlight.put(CompletableFuture.completedFuture(Chunk.endOfInput()));
+        } catch (InterruptedException e) {
+            // The consumer gave up and nobody drains the queue any more
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            try {
+                inFlight.put(CompletableFuture.completedFuture(Chunk.failed(lastRecord, e)));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void submit(List<CsvRecord> records, ExecutorService validators,
+                        BlockingQueue<Future<Chunk<T>>> inFlight) throws InterruptedException {
+        inFlight.put(validators.submit(() -> validate(records)));
+    }
+
+    /**
+     * Validation stage: map every record of a chunk, collecting rejects
+     */
+    private Chunk<T> validate(List<CsvRecord> records) {
+        Chunk<T> chunk = new Chunk<>(records.size(), records.get(records.size() - 1).getRecordNumber());
+        for (CsvRecord record : records) {
+            try {
+                chunk.items.add(mapper.map(record));
+                chunk.recordNumbers.add(record.getRecordNumber());
+                chunk.values.add(record.getValues());
+            } catch (RuntimeException e) {
+                chunk.rejects.add(new Reject(record.getRecordNumber(), e.getMessage(), record.getValues()));
+            }
+        }
+        return chunk;
+    }
+
+    private Chunk<T> await(Future<Chunk<T>> future) throws InterruptedException, IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Validation failed", e.getCause());
+        }
+    }
+
+    private static boolean isBlank(String[] values) {
+        return values.length == 1 && values[0].trim().isEmpty();
+    }
+
+    private static void writeReject(BufferedWriter rejects, long recordNumber, String reason, String[] values)
+            throws IOException {
+        rejects.write(recordNumber + "," + CsvReader.quote(reason) + "," + CsvReader.quote(CsvReader.toCsvLine(values)));
+        rejects.newLine();
+    }
+
+    private static long readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpointFile).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint file: " + checkpointFile, e);
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpointFile, long recordNumber) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(recordNumber));
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Chunk<T> {
+        final int size;
+        final long lastRecordNumber;
+        final List<T> items = new ArrayList<>();
+        final List<Long> recordNumbers = new ArrayList<>();
+        final List<String[]> values = new ArrayList<>();
+        final List<Reject> rejects = new ArrayList<>();
+        boolean endOfInput;
+        Exception error;
+
+        Chunk(int size, long lastRecordNumber) {
+            this.size = size;
+            this.lastRecordNumber = lastRecordNumber;
+        }
+
+        static <T> Chunk<T> endOfInput() {
+            Chunk<T> chunk = new Chunk<>(0, 0);
+            chunk.endOfInput = true;
+            return chunk;
+        }
+
+        static <T> Chunk<T> failed(long lastRecordNumber, Exception error) {
+            Chunk<T> chunk = new Chunk<>(0, lastRecordNumber);
+            chunk.error = error;
+            return chunk;
+        }
+    }
+
+    private static class Reject {
+        final long recordNumber;
+        final String reason;
+        final String[] values;
+
+        Reject(long recordNumber, String reason, String[] values) {
+            this.recordNumber = recordNumber;
+            this.reason = reason;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package importer;
+
+import java.util.Map;
+
+/**
+ * One data record of an import file, with access to fields by column name.
+ */
+public class CsvRecord {
+    private final long recordNumber;
+    private final String[] values;
+    private final Map<String, Integer> columns;
+
+    CsvRecord(long recordNumber, String[] values, Map<String, Integer> columns) {
+        this.recordNumber = recordNumber;
+        this.values = values;
+        this.columns = columns;
+    }
+
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    public String[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get a field by column name
+     * @param column Column name (case-insensitive)
+     * @return Trimmed value, or null if the column is missing or blank
+     */
+    public String get(String column) {
+        Integer index = columns.get(column.toLowerCase());
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Get a required field by column name
+     * @param column Column name (case-insensitive)
+     * @return Trimmed value
+     * @throws IllegalArgumentException if the field is missing or blank
+     */
+    public String require(String column) {
+        String value = get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for column '" + column + "'");
+        }
+        return value;
+    }
+}
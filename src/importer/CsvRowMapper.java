@@ -0,0 +1,55 @@
+package importer;
+
+import dao.BatchResult;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entity-specific part of a CSV import: parsing/validation, dedupe key
+ * and batched insert. map() is called concurrently from the validation
+ * workers and must not touch shared mutable state.
+ */
+public interface CsvRowMapper<T> {
+
+    /**
+     * Columns that must be present in the header row
+     * @return Required column names
+     */
+    List<String> getRequiredColumns();
+
+    /**
+     * Parse and validate one record
+     * @param record Record to map
+     * @return Entity ready to insert
+     * @throws IllegalArgumentException with the rejection reason if the record is invalid
+     */
+    T map(CsvRecord record);
+
+    /**
+     * Dedupe keys of a chunk that are already present in the database,
+     * looked up with one keyed query
+     * @param items Entities of one chunk
+     * @return Existing keys among theirs (empty if the entity is not deduplicated)
+     */
+    default Set<String> findExistingKeys(List<T> items) {
+        return new HashSet<>();
+    }
+
+    /**
+     * Dedupe key of an entity
+     * @param item Entity
+     * @return Key, or null if the entity is not deduplicated
+     */
+    default String getDedupeKey(T item) {
+        return null;
+    }
+
+    /**
+     * Insert a chunk of validated entities
+     * @param items Entities to insert
+     * @return Per-row outcome of the batch
+     */
+    BatchResult insert(List<T> items);
+}
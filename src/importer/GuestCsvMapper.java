@@ -0,0 +1,59 @@
+package importer;
+
+import controller.GuestController;
+import dao.BatchResult;
+import model.Guest;
+import model.GuestFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports guests from columns: name, contact[, guest_type, discount_rate].
+ * Deduplicated by contact.
+ */
+public class GuestCsvMapper implements CsvRowMapper<Guest> {
+    private final GuestController guestController = new GuestController();
+
+    @Override
+    public List<String> getRequiredColumns() {
+        return List.of("name", "contact");
+    }
+
+    @Override
+    public Guest map(CsvRecord record) {
+        String type = record.get("guest_type");
+        String rate = record.get("discount_rate");
+
+        double discountRate;
+        try {
+            discountRate = rate != null ? Double.parseDouble(rate) : 0.15;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid discount rate: " + rate);
+        }
+
+        Guest guest = GuestFactory.createGuest(type != null ? type : "REGULAR",
+                record.require("name"), record.require("contact"), discountRate);
+
+        if (!guestController.validateGuest(guest)) {
+            throw new IllegalArgumentException("Guest validation failed");
+        }
+        return guest;
+    }
+
+    @Override
+    public Set<String> findExistingKeys(List<Guest> guests) {
+        return guestController.findRegisteredContacts(guests.stream().map(this::getDedupeKey).collect(Collectors.toSet()));
+    }
+
+    @Override
+    public String getDedupeKey(Guest guest) {
+        return guest.getContact().trim();
+    }
+
+    @Override
+    public BatchResult insert(List<Guest> guests) {
+        return guestController.createGuests(guests);
+    }
+}
@@ -0,0 +1,50 @@
+package importer;
+
+/**
+ * Snapshot of an import's progress, published after every committed chunk.
+ */
+public class ImportProgress {
+    private final long recordsProcessed;
+    private final long imported;
+    private final long rejected;
+    private final long duplicates;
+    private final long resumedFrom;
+    private final long elapsedMillis;
+    private final boolean finished;
+
+    public ImportProgress(long recordsProcessed, long imported, long rejected, long duplicates,
+                          long resumedFrom, long elapsedMillis, boolean finished) {
+        this.recordsProcessed = recordsProcessed;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.duplicates = duplicates;
+        this.resumedFrom = resumedFrom;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+
+    public long getRecordsProcessed() { return recordsProcessed; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public long getDuplicates() { return duplicates; }
+
+    /**
+     * Number of data records skipped because a previous run already committed them
+     */
+    public long getResumedFrom() { return resumedFrom; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isFinished() { return finished; }
+
+    public double getRecordsPerSecond() {
+        return elapsedMillis > 0 ? recordsProcessed * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("processed=%d imported=%d rejected=%d duplicates=%d resumedFrom=%d " +
+                        "elapsed=%.1fs rate=%.0f rows/s%s",
+                recordsProcessed, imported, rejected, duplicates, resumedFrom,
+                elapsedMillis / 1000.0, getRecordsPerSecond(), finished ? " (finished)" : "");
+    }
+}
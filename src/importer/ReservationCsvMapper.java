@@ -0,0 +1,134 @@
+package importer;
+
+import controller.GuestController;
+import controller.ReservationController;
+import controller.ReservationManagementController;
+import controller.RoomController;
+import dao.BatchResult;
+import dao.ReservationDAO;
+import model.Guest;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports reservations from columns: guest_contact, room_number, checkin_date,
+ * checkout_date[, created_at][, status]. Guests and rooms are resolved from lookup maps
+ * loaded once, and records are validated with the reservation screen rules.
+ * In historical mode past check-in dates are accepted, room statuses are
+ * left untouched and a missing status is inferred from the stay dates.
+ * Deduplicated by guest, room and check-in date, so resuming an import whose
+ * last chunk was committed but not checkpointed does not insert it twice.
+ */
+public class ReservationCsvMapper implements CsvRowMapper<Reservation> {
+    private final ReservationManagementController reservationManagementController = new ReservationManagementController();
+    private final ReservationController reservationController = new ReservationController();
+    private final Map<String, Guest> guestsByContact = new HashMap<>();
+    private final Map<String, Room> roomsByNumber = new HashMap<>();
+    private final boolean historical;
+
+    public ReservationCsvMapper(boolean historical) {
+        this.historical = historical;
+        for (Guest guest : new GuestController().getAllGuests()) {
+            guestsByContact.put(guest.getContact().trim(), guest);
+        }
+        for (Room room : new RoomController().getAllRooms()) {
+            roomsByNumber.put(room.getNumber(), room);
+        }
+    }
+
+    @Override
+    public List<String> getRequiredColumns() {
+        return List.of("guest_contact", "room_number", "checkin_date", "checkout_date");
+    }
+
+    @Override
+    public Reservation map(CsvRecord record) {
+        String contact = record.require("guest_contact");
+        String number = record.require("room_number");
+
+        Guest guest = guestsByContact.get(contact);
+        if (guest == null) {
+            throw new IllegalArgumentException("Unknown guest contact: " + contact);
+        }
+        Room room = roomsByNumber.get(number);
+        if (room == null) {
+            throw new IllegalArgumentException("Unknown room number: " + number);
+        }
+
+        LocalDate checkin = parseDate(record.get("checkin_date"));
+        LocalDate checkout = parseDate(record.get("checkout_date"));
+
+        ReservationManagementController.ValidationResult validation =
+                reservationManagementController.validateReservation(guest, room, checkin, checkout, historical);
+        if (!validation.isValid()) {
+            throw new IllegalArgumentException(validation.getMessage());
+        }
+
+        Reservation reservation = new Reservation(guest, room, checkin, checkout);
+        String status = record.get("status");
+        if (status != null) {
+            try {
+                reservation.setStatus(ReservationStatus.fromString(status));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status);
+            }
+        } else if (historical) {
+            reservation.setStatus(inferStatus(checkin, checkout));
+        }
+        String createdAt = record.get("created_at");
+        if (createdAt != null) {
+            try {
+                reservation.setCreatedAt(LocalDateTime.parse(createdAt.replace(' ', 'T')));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid created_at: " + createdAt);
+            }
+        }
+        return reservation;
+    }
+
+    @Override
+    public Set<String> findExistingKeys(List<Reservation> reservations) {
+        return reservationController.findExistingStayKeys(reservations);
+    }
+
+    @Override
+    public String getDedupeKey(Reservation reservation) {
+        return ReservationDAO.stayKey(reservation.getGuestId(), reservation.getRoomId(), reservation.getCheckinDate());
+    }
+
+    @Override
+    public BatchResult insert(List<Reservation> reservations) {
+        return reservationController.createReservations(reservations, !historical);
+    }
+
+    /**
+     * Status of a historical stay without an explicit status column
+     */
+    private static ReservationStatus inferStatus(LocalDate checkin, LocalDate checkout) {
+        LocalDate today = LocalDate.now();
+        if (!checkout.isAfter(today)) {
+            return ReservationStatus.CHECKED_OUT;
+        }
+        return checkin.isAfter(today) ? ReservationStatus.BOOKED : ReservationStatus.CHECKED_IN;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date (expected yyyy-MM-dd): " + value);
+        }
+    }
+}
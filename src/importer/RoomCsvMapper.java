@@ -0,0 +1,58 @@
+package importer;
+
+import controller.RoomController;
+import controller.RoomManagementController;
+import dao.BatchResult;
+import model.Room;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports rooms from columns: number, type, status, base_price[, spa, minibar].
+ * Uses the same validation rules as the room screen; deduplicated by room number.
+ */
+public class RoomCsvMapper implements CsvRowMapper<Room> {
+    private final RoomManagementController roomManagementController = new RoomManagementController();
+    private final RoomController roomController = new RoomController();
+
+    @Override
+    public List<String> getRequiredColumns() {
+        return List.of("number", "type", "status", "base_price");
+    }
+
+    @Override
+    public Room map(CsvRecord record) {
+        String number = record.get("number");
+        String type = record.get("type");
+        String status = record.get("status");
+        String price = record.get("base_price");
+
+        if (!roomManagementController.validateInput(number, type, status, price)) {
+            throw new IllegalArgumentException("Room validation failed (number, type, status and a positive base price are required)");
+        }
+
+        return roomManagementController.buildRoom(number, type, status, Double.parseDouble(price),
+                isTrue(record.get("spa")), isTrue(record.get("minibar")));
+    }
+
+    @Override
+    public Set<String> findExistingKeys(List<Room> rooms) {
+        return roomController.findTakenRoomNumbers(rooms.stream().map(this::getDedupeKey).collect(Collectors.toSet()));
+    }
+
+    @Override
+    public String getDedupeKey(Room room) {
+        return room.getNumber();
+    }
+
+    @Override
+    public BatchResult insert(List<Room> rooms) {
+        return roomController.createRooms(rooms);
+    }
+
+    private static boolean isTrue(String value) {
+        return value != null && (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes") || value.equals("1"));
+    }
+}
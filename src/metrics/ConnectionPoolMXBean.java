@@ -0,0 +1,14 @@
+package metrics;
+
+/**
+ * JMX view of the connection pool (hotel:type=ConnectionPool)
+ */
+public interface ConnectionPoolMXBean {
+    int getMaxSize();
+    int getActiveCount();
+    int getIdleCount();
+    long getLeases();
+    double getWaitMeanMillis();
+    double getWaitP99Millis();
+    double getWaitMaxMillis();
+}
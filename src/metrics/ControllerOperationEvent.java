@@ -0,0 +1,36 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one business operation of a controller (createReservation,
+ * checkInGuest, ...). Emitted by Operations.record.
+ */
+@Name("hotel.ControllerOperation")
+@Label("Controller Operation")
+@Category({"Hotel", "Controller"})
+@Description("A write operation of a controller")
+@StackTrace(false)
+public class ControllerOperationEvent extends Event {
+
+    @Label("Operation")
+    @Description("Controller method, e.g. ReservationController.checkInGuest")
+    String operation;
+
+    @Label("Entity Id")
+    @Description("Id of the room, guest or reservation (0 if not applicable)")
+    long entityId;
+
+    @Label("Result")
+    @Description("Returned value (true, false, UPDATED, CONFLICT, ...) or the exception thrown")
+    String result;
+
+    @Label("Action")
+    @Description("UI action or API request the operation was made for")
+    String action;
+}
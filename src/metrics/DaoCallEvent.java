@@ -0,0 +1,36 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one DAO method call, from start to end including its
+ * transaction. Built by DaoMetrics only while a recording enables it,
+ * independently of -Dhotel.metrics.dao.
+ */
+@Name("hotel.DaoCall")
+@Label("DAO Call")
+@Category({"Hotel", "Database"})
+@Description("One DAO method call")
+@StackTrace(false)
+public class DaoCallEvent extends Event {
+
+    @Label("Method")
+    @Description("DAO method, e.g. ReservationDAO.checkInGuest")
+    String method;
+
+    @Label("Rows")
+    @Description("Result set rows mapped")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+
+    @Label("Action")
+    @Description("UI action or API request the call was made for")
+    String action;
+}
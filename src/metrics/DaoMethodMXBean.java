@@ -0,0 +1,16 @@
+package metrics;
+
+/**
+ * JMX view of one DAO method (hotel:type=DaoMethod,name=RoomDAO.getAllRooms)
+ */
+public interface DaoMethodMXBean {
+    long getCalls();
+    long getErrors();
+    long getRows();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP95Millis();
+    double getP99Millis();
+    double getMaxMillis();
+    double getConnectionWaitP99Millis();
+}
@@ -0,0 +1,310 @@
+package metrics;
+
+import util.ConnectionPool;
+
+import jdk.jfr.EventType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-DAO-method database metrics: calls, errors, rows read, latency and
+ * connection wait percentiles.
+ *
+ * Every DAO method times itself:
+ *
+ *   DaoMetrics.Call call = DaoMetrics.start("RoomDAO.getAllRooms");
+ *   try (...) {
+ *       while (rs.next()) { call.row(); ... }
+ *   } catch (SQLException e) {
+ *       call.failed();
+ *       ...
+ *   } finally {
+ *       call.end();
+ *   }
+ *
+ * so a method's latency covers all its statements and its transaction, and
+ * rows are counted where they are mapped. The JDBC objects are not wrapped.
+ * A call costs two nanoTime reads, a thread-local and a map lookup, and the
+ * counters are LongAdders and lock-free histograms, so collection stays on.
+ * Connection waits reported by the pool are attributed to the call running
+ * on the borrowing thread.
+ *
+ * Exposed over JMX (hotel:type=DaoMethod,name=... and
+ * hotel:type=ConnectionPool) and in the Prometheus text format on the API's
+ * /metrics endpoint. While Java Flight Recorder records hotel.DaoCall, every
+ * call is also emitted as a DaoCallEvent, whether or not metrics are
+ * collected; otherwise no event is built. The SQL of slow calls is in the
+ * slow-query log.
+ *
+ * Configuration (system properties):
+ * hotel.metrics.dao set to false to stop collecting the metrics (default true)
+ */
+public class DaoMetrics implements ConnectionPool.Observer {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("hotel.metrics.dao"));
+    // Returned by start() while neither metrics nor JFR want the call
+    private static final Call DISABLED = new Call(null, null, false);
+    private static final EventType DAO_CALL_EVENT = EventType.getEventType(DaoCallEvent.class);
+    // Innermost DAO call running on each thread
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    // Created eagerly: start() reads it on every DAO call
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    private final ConcurrentMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private ConnectionPool pool;
+
+    /**
+     * Counters of one DAO method
+     */
+    static class MethodStats implements DaoMethodMXBean {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram wait = new LatencyHistogram();
+
+        @Override public long getCalls() { return calls.sum(); }
+        @Override public long getErrors() { return errors.sum(); }
+        @Override public long getRows() { return rows.sum(); }
+        @Override public double getMeanMillis() { return latency.getMeanNanos() / 1e6; }
+        @Override public double getP50Millis() { return latency.getValueAtQuantile(0.5) / 1e6; }
+        @Override public double getP95Millis() { return latency.getValueAtQuantile(0.95) / 1e6; }
+        @Override public double getP99Millis() { return latency.getValueAtQuantile(0.99) / 1e6; }
+        @Override public double getMaxMillis() { return latency.getMaxNanos() / 1e6; }
+        @Override public double getConnectionWaitP99Millis() { return wait.getValueAtQuantile(0.99) / 1e6; }
+    }
+
+    /**
+     * One timed DAO method call; only used by the thread that started it
+     */
+    public static class Call {
+        private final String method;
+        // Null unless collecting metrics
+        private final MethodStats stats;
+        private final long start;
+        // Null unless JFR records hotel.DaoCall
+        private final DaoCallEvent event;
+        private final String action;
+        private Call previous;
+        private long rows = 0;
+        private boolean failed = false;
+
+        Call(String method, MethodStats stats, boolean recorded) {
+            this.method = method;
+            this.stats = stats;
+            this.start = stats != null ? System.nanoTime() : 0;
+            if (recorded) {
+                action = Operations.currentAction();
+                event = new DaoCallEvent();
+                event.begin();
+            } else {
+                action = null;
+                event = null;
+            }
+        }
+
+        /**
+         * A result set row was mapped
+         */
+        public void row() {
+            if (this != DISABLED) {
+                rows++;
+            }
+        }
+
+        /**
+         * The call failed (counted as an error)
+         */
+        public void failed() {
+            failed = true;
+        }
+
+        /**
+         * The call is over; call exactly once, from a finally block
+         */
+        public void end() {
+            if (stats != null) {
+                CURRENT.set(previous);
+                stats.latency.record(System.nanoTime() - start);
+                stats.calls.increment();
+                stats.rows.add(rows);
+                if (failed) {
+                    stats.errors.increment();
+                }
+            }
+
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.rows = rows;
+                event.failed = failed;
+                event.action = action;
+                event.commit();
+            }
+        }
+    }
+
+    private DaoMetrics() {
+    }
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start a DAO method call; end() it in a finally block
+     * @param method DAO class and method, e.g. "RoomDAO.getAllRooms"
+     * @return The running call
+     */
+    public static Call start(String method) {
+        boolean recorded = DAO_CALL_EVENT.isEnabled();
+        if (!ENABLED) {
+            return recorded ? new Call(method, null, true) : DISABLED;
+        }
+        Call call = new Call(method, INSTANCE.statsFor(method), recorded);
+        call.previous = CURRENT.get();
+        CURRENT.set(call);
+        return call;
+    }
+
+    /**
+     * @return False if collection is switched off with -Dhotel.metrics.dao=false
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Collect connection waits of a pool unless switched off
+     * @param pool Connection pool of the DAOs
+     */
+    public static void install(ConnectionPool pool) {
+        if (!ENABLED) {
+            return;
+        }
+        DaoMetrics metrics = getInstance();
+        metrics.pool = pool;
+        pool.setObserver(metrics);
+        register("hotel:type=ConnectionPool", metrics.new PoolView());
+    }
+
+    @Override
+    public void leased(long waitNanos) {
+        poolWait.record(waitNanos);
+        Call call = CURRENT.get();
+        if (call != null) {
+            call.stats.wait.record(waitNanos);
+        }
+    }
+
+    /**
+     * @return Failed DAO calls so far, over all methods
+     */
+    public long getErrorCount() {
+        return methods.values().stream().mapToLong(MethodStats::getErrors).sum();
+    }
+
+    /**
+     * Write every metric in the Prometheus text exposition format
+     */
+    public void write(Writer out) throws IOException {
+        Map<String, MethodStats> sorted = new TreeMap<>(methods);
+
+        out.write("# TYPE hotel_dao_calls_total counter\n");
+        for (Map.Entry<String, MethodStats> entry : sorted.entrySet()) {
+            out.write("hotel_dao_calls_total{method=\"" + entry.getKey() + "\"} " + entry.getValue().getCalls() + "\n");
+        }
+        out.write("# TYPE hotel_dao_errors_total counter\n");
+        for (Map.Entry<String, MethodStats> entry : sorted.entrySet()) {
+            out.write("hotel_dao_errors_total{method=\"" + entry.getKey() + "\"} " + entry.getValue().getErrors() + "\n");
+        }
+        out.write("# TYPE hotel_dao_rows_total counter\n");
+        for (Map.Entry<String, MethodStats> entry : sorted.entrySet()) {
+            out.write("hotel_dao_rows_total{method=\"" + entry.getKey() + "\"} " + entry.getValue().getRows() + "\n");
+        }
+        out.write("# TYPE hotel_dao_latency_seconds summary\n");
+        for (Map.Entry<String, MethodStats> entry : sorted.entrySet()) {
+            summary(out, "hotel_dao_latency_seconds", "method=\"" + entry.getKey() + "\"", entry.getValue().latency);
+        }
+        out.write("# TYPE hotel_dao_connection_wait_seconds summary\n");
+        for (Map.Entry<String, MethodStats> entry : sorted.entrySet()) {
+            summary(out, "hotel_dao_connection_wait_seconds", "method=\"" + entry.getKey() + "\"", entry.getValue().wait);
+        }
+
+        if (pool != null) {
+            out.write("# TYPE hotel_db_pool_connections gauge\n");
+            out.write("hotel_db_pool_connections{state=\"active\"} " + pool.getActiveCount() + "\n");
+            out.write("hotel_db_pool_connections{state=\"idle\"} " + pool.getIdleCount() + "\n");
+            out.write("hotel_db_pool_connections{state=\"max\"} " + pool.getMaxSize() + "\n");
+            out.write("# TYPE hotel_db_pool_wait_seconds summary\n");
+            summary(out, "hotel_db_pool_wait_seconds", null, poolWait);
+        }
+    }
+
+    static void summary(Writer out, String metric, String labels, LatencyHistogram histogram)
+            throws IOException {
+        long[] values = histogram.getValuesAtQuantiles(QUANTILES);
+        String prefix = labels != null ? labels + "," : "";
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.write(metric + "{" + prefix + "quantile=\"" + QUANTILES[i] + "\"} " + values[i] / 1e9 + "\n");
+        }
+        String suffix = labels != null ? "{" + labels + "}" : "";
+        out.write(metric + "_sum" + suffix + " " + histogram.getSumNanos() / 1e9 + "\n");
+        out.write(metric + "_count" + suffix + " " + histogram.getCount() + "\n");
+    }
+
+    private MethodStats statsFor(String method) {
+        MethodStats stats = methods.get(method);
+        if (stats != null) {
+            return stats;
+        }
+        MethodStats created = new MethodStats();
+        stats = methods.putIfAbsent(method, created);
+        if (stats != null) {
+            return stats;
+        }
+        register("hotel:type=DaoMethod,name=" + ObjectName.quote(method), created);
+        return created;
+    }
+
+    static void register(String name, Object bean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering metrics bean " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * JMX view of the pool
+     */
+    private class PoolView implements ConnectionPoolMXBean {
+        @Override public int getMaxSize() { return pool.getMaxSize(); }
+        @Override public int getActiveCount() { return pool.getActiveCount(); }
+        @Override public int getIdleCount() { return pool.getIdleCount(); }
+        @Override public long getLeases() { return poolWait.getCount(); }
+        @Override public double getWaitMeanMillis() { return poolWait.getMeanNanos() / 1e6; }
+        @Override public double getWaitP99Millis() { return poolWait.getValueAtQuantile(0.99) / 1e6; }
+        @Override public double getWaitMaxMillis() { return poolWait.getMaxNanos() / 1e6; }
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a stall of the JavaFX application thread: from the moment a
+ * heartbeat was posted until the FX thread ran it. Emitted by FxStallWatchdog.
+ */
+@Name("hotel.FxStall")
+@Label("FX Thread Stall")
+@Category({"Hotel", "UI"})
+@Description("The JavaFX application thread did not answer a heartbeat in time")
+@StackTrace(false)
+public class FxStallEvent extends Event {
+
+    @Label("Handler")
+    @Description("Outermost screen or controller method on the FX thread's stack")
+    String handler;
+
+    @Label("Blocked In")
+    @Description("Innermost application method on the FX thread's stack")
+    String blockedIn;
+
+    @Label("Action")
+    @Description("UI action being handled")
+    String action;
+
+    @Label("FX Thread Stack")
+    String stack;
+}
@@ -0,0 +1,220 @@
+package metrics;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Detects stalls of the JavaFX application thread, e.g. a handler calling
+ * a DAO on the FX thread.
+ *
+ * A watcher thread posts a heartbeat with Platform.runLater and waits for
+ * the FX thread to run it. If the heartbeat is still waiting after the
+ * stall threshold, the FX thread's stack is captured while it is stuck;
+ * when the heartbeat finally runs, the stall is recorded with its duration,
+ * the handler (outermost screen or controller method on the stack), the
+ * method it was blocked in and the UI action being handled. Stalls are
+ * logged, emitted as JFR hotel.FxStall events and counted in a histogram
+ * exposed over JMX (hotel:type=FxThread) and on the API's /metrics endpoint.
+ *
+ * The duration is measured from when the heartbeat was posted, so a stall
+ * may have started up to one heartbeat interval earlier. Nested event loops
+ * (showAndWait dialogs) keep answering heartbeats and are not stalls.
+ *
+ * Configuration (system properties):
+ * hotel.fx.watchdog        set to false to switch the watchdog off (default true)
+ * hotel.fx.heartbeatMillis interval between heartbeats (default 100)
+ * hotel.fx.stallMillis     heartbeat delay counted as a stall (default 250)
+ */
+public class FxStallWatchdog {
+
+    private static final int MAX_STACK_FRAMES = 40;
+
+    private static FxStallWatchdog instance = null;
+
+    private final long heartbeatMillis = Long.getLong("hotel.fx.heartbeatMillis", 100);
+    private final long stallNanos = Long.getLong("hotel.fx.stallMillis", 250) * 1_000_000L;
+    private final LongAdder heartbeats = new LongAdder();
+    private final LatencyHistogram stalls = new LatencyHistogram();
+    private volatile String lastStall = "";
+    private volatile Thread fxThread;
+    private volatile boolean running = false;
+    private volatile Thread watcher;
+
+    /**
+     * One heartbeat; run on the FX thread
+     */
+    private class Heartbeat implements Runnable {
+        final FxStallEvent event = new FxStallEvent();
+        final long sentAt = System.nanoTime();
+        final CountDownLatch answered = new CountDownLatch(1);
+        volatile long answeredAt;
+        // Captured by the watcher while the heartbeat is late
+        StackTraceElement[] stack = new StackTraceElement[0];
+        String action;
+
+        Heartbeat() {
+            event.begin();
+        }
+
+        @Override
+        public void run() {
+            fxThread = Thread.currentThread();
+            answeredAt = System.nanoTime();
+            answered.countDown();
+        }
+    }
+
+    private FxStallWatchdog() {
+    }
+
+    public static synchronized FxStallWatchdog getInstance() {
+        if (instance == null) {
+            instance = new FxStallWatchdog();
+        }
+        return instance;
+    }
+
+    /**
+     * Start watching the FX thread unless switched off; call once the toolkit is running
+     */
+    public static void install() {
+        if (!Boolean.parseBoolean(System.getProperty("hotel.fx.watchdog", "true"))) {
+            return;
+        }
+        FxStallWatchdog watchdog = getInstance();
+        watchdog.start();
+        DaoMetrics.register("hotel:type=FxThread", watchdog.new View());
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        watcher = new Thread(this::watch, "fx-watchdog");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (running) {
+                Heartbeat beat = new Heartbeat();
+                Platform.runLater(beat);
+                if (!beat.answered.await(stallNanos, TimeUnit.NANOSECONDS)) {
+                    // Stuck right now: the stack shows what the FX thread is doing
+                    Thread thread = fxThread;
+                    beat.stack = thread != null ? thread.getStackTrace() : new StackTraceElement[0];
+                    beat.action = Operations.currentUiAction();
+                    beat.answered.await();
+                }
+                heartbeats.increment();
+                long delay = beat.answeredAt - beat.sentAt;
+                if (delay >= stallNanos) {
+                    stalled(beat, delay);
+                }
+                Thread.sleep(heartbeatMillis);
+            }
+        } catch (InterruptedException | IllegalStateException e) {
+            // Stopped, or the FX toolkit has exited
+        }
+    }
+
+    private void stalled(Heartbeat beat, long nanos) {
+        stalls.record(nanos);
+        String handler = handlerOf(beat.stack);
+        String blockedIn = blockedIn(beat.stack);
+        String description = String.format("%.0f ms in %s", nanos / 1e6, handler)
+                + (blockedIn.equals(handler) ? "" : " (blocked in " + blockedIn + ")")
+                + (beat.action != null ? " during " + beat.action : "");
+        lastStall = description;
+        System.err.println("FX thread stalled for " + description);
+
+        beat.event.end();
+        if (beat.event.shouldCommit()) {
+            beat.event.handler = handler;
+            beat.event.blockedIn = blockedIn;
+            beat.event.action = beat.action;
+            beat.event.stack = Arrays.stream(beat.stack).limit(MAX_STACK_FRAMES)
+                    .map(StackTraceElement::toString).collect(Collectors.joining("\n"));
+            beat.event.commit();
+        }
+    }
+
+    /**
+     * @return Outermost screen or controller method (not a lambda) on the stack
+     */
+    private static String handlerOf(StackTraceElement[] stack) {
+        String handler = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if ((className.startsWith("view.") || className.startsWith("controller."))
+                    && !frame.getMethodName().startsWith("lambda$")) {
+                handler = className + "." + frame.getMethodName();
+            }
+        }
+        return handler != null ? handler : blockedIn(stack);
+    }
+
+    /**
+     * @return Innermost application method on the stack
+     */
+    private static String blockedIn(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (isApplicationFrame(frame.getClassName())) {
+                return frame.getClassName() + "." + frame.getMethodName();
+            }
+        }
+        return stack.length > 0 ? stack[0].getClassName() + "." + stack[0].getMethodName() : "unknown";
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return !className.startsWith("java.") && !className.startsWith("javax.") && !className.startsWith("javafx.")
+                && !className.startsWith("jdk.") && !className.startsWith("sun.") && !className.startsWith("com.sun.")
+                && !className.startsWith("metrics.") && !className.startsWith("async.UiActions");
+    }
+
+    /**
+     * Write the watchdog metrics in the Prometheus text exposition format
+     * (nothing if the watchdog never ran)
+     */
+    public void write(Writer out) throws IOException {
+        if (watcher == null) {
+            return;
+        }
+        out.write("# TYPE hotel_fx_heartbeats_total counter\n");
+        out.write("hotel_fx_heartbeats_total " + heartbeats.sum() + "\n");
+        out.write("# TYPE hotel_fx_stalls_total counter\n");
+        out.write("hotel_fx_stalls_total " + stalls.getCount() + "\n");
+        out.write("# TYPE hotel_fx_stall_seconds summary\n");
+        DaoMetrics.summary(out, "hotel_fx_stall_seconds", null, stalls);
+    }
+
+    /**
+     * JMX view of the watchdog
+     */
+    private class View implements FxThreadMXBean {
+        @Override public long getHeartbeats() { return heartbeats.sum(); }
+        @Override public long getStalls() { return stalls.getCount(); }
+        @Override public double getStalledMillis() { return stalls.getSumNanos() / 1e6; }
+        @Override public double getStallP50Millis() { return stalls.getValueAtQuantile(0.5) / 1e6; }
+        @Override public double getStallP95Millis() { return stalls.getValueAtQuantile(0.95) / 1e6; }
+        @Override public double getStallP99Millis() { return stalls.getValueAtQuantile(0.99) / 1e6; }
+        @Override public double getStallMaxMillis() { return stalls.getMaxNanos() / 1e6; }
+        @Override public String getLastStall() { return lastStall; }
+    }
+}
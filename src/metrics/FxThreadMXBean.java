@@ -0,0 +1,15 @@
+package metrics;
+
+/**
+ * JMX view of the JavaFX application thread watchdog (hotel:type=FxThread)
+ */
+public interface FxThreadMXBean {
+    long getHeartbeats();
+    long getStalls();
+    double getStalledMillis();
+    double getStallP50Millis();
+    double getStallP95Millis();
+    double getStallP99Millis();
+    double getStallMaxMillis();
+    String getLastStall();
+}
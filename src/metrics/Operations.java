@@ -0,0 +1,138 @@
+package metrics;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Ties JFR events to the business operation they belong to.
+ *
+ * The action being handled (a UI action such as ReservationManagement.checkIn,
+ * or an API request) is kept per thread and handed on to the background work
+ * it starts (UiTaskRunner, DatabaseExecutor), so the controller operations
+ * and DAO calls in a recording carry the name of the click that caused them.
+ * Events are only built when JFR records them; otherwise each call costs a
+ * thread-local lookup.
+ *
+ * Enable with e.g. -XX:StartFlightRecording:settings=profile and look for the
+ * hotel.UiAction, hotel.ControllerOperation and hotel.DaoCall events.
+ */
+public final class Operations {
+
+    private static final ThreadLocal<String> ACTION = new ThreadLocal<>();
+    // Action handled on the FX thread, readable from other threads (FxStallWatchdog)
+    private static volatile String uiAction;
+
+    private Operations() {
+    }
+
+    /**
+     * @return Action the current thread works for, or null
+     */
+    public static String currentAction() {
+        return ACTION.get();
+    }
+
+    /**
+     * @return UI action the FX thread is handling right now, or null
+     */
+    public static String currentUiAction() {
+        return uiAction;
+    }
+
+    /**
+     * Run a UI action handler and record it as a UiActionEvent; call on the FX thread
+     * @param action Screen and action, e.g. "RoomManagement.add"
+     * @param handler The handler
+     */
+    public static void runAction(String action, Runnable handler) {
+        UiActionEvent event = new UiActionEvent();
+        event.begin();
+        String previous = ACTION.get();
+        String previousUiAction = uiAction;
+        ACTION.set(action);
+        uiAction = action;
+        try {
+            handler.run();
+        } finally {
+            restore(previous);
+            uiAction = previousUiAction;
+            event.end();
+            if (event.shouldCommit()) {
+                event.action = action;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Run work on behalf of an action, typically on a background thread
+     * @param action Action captured with currentAction() (null for none)
+     * @param work The work
+     * @return Result of the work
+     */
+    public static <T> T callInAction(String action, Callable<T> work) throws Exception {
+        if (action == null) {
+            return work.call();
+        }
+        String previous = ACTION.get();
+        ACTION.set(action);
+        try {
+            return work.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Run a callback on behalf of an action, e.g. a result handler on the FX thread
+     * @param action Action captured with currentAction() (null for none)
+     * @param work The callback
+     */
+    public static void runInAction(String action, Runnable work) {
+        String previous = ACTION.get();
+        ACTION.set(action);
+        try {
+            work.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Run a controller operation and record it as a ControllerOperationEvent
+     * @param operation Controller method, e.g. "ReservationController.checkInGuest"
+     * @param entityId Id of the entity the operation works on (0 if none)
+     * @param call The operation
+     * @return Result of the operation
+     */
+    public static <T> T record(String operation, long entityId, Supplier<T> call) {
+        ControllerOperationEvent event = new ControllerOperationEvent();
+        event.begin();
+        T result = null;
+        Throwable error = null;
+        try {
+            result = call.get();
+            return result;
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.entityId = entityId;
+                event.result = error != null ? error.getClass().getSimpleName() : String.valueOf(result);
+                event.action = ACTION.get();
+                event.commit();
+            }
+        }
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            ACTION.remove();
+        } else {
+            ACTION.set(previous);
+        }
+    }
+}
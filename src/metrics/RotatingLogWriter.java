@@ -0,0 +1,179 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends log lines to a size-rotated file from a background thread.
+ *
+ * Callers only put the finished line on a bounded queue and never wait for
+ * the disk; when the queue is full the line is dropped and counted. The
+ * writer thread drains the queue in batches and encodes them into one
+ * reused direct buffer, one write call per batch. When the file grows
+ * past the size limit it is renamed to name.1 (name.1 to name.2, ...) and a
+ * new file is started; the oldest is deleted.
+ */
+public class RotatingLogWriter {
+
+    private static final int QUEUE_SIZE = 4096;
+    private static final int BATCH_SIZE = 256;
+
+    private final Path file;
+    private final long maxBytes;
+    private final int keepFiles;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    // Only used by the writer thread
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private FileChannel channel;
+    private long size;
+
+    /**
+     * @param file Log file
+     * @param maxBytes Size after which the file is rotated
+     * @param keepFiles Number of rotated files kept besides the current one
+     */
+    public RotatingLogWriter(Path file, long maxBytes, int keepFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+        this.writer = new Thread(this::run, "log-writer-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue one line (without the line separator)
+     * @return false if the line was dropped because the writer is behind
+     */
+    public boolean append(String line) {
+        if (queue.offer(line)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * @return Lines dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error writing " + file + ": " + e.getMessage());
+                buffer.clear();
+                encoder.reset();
+                closeChannel();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<String> lines) throws IOException {
+        if (channel == null) {
+            open();
+        }
+        for (String line : lines) {
+            encode(CharBuffer.wrap(line));
+            encode(CharBuffer.wrap(System.lineSeparator()));
+        }
+        flushBuffer();
+        if (size >= maxBytes) {
+            rotate();
+        }
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else {
+                encoder.reset();
+                return;
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        Files.deleteIfExists(rotated(keepFiles));
+        for (int i = keepFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (keepFiles > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Reopened on the next write
+            }
+            channel = null;
+        }
+    }
+}
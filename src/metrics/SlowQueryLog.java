@@ -0,0 +1,311 @@
+package metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in log of slow SQL statements.
+ *
+ * Connections handed out by DBConnection are wrapped so that every
+ * statement is timed: the execute call plus the time spent reading its rows
+ * (until the result set is closed; time the caller spends between rows is
+ * not counted). A statement slower than the threshold is written with its
+ * SQL, bind values, duration, row count and the view, controller and DAO
+ * methods it was called from, e.g.
+ *
+ * 2026-10-19T14:03:11.482 812.4 ms rows=5120 sql="SELECT ... WHERE checkin_date < ?" binds=[1='2026-10-20', ...]
+ *   origin=view.ReservationManagement.lambda$refreshAllData$3 > controller.ReservationController.getReservationsByDateRange > dao.ReservationDAO.getReservationsByDateRange
+ *
+ * The stack is only walked for slow statements. Lines go to a rotating file
+ * through RotatingLogWriter, so a burst of slow queries never blocks the
+ * callers on disk writes.
+ *
+ * Configuration (system properties):
+ * hotel.db.slowQueryMillis       threshold; the log is enabled when this is set
+ * hotel.db.slowQueryLog          log file (default slow-queries.log)
+ * hotel.db.slowQueryLog.maxBytes size at which the file is rotated (default 10485760)
+ * hotel.db.slowQueryLog.files    rotated files kept (default 5)
+ */
+public class SlowQueryLog {
+
+    private static final int MAX_BIND_LENGTH = 100;
+    // Origin tiers, outermost first: the screen or job, the controller, the DAO
+    private static final String[][] ORIGIN_PACKAGES = {
+            {"view.", "api.", "importer.", "report.", "archive.", "sync."},
+            {"controller."},
+            {"dao."}
+    };
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static SlowQueryLog instance = null;
+
+    private final long thresholdNanos;
+    private final RotatingLogWriter writer;
+
+    private SlowQueryLog(long thresholdMillis, RotatingLogWriter writer) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.writer = writer;
+    }
+
+    /**
+     * @return The log, or null if hotel.db.slowQueryMillis is not set
+     */
+    public static synchronized SlowQueryLog getInstance() {
+        if (instance == null) {
+            Long threshold = Long.getLong("hotel.db.slowQueryMillis");
+            if (threshold == null) {
+                return null;
+            }
+            RotatingLogWriter writer = new RotatingLogWriter(
+                    Path.of(System.getProperty("hotel.db.slowQueryLog", "slow-queries.log")),
+                    Long.getLong("hotel.db.slowQueryLog.maxBytes", 10L * 1024 * 1024),
+                    Integer.getInteger("hotel.db.slowQueryLog.files", 5));
+            instance = new SlowQueryLog(threshold, writer);
+        }
+        return instance;
+    }
+
+    /**
+     * Wrap a connection so its statements are timed
+     * @param connection Connection to wrap (closing the wrapper closes it)
+     * @return Timed connection
+     */
+    public Connection wrap(Connection connection) {
+        return proxy(Connection.class, new Timed(connection, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    /**
+     * State of one statement: its SQL, current bind values and timing
+     */
+    private class StatementState {
+        String sql;
+        Object[] binds = new Object[8];
+        int batchSize = 0;
+        long startedAt;
+        long nanos;
+        long rows;
+        boolean open = false;
+
+        void bind(int index, Object value) {
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+            }
+            binds[index] = value;
+        }
+
+        void started() {
+            startedAt = System.nanoTime();
+            nanos = 0;
+            rows = 0;
+            open = true;
+        }
+
+        /**
+         * Log the statement if it was slow; called once its rows are read
+         */
+        void finished() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            if (nanos >= thresholdNanos) {
+                writer.append(format(this));
+            }
+        }
+    }
+
+    /**
+     * Proxy handler for the connection, its statements and result sets
+     */
+    private class Timed implements InvocationHandler {
+        private final Object target;
+        // Null for the connection
+        private final StatementState state;
+
+        Timed(Object target, StatementState state) {
+            this.target = target;
+            this.state = state;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (target instanceof Connection) {
+                Object result = call(method, args);
+                if (result instanceof Statement) {
+                    StatementState created = new StatementState();
+                    if (args != null && args.length > 0 && args[0] instanceof String) {
+                        created.sql = (String) args[0];
+                    }
+                    return proxy(method.getReturnType(), new Timed(result, created));
+                }
+                return result;
+            }
+
+            if (target instanceof ResultSet) {
+                if (name.equals("next")) {
+                    long start = System.nanoTime();
+                    Object result = call(method, args);
+                    state.nanos += System.nanoTime() - start;
+                    if (result == Boolean.TRUE) {
+                        state.rows++;
+                    }
+                    return result;
+                }
+                if (name.equals("close")) {
+                    state.finished();
+                }
+                return call(method, args);
+            }
+
+            // Statement
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                state.bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(state.binds, null);
+            } else if (name.equals("addBatch")) {
+                state.batchSize++;
+                if (args != null && args.length == 1) {
+                    state.sql = (String) args[0];
+                }
+            } else if (name.equals("close")) {
+                state.finished();
+            }
+
+            if (!name.startsWith("execute")) {
+                Object result = call(method, args);
+                if (result instanceof ResultSet && method.getReturnType() == ResultSet.class && state.open) {
+                    return proxy(ResultSet.class, new Timed(result, state));
+                }
+                return result;
+            }
+
+            // A statement object may be executed again; report the previous run first
+            state.finished();
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                state.sql = (String) args[0];
+            }
+            state.started();
+            Object result = call(method, args);
+            state.nanos += System.nanoTime() - state.startedAt;
+
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new Timed(result, state));
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                state.rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                state.rows = Arrays.stream((int[]) result).filter(count -> count > 0).sum();
+            } else if (result instanceof long[]) {
+                state.rows = Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+            }
+            if (!(result instanceof Boolean && (Boolean) result)) {
+                // No result set to read: the statement is complete
+                state.finished();
+                state.batchSize = 0;
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private String format(StatementState state) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(LocalDateTime.now()).append(' ')
+                .append(String.format("%.1f", state.nanos / 1e6)).append(" ms rows=").append(state.rows);
+        if (state.batchSize > 0) {
+            line.append(" batch=").append(state.batchSize);
+        }
+        line.append(" sql=\"").append(state.sql != null ? state.sql.replaceAll("\\s+", " ").trim() : "?").append('"');
+
+        line.append(" binds=[");
+        int last = lastBound(state);
+        for (int i = 1; i <= last; i++) {
+            if (i > 1) {
+                line.append(", ");
+            }
+            line.append(i).append('=');
+            appendValue(line, state.binds[i]);
+        }
+        line.append(']');
+
+        line.append(" origin=").append(origin());
+        return line.toString();
+    }
+
+    private static int lastBound(StatementState state) {
+        for (int i = state.binds.length - 1; i > 0; i--) {
+            if (state.binds[i] != null) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("NULL");
+        } else if (value instanceof byte[]) {
+            line.append("<").append(((byte[]) value).length).append(" bytes>");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else {
+            String text = value.toString();
+            if (text.length() > MAX_BIND_LENGTH) {
+                text = text.substring(0, MAX_BIND_LENGTH) + "...";
+            }
+            line.append('\'').append(text.replace("\n", " ")).append('\'');
+        }
+    }
+
+    /**
+     * @return Closest screen (or job), controller and DAO frames, outermost first
+     */
+    private static String origin() {
+        return WALKER.walk(frames -> {
+            String[] found = new String[ORIGIN_PACKAGES.length];
+            frames.forEach(frame -> {
+                String className = frame.getClassName();
+                for (int tier = 0; tier < ORIGIN_PACKAGES.length; tier++) {
+                    for (String prefix : ORIGIN_PACKAGES[tier]) {
+                        if (found[tier] == null && className.startsWith(prefix)) {
+                            found[tier] = className + "." + frame.getMethodName();
+                        }
+                    }
+                }
+            });
+            String origin = Arrays.stream(found).filter(frame -> frame != null).collect(Collectors.joining(" > "));
+            return origin.isEmpty() ? "unknown" : origin;
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one UI action handler (a button click, Enter in a field),
+ * timed on the FX thread. Background work it started is not included; its
+ * controller and DAO events carry the same action name instead. Emitted by
+ * Operations.runAction.
+ */
+@Name("hotel.UiAction")
+@Label("UI Action")
+@Category({"Hotel", "UI"})
+@Description("A UI action handler")
+@StackTrace(false)
+public class UiActionEvent extends Event {
+
+    @Label("Action")
+    @Description("Screen and action, e.g. ReservationManagement.checkIn")
+    String action;
+}
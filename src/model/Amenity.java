@@ -0,0 +1,74 @@
+package model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+public enum Amenity {
+    SPA_ACCESS("Spa Access", 50.0, 1),
+    MINIBAR("Minibar", 25.0, 1 << 1);
+
+    private final String label;
+    private final double price;
+    private final int bit;
+
+    Amenity(String label, double price, int bit) {
+        this.label = label;
+        this.price = price;
+        this.bit = bit;
+    }
+
+    public String getLabel() { return label; }
+    public double getPrice() { return price; }
+
+    /**
+     * Bit used for this amenity in the rooms.amenities column
+     * @return Bit value (stable, never reuse or reorder)
+     */
+    public int getBit() { return bit; }
+
+    /**
+     * Build the bitmask stored in the database from a set of amenities
+     * @param amenities Amenities to encode
+     * @return Bitmask
+     */
+    public static int toMask(Collection<Amenity> amenities) {
+        int mask = 0;
+        for (Amenity amenity : amenities) {
+            mask |= amenity.bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Decode a bitmask read from the database
+     * @param mask Bitmask
+     * @return Set of amenities present in the mask
+     */
+    public static EnumSet<Amenity> fromMask(int mask) {
+        EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        for (Amenity amenity : values()) {
+            if ((mask & amenity.bit) != 0) {
+                amenities.add(amenity);
+            }
+        }
+        return amenities;
+    }
+
+    /**
+     * Find the amenity whose label matches a search keyword
+     * @param keyword Keyword (case-insensitive)
+     * @return Matching amenity or null if the keyword is not an amenity
+     */
+    public static Amenity fromLabel(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String trimmed = keyword.trim();
+        for (Amenity amenity : values()) {
+            if (amenity.label.equalsIgnoreCase(trimmed)) {
+                return amenity;
+            }
+        }
+        return null;
+    }
+}
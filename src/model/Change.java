@@ -0,0 +1,35 @@
+package model;
+
+/**
+ * One row of the change journal: a guest, room or reservation was written.
+ * The sequence number is assigned by the database and only ever increases,
+ * so a client can ask for everything after the last sequence it has seen.
+ */
+public class Change {
+
+    public enum Entity { GUEST, ROOM, RESERVATION }
+
+    public enum Operation { INSERT, UPDATE, DELETE }
+
+    private final long sequence;
+    private final Entity entity;
+    private final int entityId;
+    private final Operation operation;
+
+    public Change(long sequence, Entity entity, int entityId, Operation operation) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.operation = operation;
+    }
+
+    public long getSequence() { return sequence; }
+    public Entity getEntity() { return entity; }
+    public int getEntityId() { return entityId; }
+    public Operation getOperation() { return operation; }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + operation + " " + entity + " " + entityId;
+    }
+}
@@ -0,0 +1,134 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class DashboardStatistics {
+    // Room counts keyed by status, then by type
+    private final Map<String, Map<String, Integer>> roomCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> roomCountsByType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Double> priceSumsByType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> guestCountsByType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> reservationCountsByStatus = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private LocalDateTime generatedAt = LocalDateTime.now();
+
+    public DashboardStatistics() {}
+
+    // Accumulators used while reading the statistics query
+    public void addRoomGroup(String status, String type, int count, double priceSum) {
+        roomCounts.computeIfAbsent(status, k -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                .merge(type, count, Integer::sum);
+        roomCountsByType.merge(type, count, Integer::sum);
+        priceSumsByType.merge(type, priceSum, Double::sum);
+    }
+
+    public void addGuestGroup(String guestType, int count) {
+        guestCountsByType.merge(guestType, count, Integer::sum);
+    }
+
+    public void addReservationGroup(String status, int count) {
+        reservationCountsByStatus.merge(status, count, Integer::sum);
+    }
+
+    // Rooms
+    public int getTotalRooms() {
+        return sum(roomCountsByType);
+    }
+
+    public int getRoomCountByStatus(String status) {
+        Map<String, Integer> byType = roomCounts.get(status);
+        return byType != null ? sum(byType) : 0;
+    }
+
+    public int getRoomCount(String status, String type) {
+        Map<String, Integer> byType = roomCounts.get(status);
+        return byType != null ? byType.getOrDefault(type, 0) : 0;
+    }
+
+    public int getRoomCountByType(String type) {
+        return roomCountsByType.getOrDefault(type, 0);
+    }
+
+    public int getAvailableRooms() {
+        return getRoomCountByStatus("Available");
+    }
+
+    public int getOccupiedRooms() {
+        return getRoomCountByStatus("Occupied");
+    }
+
+    public double getAveragePriceByType(String type) {
+        int count = getRoomCountByType(type);
+        return count > 0 ? priceSumsByType.getOrDefault(type, 0.0) / count : 0.0;
+    }
+
+    public Map<String, Integer> getRoomCountsByType() {
+        return roomCountsByType;
+    }
+
+    // Guests
+    public int getTotalGuests() {
+        return sum(guestCountsByType);
+    }
+
+    public int getGuestCountByType(String guestType) {
+        return guestCountsByType.getOrDefault(guestType, 0);
+    }
+
+    public int getVipGuests() {
+        return getGuestCountByType("VIP");
+    }
+
+    public int getRegularGuests() {
+        return getGuestCountByType("REGULAR");
+    }
+
+    // Reservations
+    public int getTotalReservations() {
+        return sum(reservationCountsByStatus);
+    }
+
+    public int getReservationCount(ReservationStatus status) {
+        return reservationCountsByStatus.getOrDefault(status.name(), 0);
+    }
+
+    public int getActiveReservations() {
+        return getReservationCount(ReservationStatus.CHECKED_IN);
+    }
+
+    public int getUpcomingReservations() {
+        return getReservationCount(ReservationStatus.BOOKED);
+    }
+
+    public int getPastReservations() {
+        return getReservationCount(ReservationStatus.CHECKED_OUT)
+                + getReservationCount(ReservationStatus.CANCELLED)
+                + getReservationCount(ReservationStatus.NO_SHOW);
+    }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+
+    private static int sum(Map<String, Integer> counts) {
+        int total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardStatistics{" +
+                "rooms=" + getTotalRooms() +
+                ", available=" + getAvailableRooms() +
+                ", occupied=" + getOccupiedRooms() +
+                ", guests=" + getTotalGuests() +
+                ", vip=" + getVipGuests() +
+                ", activeReservations=" + getActiveReservations() +
+                ", upcomingReservations=" + getUpcomingReservations() +
+                ", generatedAt=" + generatedAt +
+                '}';
+    }
+}
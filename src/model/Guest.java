@@ -4,6 +4,8 @@ public abstract class Guest {
     protected int id;
     protected String name;
     protected String contact;
+    // Row version for optimistic locking, incremented by every update
+    protected int version;
 
     public Guest() {}
 
@@ -19,6 +21,8 @@ public abstract class Guest {
     public void setName(String name) { this.name = name; }
     public String getContact() { return contact; }
     public void setContact(String contact) { this.contact = contact; }
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
 
     // Abstract methods
     public abstract double calculateDiscount(double amount);
@@ -10,6 +10,9 @@ public class Reservation {
     private LocalDate checkinDate;
     private LocalDate checkoutDate;
     private LocalDateTime createdAt;
+    private ReservationStatus status = ReservationStatus.BOOKED;
+    // Row version for optimistic locking, incremented by every update
+    private int version;
 
     // Default constructor
     public Reservation() {}
@@ -83,6 +86,14 @@ public class Reservation {
         this.createdAt = createdAt;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     // Convenience methods to get IDs (for database operations)
     public int getGuestId() {
         return guest != null ? guest.getId() : 0;
@@ -117,10 +128,20 @@ public class Reservation {
         return 0;
     }
 
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public String getStatusLabel() {
+        return status != null ? status.getLabel() : "";
+    }
+
     public boolean isActive() {
-        LocalDate today = LocalDate.now();
-        return checkinDate != null && checkoutDate != null &&
-                !today.isBefore(checkinDate) && today.isBefore(checkoutDate);
+        return status == ReservationStatus.CHECKED_IN;
     }
 
     @Override
@@ -132,6 +153,7 @@ public class Reservation {
                 ", checkinDate=" + checkinDate +
                 ", checkoutDate=" + checkoutDate +
                 ", createdAt=" + createdAt +
+                ", status=" + status +
                 '}';
     }
 }
\ No newline at end of file
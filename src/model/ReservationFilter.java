@@ -0,0 +1,57 @@
+package model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criteria for paged reservation queries (see ReservationDAO.getReservationsPage).
+ * Immutable; an empty status set matches every status.
+ */
+public class ReservationFilter {
+    private final Set<ReservationStatus> statuses;
+    private final boolean includeArchived;
+    private final String guestName;
+
+    private ReservationFilter(Set<ReservationStatus> statuses, boolean includeArchived, String guestName) {
+        this.statuses = statuses;
+        this.includeArchived = includeArchived;
+        this.guestName = guestName;
+    }
+
+    /**
+     * Every reservation in the live table
+     */
+    public static ReservationFilter all() {
+        return new ReservationFilter(Collections.emptySet(), false, null);
+    }
+
+    /**
+     * Live reservations in one of the given statuses
+     */
+    public static ReservationFilter withStatus(ReservationStatus first, ReservationStatus... rest) {
+        return new ReservationFilter(Collections.unmodifiableSet(EnumSet.of(first, rest)), false, null);
+    }
+
+    /**
+     * Finished reservations, including archived ones
+     */
+    public static ReservationFilter past() {
+        return new ReservationFilter(Collections.unmodifiableSet(EnumSet.of(
+                ReservationStatus.CHECKED_OUT, ReservationStatus.CANCELLED, ReservationStatus.NO_SHOW)), true, null);
+    }
+
+    /**
+     * Same filter, restricted to guests whose name contains the given text
+     * @param name Name fragment (null or blank removes the restriction)
+     * @return New filter
+     */
+    public ReservationFilter withGuestName(String name) {
+        String trimmed = name != null && !name.trim().isEmpty() ? name.trim() : null;
+        return new ReservationFilter(statuses, includeArchived, trimmed);
+    }
+
+    public Set<ReservationStatus> getStatuses() { return statuses; }
+    public boolean isIncludeArchived() { return includeArchived; }
+    public String getGuestName() { return guestName; }
+}
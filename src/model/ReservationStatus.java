@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Lifecycle of a reservation, persisted in reservations.status.
+ *
+ * BOOKED -> CHECKED_IN -> CHECKED_OUT
+ * BOOKED -> CANCELLED
+ * BOOKED -> NO_SHOW
+ */
+public enum ReservationStatus {
+    BOOKED("Booked"),
+    CHECKED_IN("Checked In"),
+    CHECKED_OUT("Checked Out"),
+    CANCELLED("Cancelled"),
+    NO_SHOW("No Show");
+
+    private final String label;
+
+    ReservationStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Whether the reservation still holds its room (blocks availability)
+     * @return true for BOOKED and CHECKED_IN
+     */
+    public boolean isOpen() {
+        return this == BOOKED || this == CHECKED_IN;
+    }
+
+    /**
+     * Parse a status stored in the database
+     * @param value Status name, e.g. "CHECKED_IN"
+     * @return Matching status, BOOKED if the value is null or blank
+     */
+    public static ReservationStatus fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return BOOKED;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
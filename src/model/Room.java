@@ -1,5 +1,7 @@
 package model;
 
+import java.util.EnumSet;
+
 public class Room implements RoomComponent {
     private int id;
     private String number;
@@ -7,6 +9,9 @@ public class Room implements RoomComponent {
     private String status;
     private double basePrice;
     private String description;
+    private int amenities;
+    // Row version for optimistic locking, incremented by every update
+    private int version;
 
     // Constructor
     public Room() {}
@@ -44,6 +49,20 @@ public class Room implements RoomComponent {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public int getAmenities() { return amenities; }
+    public void setAmenities(int amenities) { this.amenities = amenities; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public boolean hasAmenity(Amenity amenity) {
+        return (amenities & amenity.getBit()) != 0;
+    }
+
+    public EnumSet<Amenity> getAmenitySet() {
+        return Amenity.fromMask(amenities);
+    }
+
     @Override
     public double getPrice() { return basePrice; }
 
@@ -0,0 +1,56 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria for paged room queries (see RoomDAO.getRoomsPage).
+ * Immutable; null fields and an empty amenity mask match every room.
+ */
+public class RoomFilter {
+    private final String type;
+    private final String status;
+    private final int amenities;
+    private final LocalDate freeFrom;
+    private final LocalDate freeUntil;
+
+    private RoomFilter(String type, String status, int amenities, LocalDate freeFrom, LocalDate freeUntil) {
+        this.type = type;
+        this.status = status;
+        this.amenities = amenities;
+        this.freeFrom = freeFrom;
+        this.freeUntil = freeUntil;
+    }
+
+    public static RoomFilter all() {
+        return new RoomFilter(null, null, 0, null, null);
+    }
+
+    public static RoomFilter byType(String type) {
+        return new RoomFilter(type, null, 0, null, null);
+    }
+
+    public static RoomFilter byStatus(String status) {
+        return new RoomFilter(null, status, 0, null, null);
+    }
+
+    /**
+     * Rooms offering every amenity in the mask
+     * @param amenities Bitmask of model.Amenity values
+     */
+    public static RoomFilter withAmenities(int amenities) {
+        return new RoomFilter(null, null, amenities, null, null);
+    }
+
+    /**
+     * Available rooms without a reservation overlapping the stay
+     */
+    public static RoomFilter availableBetween(LocalDate checkin, LocalDate checkout) {
+        return new RoomFilter(null, "Available", 0, checkin, checkout);
+    }
+
+    public String getType() { return type; }
+    public String getStatus() { return status; }
+    public int getAmenities() { return amenities; }
+    public LocalDate getFreeFrom() { return freeFrom; }
+    public LocalDate getFreeUntil() { return freeUntil; }
+}
@@ -1,16 +1,17 @@
 package model.decorator;
 
+import model.Amenity;
 import model.RoomComponent;
 
 public class MinibarDecorator extends RoomDecorator {
 
     public MinibarDecorator(RoomComponent room) {
-        super(room, 25.0);
+        super(room, Amenity.MINIBAR.getPrice());
     }
 
     @Override
     public String getDescription() {
-        return room.getDescription() + ", Minibar";
+        return room.getDescription() + ", " + Amenity.MINIBAR.getLabel();
     }
     public RoomComponent getWrappedRoom() {
         return room;
@@ -1,16 +1,17 @@
 package model.decorator;
 
+import model.Amenity;
 import model.RoomComponent;
 
 public class SpaDecorator extends RoomDecorator {
 
     public SpaDecorator(RoomComponent room) {
-        super(room, 50.0);
+        super(room, Amenity.SPA_ACCESS.getPrice());
     }
 
     @Override
     public String getDescription() {
-        return room.getDescription() + ", Spa Access";
+        return room.getDescription() + ", " + Amenity.SPA_ACCESS.getLabel();
     }
     public RoomComponent getWrappedRoom() {
         return room;
@@ -0,0 +1,148 @@
+package paging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Keyed diff between two versions of a list (e.g. a page before and after a refresh).
+ *
+ * Rows are matched by key. The longest run of matched rows that kept their
+ * relative order stays in place; every other old row is removed and every
+ * other new row inserted, and matched rows whose content changed are
+ * reported as updates. Edits are reported in an order that can be applied
+ * one after the other to the old list:
+ * removals from the highest index down, then insertions from the lowest
+ * index up, then updates at their final index.
+ */
+public final class KeyedDiff {
+
+    /**
+     * Receives the edits turning the old list into the new one
+     */
+    public interface Patch<T> {
+        void removed(int index, T oldItem);
+        void inserted(int index, T newItem);
+        void updated(int index, T oldItem, T newItem);
+    }
+
+    private KeyedDiff() {
+    }
+
+    /**
+     * Compare two lists and report the edits
+     * @param oldItems Current rows
+     * @param newItems Rows to show
+     * @param key Row identity (e.g. the database id)
+     * @param content Values shown in the row; a row is updated when they differ
+     * @param patch Receives the edits
+     * @return Number of edits reported
+     */
+    public static <T> int diff(List<T> oldItems, List<T> newItems, Function<T, ?> key,
+                               Function<T, ?> content, Patch<T> patch) {
+        List<Object> oldContents = new ArrayList<>(oldItems.size());
+        for (T item : oldItems) {
+            oldContents.add(content.apply(item));
+        }
+        return diff(oldItems, oldContents, newItems, key, content, patch);
+    }
+
+    /**
+     * Compare two lists and report the edits, using the content the old rows
+     * had when they were displayed (rows may have been modified in place since)
+     * @param oldItems Current rows
+     * @param oldContents Displayed content of each current row
+     * @param newItems Rows to show
+     * @param key Row identity (e.g. the database id)
+     * @param content Values shown in the row; a row is updated when they differ
+     * @param patch Receives the edits
+     * @return Number of edits reported
+     */
+    public static <T> int diff(List<T> oldItems, List<?> oldContents, List<T> newItems, Function<T, ?> key,
+                               Function<T, ?> content, Patch<T> patch) {
+        Map<Object, Integer> newIndexByKey = new HashMap<>();
+        for (int i = 0; i < newItems.size(); i++) {
+            newIndexByKey.put(key.apply(newItems.get(i)), i);
+        }
+
+        // New position of every old row still present (-1 if gone)
+        int[] newIndexOfOld = new int[oldItems.size()];
+        for (int i = 0; i < oldItems.size(); i++) {
+            Integer newIndex = newIndexByKey.get(key.apply(oldItems.get(i)));
+            newIndexOfOld[i] = newIndex != null ? newIndex : -1;
+        }
+
+        boolean[] keepOld = longestIncreasingRun(newIndexOfOld);
+        boolean[] keptNew = new boolean[newItems.size()];
+        for (int i = 0; i < oldItems.size(); i++) {
+            if (keepOld[i]) {
+                keptNew[newIndexOfOld[i]] = true;
+            }
+        }
+
+        int edits = 0;
+        for (int i = oldItems.size() - 1; i >= 0; i--) {
+            if (!keepOld[i]) {
+                patch.removed(i, oldItems.get(i));
+                edits++;
+            }
+        }
+        for (int i = 0; i < newItems.size(); i++) {
+            if (!keptNew[i]) {
+                patch.inserted(i, newItems.get(i));
+                edits++;
+            }
+        }
+        for (int i = 0; i < oldItems.size(); i++) {
+            if (keepOld[i]) {
+                T newItem = newItems.get(newIndexOfOld[i]);
+                if (!Objects.equals(oldContents.get(i), content.apply(newItem))) {
+                    patch.updated(newIndexOfOld[i], oldItems.get(i), newItem);
+                    edits++;
+                }
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Mark the longest strictly increasing subsequence of non-negative values
+     * (O(n log n) patience sorting)
+     */
+    private static boolean[] longestIncreasingRun(int[] values) {
+        int n = values.length;
+        int[] tailIndex = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (values[i] < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tailIndex[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tailIndex[low - 1] : -1;
+            tailIndex[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] keep = new boolean[n];
+        for (int i = length > 0 ? tailIndex[length - 1] : -1; i >= 0; i = previous[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+}
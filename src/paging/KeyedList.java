@@ -0,0 +1,85 @@
+package paging;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Observable list that is refreshed by patching instead of setAll().
+ *
+ * patch() diffs the new result set against the current rows by key and
+ * applies only the insertions, removals and updates, reported as a single
+ * change. Rows that did not change keep their identity, so selections (e.g.
+ * a ComboBox value) and cells survive a reload. Must be used from the FX thread.
+ */
+public class KeyedList<T> extends ModifiableObservableListBase<T> {
+
+    private final List<T> items = new ArrayList<>();
+    private final Function<T, ?> key;
+    private final Function<T, ?> content;
+
+    /**
+     * @param key Row identity, e.g. the database id
+     * @param content Values shown for the row (compared with equals)
+     */
+    public KeyedList(Function<T, ?> key, Function<T, ?> content) {
+        this.key = key;
+        this.content = content;
+    }
+
+    /**
+     * Make the list equal to the new rows with the fewest edits
+     * @param newItems Rows to show
+     * @return Number of rows inserted, removed or updated
+     */
+    public int patch(List<T> newItems) {
+        beginChange();
+        try {
+            return KeyedDiff.diff(new ArrayList<>(items), newItems, key, content, new KeyedDiff.Patch<T>() {
+                @Override
+                public void removed(int index, T oldItem) {
+                    remove(index);
+                }
+
+                @Override
+                public void inserted(int index, T newItem) {
+                    add(index, newItem);
+                }
+
+                @Override
+                public void updated(int index, T oldItem, T newItem) {
+                    set(index, newItem);
+                }
+            });
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    protected void doAdd(int index, T element) {
+        items.add(index, element);
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        return items.set(index, element);
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        return items.remove(index);
+    }
+}
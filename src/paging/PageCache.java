@@ -0,0 +1,48 @@
+package paging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Bounded LRU cache of loaded pages, keyed by page number.
+ * Only used from the FX thread by PagedList.
+ */
+class PageCache<P> {
+
+    private final LinkedHashMap<Integer, P> pages;
+
+    PageCache(int maxPages) {
+        // Access order: get() moves a page to the most recently used end
+        this.pages = new LinkedHashMap<Integer, P>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, P> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    P get(int page) {
+        return pages.get(page);
+    }
+
+    void put(int page, P rows) {
+        pages.put(page, rows);
+    }
+
+    /**
+     * Loaded page numbers in ascending order (does not change the LRU order)
+     */
+    SortedSet<Integer> pageNumbers() {
+        return new TreeSet<>(pages.keySet());
+    }
+
+    void clear() {
+        pages.clear();
+    }
+
+    int size() {
+        return pages.size();
+    }
+}
@@ -0,0 +1,28 @@
+package paging;
+
+import java.util.List;
+
+/**
+ * Backing store of a PagedList. An instance represents one filtered query
+ * (a new filter means a new data source); sorting and paging are pushed
+ * down to it, normally as ORDER BY / LIMIT / OFFSET.
+ *
+ * Both methods are called on background threads.
+ */
+public interface PagedDataSource<T> {
+
+    /**
+     * Count the rows matching the filter
+     * @return Total number of rows
+     */
+    int count();
+
+    /**
+     * Fetch one page of rows
+     * @param offset Index of the first row
+     * @param limit Maximum number of rows
+     * @param sort Requested sort, or null for the source's default order
+     * @return Rows in order (fewer than limit at the end of the data)
+     */
+    List<T> fetch(int offset, int limit, SortOrder sort);
+}
@@ -0,0 +1,420 @@
+package paging;
+
+import async.UiTaskRunner;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-only observable list over a PagedDataSource, used as TableView items.
+ *
+ * The list reports the full row count but only keeps a bounded window of
+ * pages in memory. get() on a row whose page is not loaded returns null
+ * (an empty row) and fetches the page in the background; when it arrives
+ * the rows are replaced with one change event. The TableView only asks for
+ * visible rows, so scrolling loads pages on demand.
+ *
+ * Sorting and filtering are delegated to the data source: a new filter is
+ * a new source (setSource), and bindTo() replaces the table's sort policy.
+ * refresh() re-reads the loaded pages and patches only the rows that were
+ * inserted, removed or changed (see KeyedDiff), so selection, scroll
+ * position and untouched cells survive a refresh.
+ * Must be used from the FX thread.
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 20;
+
+    private final String name;
+    private final UiTaskRunner tasks;
+    private final int pageSize;
+    private final PageCache<Page<T>> cache;
+    private final Set<Integer> loading = new HashSet<>();
+
+    private PagedDataSource<T> source;
+    private SortOrder sortOrder;
+    private Runnable onReloaded = () -> { };
+    private Function<T, ?> rowKey;
+    private Function<T, ?> rowContent;
+    private int size = 0;
+    // Bumped on every reload so pages of an older query are never applied
+    private int generation = 0;
+
+    /**
+     * @param name Prefix for background task keys (unique per screen)
+     * @param tasks Task runner of the owning screen
+     */
+    public PagedList(String name, UiTaskRunner tasks) {
+        this(name, tasks, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * @param name Prefix for background task keys (unique per screen)
+     * @param tasks Task runner of the owning screen
+     * @param pageSize Rows fetched per query
+     * @param maxPages Pages kept in memory; least recently used pages are dropped
+     */
+    public PagedList(String name, UiTaskRunner tasks, int pageSize, int maxPages) {
+        this.name = name;
+        this.tasks = tasks;
+        this.pageSize = pageSize;
+        this.cache = new PageCache<>(maxPages);
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        Page<T> loaded = cache.get(page);
+        if (loaded == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = index % pageSize;
+        return offset < loaded.rows.size() ? loaded.rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Show the rows of a new query (e.g. after a filter change)
+     * @param source Data source for the new query
+     */
+    public void setSource(PagedDataSource<T> source) {
+        this.source = source;
+        reload();
+    }
+
+    public PagedDataSource<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Change the sort; the data source re-sorts and the rows are reloaded
+     * @param sortOrder New sort, or null for the source's default order
+     */
+    public void setSortOrder(SortOrder sortOrder) {
+        if (Objects.equals(this.sortOrder, sortOrder)) {
+            return;
+        }
+        this.sortOrder = sortOrder;
+        reload();
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * Identify rows so refresh() can patch the list instead of replacing it
+     * @param key Row identity, e.g. the database id
+     * @param content Values shown in the row (compared with equals)
+     */
+    public void setRowIdentity(Function<T, ?> key, Function<T, ?> content) {
+        this.rowKey = key;
+        this.rowContent = content;
+    }
+
+    /**
+     * Re-run the current query (after writes or remote changes). The loaded
+     * pages are fetched again and diffed by row key; only inserted, removed
+     * and changed rows are reported, in one change event.
+     */
+    public void refresh() {
+        PagedDataSource<T> query = source;
+        if (query == null) {
+            return;
+        }
+        if (rowKey == null || cache.size() == 0) {
+            reload();
+            return;
+        }
+        cancel();
+        int requestGeneration = generation;
+        SortOrder sort = sortOrder;
+        List<int[]> runs = loadedRuns();
+
+        tasks.run(name + ".count", () -> {
+            // Count and re-read each run of adjacent loaded pages
+            int count = query.count();
+            List<List<T>> rows = new ArrayList<>();
+            for (int[] run : runs) {
+                int offset = run[0] * pageSize;
+                rows.add(query.fetch(offset, (run[1] - run[0] + 1) * pageSize, sort));
+            }
+            return new Snapshot<>(count, rows);
+        }, snapshot -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            applySnapshot(runs, snapshot);
+            onReloaded.run();
+        });
+    }
+
+    /**
+     * Drop the running count and page loads (e.g. before a new filter is applied)
+     */
+    public void cancel() {
+        generation++;
+        tasks.cancel(name + ".count");
+        for (Integer page : loading) {
+            tasks.cancel(pageKey(page));
+        }
+        loading.clear();
+    }
+
+    /**
+     * Called on the FX thread each time a reload has updated the row count
+     * @param onReloaded Callback
+     */
+    public void setOnReloaded(Runnable onReloaded) {
+        this.onReloaded = onReloaded != null ? onReloaded : () -> { };
+    }
+
+    /**
+     * Use this list as the table's items and push column sorting down to the data source.
+     * Columns without a sort key are not sortable.
+     * @param table Table to bind
+     * @param sortKeys Data source sort key per sortable column
+     */
+    public void bindTo(TableView<T> table, Map<TableColumn<T, ?>, String> sortKeys) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(sortKeys.containsKey(column));
+        }
+        table.setSortPolicy(t -> {
+            SortOrder order = null;
+            for (TableColumn<T, ?> column : t.getSortOrder()) {
+                String key = sortKeys.get(column);
+                if (key != null) {
+                    order = new SortOrder(key, column.getSortType() == TableColumn.SortType.ASCENDING);
+                    break;
+                }
+            }
+            setSortOrder(order);
+            return true;
+        });
+        table.setItems(this);
+    }
+
+    private void reload() {
+        PagedDataSource<T> query = source;
+        if (query == null) {
+            return;
+        }
+        cancel();
+        int requestGeneration = generation;
+
+        tasks.run(name + ".count", query::count, count -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            cache.clear();
+            int oldSize = size;
+            size = count;
+            // Every row changes: report one replacement of the whole list
+            beginChange();
+            nextReplace(0, count, Collections.nCopies(oldSize, null));
+            endChange();
+            onReloaded.run();
+        });
+    }
+
+    /**
+     * Patch the list to a refreshed snapshot of the loaded pages.
+     * The rows between loaded pages are unloaded (null), so a change in the
+     * total count is applied at the end of the list.
+     */
+    private void applySnapshot(List<int[]> runs, Snapshot<T> snapshot) {
+        int oldSize = size;
+        int newSize = snapshot.count;
+        List<List<T>> oldRuns = new ArrayList<>();
+        List<List<Object>> oldContentRuns = new ArrayList<>();
+        List<List<T>> newRuns = new ArrayList<>();
+        int runDelta = 0;
+        int lastRunEnd = 0;
+        for (int r = 0; r < runs.size(); r++) {
+            int start = runs.get(r)[0] * pageSize;
+            List<T> oldRows = new ArrayList<>();
+            List<Object> oldContents = new ArrayList<>();
+            for (int page = runs.get(r)[0]; page <= runs.get(r)[1]; page++) {
+                Page<T> loaded = cache.get(page);
+                oldRows.addAll(loaded.rows);
+                oldContents.addAll(loaded.contents);
+            }
+            List<T> newRows = snapshot.rows.get(r);
+            if (start + newRows.size() > newSize) {
+                newRows = newRows.subList(0, Math.max(0, newSize - start));
+            }
+            oldRuns.add(oldRows);
+            oldContentRuns.add(oldContents);
+            newRuns.add(newRows);
+            runDelta += newRows.size() - oldRows.size();
+            lastRunEnd = start + oldRows.size();
+        }
+
+        int tailDelta = (newSize - oldSize) - runDelta;
+        boolean pagesFull = true;
+        for (int r = 0; r < runs.size() - 1; r++) {
+            int expected = (runs.get(r)[1] - runs.get(r)[0] + 1) * pageSize;
+            pagesFull &= newRuns.get(r).size() == expected && oldRuns.get(r).size() == expected;
+        }
+        if (!pagesFull || oldSize - lastRunEnd + tailDelta < 0) {
+            // The list shrank into the loaded pages: positions cannot be kept
+            replaceAll(newSize, runs, newRuns);
+            return;
+        }
+
+        size = newSize;
+        cache.clear();
+        storeRuns(runs, newRuns);
+
+        beginChange();
+        if (tailDelta > 0) {
+            nextAdd(oldSize, oldSize + tailDelta);
+        } else if (tailDelta < 0) {
+            nextRemove(oldSize + tailDelta, Collections.nCopies(-tailDelta, null));
+        }
+        // Last run first, so the edits of one run never shift another
+        for (int r = runs.size() - 1; r >= 0; r--) {
+            int start = runs.get(r)[0] * pageSize;
+            KeyedDiff.diff(oldRuns.get(r), oldContentRuns.get(r), newRuns.get(r), rowKey, rowContent,
+                    new KeyedDiff.Patch<T>() {
+                        @Override
+                        public void removed(int index, T oldItem) {
+                            nextRemove(start + index, oldItem);
+                        }
+
+                        @Override
+                        public void inserted(int index, T newItem) {
+                            nextAdd(start + index, start + index + 1);
+                        }
+
+                        @Override
+                        public void updated(int index, T oldItem, T newItem) {
+                            nextSet(start + index, oldItem);
+                        }
+                    });
+        }
+        endChange();
+    }
+
+    private void replaceAll(int newSize, List<int[]> runs, List<List<T>> newRuns) {
+        int oldSize = size;
+        size = newSize;
+        cache.clear();
+        storeRuns(runs, newRuns);
+        beginChange();
+        nextReplace(0, newSize, Collections.nCopies(oldSize, null));
+        endChange();
+    }
+
+    private void storeRuns(List<int[]> runs, List<List<T>> newRuns) {
+        for (int r = 0; r < runs.size(); r++) {
+            List<T> rows = newRuns.get(r);
+            for (int page = runs.get(r)[0]; page <= runs.get(r)[1]; page++) {
+                int from = (page - runs.get(r)[0]) * pageSize;
+                if (from >= rows.size()) {
+                    break;
+                }
+                cache.put(page, newPage(new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + pageSize)))));
+            }
+        }
+    }
+
+    /**
+     * Keep the displayed content of each row with the page, so rows edited
+     * in place (e.g. by a form) are still detected as changed by refresh()
+     */
+    private Page<T> newPage(List<T> rows) {
+        List<Object> contents = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            contents.add(rowContent != null ? rowContent.apply(row) : null);
+        }
+        return new Page<>(rows, contents);
+    }
+
+    /**
+     * Loaded pages grouped into runs of adjacent page numbers
+     * @return {firstPage, lastPage} per run, ascending
+     */
+    private List<int[]> loadedRuns() {
+        List<int[]> runs = new ArrayList<>();
+        for (int page : cache.pageNumbers()) {
+            int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[1] == page - 1) {
+                last[1] = page;
+            } else {
+                runs.add(new int[] {page, page});
+            }
+        }
+        return runs;
+    }
+
+    private void requestPage(int page) {
+        if (!loading.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        PagedDataSource<T> query = source;
+        SortOrder sort = sortOrder;
+        int offset = page * pageSize;
+
+        tasks.run(pageKey(page), () -> query.fetch(offset, pageSize, sort), rows -> {
+            loading.remove(page);
+            if (requestGeneration != generation) {
+                return;
+            }
+            cache.put(page, newPage(rows));
+            int end = Math.min(size, offset + rows.size());
+            if (end > offset) {
+                beginChange();
+                nextReplace(offset, end, Collections.nCopies(end - offset, null));
+                endChange();
+            }
+        }, error -> loading.remove(page));
+    }
+
+    private String pageKey(int page) {
+        return name + ".page." + page;
+    }
+
+    /**
+     * Loaded rows of one page and their content when loaded
+     */
+    private static final class Page<T> {
+        final List<T> rows;
+        final List<Object> contents;
+
+        Page(List<T> rows, List<Object> contents) {
+            this.rows = rows;
+            this.contents = contents;
+        }
+    }
+
+    /**
+     * Row count and re-read rows of a refresh
+     */
+    private static final class Snapshot<T> {
+        final int count;
+        final List<List<T>> rows;
+
+        Snapshot(int count, List<List<T>> rows) {
+            this.count = count;
+            this.rows = rows;
+        }
+    }
+}
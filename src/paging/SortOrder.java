@@ -0,0 +1,45 @@
+package paging;
+
+import java.util.Objects;
+
+/**
+ * Sort requested by a paged table: a data source specific key (e.g. "name",
+ * "checkin") and a direction. Data sources map keys to columns themselves
+ * and ignore keys they do not know.
+ */
+public final class SortOrder {
+
+    private final String key;
+    private final boolean ascending;
+
+    public SortOrder(String key, boolean ascending) {
+        this.key = Objects.requireNonNull(key);
+        this.ascending = ascending;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SortOrder)) return false;
+        SortOrder other = (SortOrder) o;
+        return ascending == other.ascending && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, ascending);
+    }
+
+    @Override
+    public String toString() {
+        return key + (ascending ? " ASC" : " DESC");
+    }
+}
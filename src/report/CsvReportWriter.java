@@ -0,0 +1,51 @@
+package report;
+
+import util.CsvReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Writes a report as UTF-8 CSV with a header row.
+ */
+class CsvReportWriter implements ReportWriter {
+    private final ChannelOutput out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    CsvReportWriter(Path file) throws IOException {
+        this.out = new ChannelOutput(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void begin(String title, ReportColumn[] columns) throws IOException {
+        String[] headers = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            headers[i] = columns[i].header;
+        }
+        writeRow(headers);
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(CsvReader.quote(cells[i]));
+        }
+        line.append("\r\n");
+        out.write(line);
+    }
+
+    @Override
+    public void finish(long rowCount) {
+        // Nothing to append for CSV
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,179 @@
+package report;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a report as a plain-text table PDF (landscape A4, Courier).
+ *
+ * Pages are emitted as soon as they are full: only the current page's
+ * content and the byte offset of each object are kept in memory.
+ * Object layout: 1 = catalog, 2 = page tree (written last), 3 = font,
+ * then a content stream and a page object for every page.
+ */
+class PdfReportWriter implements ReportWriter {
+    private static final int PAGE_WIDTH = 842;
+    private static final int PAGE_HEIGHT = 595;
+    private static final int MARGIN = 36;
+    private static final int FONT_SIZE = 8;
+    private static final int LEADING = 10;
+    private static final int LINES_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING - 3;
+
+    private final ChannelOutput out;
+    private final StringBuilder page = new StringBuilder(8 * 1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private long[] offsets = new long[64];
+    private int objectCount = 3;
+    private int[] pageObjects = new int[16];
+    private int pageCount = 0;
+    private int linesOnPage = 0;
+
+    private String title;
+    private String headerLine;
+    private ReportColumn[] columns;
+
+    PdfReportWriter(Path file) throws IOException {
+        this.out = new ChannelOutput(file, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void begin(String title, ReportColumn[] columns) throws IOException {
+        this.title = title + " - generated " +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        this.columns = columns;
+
+        String[] headers = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            headers[i] = columns[i].header;
+        }
+        this.headerLine = formatLine(headers);
+
+        out.write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        startObject(1);
+        out.write("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        startObject(3);
+        out.write("<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        if (linesOnPage == 0) {
+            startPage();
+        }
+        appendText(formatLine(cells));
+        linesOnPage++;
+        if (linesOnPage >= LINES_PER_PAGE) {
+            endPage();
+        }
+    }
+
+    @Override
+    public void finish(long rowCount) throws IOException {
+        if (linesOnPage == 0) {
+            startPage();
+        }
+        appendText("");
+        appendText(rowCount + " row(s)");
+        endPage();
+
+        startObject(2);
+        StringBuilder kids = new StringBuilder("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(pageObjects[i]).append(" 0 R ");
+        }
+        kids.append("] >>\nendobj\n");
+        out.write(kids);
+
+        long xref = out.position();
+        StringBuilder table = new StringBuilder("xref\n0 ").append(objectCount + 1).append("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objectCount; i++) {
+            table.append(String.format("%010d 00000 n \n", offsets[i]));
+            if (table.length() > 32 * 1024) {
+                out.write(table);
+                table.setLength(0);
+            }
+        }
+        table.append("trailer\n<< /Size ").append(objectCount + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        out.write(table);
+    }
+
+    private void startPage() {
+        page.setLength(0);
+        page.append("BT\n/F1 ").append(FONT_SIZE).append(" Tf\n").append(LEADING).append(" TL\n")
+                .append(MARGIN).append(' ').append(PAGE_HEIGHT - MARGIN).append(" Td\n");
+        appendText(title + "    page " + (pageCount + 1));
+        appendText("");
+        appendText(headerLine);
+        linesOnPage = 0;
+    }
+
+    private void endPage() throws IOException {
+        page.append("ET\n");
+        byte[] content = page.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+        int contentObject = ++objectCount;
+        startObject(contentObject);
+        out.write("<< /Length " + content.length + " >>\nstream\n");
+        out.write(page);
+        out.write("endstream\nendobj\n");
+
+        int pageObject = ++objectCount;
+        startObject(pageObject);
+        out.write("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "] " +
+                "/Resources << /Font << /F1 3 0 R >> >> /Contents " + contentObject + " 0 R >>\nendobj\n");
+
+        if (pageCount == pageObjects.length) {
+            pageObjects = java.util.Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+        linesOnPage = 0;
+    }
+
+    private void startObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = java.util.Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.position();
+        out.write(number + " 0 obj\n");
+    }
+
+    private String formatLine(String[] cells) {
+        line.setLength(0);
+        for (int i = 0; i < columns.length; i++) {
+            String cell = i < cells.length && cells[i] != null ? cells[i] : "";
+            int width = columns[i].width;
+            if (cell.length() > width) {
+                cell = cell.substring(0, width - 1) + "~";
+            }
+            line.append(cell);
+            for (int pad = cell.length(); pad <= width; pad++) {
+                line.append(' ');
+            }
+        }
+        return line.toString();
+    }
+
+    private void appendText(String text) {
+        page.append('(');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                page.append('\\').append(c);
+            } else if (c < 32 || c > 255) {
+                page.append('?');
+            } else {
+                page.append(c);
+            }
+        }
+        page.append(") '\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,14 @@
+package report;
+
+/**
+ * A report column: header and the width reserved for it in fixed-width formats.
+ */
+class ReportColumn {
+    final String header;
+    final int width;
+
+    ReportColumn(String header, int width) {
+        this.header = header;
+        this.width = width;
+    }
+}
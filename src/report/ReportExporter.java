@@ -0,0 +1,191 @@
+package report;
+
+import controller.ReservationController;
+import controller.RoomController;
+import model.Amenity;
+import model.Reservation;
+import model.Room;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams a report from the database straight to a CSV or PDF file.
+ *
+ * Rows are read from a forward-only cursor and written as they arrive, so
+ * exports of any size run in constant memory. The format is chosen from
+ * the file extension (.pdf, anything else is CSV). A cancelled or failed
+ * export deletes its partial file.
+ */
+public class ReportExporter {
+    private static final DateTimeFormatter CREATED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * Receives export progress; total is -1 when unknown
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private final ReservationController reservationController;
+    private final RoomController roomController;
+
+    public ReportExporter() {
+        this.reservationController = new ReservationController();
+        this.roomController = new RoomController();
+    }
+
+    /**
+     * Export a report
+     * @param type Report to export
+     * @param file Destination file (.pdf or .csv)
+     * @param listener Progress listener
+     * @param cancelled Polled between rows; return true to abort
+     * @return Number of rows exported
+     * @throws CancellationException if the export was cancelled
+     * @throws Exception if reading from the database or writing the file fails
+     */
+    public long export(ReportType type, Path file, ProgressListener listener, BooleanSupplier cancelled)
+            throws Exception {
+        long total = countRows(type);
+        long[] written = {0};
+        boolean completed = false;
+
+        try (ReportWriter writer = createWriter(file)) {
+            writer.begin(type.getTitle(), type.getColumns());
+            listener.onProgress(0, total);
+
+            switch (type) {
+                case RESERVATIONS:
+                    reservationController.streamReservationHistory(reservation -> {
+                        writer.writeRow(toReservationRow(reservation));
+                        return advance(written, total, listener, cancelled);
+                    });
+                    break;
+                case IN_HOUSE_GUESTS:
+                    reservationController.streamActiveReservations(reservation -> {
+                        writer.writeRow(toInHouseRow(reservation));
+                        return advance(written, total, listener, cancelled);
+                    });
+                    break;
+                case ROOM_STATUS:
+                    roomController.streamAllRooms(room -> {
+                        writer.writeRow(toRoomRow(room));
+                        return advance(written, total, listener, cancelled);
+                    });
+                    break;
+            }
+
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Export cancelled");
+            }
+            writer.finish(written[0]);
+            completed = true;
+        } finally {
+            if (!completed) {
+                deleteQuietly(file);
+            }
+        }
+
+        listener.onProgress(written[0], written[0]);
+        return written[0];
+    }
+
+    /**
+     * Default file name for a report
+     * @param type Report type
+     * @param extension "csv" or "pdf"
+     * @return File name such as room-status.csv
+     */
+    public static String defaultFileName(ReportType type, String extension) {
+        return type.name().toLowerCase().replace('_', '-') + "." + extension;
+    }
+
+    private static ReportWriter createWriter(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".pdf")) {
+            return new PdfReportWriter(file);
+        }
+        return new CsvReportWriter(file);
+    }
+
+    private long countRows(ReportType type) {
+        switch (type) {
+            case RESERVATIONS:
+                return reservationController.getReservationHistoryCount();
+            case IN_HOUSE_GUESTS:
+                return reservationController.getActiveReservationsCount();
+            case ROOM_STATUS:
+                return roomController.getTotalRoomsCount();
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean advance(long[] written, long total, ProgressListener listener, BooleanSupplier cancelled) {
+        written[0]++;
+        // Report every 256 rows to keep listener overhead negligible
+        if ((written[0] & 0xFF) == 0) {
+            listener.onProgress(written[0], Math.max(total, written[0]));
+        }
+        return !cancelled.getAsBoolean();
+    }
+
+    private static String[] toReservationRow(Reservation reservation) {
+        return new String[] {
+                String.valueOf(reservation.getId()),
+                reservation.getGuestName(),
+                reservation.getGuestContact(),
+                reservation.getGuest() != null ? reservation.getGuest().getGuestType() : "",
+                reservation.getRoomNumber(),
+                reservation.getRoomType(),
+                String.valueOf(reservation.getCheckinDate()),
+                String.valueOf(reservation.getCheckoutDate()),
+                String.valueOf(reservation.getStayDuration()),
+                reservation.getStatusLabel(),
+                reservation.getCreatedAt() != null ? reservation.getCreatedAt().format(CREATED_FORMAT) : ""
+        };
+    }
+
+    private static String[] toInHouseRow(Reservation reservation) {
+        return new String[] {
+                reservation.getRoomNumber(),
+                reservation.getGuestName(),
+                reservation.getGuestContact(),
+                reservation.getGuest() != null ? reservation.getGuest().getGuestType() : "",
+                String.valueOf(reservation.getCheckinDate()),
+                String.valueOf(reservation.getCheckoutDate()),
+                String.valueOf(reservation.getStayDuration()),
+                String.valueOf(reservation.getId())
+        };
+    }
+
+    private static String[] toRoomRow(Room room) {
+        StringJoiner amenities = new StringJoiner(", ");
+        for (Amenity amenity : room.getAmenitySet()) {
+            amenities.add(amenity.getLabel());
+        }
+        return new String[] {
+                room.getNumber(),
+                room.getType(),
+                room.getStatus(),
+                String.format("%.2f", room.getBasePrice()),
+                amenities.toString(),
+                room.getDescription()
+        };
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting partial export: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package report;
+
+/**
+ * Reports available for export, with their column layout.
+ */
+public enum ReportType {
+    RESERVATIONS("Reservations", new ReportColumn[] {
+            new ReportColumn("ID", 7),
+            new ReportColumn("Guest", 24),
+            new ReportColumn("Contact", 22),
+            new ReportColumn("Guest Type", 10),
+            new ReportColumn("Room", 8),
+            new ReportColumn("Room Type", 10),
+            new ReportColumn("Check-in", 10),
+            new ReportColumn("Check-out", 10),
+            new ReportColumn("Nights", 6),
+            new ReportColumn("Status", 11),
+            new ReportColumn("Created", 16)
+    }),
+    IN_HOUSE_GUESTS("In-House Guests", new ReportColumn[] {
+            new ReportColumn("Room", 8),
+            new ReportColumn("Guest", 28),
+            new ReportColumn("Contact", 26),
+            new ReportColumn("Guest Type", 10),
+            new ReportColumn("Check-in", 10),
+            new ReportColumn("Check-out", 10),
+            new ReportColumn("Nights", 6),
+            new ReportColumn("Reservation", 11)
+    }),
+    ROOM_STATUS("Room Status", new ReportColumn[] {
+            new ReportColumn("Room", 8),
+            new ReportColumn("Type", 10),
+            new ReportColumn("Status", 12),
+            new ReportColumn("Base Price", 11),
+            new ReportColumn("Amenities", 26),
+            new ReportColumn("Description", 40)
+    });
+
+    private final String title;
+    private final ReportColumn[] columns;
+
+    ReportType(String title, ReportColumn[] columns) {
+        this.title = title;
+        this.columns = columns;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    ReportColumn[] getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,17 @@
+package report;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Output format of a report. Rows are written one at a time and never
+ * kept after they have been written.
+ */
+interface ReportWriter extends Closeable {
+
+    void begin(String title, ReportColumn[] columns) throws IOException;
+
+    void writeRow(String[] cells) throws IOException;
+
+    void finish(long rowCount) throws IOException;
+}
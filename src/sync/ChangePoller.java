@@ -0,0 +1,249 @@
+package sync;
+
+import dao.ChangeDAO;
+import dao.GuestDAO;
+import dao.RoomDAO;
+import dao.SingleFlight;
+import javafx.application.Platform;
+import model.Change;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Background job that picks up writes made by other workstations.
+ *
+ * Every poll reads only the journal entries after the last sequence seen,
+ * refreshes the local caches they affect (amenity index, uniqueness
+ * filters) and hands them to the registered listeners on the FX thread,
+ * once per poll, so open tables can patch the affected rows. Background
+ * listeners (the API event feed) are called on the poller thread instead
+ * and work without the UI.
+ *
+ * Sequences are assigned when a row is inserted but become visible when its
+ * transaction commits, so a gap in the sequence may be a write still in
+ * flight. The poller does not move its position past a gap until it is
+ * filled or has been open longer than the gap timeout (rolled back writes
+ * leave permanent gaps).
+ *
+ * Configuration (system properties):
+ * hotel.changes.pollMillis       time between polls (default 2000)
+ * hotel.changes.gapTimeoutMillis how long to wait for a missing sequence (default 10000)
+ */
+public class ChangePoller {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static ChangePoller instance = null;
+
+    private final ChangeDAO changeDAO = new ChangeDAO();
+    private final RoomDAO roomDAO = new RoomDAO();
+    private final GuestDAO guestDAO = new GuestDAO();
+    private final List<Consumer<List<Change>>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<Change>>> backgroundListeners = new CopyOnWriteArrayList<>();
+    private final long pollMillis = Long.getLong("hotel.changes.pollMillis", 2000);
+    private final long gapTimeoutMillis = Long.getLong("hotel.changes.gapTimeoutMillis", 10000);
+
+    // Only used by the poller thread
+    private long settledSequence = -1;
+    // Sequences after the settled position that were already reported
+    private final Set<Long> delivered = new HashSet<>();
+    private final Map<Long, Long> gapsFirstSeen = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> job;
+
+    private ChangePoller() {
+    }
+
+    public static synchronized ChangePoller getInstance() {
+        if (instance == null) {
+            instance = new ChangePoller();
+        }
+        return instance;
+    }
+
+    /**
+     * Start polling; changes made before the start are not reported
+     */
+    public synchronized void start() {
+        if (job != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        job = scheduler.scheduleWithFixedDelay(this::pollSafely, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            job = null;
+            // Changes made while stopped are not applied to the caches
+            ChangeDAO.setFollowingChanges(false);
+        }
+    }
+
+    /**
+     * Register a listener called on the FX thread with the changes of each poll
+     * @param listener Listener to add
+     */
+    public void addListener(Consumer<List<Change>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public void removeListener(Consumer<List<Change>> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Register a listener called on the poller thread with the changes of
+     * each poll; it must return quickly and not touch the UI
+     * @param listener Listener to add
+     */
+    public void addBackgroundListener(Consumer<List<Change>> listener) {
+        backgroundListeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public void removeBackgroundListener(Consumer<List<Change>> listener) {
+        backgroundListeners.remove(listener);
+    }
+
+    /**
+     * Check whether a batch of changes touches any of the given entities
+     * @param changes Changes reported to a listener
+     * @param entities Entities shown by the listener
+     * @return true if at least one change is about one of them
+     */
+    public static boolean affects(List<Change> changes, Change.Entity... entities) {
+        for (Change change : changes) {
+            for (Change.Entity entity : entities) {
+                if (change.getEntity() == entity) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read and dispatch the changes since the last poll
+     */
+    void poll() {
+        if (settledSequence < 0) {
+            settledSequence = changeDAO.getLatestSequence();
+            return;
+        }
+        // From here on every change reaches the caches
+        ChangeDAO.setFollowingChanges(true);
+
+        List<Change> changes = changeDAO.getChangesSince(settledSequence, BATCH_SIZE);
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Entries after a gap are read again until the gap is settled; report
+        // each one once, including late commits that fill the gap
+        List<Change> fresh = new ArrayList<>();
+        for (Change change : changes) {
+            if (delivered.add(change.getSequence())) {
+                fresh.add(change);
+            }
+        }
+        settledSequence = advance(settledSequence, changes);
+        long position = settledSequence;
+        delivered.removeIf(sequence -> sequence <= position);
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        updateCaches(fresh);
+        List<Change> batch = List.copyOf(fresh);
+        for (Consumer<List<Change>> listener : backgroundListeners) {
+            listener.accept(batch);
+        }
+        if (!listeners.isEmpty()) {
+            Platform.runLater(() -> {
+                for (Consumer<List<Change>> listener : listeners) {
+                    listener.accept(batch);
+                }
+            });
+        }
+    }
+
+    /**
+     * Move the settled position over consecutive sequences, stopping at a
+     * recent gap
+     * @return New settled sequence
+     */
+    private long advance(long settled, List<Change> changes) {
+        long now = System.currentTimeMillis();
+        for (Change change : changes) {
+            long sequence = change.getSequence();
+            if (sequence > settled + 1) {
+                long gapStart = settled + 1;
+                long firstSeen = gapsFirstSeen.computeIfAbsent(gapStart, start -> now);
+                if (now - firstSeen < gapTimeoutMillis) {
+                    break;
+                }
+                gapsFirstSeen.remove(gapStart);
+            }
+            settled = sequence;
+        }
+        long position = settled;
+        gapsFirstSeen.keySet().removeIf(start -> start <= position);
+        return settled;
+    }
+
+    /**
+     * Bring the local caches up to date before the views are told
+     */
+    private void updateCaches(List<Change> changes) {
+        // Shared read results may predate these writes
+        SingleFlight.getInstance().invalidate();
+        Set<Integer> roomIds = new LinkedHashSet<>();
+        Set<Integer> guestIds = new LinkedHashSet<>();
+        for (Change change : changes) {
+            if (change.getEntity() == Change.Entity.ROOM) {
+                roomIds.add(change.getEntityId());
+            } else if (change.getEntity() == Change.Entity.GUEST && change.getOperation() != Change.Operation.DELETE) {
+                guestIds.add(change.getEntityId());
+            }
+        }
+        roomDAO.reindexRooms(roomIds);
+        guestDAO.reindexContacts(guestIds);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next poll retries
+            System.err.println("Error polling changes: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package tools;
+
+import dao.GuestDAO;
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import model.Guest;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a dataset through the batch DAO methods, into the database
+ * configured for DBConnection. Rows go through the same path as imports:
+ * JDBC batches in chunked transactions, with change journal entries, and
+ * the rooms of checked-in stays are marked occupied.
+ */
+public class DaoDatasetSink implements DatasetSink {
+
+    private final RoomDAO roomDAO = new RoomDAO();
+    private final GuestDAO guestDAO = new GuestDAO();
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    @Override
+    public int rooms(List<Room> rooms) {
+        return roomDAO.createRooms(rooms).getFailureCount();
+    }
+
+    @Override
+    public int guests(List<Guest> guests) {
+        return guestDAO.createGuests(guests).getFailureCount();
+    }
+
+    @Override
+    public int reservations(List<Reservation> reservations) {
+        List<Reservation> inHouse = new ArrayList<>();
+        List<Reservation> others = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            (reservation.getStatus() == ReservationStatus.CHECKED_IN ? inHouse : others).add(reservation);
+        }
+        int rejected = reservationDAO.createReservations(others, false).getFailureCount();
+        if (!inHouse.isEmpty()) {
+            rejected += reservationDAO.createReservations(inHouse, true).getFailureCount();
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,366 @@
+package tools;
+
+import model.Amenity;
+import model.Guest;
+import model.GuestFactory;
+import model.GuestType;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+import util.DBConnection;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic generator of realistic hotel data for performance tests.
+ *
+ * The same seed and sizes always give the same rows (dates are relative to
+ * the day of generation):
+ * - rooms: weighted mix of the six room types, prices varying around the
+ *   type's rate, amenities more likely in the higher categories
+ * - guests: about 12% VIP; phone numbers in several national formats and
+ *   e-mail addresses, all unique
+ * - reservations: every room gets a timeline of non-overlapping stays up to
+ *   six months ahead. Length of stay follows a short-stay-heavy
+ *   distribution, gaps between stays follow monthly occupancy (high
+ *   season in summer and December), lead times mix walk-ins with an
+ *   exponential booking curve, and a share of guests come back often.
+ *   Past stays are checked out (a few cancelled or no-shows), current ones
+ *   checked in, future ones booked.
+ *
+ * Rows are produced in chunks and handed to a DatasetSink, so millions of
+ * reservations never sit in memory at once: DaoDatasetSink writes through
+ * the batch DAO methods, JdbcDatasetSink straight into a database.
+ *
+ * Usage: DatasetGenerator [--rooms=N] [--guests=N] [--reservations=N] [--seed=N] [--file=PATH]
+ *
+ * Without --file the rows go through the DAOs into the database configured
+ * for DBConnection (hotel.db.* properties). With --file they are written
+ * directly into the H2 database file PATH (created from schema.sql, see
+ * SchemaScript.locate, if needed); point the application at it with
+ * -Dhotel.db.url=jdbc:h2:file:PATH;MODE=MySQL;DATABASE_TO_LOWER=TRUE -Dhotel.db.driver=org.h2.Driver.
+ */
+public class DatasetGenerator {
+
+    public static final String[] ROOM_TYPES = {"Single", "Double", "Suite", "Deluxe", "Executive", "Presidential"};
+    private static final int[] ROOM_TYPE_WEIGHTS = {30, 35, 10, 15, 8, 2};
+    private static final double[] ROOM_RATES = {80, 120, 260, 180, 340, 950};
+    private static final double[] SPA_PROBABILITY = {0.05, 0.1, 0.6, 0.4, 0.7, 1.0};
+    private static final double[] MINIBAR_PROBABILITY = {0.2, 0.4, 0.9, 0.8, 0.95, 1.0};
+
+    private static final String[] FIRST_NAMES = {"Amina", "Bruno", "Chloe", "David", "Elena", "Farid", "Grace",
+            "Hugo", "Ines", "Jonas", "Karim", "Lea", "Marco", "Nadia", "Omar", "Paula", "Quentin", "Rosa", "Samir",
+            "Tara", "Ugo", "Vera", "William", "Xenia", "Yusuf", "Zoe", "Hiro", "Priya", "Lars", "Sofia"};
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Garcia", "Rossi", "Muller", "Silva",
+            "Haddad", "Novak", "Jensen", "Kowalski", "Okafor", "Nguyen", "Tanaka", "Smith", "Moreau", "Ivanova",
+            "Andersson", "Costa", "Yilmaz", "Kim", "Patel", "OBrien", "Schmidt"};
+    private static final double VIP_SHARE = 0.12;
+    private static final double VIP_DISCOUNT = 0.15;
+
+    // Nights per stay and their weights
+    private static final int[] STAY_NIGHTS = {1, 2, 3, 4, 5, 6, 7, 10, 14};
+    private static final int[] STAY_WEIGHTS = {22, 24, 18, 11, 8, 5, 7, 3, 2};
+    // Target occupancy by month, January first
+    private static final double[] OCCUPANCY = {0.55, 0.6, 0.7, 0.72, 0.78, 0.85, 0.93, 0.95, 0.8, 0.72, 0.6, 0.78};
+    private static final double WALK_IN_SHARE = 0.1;
+    private static final double MEAN_LEAD_DAYS = 35;
+    private static final int MAX_LEAD_DAYS = 365;
+    // Share of stays booked by the most loyal 5% of guests
+    private static final double RETURNING_SHARE = 0.3;
+    private static final int FUTURE_DAYS = 180;
+
+    private static final int CHUNK_SIZE = 20_000;
+
+    private final long seed;
+    private int rooms = 200;
+    private int guests = 5_000;
+    private int reservations = 50_000;
+    private LocalDate today = LocalDate.now();
+    private Consumer<String> progressListener = message -> { };
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public DatasetGenerator setRooms(int rooms) {
+        this.rooms = rooms;
+        return this;
+    }
+
+    public DatasetGenerator setGuests(int guests) {
+        this.guests = guests;
+        return this;
+    }
+
+    public DatasetGenerator setReservations(int reservations) {
+        this.reservations = reservations;
+        return this;
+    }
+
+    /**
+     * Day the generated timelines are relative to (default today)
+     */
+    public DatasetGenerator setToday(LocalDate today) {
+        this.today = today;
+        return this;
+    }
+
+    public DatasetGenerator setProgressListener(Consumer<String> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        DatasetGenerator generator = new DatasetGenerator(42);
+        String file = null;
+        for (String arg : args) {
+            if (arg.startsWith("--rooms=")) {
+                generator.setRooms(Integer.parseInt(arg.substring("--rooms=".length())));
+            } else if (arg.startsWith("--guests=")) {
+                generator.setGuests(Integer.parseInt(arg.substring("--guests=".length())));
+            } else if (arg.startsWith("--reservations=")) {
+                generator.setReservations(Integer.parseInt(arg.substring("--reservations=".length())));
+            } else if (arg.startsWith("--seed=")) {
+                generator = new DatasetGenerator(Long.parseLong(arg.substring("--seed=".length())))
+                        .setRooms(generator.rooms).setGuests(generator.guests).setReservations(generator.reservations);
+            } else if (arg.startsWith("--file=")) {
+                file = arg.substring("--file=".length());
+            } else {
+                System.err.println("Usage: DatasetGenerator [--rooms=N] [--guests=N] [--reservations=N] [--seed=N] "
+                        + "[--file=PATH]");
+                System.exit(1);
+            }
+        }
+        generator.setProgressListener(System.out::println);
+
+        long start = System.nanoTime();
+        int rejected;
+        if (file != null) {
+            try (Connection conn = DriverManager.getConnection(
+                    "jdbc:h2:file:" + file + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "")) {
+                SchemaScript.apply(conn, SchemaScript.locate());
+                rejected = generator.writeTo(new JdbcDatasetSink(conn));
+            }
+        } else {
+            try {
+                rejected = generator.writeTo(new DaoDatasetSink());
+            } finally {
+                DBConnection.getInstance().shutdown();
+            }
+        }
+        System.out.printf("Done in %.1f s, %d row(s) rejected%n", (System.nanoTime() - start) / 1e9, rejected);
+    }
+
+    /**
+     * Generate the dataset into a sink
+     * @return Number of rows the sink rejected
+     */
+    public int writeTo(DatasetSink sink) throws SQLException {
+        List<Room> roomList = generateRooms();
+        int rejected = sink.rooms(roomList);
+        progressListener.accept(roomList.size() + " rooms");
+
+        // Only the ids are kept; the guests themselves are written chunk by chunk
+        SplittableRandom guestRandom = new SplittableRandom(seed ^ 0x6775657374L);
+        int[] guestIds = new int[guests];
+        List<Guest> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, guests));
+        for (int i = 0; i < guests; i++) {
+            chunk.add(generateGuest(i, guestRandom));
+            if (chunk.size() == CHUNK_SIZE || i == guests - 1) {
+                rejected += sink.guests(chunk);
+                int first = i + 1 - chunk.size();
+                for (int j = 0; j < chunk.size(); j++) {
+                    guestIds[first + j] = chunk.get(j).getId();
+                }
+                chunk.clear();
+                progressListener.accept((i + 1) + " guests");
+            }
+        }
+
+        if (guests > 0 && !roomList.isEmpty()) {
+            rejected += writeReservations(sink, roomList, guestIds);
+        }
+        sink.finish();
+        return rejected;
+    }
+
+    /**
+     * @return The rooms of the dataset (without ids)
+     */
+    public List<Room> generateRooms() {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x726f6f6dL);
+        List<Room> roomList = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            int type = weighted(random, ROOM_TYPE_WEIGHTS);
+            // Rooms are numbered per floor: 101..150, 201..250, ...
+            String number = (1 + i / 50) + String.format("%02d", 1 + i % 50);
+            double price = Math.round(ROOM_RATES[type] * (0.85 + 0.3 * random.nextDouble()) / 5) * 5.0;
+            int draw = random.nextInt(1000);
+            String status = draw < 20 ? "Maintenance" : draw < 25 ? "Out of Order" : "Available";
+
+            Room room = new Room(number, ROOM_TYPES[type], status, price);
+            int amenities = 0;
+            if (random.nextDouble() < SPA_PROBABILITY[type]) {
+                amenities |= Amenity.SPA_ACCESS.getBit();
+            }
+            if (random.nextDouble() < MINIBAR_PROBABILITY[type]) {
+                amenities |= Amenity.MINIBAR.getBit();
+            }
+            room.setAmenities(amenities);
+            room.setDescription(describe(room));
+            roomList.add(room);
+        }
+        return roomList;
+    }
+
+    /**
+     * @return The first count guests of the dataset (without ids)
+     */
+    public List<Guest> generateGuests(int count) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x6775657374L);
+        List<Guest> guestList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            guestList.add(generateGuest(i, random));
+        }
+        return guestList;
+    }
+
+    private Guest generateGuest(int index, SplittableRandom random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        GuestType type = random.nextDouble() < VIP_SHARE ? GuestType.VIP : GuestType.REGULAR;
+        return GuestFactory.createGuest(type, first + " " + last, contact(index, first, last, random), VIP_DISCOUNT);
+    }
+
+    /**
+     * Unique contact in one of several formats; the index makes it unique
+     */
+    private static String contact(int index, String first, String last, SplittableRandom random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return String.format("+1 (%03d) %03d-%04d", 200 + index % 800, index / 10_000 % 1000, index % 10_000);
+            case 1:
+                return String.format("+44 20 %04d %04d", index / 10_000 % 10_000, index % 10_000);
+            case 2:
+                return String.format("+33 6 %02d %02d %02d %02d", index / 1_000_000 % 100, index / 10_000 % 100,
+                        index / 100 % 100, index % 100);
+            case 3:
+                return String.format("+49 151 %08d", index);
+            default:
+                return (first + "." + last + index).toLowerCase() + "@example.com";
+        }
+    }
+
+    private int writeReservations(DatasetSink sink, List<Room> roomList, int[] guestIds) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x7265736eL);
+        int loyal = Math.max(1, guestIds.length / 20);
+        LocalDate horizon = today.plusDays(FUTURE_DAYS);
+
+        int rejected = 0;
+        int written = 0;
+        List<Reservation> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, reservations));
+        for (int r = 0; r < roomList.size(); r++) {
+            int stays = reservations / roomList.size() + (r < reservations % roomList.size() ? 1 : 0);
+            // The timeline is laid out backwards from the horizon, so every room is booked up to it
+            Reservation[] timeline = new Reservation[stays];
+            LocalDate date = horizon.minusDays(random.nextInt(7));
+            for (int i = stays - 1; i >= 0; i--) {
+                int nights = STAY_NIGHTS[weighted(random, STAY_WEIGHTS)];
+                double occupancy = OCCUPANCY[date.getMonthValue() - 1];
+                LocalDate checkout = date.minusDays(geometric(random, nights * (1 - occupancy) / occupancy));
+                LocalDate checkin = checkout.minusDays(nights);
+                int guestIndex = random.nextDouble() < RETURNING_SHARE ? random.nextInt(loyal)
+                        : random.nextInt(guestIds.length);
+
+                Reservation reservation = new Reservation(guestIds[guestIndex], roomList.get(r).getId(),
+                        checkin, checkout);
+                reservation.setCreatedAt(createdAt(checkin, random));
+                reservation.setStatus(status(checkin, checkout, random));
+                timeline[i] = reservation;
+                date = checkin;
+            }
+
+            for (Reservation reservation : timeline) {
+                chunk.add(reservation);
+                if (chunk.size() == CHUNK_SIZE) {
+                    rejected += sink.reservations(chunk);
+                    written += chunk.size();
+                    chunk.clear();
+                    progressListener.accept(written + " reservations");
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rejected += sink.reservations(chunk);
+            written += chunk.size();
+            progressListener.accept(written + " reservations");
+        }
+        return rejected;
+    }
+
+    private LocalDateTime createdAt(LocalDate checkin, SplittableRandom random) {
+        long lead = random.nextDouble() < WALK_IN_SHARE ? 0
+                : Math.min(MAX_LEAD_DAYS, (long) (-MEAN_LEAD_DAYS * Math.log(1 - random.nextDouble())));
+        LocalDateTime created = LocalDateTime.of(checkin.minusDays(lead), LocalTime.of(8, 0))
+                .plusMinutes(random.nextInt(14 * 60));
+        LocalDateTime now = today.atTime(LocalTime.NOON);
+        // Future stays were booked in the past too
+        return created.isAfter(now) ? now.minusMinutes(random.nextInt(60 * 24 * 30)) : created;
+    }
+
+    private ReservationStatus status(LocalDate checkin, LocalDate checkout, SplittableRandom random) {
+        int draw = random.nextInt(100);
+        if (checkin.isAfter(today)) {
+            return draw < 5 ? ReservationStatus.CANCELLED : ReservationStatus.BOOKED;
+        }
+        if (checkout.isAfter(today)) {
+            return ReservationStatus.CHECKED_IN;
+        }
+        return draw < 4 ? ReservationStatus.CANCELLED : draw < 6 ? ReservationStatus.NO_SHOW
+                : ReservationStatus.CHECKED_OUT;
+    }
+
+    private static String describe(Room room) {
+        StringBuilder description = new StringBuilder(room.getType()).append(" Room");
+        for (Amenity amenity : Amenity.fromMask(room.getAmenities())) {
+            description.append(" + ").append(amenity.getLabel());
+        }
+        return description.toString();
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int draw = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            draw -= weights[i];
+            if (draw < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * @return Geometrically distributed number of days with the given mean
+     */
+    private static long geometric(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (mean + 1);
+        return (long) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+}
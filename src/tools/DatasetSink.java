@@ -0,0 +1,40 @@
+package tools;
+
+import model.Guest;
+import model.Reservation;
+import model.Room;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Destination of a generated dataset. Rooms and guests are written first and
+ * must get their ids set, since the reservations refer to them; reservations
+ * arrive in chunks, ordered by room and date.
+ */
+public interface DatasetSink {
+
+    /**
+     * Write rooms and set their generated ids
+     * @return Number of rows rejected
+     */
+    int rooms(List<Room> rooms) throws SQLException;
+
+    /**
+     * Write a chunk of guests and set their generated ids
+     * @return Number of rows rejected
+     */
+    int guests(List<Guest> guests) throws SQLException;
+
+    /**
+     * Write a chunk of reservations
+     * @return Number of rows rejected
+     */
+    int reservations(List<Reservation> reservations) throws SQLException;
+
+    /**
+     * Called after the last chunk
+     */
+    default void finish() throws SQLException {
+    }
+}
@@ -0,0 +1,374 @@
+package tools;
+
+import controller.GuestController;
+import controller.ReservationController;
+import controller.RoomController;
+import metrics.DaoMetrics;
+import metrics.LatencyHistogram;
+import model.Guest;
+import model.Reservation;
+import model.Room;
+import util.DBConnection;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Front-desk load generator: simulated clerks and booking channels calling
+ * the controllers directly, without the UI, against the configured database
+ * (see DBConnection for the hotel.db.* properties).
+ *
+ * Usage: LoadGenerator [--clerks=N] [--rate=OPS_PER_SECOND] [--duration=SECONDS] [--warmup=SECONDS]
+ *                      [--mix=search:25,availability:25,create:15,checkin:10,checkout:10,lookup:15] [--seed=N]
+ *
+ * Every clerk is a virtual thread running operations picked by the mix
+ * weights. With a rate, clerks share it and pace themselves; latency is then
+ * measured from when an operation was due, so a stalled system shows up in
+ * the percentiles instead of silently lowering the load. Without a rate each
+ * clerk runs back to back.
+ *
+ * Operations:
+ * search       guest name search
+ * availability free rooms for a random stay
+ * create       check a random room for a random stay and book it if free
+ * checkin      check in a booked reservation
+ * checkout     check out a checked-in reservation
+ * lookup       guest lookup by contact
+ *
+ * The report gives throughput, latency percentiles and outcomes per
+ * operation, DAO errors (from the DAO metrics, which are on unless
+ * -Dhotel.metrics.dao=false), and the double bookings (overlapping stays in one
+ * room) created during the run. Bookings check availability and insert in
+ * separate transactions, so concurrent clerks can double-book a room.
+ */
+public class LoadGenerator {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final String[] NAME_TERMS = {"an", "Mar", "ina", "Ros", "Nov", "el", "Smith", "Hugo"};
+
+    enum Operation { SEARCH, AVAILABILITY, CREATE, CHECKIN, CHECKOUT, LOOKUP }
+
+    private enum Outcome { OK, REJECTED, ERROR, SKIPPED }
+
+    /**
+     * Outcome counters and latency of one operation
+     */
+    static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        // Completed without effect: room taken, reservation already moved on
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        // Nothing to work on (no booked or checked-in reservation left)
+        final LongAdder skipped = new LongAdder();
+    }
+
+    private final int clerks;
+    private final double rate;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final Operation[] weighted;
+    private final long seed;
+
+    private final RoomController roomController = new RoomController();
+    private final GuestController guestController = new GuestController();
+    private final ReservationController reservationController = new ReservationController();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<Integer> booked = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> checkedIn = new ConcurrentLinkedQueue<>();
+    // Operations that did something, warmup included (for the progress lines)
+    private final LongAdder completed = new LongAdder();
+    private int[] roomIds;
+    private int[] guestIds;
+    private String[] contacts;
+    private volatile long measureFrom;
+
+    LoadGenerator(int clerks, double rate, long durationSeconds, long warmupSeconds, Map<Operation, Integer> mix,
+                  long seed) {
+        this.clerks = clerks;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.seed = seed;
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        this.weighted = slots.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) {
+        int clerks = 20;
+        double rate = 0;
+        long duration = 60;
+        long warmup = 10;
+        long seed = 42;
+        Map<Operation, Integer> mix = parseMix("search:25,availability:25,create:15,checkin:10,checkout:10,lookup:15");
+        for (String arg : args) {
+            if (arg.startsWith("--clerks=")) {
+                clerks = Integer.parseInt(arg.substring("--clerks=".length()));
+            } else if (arg.startsWith("--rate=")) {
+                rate = Double.parseDouble(arg.substring("--rate=".length()));
+            } else if (arg.startsWith("--duration=")) {
+                duration = Long.parseLong(arg.substring("--duration=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Long.parseLong(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--mix=")) {
+                mix = parseMix(arg.substring("--mix=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                System.err.println("Usage: LoadGenerator [--clerks=N] [--rate=OPS_PER_SECOND] [--duration=SECONDS] "
+                        + "[--warmup=SECONDS] [--mix=search:25,availability:25,...] [--seed=N]");
+                System.exit(1);
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(clerks, rate, duration, warmup, mix, seed);
+        try {
+            generator.run();
+        } finally {
+            try {
+                DBConnection.getInstance().shutdown();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connections: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param text e.g. "search:30,create:10"
+     */
+    static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    void run() {
+        loadWorkingSet();
+        if (roomIds.length == 0 || guestIds.length == 0) {
+            System.err.println("The database has no rooms or guests; seed it first");
+            return;
+        }
+        int doubleBookingsBefore = reservationController.findDoubleBookings().size();
+        System.out.printf("%d clerks, %s, %d s warmup + %d s measured, %d rooms, %d guests%n", clerks,
+                rate > 0 ? rate + " ops/s" : "unthrottled", TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), roomIds.length, guestIds.length);
+
+        long daoErrorsBefore = DaoMetrics.getInstance().getErrorCount();
+        long start = System.nanoTime();
+        measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        // Clerks share the rate; their first operations are spread over one interval
+        long intervalNanos = rate > 0 ? (long) (clerks * 1e9 / rate) : 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clerks; i++) {
+                long firstDue = start + (intervalNanos * i) / clerks;
+                SplittableRandom random = new SplittableRandom(seed + i);
+                executor.execute(() -> clerk(random, firstDue, intervalNanos, end));
+            }
+            reportProgress(start, end);
+        }
+
+        long daoErrors = DaoMetrics.getInstance().getErrorCount() - daoErrorsBefore;
+        List<int[]> doubleBookings = reservationController.findDoubleBookings();
+        report(daoErrors, doubleBookings, doubleBookings.size() - doubleBookingsBefore);
+    }
+
+    /**
+     * Rooms, guests and the reservations the lifecycle operations start from
+     */
+    private void loadWorkingSet() {
+        roomIds = roomController.getAllRooms().stream().mapToInt(Room::getId).toArray();
+        List<Guest> guests = guestController.getAllGuests();
+        guestIds = guests.stream().mapToInt(Guest::getId).toArray();
+        contacts = guests.stream().map(Guest::getContact).toArray(String[]::new);
+        for (Reservation reservation : reservationController.getUpcomingReservations()) {
+            booked.add(reservation.getId());
+        }
+        for (Reservation reservation : reservationController.getActiveReservations()) {
+            checkedIn.add(reservation.getId());
+        }
+    }
+
+    private void clerk(SplittableRandom random, long firstDue, long intervalNanos, long end) {
+        long due = firstDue;
+        while (true) {
+            if (intervalNanos > 0) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long started = intervalNanos > 0 ? due : System.nanoTime();
+            if (started >= end) {
+                return;
+            }
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            OperationStats operationStats = stats.get(operation);
+            boolean measured = started >= measureFrom;
+            Outcome outcome;
+            try {
+                outcome = execute(operation, random);
+            } catch (RuntimeException e) {
+                outcome = Outcome.ERROR;
+            }
+            long latency = System.nanoTime() - started;
+            if (outcome != Outcome.SKIPPED) {
+                completed.increment();
+            }
+            if (measured) {
+                record(operationStats, outcome, latency);
+            }
+            due += intervalNanos;
+        }
+    }
+
+    private Outcome execute(Operation operation, SplittableRandom random) {
+        switch (operation) {
+            case SEARCH:
+                guestController.searchGuestsByName(NAME_TERMS[random.nextInt(NAME_TERMS.length)]);
+                return Outcome.OK;
+            case AVAILABILITY: {
+                LocalDate checkin = LocalDate.now().plusDays(random.nextInt(90));
+                roomController.getAvailableRoomsForDateRange(checkin, checkin.plusDays(1 + random.nextInt(7)));
+                return Outcome.OK;
+            }
+            case CREATE: {
+                LocalDate checkin = LocalDate.now().plusDays(random.nextInt(90));
+                LocalDate checkout = checkin.plusDays(1 + random.nextInt(7));
+                int roomId = roomIds[random.nextInt(roomIds.length)];
+                if (!reservationController.isRoomAvailable(roomId, checkin, checkout)) {
+                    return Outcome.REJECTED;
+                }
+                Reservation reservation = new Reservation(guestIds[random.nextInt(guestIds.length)], roomId,
+                        checkin, checkout);
+                if (!reservationController.createReservation(reservation)) {
+                    return Outcome.ERROR;
+                }
+                booked.add(reservation.getId());
+                return Outcome.OK;
+            }
+            case CHECKIN: {
+                Integer id = booked.poll();
+                if (id == null) {
+                    return Outcome.SKIPPED;
+                }
+                if (!reservationController.checkInGuest(id)) {
+                    return Outcome.REJECTED;
+                }
+                checkedIn.add(id);
+                return Outcome.OK;
+            }
+            case CHECKOUT: {
+                Integer id = checkedIn.poll();
+                if (id == null) {
+                    return Outcome.SKIPPED;
+                }
+                return reservationController.checkOutGuest(id) ? Outcome.OK : Outcome.REJECTED;
+            }
+            case LOOKUP:
+                return guestController.getGuestByContact(contacts[random.nextInt(contacts.length)]) != null
+                        ? Outcome.OK : Outcome.ERROR;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private static void record(OperationStats operationStats, Outcome outcome, long latency) {
+        switch (outcome) {
+            case OK:
+                operationStats.ok.increment();
+                break;
+            case REJECTED:
+                operationStats.rejected.increment();
+                break;
+            case ERROR:
+                operationStats.errors.increment();
+                break;
+            case SKIPPED:
+                operationStats.skipped.increment();
+                return;
+        }
+        operationStats.latency.record(latency);
+    }
+
+    /**
+     * Print the overall throughput every five seconds until the run ends
+     */
+    private void reportProgress(long start, long end) {
+        long last = 0;
+        long lastAt = start;
+        while (System.nanoTime() < end) {
+            LockSupport.parkNanos(Math.min(TimeUnit.SECONDS.toNanos(5), Math.max(1, end - System.nanoTime())));
+            long now = System.nanoTime();
+            long total = completed.sum();
+            String phase = now < measureFrom ? "warmup" : "measured";
+            System.out.printf("%5.0f s  %-8s  %8.0f ops/s%n", (now - start) / 1e9, phase,
+                    (total - last) / ((now - lastAt) / 1e9));
+            last = total;
+            lastAt = now;
+        }
+    }
+
+    private void report(long daoErrors, List<int[]> doubleBookings, int newDoubleBookings) {
+        double seconds = durationNanos / 1e9;
+        System.out.println();
+        System.out.printf("%-13s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "ops/s", "ok", "rejected",
+                "errors", "skipped", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long totalOps = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            long count = s.latency.getCount();
+            long[] values = s.latency.getValuesAtQuantiles(QUANTILES);
+            System.out.printf("%-13s %9.1f %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), count / seconds, s.ok.sum(), s.rejected.sum(),
+                    s.errors.sum(), s.skipped.sum(), values[0] / 1e6, values[1] / 1e6, values[2] / 1e6,
+                    s.latency.getMaxNanos() / 1e6);
+            totalOps += count;
+            totalErrors += s.errors.sum();
+        }
+        System.out.println();
+        System.out.printf("throughput    %.1f ops/s%n", totalOps / seconds);
+        double errorRate = totalOps > 0 ? 100.0 * totalErrors / totalOps : 0.0;
+        if (DaoMetrics.isEnabled()) {
+            System.out.printf("error rate    %.3f%% (%d DAO errors)%n", errorRate, daoErrors);
+        } else {
+            System.out.printf("error rate    %.3f%% (DAO errors not counted, hotel.metrics.dao=false)%n", errorRate);
+        }
+        System.out.printf("double bookings  %d new, %d in total%n", Math.max(0, newDoubleBookings),
+                doubleBookings.size());
+        for (int i = 0; i < Math.min(10, doubleBookings.size()); i++) {
+            int[] pair = doubleBookings.get(i);
+            System.out.printf("  room %d: reservations %d and %d overlap%n", pair[0], pair[1], pair[2]);
+        }
+    }
+}
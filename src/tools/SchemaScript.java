@@ -0,0 +1,68 @@
+package tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs schema.sql against an embedded database: comments and the MySQL
+ * database selection (CREATE DATABASE, USE) are skipped, the CREATE TABLE
+ * statements are executed as they are (H2 accepts them in MySQL mode).
+ */
+public final class SchemaScript {
+
+    private SchemaScript() {
+    }
+
+    /**
+     * @param schema Path of schema.sql
+     * @return Statements to execute, in order
+     */
+    public static List<String> statements(Path schema) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : Files.readAllLines(schema)) {
+            if (!line.trim().startsWith("--")) {
+                text.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : text.toString().split(";")) {
+            String sql = statement.trim();
+            String upper = sql.toUpperCase();
+            if (!sql.isEmpty() && !upper.startsWith("CREATE DATABASE") && !upper.startsWith("USE ")) {
+                statements.add(sql);
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Create the tables (those that already exist are kept)
+     * @param conn Connection to the database
+     * @param schema Path of schema.sql
+     */
+    public static void apply(Connection conn, Path schema) throws IOException, SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements(schema)) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * @return schema.sql from the hotel.schema property, the working directory or its parent
+     */
+    public static Path locate() {
+        String configured = System.getProperty("hotel.schema");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        Path local = Path.of("schema.sql");
+        return Files.exists(local) ? local : Path.of("..", "schema.sql");
+    }
+}
@@ -0,0 +1,112 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over strings: a compact bit set that can tell for certain
+ * that a key was never added, and otherwise answers "maybe".
+ *
+ * Each key sets k bits chosen by double hashing a 64-bit hash of the key.
+ * The size is fixed at construction for an expected number of keys and a
+ * target false-positive rate; adding more keys than expected raises the
+ * rate, so owners should rebuild it larger (see getInsertions). Keys cannot
+ * be removed. Safe for concurrent use.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedKeys Number of keys the filter is sized for
+     * @param falsePositiveRate Target rate of "maybe" answers for absent keys, e.g. 0.01
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter size: " + expectedKeys + " keys at " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        this.capacity = expectedKeys;
+    }
+
+    /**
+     * Add a key
+     * @param key Key to add
+     */
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        insertions.increment();
+    }
+
+    /**
+     * @param key Key to look up
+     * @return false if the key was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of put calls so far (including repeated keys)
+     */
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * @return Number of keys the filter was sized for
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private long index(int combined) {
+        // Flip negative combinations to spread them over the whole range
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with a MurmurHash3 mix
+     * so both halves are usable as independent hashes
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,256 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small bounded JDBC connection pool.
+ *
+ * Borrowed connections are proxies: calling close() resets the connection
+ * (rollback of an unfinished transaction, auto-commit back on) and returns
+ * it to the pool instead of closing the socket. This keeps the DAOs'
+ * try-with-resources pattern unchanged while allowing them to be called
+ * from several threads at once.
+ *
+ * An optional observer (see metrics.DaoMetrics) is told how long each
+ * borrower waited for its connection.
+ */
+public class ConnectionPool {
+
+    /**
+     * Watches the leases of a pool
+     */
+    public interface Observer {
+        /**
+         * Called when a connection is handed out, on the borrower's thread
+         * @param waitNanos Time spent waiting for the connection (including opening it)
+         */
+        void leased(long waitNanos);
+    }
+
+    private static final String FX_THREAD_NAME = "JavaFX Application Thread";
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private volatile boolean shutdown = false;
+    private volatile Observer observer;
+
+    public ConnectionPool(String url, String username, String password, int maxSize, long timeoutMillis) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrow a connection; close it to give it back
+     * @return Pooled connection
+     * @throws SQLException if no connection becomes free within the timeout or a new one cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down");
+        }
+        warnIfFxThread();
+        long waitStart = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + timeoutMillis + " ms waiting for a database connection " +
+                        "(pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.isUsable()) {
+                    return pooled.lease(waitStart);
+                }
+                pooled.closePhysical();
+            }
+            return new PooledConnection(DriverManager.getConnection(url, username, password)).lease(waitStart);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and refuse new borrowers.
+     * Connections still in use are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * @param observer Observer of every lease from now on (null to stop observing)
+     */
+    public void setObserver(Observer observer) {
+        this.observer = observer;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    private void release(PooledConnection pooled, boolean reusable) {
+        try {
+            if (reusable && !shutdown) {
+                // Most recently used first, so surplus connections age out
+                idle.offerFirst(pooled);
+            } else {
+                pooled.closePhysical();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Database access blocks rendering when done on the UI thread; report the offending DAO method
+     */
+    private static void warnIfFxThread() {
+        if (!FX_THREAD_NAME.equals(Thread.currentThread().getName())) {
+            return;
+        }
+        String caller = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith("util."))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName())
+                .orElse("unknown"));
+        System.err.println("Warning: database access on the JavaFX application thread from " + caller);
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        boolean isUsable() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                // Only ping connections that sat idle long enough to have been dropped by the server
+                return System.currentTimeMillis() - lastReturned < VALIDATE_AFTER_IDLE_MILLIS || physical.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection lease(long waitStart) {
+            Observer current = observer;
+            if (current != null) {
+                current.leased(System.nanoTime() - waitStart);
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new Lease(this));
+        }
+
+        void giveBack() {
+            boolean reusable;
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                reusable = !physical.isClosed();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            lastReturned = System.currentTimeMillis();
+            release(this, reusable);
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One borrower's view of a pooled connection. After close() the lease is
+     * dead, so a stale reference can never use a connection lent to someone else.
+     */
+    private static class Lease implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        returning.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled != null ? pooled.physical : "closed") + "]";
+                default:
+                    break;
+            }
+
+            if (pooled == null) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
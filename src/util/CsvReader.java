@@ -0,0 +1,149 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ * Reads one record at a time so arbitrarily large files can be processed
+ * in constant memory. Supports quoted fields, escaped quotes ("") and
+ * line breaks inside quoted fields.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private long recordNumber = 0;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record
+     * @return Field values, or null at end of input
+     * @throws IOException if reading fails
+     */
+    public String[] readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                if (!sawAnything) {
+                    return null;
+                }
+                fields.add(field.toString());
+                break;
+            }
+            sawAnything = true;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        next();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    next();
+                }
+                fields.add(field.toString());
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        recordNumber++;
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Get the number of records read so far (the header counts as record 1)
+     * @return Record number of the last record returned
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Format field values as one CSV line (without line terminator)
+     * @param fields Field values
+     * @return CSV line with quoting where required
+     */
+    public static String toCsvLine(String[] fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(quote(fields[i]));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Quote a single value if it contains separators, quotes or line breaks
+     * @param value Raw value
+     * @return CSV-safe value
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private int next() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,36 +1,47 @@
 package util;
 
+import metrics.DaoMetrics;
+import metrics.SlowQueryLog;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 public class DBConnection {
 
-    // Database configuration
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/hotel_management";
-    private static final String DB_USERNAME = "root";
-    private static final String DB_PASSWORD = "";
-    private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
+    // Database configuration (override with -Dhotel.db.url / .username / .password / .driver,
+    // e.g. an embedded H2 database in MySQL mode for benchmarks)
+    private static final String DB_URL = System.getProperty("hotel.db.url",
+            "jdbc:mysql://localhost:3306/hotel_management?rewriteBatchedStatements=true");
+    private static final String DB_USERNAME = System.getProperty("hotel.db.username", "root");
+    private static final String DB_PASSWORD = System.getProperty("hotel.db.password", "");
+    private static final String DB_DRIVER = System.getProperty("hotel.db.driver", "com.mysql.cj.jdbc.Driver");
+
+    // Connection pool settings (override with -Dhotel.db.poolSize / -Dhotel.db.poolTimeoutMs)
+    private static final int POOL_SIZE = Integer.getInteger("hotel.db.poolSize", 10);
+    private static final long POOL_TIMEOUT_MS = Long.getLong("hotel.db.poolTimeoutMs", 30_000L);
+
+    // Rows per round trip when streaming on drivers other than MySQL
+    private static final int STREAM_FETCH_SIZE = 1000;
 
     // Singleton instance
     private static DBConnection instance = null;
-    private Connection connection = null;
+    private final ConnectionPool pool;
+    // Null unless the slow-query log is enabled
+    private final SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
 
     // Private constructor to prevent instantiation
     private DBConnection() {
         try {
-            // Load MySQL JDBC driver
+            // Load the JDBC driver
             Class.forName(DB_DRIVER);
-            // Create the initial connection
-            this.connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-            System.out.println("Database connection established successfully.");
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
-            e.printStackTrace();
-        } catch (SQLException e) {
-            System.err.println("Database connection failed: " + e.getMessage());
+            System.err.println("JDBC Driver not found: " + e.getMessage());
             e.printStackTrace();
         }
+        this.pool = new ConnectionPool(DB_URL, DB_USERNAME, DB_PASSWORD, POOL_SIZE, POOL_TIMEOUT_MS);
+        DaoMetrics.install(pool);
     }
 
     /**
@@ -41,30 +52,72 @@ public class DBConnection {
     public static synchronized DBConnection getInstance() throws SQLException {
         if (instance == null) {
             instance = new DBConnection();
-        } else if (instance.getConnection().isClosed()) {
-            instance = new DBConnection();
         }
         return instance;
     }
 
     /**
-     * Get the database connection
-     * @return Connection object
+     * @return Maximum number of pooled connections
      */
-    public Connection getConnection() {
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+
+    /**
+     * Borrow a database connection from the pool.
+     * Closing it returns it to the pool, so callers keep using try-with-resources;
+     * connections can be used from any thread.
+     * @return Pooled Connection object
+     * @throws SQLException if no connection is available
+     */
+    public Connection getConnection() throws SQLException {
+        Connection connection = pool.getConnection();
+        return slowQueryLog != null ? slowQueryLog.wrap(connection) : connection;
+    }
+
+    /**
+     * Get the connection pool (sizing and usage)
+     * @return Connection pool
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Close all pooled connections (on application exit)
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Open a new dedicated connection outside the pool.
+     * Used by long-running streaming reads (exports) so they do not hold
+     * a pooled connection; the caller must close it.
+     * @return New Connection object
+     * @throws SQLException if connection fails
+     */
+    public Connection createConnection() throws SQLException {
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName(DB_DRIVER);
-                connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-                System.out.println("Database connection re-established.");
-            }
+            Class.forName(DB_DRIVER);
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
-            e.printStackTrace();
-        } catch (SQLException e) {
-            System.err.println("Database connection failed: " + e.getMessage());
-            e.printStackTrace();
+            throw new SQLException("JDBC Driver not found: " + e.getMessage(), e);
         }
-        return connection;
+        Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+        return slowQueryLog != null ? slowQueryLog.wrap(connection) : connection;
+    }
+
+    /**
+     * Ask the driver to stream a forward-only result instead of buffering it.
+     * MySQL Connector/J streams row by row only with a fetch size of
+     * Integer.MIN_VALUE, which other drivers (H2) reject; they get a
+     * positive fetch size instead.
+     * @param stmt Forward-only, read-only statement
+     * @throws SQLException if the fetch size cannot be set
+     */
+    public static void enableStreaming(Statement stmt) throws SQLException {
+        String driver = stmt.getConnection().getMetaData().getDriverName();
+        boolean mysql = driver != null && driver.toLowerCase().contains("mysql");
+        stmt.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
     }
 }
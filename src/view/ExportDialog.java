@@ -0,0 +1,157 @@
+package view;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import report.ReportExporter;
+import report.ReportType;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Export flow shared by the management screens: pick a report, pick a
+ * file, then run the export in the background with a progress window.
+ * The UI stays responsive and the export can be cancelled at any time.
+ */
+public class ExportDialog {
+
+    private ExportDialog() {
+    }
+
+    /**
+     * Ask for a report and destination file, then export it in the background
+     * @param owner Owner window
+     * @param reportTypes Reports offered to the user (the first one is preselected)
+     */
+    public static void show(Window owner, List<ReportType> reportTypes) {
+        ReportType type = reportTypes.get(0);
+        if (reportTypes.size() > 1) {
+            ChoiceDialog<ReportType> choice = new ChoiceDialog<>(type, reportTypes);
+            choice.initOwner(owner);
+            choice.setTitle("Export Report");
+            choice.setHeaderText(null);
+            choice.setContentText("Report:");
+            Optional<ReportType> selected = choice.showAndWait();
+            if (!selected.isPresent()) {
+                return;
+            }
+            type = selected.get();
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + type.getTitle());
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV file (*.csv)", "*.csv"),
+                new FileChooser.ExtensionFilter("PDF document (*.pdf)", "*.pdf"));
+        chooser.setInitialFileName(ReportExporter.defaultFileName(type, "csv"));
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        Path path = file.toPath();
+        String selectedExtension = chooser.getSelectedExtensionFilter() != null
+                && chooser.getSelectedExtensionFilter().getExtensions().contains("*.pdf") ? ".pdf" : ".csv";
+        String name = file.getName().toLowerCase();
+        if (!name.endsWith(".csv") && !name.endsWith(".pdf")) {
+            path = path.resolveSibling(file.getName() + selectedExtension);
+        }
+
+        runExport(owner, type, path);
+    }
+
+    private static void runExport(Window owner, ReportType type, Path path) {
+        ExportTask task = new ExportTask(type, path);
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(320);
+        progressBar.progressProperty().bind(task.progressProperty());
+
+        Label statusLabel = new Label("Starting export...");
+        statusLabel.textProperty().bind(task.messageProperty());
+
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> task.cancel());
+
+        VBox content = new VBox(12, new Label("Exporting " + type.getTitle() + " to " + path.getFileName()),
+                progressBar, statusLabel, cancelButton);
+        content.setAlignment(Pos.CENTER);
+        content.setPadding(new Insets(20));
+
+        Stage progressStage = new Stage();
+        progressStage.initOwner(owner);
+        progressStage.initModality(Modality.NONE);
+        progressStage.setTitle("Export Report");
+        progressStage.setScene(new Scene(content));
+        progressStage.setOnCloseRequest(e -> task.cancel());
+
+        task.setOnSucceeded(e -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.INFORMATION, "Export Complete",
+                    "Exported " + task.getValue() + " row(s) to\n" + path);
+        });
+        task.setOnCancelled(e -> progressStage.close());
+        task.setOnFailed(e -> {
+            progressStage.close();
+            Throwable error = task.getException();
+            System.err.println("Error exporting report: " + error.getMessage());
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Export Failed",
+                    "Could not export " + type.getTitle() + ": " + error.getMessage());
+        });
+
+        progressStage.show();
+
+        Thread worker = new Thread(task, "report-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static void showAlert(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    /**
+     * Background export; progress and messages are marshalled to the FX thread by Task
+     */
+    private static class ExportTask extends Task<Long> {
+        private final ReportType type;
+        private final Path path;
+
+        ExportTask(ReportType type, Path path) {
+            this.type = type;
+            this.path = path;
+        }
+
+        @Override
+        protected Long call() throws Exception {
+            return new ReportExporter().export(type, path, (written, total) -> {
+                if (total > 0) {
+                    updateProgress(written, total);
+                    updateMessage(written + " of " + total + " rows");
+                } else {
+                    updateProgress(-1, 1);
+                    updateMessage(written + " rows");
+                }
+            }, this::isCancelled);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package view;
 
+import async.Debouncer;
+import async.UiActions;
 import controller.GuestManagementController;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
@@ -10,8 +12,14 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import model.Change;
 import model.Guest;
 import model.GuestType;
+import sync.ChangePoller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class GuestManagement extends Application {
     private GuestManagementController controller = new GuestManagementController();
@@ -22,6 +30,14 @@ public class GuestManagement extends Application {
     private TextField contactField = new TextField();
     private ComboBox<GuestType> guestTypeCombo = new ComboBox<>();
     private TextField searchField = new TextField();
+    // Search as you type, once typing pauses
+    private final Debouncer searchDebouncer = new Debouncer(this::handleSearchGuests);
+    // Patches the table when another workstation writes a guest
+    private final Consumer<List<Change>> changeListener = changes -> {
+        if (ChangePoller.affects(changes, Change.Entity.GUEST)) {
+            controller.getGuestList().refresh();
+        }
+    };
     private Label statusLabel = new Label();
 
     @Override
@@ -45,17 +61,22 @@ public class GuestManagement extends Application {
         setupModernTable();
 
         // Button actions
-        addBtn.setOnAction(e -> handleAddGuest());
-        updateBtn.setOnAction(e -> handleUpdateGuest());
-        deleteBtn.setOnAction(e -> handleDeleteGuest());
-        refreshBtn.setOnAction(e -> handleRefreshTable());
-        clearBtn.setOnAction(e -> handleClearFields());
-        searchBtn.setOnAction(e -> handleSearchGuests());
+        addBtn.setOnAction(UiActions.named("GuestManagement.add", e -> handleAddGuest()));
+        updateBtn.setOnAction(UiActions.named("GuestManagement.update", e -> handleUpdateGuest()));
+        deleteBtn.setOnAction(UiActions.named("GuestManagement.delete", e -> handleDeleteGuest()));
+        refreshBtn.setOnAction(UiActions.named("GuestManagement.refresh", e -> handleRefreshTable()));
+        clearBtn.setOnAction(UiActions.named("GuestManagement.clear", e -> handleClearFields()));
+        searchBtn.setOnAction(UiActions.named("GuestManagement.search", e -> searchDebouncer.flush()));
 
         // Enter key actions
-        nameField.setOnAction(e -> handleAddGuest());
-        contactField.setOnAction(e -> handleAddGuest());
-        searchField.setOnAction(e -> handleSearchGuests());
+        nameField.setOnAction(UiActions.named("GuestManagement.add", e -> handleAddGuest()));
+        contactField.setOnAction(UiActions.named("GuestManagement.add", e -> handleAddGuest()));
+        searchField.setOnAction(UiActions.named("GuestManagement.search", e -> searchDebouncer.flush()));
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            // Results for the old text are no longer wanted
+            controller.cancelSearch();
+            searchDebouncer.trigger();
+        });
 
         // Table selection listener
         table.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
@@ -71,11 +92,16 @@ public class GuestManagement extends Application {
         Scene scene = new Scene(layout, 1200, 800);
         scene.getStylesheets().add("data:text/css," + getModernStyles());
         stage.setScene(scene);
+        stage.setOnHidden(e -> {
+            ChangePoller.getInstance().removeListener(changeListener);
+            searchDebouncer.cancel();
+            controller.cancelPendingRequests();
+        });
+        ChangePoller.getInstance().addListener(changeListener);
         stage.show();
 
         // Initial data load
         handleRefreshTable();
-        updateStatus("Ready - Total guests: " + controller.getTotalGuestsCount());
     }
 
     private void setupFormFields() {
@@ -118,7 +144,13 @@ public class GuestManagement extends Application {
         headerLabel.getStyleClass().add("header-title");
         HBox headerBox = new HBox();
         headerBox.setAlignment(Pos.CENTER);
-        headerBox.getChildren().add(headerLabel);
+
+        // Spinner shown while database requests are running
+        ProgressIndicator loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setPrefSize(28, 28);
+        loadingIndicator.visibleProperty().bind(controller.busyProperty());
+        HBox.setMargin(loadingIndicator, new Insets(0, 0, 0, 12));
+        headerBox.getChildren().addAll(headerLabel, loadingIndicator);
         headerBox.setPadding(new Insets(0, 0, 15, 0));
         layout.setTop(headerBox);
 
@@ -250,7 +282,9 @@ public class GuestManagement extends Application {
         TableColumn<Guest, String> typeCol = new TableColumn<>("Type");
         typeCol.setCellValueFactory(cellData -> {
             Guest guest = cellData.getValue();
-            return new javafx.beans.property.SimpleStringProperty(controller.getGuestTypeFromGuest(guest));
+            // Rows of pages still loading are null
+            return new javafx.beans.property.SimpleStringProperty(
+                    guest != null ? controller.getGuestTypeFromGuest(guest) : null);
         });
         typeCol.setPrefWidth(100);
         typeCol.getStyleClass().add("table-column-center");
@@ -277,7 +311,9 @@ public class GuestManagement extends Application {
         });
 
         table.getColumns().addAll(idCol, nameCol, contactCol, typeCol);
-        table.setItems(controller.getGuestList());
+        // Sorting is done by the database, a page at a time
+        controller.getGuestList().bindTo(table, Map.of(idCol, "id", nameCol, "name",
+                contactCol, "contact", typeCol, "type"));
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         table.getStyleClass().add("modern-table");
 
@@ -294,10 +330,10 @@ public class GuestManagement extends Application {
         String contact = contactField.getText().trim();
         GuestType selectedType = guestTypeCombo.getValue();
 
-        if (controller.addGuest(name, contact, selectedType)) {
+        controller.addGuest(name, contact, selectedType, () -> {
             handleClearFields();
             updateStatus("Guest added: " + name + " (" + selectedType + ")");
-        }
+        });
     }
 
     private void handleUpdateGuest() {
@@ -306,10 +342,10 @@ public class GuestManagement extends Application {
         String contact = contactField.getText().trim();
         GuestType selectedType = guestTypeCombo.getValue();
 
-        if (controller.updateGuest(selected, name, contact, selectedType)) {
+        controller.updateGuest(selected, name, contact, selectedType, () -> {
             handleClearFields();
             updateStatus("Guest updated: " + name);
-        }
+        });
     }
 
     private void handleDeleteGuest() {
@@ -323,29 +359,36 @@ public class GuestManagement extends Application {
             confirmation.setContentText("Are you sure you want to delete guest: " + selected.getName() + " (" + controller.getGuestTypeFromGuest(selected) + ")?");
 
             if (confirmation.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-                if (controller.deleteGuest(selected)) {
+                controller.deleteGuest(selected, () -> {
                     handleClearFields();
                     updateStatus("Guest deleted: " + selected.getName());
-                }
+                });
             }
         }
     }
 
     private void handleSearchGuests() {
         String searchTerm = searchField.getText().trim();
-        controller.searchGuests(searchTerm);
-
-        if (searchTerm.isEmpty()) {
-            updateStatus("Total guests: " + controller.getGuestList().size() + " (VIP: " + controller.getVipGuestsCount() + ", Regular: " + (controller.getGuestList().size() - controller.getVipGuestsCount()) + ")");
-        } else {
-            updateStatus("Search results: " + controller.getGuestList().size() + " guests found");
-        }
+        updateStatus("Searching...");
+        controller.searchGuests(searchTerm, () -> {
+            if (searchTerm.isEmpty()) {
+                updateGuestTotals();
+            } else {
+                updateStatus("Search results: " + controller.getGuestList().size() + " guests found");
+            }
+        });
     }
 
     private void handleRefreshTable() {
-        controller.refreshGuestList();
-        updateStatus("Total guests: " + controller.getGuestList().size() + " (VIP: " + controller.getVipGuestsCount() + ", Regular: " + (controller.getGuestList().size() - controller.getVipGuestsCount()) + ")");
+        updateStatus("Loading guests...");
         searchField.clear();
+        searchDebouncer.cancel();
+        controller.refreshGuestList(this::updateGuestTotals);
+    }
+
+    private void updateGuestTotals() {
+        controller.loadStatistics(statistics ->
+                updateStatus("Total guests: " + statistics.getTotalGuests() + " (VIP: " + statistics.getVipGuests() + ", Regular: " + statistics.getRegularGuests() + ")"));
     }
 
     private void handleClearFields() {
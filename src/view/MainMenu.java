@@ -1,5 +1,8 @@
 package view;
 
+import api.ApiServer;
+import archive.ReservationArchiver;
+import async.BackgroundExecutor;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -14,7 +17,11 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import metrics.FxStallWatchdog;
+import sync.ChangePoller;
+import util.DBConnection;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
@@ -45,6 +52,12 @@ public class MainMenu extends Application {
 
         // Start the clock
         startClock();
+        FxStallWatchdog.install();
+        ReservationArchiver.getInstance().start();
+        ChangePoller.getInstance().start();
+        if (ApiServer.isConfigured()) {
+            ApiServer.getInstance().start();
+        }
         updateStatus("System ready");
     }
 
@@ -274,6 +287,16 @@ public class MainMenu extends Application {
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == exitButton) {
             updateStatus("Shutting down system...");
+            FxStallWatchdog.getInstance().stop();
+            ReservationArchiver.getInstance().stop();
+            ChangePoller.getInstance().stop();
+            ApiServer.getInstance().stop();
+            BackgroundExecutor.shutdown();
+            try {
+                DBConnection.getInstance().shutdown();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connections: " + e.getMessage());
+            }
             Platform.exit();
             System.exit(0);
         }
@@ -1,9 +1,10 @@
 package view;
 
+import async.Debouncer;
+import async.UiActions;
+import async.UiTaskRunner;
 import controller.ReservationManagementController;
 import javafx.application.Application;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,19 +12,49 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import model.Change;
 import model.Guest;
 import model.Reservation;
+import model.ReservationStatus;
 import model.Room;
+import paging.KeyedList;
+import paging.PagedList;
+import report.ReportType;
+import sync.ChangePoller;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 public class ReservationManagement extends Application {
     private ReservationManagementController controller = new ReservationManagementController();
+    private final UiTaskRunner tasks = new UiTaskRunner();
+    // Search as you type, once typing pauses
+    private final Debouncer searchDebouncer = new Debouncer(this::searchReservations);
 
     private TableView<Reservation> table = new TableView<>();
-    private ObservableList<Reservation> reservationList = FXCollections.observableArrayList();
+    // Lazily paged table rows; only the pages around the visible rows are kept
+    private final PagedList<Reservation> reservationList = new PagedList<>("reservations", tasks);
+    // Combo items are patched on reload so the current selection survives
+    private final KeyedList<Guest> guestItems = new KeyedList<>(Guest::getId,
+            guest -> Arrays.asList(guest.getName(), guest.getContact()));
+    private final KeyedList<Room> roomItems = new KeyedList<>(Room::getId,
+            room -> Arrays.asList(room.getNumber(), room.getType()));
+    // Patches the table and combos when another workstation writes
+    private final Consumer<List<Change>> changeListener = changes -> {
+        refreshReservationTable();
+        if (ChangePoller.affects(changes, Change.Entity.GUEST)) {
+            refreshGuestList();
+        }
+        if (ChangePoller.affects(changes, Change.Entity.ROOM, Change.Entity.RESERVATION)) {
+            loadRoomCombo();
+        }
+    };
 
     // Form controls
     private ComboBox<Guest> guestCombo = new ComboBox<>();
@@ -36,6 +67,7 @@ public class ReservationManagement extends Application {
     // Labels for room availability feedback
     private Label roomStatusLabel = new Label();
     private Label reservationCountLabel = new Label();
+    private Label lastUpdatedLabel = new Label();
 
     // Store button references for easy access
     private Button createBtn;
@@ -44,6 +76,11 @@ public class ReservationManagement extends Application {
     private Button searchBtn;
     private Button refreshBtn;
     private Button deleteBtn;
+    private Button exportBtn;
+    private Button checkInBtn;
+    private Button checkOutBtn;
+    private Button cancelBtn;
+    private Button noShowBtn;
 
     @Override
     public void start(Stage stage) {
@@ -69,6 +106,12 @@ public class ReservationManagement extends Application {
         stage.setScene(scene);
         stage.setMinWidth(800);
         stage.setMinHeight(550);
+        stage.setOnHidden(e -> {
+            ChangePoller.getInstance().removeListener(changeListener);
+            searchDebouncer.cancel();
+            tasks.cancelAll();
+        });
+        ChangePoller.getInstance().addListener(changeListener);
         stage.show();
     }
 
@@ -279,13 +322,25 @@ public class ReservationManagement extends Application {
         guestRow.setAlignment(Pos.CENTER_LEFT);
         Label guestLabel = new Label("Guest:");
         guestLabel.getStyleClass().add("form-label");
+        guestCombo.setItems(guestItems);
+        guestCombo.setConverter(new javafx.util.StringConverter<Guest>() {
+            @Override
+            public String toString(Guest guest) {
+                return guest != null ? guest.getName() + " - " + guest.getContact() : "";
+            }
+
+            @Override
+            public Guest fromString(String string) {
+                return null;
+            }
+        });
         guestCombo.setPrefWidth(180);
         guestCombo.setPromptText("Select guest");
         guestCombo.getStyleClass().add("combo-box");
 
         Button newGuestBtn = new Button("+ Guest");
         newGuestBtn.getStyleClass().add("btn-secondary");
-        newGuestBtn.setOnAction(e -> openGuestManagement());
+        newGuestBtn.setOnAction(UiActions.named("ReservationManagement.newGuest", e -> openGuestManagement()));
         guestRow.getChildren().addAll(guestLabel, guestCombo, newGuestBtn);
 
         // Room selection row
@@ -293,13 +348,26 @@ public class ReservationManagement extends Application {
         roomRow.setAlignment(Pos.CENTER_LEFT);
         Label roomLabel = new Label("Room:");
         roomLabel.getStyleClass().add("form-label");
+        roomCombo.setItems(roomItems);
+        roomCombo.setConverter(new javafx.util.StringConverter<Room>() {
+            @Override
+            public String toString(Room room) {
+                return room != null ? "Room " + room.getNumber() + " (" + room.getType() + ")" : "";
+            }
+
+            @Override
+            public Room fromString(String string) {
+                return null;
+            }
+        });
         roomCombo.setPrefWidth(180);
         roomCombo.setPromptText("Select room");
         roomCombo.getStyleClass().add("combo-box");
 
         Button checkAvailBtn = new Button("Check");
         checkAvailBtn.getStyleClass().add("btn-secondary");
-        checkAvailBtn.setOnAction(e -> checkRoomAvailability());
+        checkAvailBtn.setOnAction(UiActions.named("ReservationManagement.checkAvailability",
+                e -> checkRoomAvailability()));
 
         roomStatusLabel.setPrefWidth(80);
         roomRow.getChildren().addAll(roomLabel, roomCombo, checkAvailBtn, roomStatusLabel);
@@ -333,7 +401,24 @@ public class ReservationManagement extends Application {
 
         buttonRow.getChildren().addAll(createBtn, clearBtn, updateBtn);
 
-        formSection.getChildren().addAll(formTitle, guestRow, roomRow, dateRow, buttonRow);
+        // Lifecycle buttons for the selected reservation
+        HBox lifecycleRow = new HBox(8);
+        lifecycleRow.setAlignment(Pos.CENTER_LEFT);
+        checkInBtn = new Button("🛎️ Check In");
+        checkInBtn.getStyleClass().add("btn-success");
+
+        checkOutBtn = new Button("🚪 Check Out");
+        checkOutBtn.getStyleClass().add("btn-primary");
+
+        cancelBtn = new Button("✖ Cancel");
+        cancelBtn.getStyleClass().add("btn-danger");
+
+        noShowBtn = new Button("No-Show");
+        noShowBtn.getStyleClass().add("btn-secondary");
+
+        lifecycleRow.getChildren().addAll(checkInBtn, checkOutBtn, cancelBtn, noShowBtn);
+
+        formSection.getChildren().addAll(formTitle, guestRow, roomRow, dateRow, buttonRow, lifecycleRow);
         return formSection;
     }
 
@@ -370,8 +455,11 @@ public class ReservationManagement extends Application {
         deleteBtn = new Button("🗑️ Delete");
         deleteBtn.getStyleClass().add("btn-danger");
 
+        exportBtn = new Button("📤 Export");
+        exportBtn.getStyleClass().add("btn-secondary");
+
         searchRow.getChildren().addAll(searchLabel, guestSearchField, filterLabel, filterCombo,
-                searchBtn, refreshBtn, deleteBtn);
+                searchBtn, refreshBtn, deleteBtn, exportBtn);
 
         controlSection.getChildren().addAll(controlTitle, searchRow);
         return controlSection;
@@ -404,17 +492,26 @@ public class ReservationManagement extends Application {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        Label lastUpdated = new Label("Updated: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("MM/dd HH:mm")));
-        lastUpdated.getStyleClass().add("status-text");
+        // Spinner shown while database requests are running
+        ProgressIndicator loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setPrefSize(18, 18);
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+
+        updateLastUpdated();
+        lastUpdatedLabel.getStyleClass().add("status-text");
 
-        statusSection.getChildren().addAll(statusIcon, reservationCountLabel, spacer, lastUpdated);
+        statusSection.getChildren().addAll(statusIcon, reservationCountLabel, spacer, loadingIndicator, lastUpdatedLabel);
         return statusSection;
     }
 
     private void setupTable() {
         // Guest Name Column - reduced width
         TableColumn<Reservation, String> guestCol = new TableColumn<>("Guest");
+        // Rows of pages still loading are null
         guestCol.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             Guest guest = data.getValue().getGuest();
             return new javafx.beans.property.SimpleStringProperty(guest != null ? guest.getName() : "N/A");
         });
@@ -423,6 +520,9 @@ public class ReservationManagement extends Application {
         // Guest Contact Column - reduced width
         TableColumn<Reservation, String> contactCol = new TableColumn<>("Contact");
         contactCol.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             Guest guest = data.getValue().getGuest();
             return new javafx.beans.property.SimpleStringProperty(guest != null ? guest.getContact() : "N/A");
         });
@@ -431,6 +531,9 @@ public class ReservationManagement extends Application {
         // Room Number Column
         TableColumn<Reservation, String> roomCol = new TableColumn<>("Room");
         roomCol.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             Room room = data.getValue().getRoom();
             return new javafx.beans.property.SimpleStringProperty(room != null ? room.getNumber() : "N/A");
         });
@@ -439,6 +542,9 @@ public class ReservationManagement extends Application {
         // Room Type Column
         TableColumn<Reservation, String> typeCol = new TableColumn<>("Type");
         typeCol.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             Room room = data.getValue().getRoom();
             return new javafx.beans.property.SimpleStringProperty(room != null ? room.getType() : "N/A");
         });
@@ -456,26 +562,16 @@ public class ReservationManagement extends Application {
 
         // Status Column with styling
         TableColumn<Reservation, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(data -> {
-            LocalDate today = LocalDate.now();
-            LocalDate checkin = data.getValue().getCheckinDate();
-            LocalDate checkout = data.getValue().getCheckoutDate();
-
-            String status;
-            if (today.isBefore(checkin)) {
-                status = "Future";
-            } else if (today.isAfter(checkout)) {
-                status = "Past";
-            } else {
-                status = "Active";
-            }
-            return new javafx.beans.property.SimpleStringProperty(status);
-        });
-        statusCol.setPrefWidth(60);
+        statusCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+                data.getValue() != null ? data.getValue().getStatusLabel() : null));
+        statusCol.setPrefWidth(80);
 
         // Created At Column - compact format
         TableColumn<Reservation, String> createdCol = new TableColumn<>("Created");
         createdCol.setCellValueFactory(data -> {
+            if (data.getValue() == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             LocalDateTime created = data.getValue().getCreatedAt();
             String formatted = created != null ? created.format(DateTimeFormatter.ofPattern("MM/dd")) : "N/A";
             return new javafx.beans.property.SimpleStringProperty(formatted);
@@ -483,7 +579,19 @@ public class ReservationManagement extends Application {
         createdCol.setPrefWidth(60);
 
         table.getColumns().addAll(guestCol, contactCol, roomCol, typeCol, checkinCol, checkoutCol, statusCol, createdCol);
-        table.setItems(reservationList);
+        // Refresh patches changed rows in place instead of reloading the table
+        reservationList.setRowIdentity(Reservation::getId, reservation -> Arrays.asList(
+                reservation.getGuestName(), reservation.getGuestContact(), reservation.getRoomNumber(),
+                reservation.getRoomType(), reservation.getCheckinDate(), reservation.getCheckoutDate(),
+                reservation.getStatus(), reservation.getCreatedAt(), reservation.getVersion()));
+        // Sorting is done by the database, a page at a time
+        reservationList.bindTo(table, Map.of(guestCol, "guest", contactCol, "contact", roomCol, "room",
+                typeCol, "type", checkinCol, "checkin", checkoutCol, "checkout", statusCol, "status",
+                createdCol, "created"));
+        reservationList.setOnReloaded(() -> {
+            updateReservationCount();
+            updateLastUpdated();
+        });
 
         // Row selection handler
         table.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
@@ -527,30 +635,54 @@ public class ReservationManagement extends Application {
 
     private void setupEventHandlers() {
         // Create reservation button
-        createBtn.setOnAction(e -> createReservation());
+        createBtn.setOnAction(UiActions.named("ReservationManagement.create", e -> createReservation()));
 
         // Clear form button
-        clearBtn.setOnAction(e -> clearForm());
+        clearBtn.setOnAction(UiActions.named("ReservationManagement.clear", e -> clearForm()));
 
         // Update reservation button
-        updateBtn.setOnAction(e -> updateSelectedReservation());
+        updateBtn.setOnAction(UiActions.named("ReservationManagement.update", e -> updateSelectedReservation()));
 
         // Delete reservation button
-        deleteBtn.setOnAction(e -> deleteSelectedReservation());
+        deleteBtn.setOnAction(UiActions.named("ReservationManagement.delete", e -> deleteSelectedReservation()));
+
+        // Lifecycle buttons
+        checkInBtn.setOnAction(UiActions.named("ReservationManagement.checkIn",
+                e -> changeSelectedStatus(ReservationStatus.CHECKED_IN)));
+        checkOutBtn.setOnAction(UiActions.named("ReservationManagement.checkOut",
+                e -> changeSelectedStatus(ReservationStatus.CHECKED_OUT)));
+        cancelBtn.setOnAction(UiActions.named("ReservationManagement.cancel",
+                e -> changeSelectedStatus(ReservationStatus.CANCELLED)));
+        noShowBtn.setOnAction(UiActions.named("ReservationManagement.noShow",
+                e -> changeSelectedStatus(ReservationStatus.NO_SHOW)));
+
+        // Enable only the transitions allowed from the selected reservation's status
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) ->
+                updateLifecycleButtons(newSelection));
+        updateLifecycleButtons(null);
 
         // Search button
-        searchBtn.setOnAction(e -> searchReservations());
+        searchBtn.setOnAction(UiActions.named("ReservationManagement.search", e -> searchDebouncer.flush()));
 
         // Refresh button
-        refreshBtn.setOnAction(e -> refreshAllData());
+        refreshBtn.setOnAction(UiActions.named("ReservationManagement.refresh", e -> refreshAllData()));
+
+        // Export button
+        exportBtn.setOnAction(UiActions.named("ReservationManagement.export", e -> ExportDialog.show(
+                exportBtn.getScene().getWindow(), Arrays.asList(ReportType.RESERVATIONS, ReportType.IN_HOUSE_GUESTS))));
 
         // Filter combo
         filterCombo.valueProperty().addListener((obs, oldValue, newValue) -> {
             filterReservations(newValue);
         });
 
-        // Search field - search on Enter key
-        guestSearchField.setOnAction(e -> searchReservations());
+        // Search field - search as you type, immediately on Enter
+        guestSearchField.setOnAction(UiActions.named("ReservationManagement.search", e -> searchDebouncer.flush()));
+        guestSearchField.textProperty().addListener((obs, oldText, newText) -> {
+            // Results for the old text are no longer wanted
+            reservationList.cancel();
+            searchDebouncer.trigger();
+        });
     }
 
     public void createReservation() {
@@ -569,13 +701,15 @@ public class ReservationManagement extends Application {
         }
 
         // Create reservation using controller
-        if (controller.createReservation(selectedGuest, selectedRoom, checkin, checkout)) {
-            showAlert("Success", "Reservation created successfully!");
-            clearForm();
-            refreshAllData();
-        } else {
-            showAlert("Error", "Failed to create reservation. Room may no longer be available.");
-        }
+        tasks.run(null, () -> controller.createReservation(selectedGuest, selectedRoom, checkin, checkout), created -> {
+            if (created) {
+                showAlert("Success", "Reservation created successfully!");
+                clearForm();
+                refreshAllData();
+            } else {
+                showAlert("Error", "Failed to create reservation. Room may no longer be available.");
+            }
+        });
     }
 
     private void updateSelectedReservation() {
@@ -600,12 +734,27 @@ public class ReservationManagement extends Application {
         }
 
         // Update reservation using controller
-        if (controller.updateReservation(selected, selectedGuest, selectedRoom, checkin, checkout)) {
-            showAlert("Success", "Reservation updated successfully!");
-            refreshAllData();
-        } else {
-            showAlert("Error", "Failed to update reservation!");
-        }
+        tasks.run(null, () -> controller.updateReservation(selected, selectedGuest, selectedRoom, checkin, checkout),
+                result -> {
+                    switch (result) {
+                        case UPDATED:
+                            showAlert("Success", "Reservation updated successfully!");
+                            refreshAllData();
+                            break;
+                        case CONFLICT:
+                            showAlert("Update Conflict", "Another user changed the same details of this reservation. " +
+                                    "The list has been reloaded; please apply your changes again.");
+                            refreshReservationTable();
+                            break;
+                        case NOT_FOUND:
+                            showAlert("Update Failed", "This reservation was deleted by another user.");
+                            refreshAllData();
+                            break;
+                        default:
+                            showAlert("Error", "Failed to update reservation!");
+                            break;
+                    }
+                });
     }
 
     public void deleteSelectedReservation() {
@@ -620,26 +769,78 @@ public class ReservationManagement extends Application {
         confirmAlert.setContentText("Are you sure you want to delete this reservation?");
 
         if (confirmAlert.showAndWait().get() == ButtonType.OK) {
-            if (controller.deleteReservation(selected.getId())) {
-                showAlert("Success", "Reservation deleted successfully!");
-                refreshAllData();
+            tasks.run(null, () -> controller.deleteReservation(selected.getId()), deleted -> {
+                if (deleted) {
+                    showAlert("Success", "Reservation deleted successfully!");
+                    refreshAllData();
+                } else {
+                    showAlert("Error", "Failed to delete reservation!");
+                }
+            });
+        }
+    }
+
+    private void changeSelectedStatus(ReservationStatus target) {
+        Reservation selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showAlert("Warning", "Please select a reservation first!");
+            return;
+        }
+
+        int reservationId = selected.getId();
+        Callable<Boolean> transition;
+        switch (target) {
+            case CHECKED_IN:
+                transition = () -> controller.checkInGuest(reservationId);
+                break;
+            case CHECKED_OUT:
+                transition = () -> controller.checkOutGuest(reservationId);
+                break;
+            case CANCELLED:
+                transition = () -> controller.cancelReservation(reservationId);
+                break;
+            case NO_SHOW:
+                transition = () -> controller.markNoShow(reservationId);
+                break;
+            default:
+                return;
+        }
+
+        tasks.run(null, transition, success -> {
+            if (success) {
+                showAlert("Success", "Reservation is now " + target.getLabel() + ".");
             } else {
-                showAlert("Error", "Failed to delete reservation!");
+                // The conditional update did not match: the status changed in the meantime
+                showAlert("Error", "Cannot change reservation to " + target.getLabel() +
+                        ". It may have been updated by another user.");
             }
-        }
+            refreshAllData();
+        });
+    }
+
+    private void updateLifecycleButtons(Reservation selected) {
+        ReservationStatus status = selected != null ? selected.getStatus() : null;
+        checkInBtn.setDisable(status != ReservationStatus.BOOKED);
+        cancelBtn.setDisable(status != ReservationStatus.BOOKED);
+        noShowBtn.setDisable(status != ReservationStatus.BOOKED);
+        checkOutBtn.setDisable(status != ReservationStatus.CHECKED_IN);
     }
 
     private void searchReservations() {
-        String searchTerm = guestSearchField.getText().trim();
-        reservationList.clear();
-        reservationList.addAll(controller.searchReservations(searchTerm));
-        updateReservationCount();
+        String currentFilter = filterCombo.getValue();
+        loadReservations(currentFilter != null ? currentFilter : "All", guestSearchField.getText().trim());
     }
 
     private void filterReservations(String filterType) {
-        reservationList.clear();
-        reservationList.addAll(controller.filterReservations(filterType));
-        updateReservationCount();
+        loadReservations(filterType, guestSearchField.getText().trim());
+    }
+
+    /**
+     * Point the table at a new query; rows are counted in the background and
+     * pages fetched as the table scrolls. A newer search or filter supersedes one still running.
+     */
+    private void loadReservations(String filterType, String searchTerm) {
+        reservationList.setSource(controller.getReservationSource(filterType, searchTerm));
     }
 
     private void checkRoomAvailability() {
@@ -648,17 +849,21 @@ public class ReservationManagement extends Application {
         LocalDate checkout = checkoutDate.getValue();
 
         if (selectedRoom != null && checkin != null && checkout != null) {
-            boolean available = controller.isRoomAvailable(selectedRoom.getId(), checkin, checkout);
-            if (available) {
-                roomStatusLabel.setText("✅ Available");
-                roomStatusLabel.getStyleClass().removeAll("status-unavailable");
-                roomStatusLabel.getStyleClass().add("status-available");
-            } else {
-                roomStatusLabel.setText("❌ No");
-                roomStatusLabel.getStyleClass().removeAll("status-available");
-                roomStatusLabel.getStyleClass().add("status-unavailable");
-            }
+            roomStatusLabel.setText("Checking...");
+            tasks.run("availability", () -> controller.isRoomAvailable(selectedRoom.getId(), checkin, checkout),
+                    available -> {
+                        if (available) {
+                            roomStatusLabel.setText("✅ Available");
+                            roomStatusLabel.getStyleClass().removeAll("status-unavailable");
+                            roomStatusLabel.getStyleClass().add("status-available");
+                        } else {
+                            roomStatusLabel.setText("❌ No");
+                            roomStatusLabel.getStyleClass().removeAll("status-available");
+                            roomStatusLabel.getStyleClass().add("status-unavailable");
+                        }
+                    });
         } else {
+            tasks.cancel("availability");
             roomStatusLabel.setText("");
             roomStatusLabel.getStyleClass().removeAll("status-available", "status-unavailable");
         }
@@ -682,54 +887,38 @@ public class ReservationManagement extends Application {
     }
 
     private void refreshAllData() {
-        loadGuestCombo();
-        loadRoomCombo();
-        refreshReservationTable();
-    }
-
-    private void loadGuestCombo() {
-        guestCombo.getItems().clear();
-        guestCombo.getItems().addAll(controller.getAllGuests());
-
-        guestCombo.setConverter(new javafx.util.StringConverter<Guest>() {
-            @Override
-            public String toString(Guest guest) {
-                return guest != null ? guest.getName() + " - " + guest.getContact() : "";
-            }
-
-            @Override
-            public Guest fromString(String string) {
-                return null;
-            }
+        // Guests and rooms are independent queries and load in parallel;
+        // a pending single-list reload would only bring older data
+        tasks.cancel("guestCombo");
+        tasks.cancel("roomCombo");
+        tasks.run("formData", () -> controller.loadFormData().get(), data -> {
+            guestItems.patch(data.getGuests());
+            roomItems.patch(data.getAvailableRooms());
         });
+        refreshReservationTable();
     }
 
     private void loadRoomCombo() {
-        roomCombo.getItems().clear();
-        roomCombo.getItems().addAll(controller.getAvailableRooms());
-
-        roomCombo.setConverter(new javafx.util.StringConverter<Room>() {
-            @Override
-            public String toString(Room room) {
-                return room != null ? "Room " + room.getNumber() + " (" + room.getType() + ")" : "";
-            }
-
-            @Override
-            public Room fromString(String string) {
-                return null;
-            }
-        });
+        tasks.run("roomCombo", controller::getAvailableRooms, rooms -> roomItems.patch(rooms));
     }
 
     private void refreshReservationTable() {
-        String currentFilter = filterCombo.getValue();
-        filterReservations(currentFilter != null ? currentFilter : "All");
+        if (reservationList.getSource() == null) {
+            String currentFilter = filterCombo.getValue();
+            filterReservations(currentFilter != null ? currentFilter : "All");
+        } else {
+            reservationList.refresh();
+        }
     }
 
     private void updateReservationCount() {
         reservationCountLabel.setText("Total: " + reservationList.size());
     }
 
+    private void updateLastUpdated() {
+        lastUpdatedLabel.setText("Updated: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("MM/dd HH:mm")));
+    }
+
     private void openGuestManagement() {
         try {
             GuestManagement guestManagement = new GuestManagement();
@@ -747,8 +936,7 @@ public class ReservationManagement extends Application {
     }
 
     private void refreshGuestList() {
-        guestCombo.getItems().clear();
-        guestCombo.getItems().addAll(controller.getAllGuests());
+        tasks.run("guestCombo", controller::getAllGuests, guests -> guestItems.patch(guests));
     }
 
     private void showAlert(String title, String message) {
@@ -1,9 +1,9 @@
 package view;
 
+import async.UiActions;
+import async.UiTaskRunner;
 import controller.RoomManagementController;
 import javafx.application.Application;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -14,16 +14,35 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import model.Amenity;
+import model.Change;
 import model.Room;
 import model.RoomComponent;
+import model.RoomFilter;
+import paging.PagedList;
+import report.ReportType;
+import sync.ChangePoller;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class RoomManagement extends Application {
     private RoomManagementController controller = new RoomManagementController();
+    private final UiTaskRunner tasks = new UiTaskRunner();
     private TableView<RoomComponent> table = new TableView<>();
-    private ObservableList<RoomComponent> roomList = FXCollections.observableArrayList();
+    // Lazily paged table rows; only the pages around the visible rows are kept
+    private final PagedList<RoomComponent> roomList = new PagedList<>("rooms", tasks);
+    // Patches the table when another workstation writes a room or a booking
+    private final Consumer<List<Change>> changeListener = changes -> {
+        if (ChangePoller.affects(changes, Change.Entity.ROOM, Change.Entity.RESERVATION)) {
+            refreshTable();
+            updateStatistics();
+        }
+    };
 
     // Form fields
     private TextField numberField = new TextField();
@@ -40,6 +59,8 @@ public class RoomManagement extends Application {
     private ComboBox<String> filterStatusCombo = new ComboBox<>();
     private DatePicker checkinDatePicker = new DatePicker();
     private DatePicker checkoutDatePicker = new DatePicker();
+    private CheckBox filterSpaCheckBox = new CheckBox("Spa Access");
+    private CheckBox filterMinibarCheckBox = new CheckBox("Minibar");
 
     // Statistics labels
     private Label totalRoomsLabel = new Label();
@@ -87,6 +108,11 @@ public class RoomManagement extends Application {
 
         Scene scene = new Scene(mainLayout, 1200, 800);
         stage.setScene(scene);
+        stage.setOnHidden(e -> {
+            ChangePoller.getInstance().removeListener(changeListener);
+            tasks.cancelAll();
+        });
+        ChangePoller.getInstance().addListener(changeListener);
         stage.show();
 
         // Initial load
@@ -105,7 +131,13 @@ public class RoomManagement extends Application {
         titleLabel.setTextFill(Color.web("#2c3e50"));
         titleLabel.setStyle("-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 2, 0, 0, 1);");
 
-        header.getChildren().add(titleLabel);
+        // Spinner shown while database requests are running
+        ProgressIndicator loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setPrefSize(24, 24);
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        HBox.setMargin(loadingIndicator, new Insets(0, 0, 0, 12));
+
+        header.getChildren().addAll(titleLabel, loadingIndicator);
         return header;
     }
 
@@ -217,8 +249,12 @@ public class RoomManagement extends Application {
         Button showAllBtn = createModernButton("📋 Show All", "#34495e");
         Button showAvailableBtn = createModernButton("✅ Available", "#27ae60");
         Button refreshBtn = createModernButton("🔄 Refresh", "#f39c12");
+        Button exportBtn = createModernButton("📤 Export", "#16a085");
+        exportBtn.setOnAction(UiActions.named("RoomManagement.export", e -> ExportDialog.show(
+                exportBtn.getScene().getWindow(), Collections.singletonList(ReportType.ROOM_STATUS))));
 
-        filterRow1.getChildren().addAll(filterTypeCombo, filterStatusCombo, showAllBtn, showAvailableBtn, refreshBtn);
+        filterRow1.getChildren().addAll(filterTypeCombo, filterStatusCombo, showAllBtn, showAvailableBtn, refreshBtn,
+                exportBtn);
 
         // Second row of filters
         HBox filterRow2 = new HBox(12);
@@ -229,7 +265,11 @@ public class RoomManagement extends Application {
 
         Button searchByDateBtn = createModernButton("📅 Search by Date", "#9b59b6");
 
-        filterRow2.getChildren().addAll(checkinDatePicker, checkoutDatePicker, searchByDateBtn);
+        filterSpaCheckBox.setStyle("-fx-font-size: 12px; -fx-text-fill: #2c3e50;");
+        filterMinibarCheckBox.setStyle("-fx-font-size: 12px; -fx-text-fill: #2c3e50;");
+
+        filterRow2.getChildren().addAll(checkinDatePicker, checkoutDatePicker, searchByDateBtn,
+                filterSpaCheckBox, filterMinibarCheckBox);
 
         // Filter actions
         setupFilterActions(showAllBtn, showAvailableBtn, refreshBtn, searchByDateBtn);
@@ -269,14 +309,18 @@ public class RoomManagement extends Application {
         statusCol.setStyle("-fx-alignment: CENTER;");
 
         TableColumn<RoomComponent, String> descriptionCol = new TableColumn<>("Description");
-        descriptionCol.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(cellData.getValue().getDescription()));
+        // Rows of pages still loading are null
+        descriptionCol.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue() != null ? cellData.getValue().getDescription() : null));
         descriptionCol.setMinWidth(200);
         descriptionCol.setStyle("-fx-alignment: CENTER;");
 
         TableColumn<RoomComponent, String> priceCol = new TableColumn<>("Price");
         priceCol.setCellValueFactory(cellData -> {
             RoomComponent room = cellData.getValue();
+            if (room == null) {
+                return new javafx.beans.property.SimpleStringProperty(null);
+            }
             double totalPrice = controller.calculateTotalPrice(room);
             return new javafx.beans.property.SimpleStringProperty(String.format("$%.2f", totalPrice));
         });
@@ -330,7 +374,14 @@ public class RoomManagement extends Application {
         }
 
         table.getColumns().addAll(idCol, numberCol, typeCol, statusCol, descriptionCol, priceCol);
-        table.setItems(roomList);
+        // Refreshes patch changed rows in place instead of rebuilding the table
+        roomList.setRowIdentity(RoomComponent::getId, room -> Arrays.asList(room.getNumber(), room.getType(),
+                room.getStatus(), room.getDescription(), controller.calculateTotalPrice(room),
+                controller.getBaseRoom(room).getVersion()));
+
+        // Sorting is done by the database, a page at a time
+        roomList.bindTo(table, Map.of(idCol, "id", numberCol, "number", typeCol, "type",
+                statusCol, "status", descriptionCol, "description"));
 
         // Enhanced row styling for better visibility
         table.setRowFactory(tv -> {
@@ -429,24 +480,27 @@ public class RoomManagement extends Application {
     }
 
     private void setupButtonActions(Button addBtn, Button updateBtn, Button deleteBtn, Button clearBtn) {
-        addBtn.setOnAction(e -> addRoom());
-        updateBtn.setOnAction(e -> updateRoom());
-        deleteBtn.setOnAction(e -> deleteRoom());
-        clearBtn.setOnAction(e -> clearForm());
+        addBtn.setOnAction(UiActions.named("RoomManagement.add", e -> addRoom()));
+        updateBtn.setOnAction(UiActions.named("RoomManagement.update", e -> updateRoom()));
+        deleteBtn.setOnAction(UiActions.named("RoomManagement.delete", e -> deleteRoom()));
+        clearBtn.setOnAction(UiActions.named("RoomManagement.clear", e -> clearForm()));
     }
 
     private void setupFilterActions(Button showAllBtn, Button showAvailableBtn, Button refreshBtn, Button searchByDateBtn) {
-        showAllBtn.setOnAction(e -> showAllRooms());
-        showAvailableBtn.setOnAction(e -> showAvailableRooms());
-        refreshBtn.setOnAction(e -> {
+        showAllBtn.setOnAction(UiActions.named("RoomManagement.showAll", e -> showAllRooms()));
+        showAvailableBtn.setOnAction(UiActions.named("RoomManagement.showAvailable", e -> showAvailableRooms()));
+        refreshBtn.setOnAction(UiActions.named("RoomManagement.refresh", e -> {
             refreshTable();
             updateStatistics();
-        });
-        searchByDateBtn.setOnAction(e -> searchByDateRange());
+        }));
+        searchByDateBtn.setOnAction(UiActions.named("RoomManagement.searchByDate", e -> searchByDateRange()));
 
         // Filter combo box listeners
-        filterTypeCombo.setOnAction(e -> filterByType());
-        filterStatusCombo.setOnAction(e -> filterByStatus());
+        filterTypeCombo.setOnAction(UiActions.named("RoomManagement.filterByType", e -> filterByType()));
+        filterStatusCombo.setOnAction(UiActions.named("RoomManagement.filterByStatus", e -> filterByStatus()));
+        filterSpaCheckBox.setOnAction(UiActions.named("RoomManagement.filterByAmenities", e -> filterByAmenities()));
+        filterMinibarCheckBox.setOnAction(UiActions.named("RoomManagement.filterByAmenities",
+                e -> filterByAmenities()));
     }
 
     private void addRoom() {
@@ -464,15 +518,22 @@ public class RoomManagement extends Application {
             return;
         }
 
-        if (controller.addRoom(numberField.getText(), typeCombo.getValue(), statusCombo.getValue(),
-                basePrice, spaCheckBox.isSelected(), minibarCheckBox.isSelected())) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Room added successfully!");
-            clearForm();
-            refreshTable();
-            updateStatistics();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to add room! Room number may already exist.");
-        }
+        String number = numberField.getText();
+        String type = typeCombo.getValue();
+        String status = statusCombo.getValue();
+        boolean hasSpa = spaCheckBox.isSelected();
+        boolean hasMinibar = minibarCheckBox.isSelected();
+
+        tasks.run(null, () -> controller.addRoom(number, type, status, basePrice, hasSpa, hasMinibar), added -> {
+            if (added) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Room added successfully!");
+                clearForm();
+                refreshTable();
+                updateStatistics();
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add room! Room number may already exist.");
+            }
+        });
     }
 
     private void updateRoom() {
@@ -496,16 +557,37 @@ public class RoomManagement extends Application {
             return;
         }
 
-        if (controller.updateRoom(selected, numberField.getText(), typeCombo.getValue(),
-                statusCombo.getValue(), basePrice, spaCheckBox.isSelected(),
-                minibarCheckBox.isSelected())) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Room updated successfully!");
-            clearForm();
-            refreshTable();
-            updateStatistics();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to update room! Room number may already exist.");
-        }
+        String number = numberField.getText();
+        String type = typeCombo.getValue();
+        String status = statusCombo.getValue();
+        boolean hasSpa = spaCheckBox.isSelected();
+        boolean hasMinibar = minibarCheckBox.isSelected();
+
+        tasks.run(null, () -> controller.updateRoom(selected, number, type, status, basePrice, hasSpa, hasMinibar),
+                result -> {
+                    switch (result) {
+                        case UPDATED:
+                            showAlert(Alert.AlertType.INFORMATION, "Success", "Room updated successfully!");
+                            clearForm();
+                            refreshTable();
+                            updateStatistics();
+                            break;
+                        case CONFLICT:
+                            showAlert(Alert.AlertType.WARNING, "Update Conflict", "Another user changed the same details " +
+                                    "of this room. The list has been reloaded; please apply your changes again.");
+                            refreshTable();
+                            break;
+                        case NOT_FOUND:
+                            showAlert(Alert.AlertType.WARNING, "Update Failed", "This room was deleted by another user.");
+                            clearForm();
+                            refreshTable();
+                            updateStatistics();
+                            break;
+                        default:
+                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to update room! Room number may already exist.");
+                            break;
+                    }
+                });
     }
 
     private void deleteRoom() {
@@ -521,14 +603,16 @@ public class RoomManagement extends Application {
         confirmation.setContentText("Are you sure you want to delete room: " + selected.getNumber() + "?");
 
         if (confirmation.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            if (controller.deleteRoom(selected.getId())) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Room deleted successfully!");
-                clearForm();
-                refreshTable();
-                updateStatistics();
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete room!");
-            }
+            tasks.run(null, () -> controller.deleteRoom(selected.getId()), deleted -> {
+                if (deleted) {
+                    showAlert(Alert.AlertType.INFORMATION, "Success", "Room deleted successfully!");
+                    clearForm();
+                    refreshTable();
+                    updateStatistics();
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete room!");
+                }
+            });
         }
     }
 
@@ -551,37 +635,49 @@ public class RoomManagement extends Application {
         Room baseRoom = controller.getBaseRoom(room);
         basePriceField.setText(String.valueOf(baseRoom.getBasePrice()));
 
-        // Check decorators based on description
-        String description = room.getDescription();
-        spaCheckBox.setSelected(description != null && description.contains("Spa Access"));
-        minibarCheckBox.setSelected(description != null && description.contains("Minibar"));
+        // Check decorators based on the stored amenities
+        spaCheckBox.setSelected(baseRoom.hasAmenity(Amenity.SPA_ACCESS));
+        minibarCheckBox.setSelected(baseRoom.hasAmenity(Amenity.MINIBAR));
     }
 
     private void showAllRooms() {
-        refreshTable();
+        loadRooms(RoomFilter.all());
+
+        // Clear date pickers
+        checkinDatePicker.setValue(null);
+        checkoutDatePicker.setValue(null);
         filterTypeCombo.setValue(null);
         filterStatusCombo.setValue("All");
     }
 
     private void showAvailableRooms() {
-        List<Room> availableRooms = controller.getAvailableRooms();
-        roomList.clear();
-        roomList.addAll(availableRooms);
         filterStatusCombo.setValue("Available");
+        loadRooms(RoomFilter.byStatus("Available"));
     }
 
     private void filterByType() {
         String selectedType = filterTypeCombo.getValue();
-        List<Room> filteredRooms = controller.filterByType(selectedType);
-        roomList.clear();
-        roomList.addAll(filteredRooms);
+        loadRooms(controller.filterByType(selectedType));
     }
 
     private void filterByStatus() {
         String selectedStatus = filterStatusCombo.getValue();
-        List<Room> filteredRooms = controller.filterByStatus(selectedStatus);
-        roomList.clear();
-        roomList.addAll(filteredRooms);
+        loadRooms(controller.filterByStatus(selectedStatus));
+    }
+
+    private void filterByAmenities() {
+        boolean hasSpa = filterSpaCheckBox.isSelected();
+        boolean hasMinibar = filterMinibarCheckBox.isSelected();
+        loadRooms(controller.filterByAmenities(hasSpa, hasMinibar));
+    }
+
+    /**
+     * Point the table at a new query; rows are counted in the background and
+     * pages fetched as the table scrolls. A newer query supersedes one still running.
+     */
+    private void loadRooms(RoomFilter filter) {
+        roomList.setOnReloaded(null);
+        roomList.setSource(controller.getRoomSource(filter));
     }
 
     private void searchByDateRange() {
@@ -594,36 +690,41 @@ public class RoomManagement extends Application {
             return;
         }
 
-        List<Room> availableRooms = controller.searchByDateRange(checkin, checkout);
-        roomList.clear();
-        roomList.addAll(availableRooms);
-
-        showAlert(Alert.AlertType.INFORMATION, "Search Results",
-                "Found " + availableRooms.size() + " available rooms for the selected date range.");
+        roomList.setOnReloaded(() -> {
+            // Report once, not again when the results are re-sorted
+            roomList.setOnReloaded(null);
+            showAlert(Alert.AlertType.INFORMATION, "Search Results",
+                    "Found " + roomList.size() + " available rooms for the selected date range.");
+        });
+        roomList.setSource(controller.getRoomSource(controller.searchByDateRange(checkin, checkout)));
     }
 
+    /**
+     * Re-run the current filter; only rooms that changed are updated in the table
+     */
     private void refreshTable() {
-        List<Room> allRooms = controller.getAllRooms();
-        roomList.clear();
-        roomList.addAll(allRooms);
-
-        // Clear date pickers
-        checkinDatePicker.setValue(null);
-        checkoutDatePicker.setValue(null);
+        if (roomList.getSource() == null) {
+            loadRooms(RoomFilter.all());
+        } else {
+            roomList.refresh();
+        }
     }
 
     private void loadRoomTypes() {
-        List<String> roomTypes = controller.getAllRoomTypes();
-        filterTypeCombo.getItems().clear();
-        filterTypeCombo.getItems().add("All");
-        filterTypeCombo.getItems().addAll(roomTypes);
-        filterTypeCombo.setValue("All");
+        tasks.run("roomTypes", controller::getAllRoomTypes, roomTypes -> {
+            filterTypeCombo.getItems().clear();
+            filterTypeCombo.getItems().add("All");
+            filterTypeCombo.getItems().addAll(roomTypes);
+            filterTypeCombo.setValue("All");
+        });
     }
 
     private void updateStatistics() {
-        totalRoomsLabel.setText(String.valueOf(controller.getTotalRoomsCount()));
-        availableRoomsLabel.setText(String.valueOf(controller.getAvailableRoomsCount()));
-        occupiedRoomsLabel.setText(String.valueOf(controller.getOccupiedRoomsCount()));
+        tasks.run("statistics", controller::getStatistics, statistics -> {
+            totalRoomsLabel.setText(String.valueOf(statistics.getTotalRooms()));
+            availableRoomsLabel.setText(String.valueOf(statistics.getAvailableRooms()));
+            occupiedRoomsLabel.setText(String.valueOf(statistics.getOccupiedRooms()));
+        });
     }
 
     private void showAlert(Alert.AlertType type, String title, String message) {
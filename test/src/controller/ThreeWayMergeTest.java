@@ -0,0 +1,74 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreeWayMergeTest {
+
+    @Test
+    void unchangedFieldKeepsValue() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+
+        assertEquals(Integer.valueOf(1), merge.field(1, 1, 1));
+        assertFalse(merge.hasConflict());
+    }
+
+    @Test
+    void fieldChangedOnlyByMeTakesMine() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+
+        assertEquals(Integer.valueOf(2), merge.field(1, 2, 1));
+        assertFalse(merge.hasConflict());
+    }
+
+    @Test
+    void fieldChangedOnlyByThemTakesTheirs() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+
+        assertEquals(Integer.valueOf(3), merge.field(1, 1, 3));
+        assertFalse(merge.hasConflict());
+    }
+
+    @Test
+    void sameChangeOnBothSidesIsNotAConflict() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+        LocalDate moved = LocalDate.of(2025, 6, 2);
+
+        assertEquals(moved, merge.field(LocalDate.of(2025, 6, 1), moved, LocalDate.of(2025, 6, 2)));
+        assertFalse(merge.hasConflict());
+    }
+
+    @Test
+    void differentChangesConflictAndKeepMine() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+
+        assertEquals(Integer.valueOf(2), merge.field(1, 2, 3));
+        assertTrue(merge.hasConflict());
+    }
+
+    @Test
+    void conflictOnOneFieldIsKeptForTheWholeMerge() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+        merge.field(1, 2, 3);
+        merge.field("a", "a", "b");
+
+        assertTrue(merge.hasConflict());
+    }
+
+    @Test
+    void nullValuesAreCompared() {
+        ThreeWayMerge merge = new ThreeWayMerge();
+
+        assertNull(merge.field("a", "a", null));
+        assertEquals("b", merge.field(null, "b", null));
+        assertFalse(merge.hasConflict());
+        merge.field(null, "b", "c");
+        assertTrue(merge.hasConflict());
+    }
+}
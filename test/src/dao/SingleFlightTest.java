@@ -0,0 +1,155 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = SingleFlight.getInstance();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void forgetSharedResults() {
+        singleFlight.invalidate();
+    }
+
+    /**
+     * A read that blocks until released, so other callers arrive while it runs
+     */
+    private String blockingRead(String value) throws SQLException {
+        reads.incrementAndGet();
+        started.countDown();
+        try {
+            if (!release.await(10, TimeUnit.SECONDS)) {
+                throw new SQLException("Test read was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", e);
+        }
+        return value;
+    }
+
+    /**
+     * Run a load on another thread
+     * @param waitUntilParked Return only once the thread waits (on a read of another caller)
+     */
+    private static <V> CompletableFuture<V> loadInBackground(SingleFlight.Read<V> load, boolean waitUntilParked)
+            throws InterruptedException {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(load.read());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (waitUntilParked && thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    @Test
+    void concurrentCallersShareOneRead() throws Exception {
+        Object key = Arrays.asList("share", 1);
+        CompletableFuture<String> first = loadInBackground(() -> singleFlight.load(key, () -> blockingRead("rooms")), false);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = loadInBackground(() -> singleFlight.load(key, () -> blockingRead("other")), true);
+        release.countDown();
+
+        assertEquals("rooms", first.get(10, TimeUnit.SECONDS));
+        assertSame(first.get(), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void failedReadIsNotSharedWithLaterCallers() throws Exception {
+        Object key = Arrays.asList("fail", 1);
+        assertThrows(SQLException.class, () -> singleFlight.load(key, () -> {
+            reads.incrementAndGet();
+            throw new SQLException("Connection lost");
+        }));
+
+        assertEquals("ok", singleFlight.load(key, () -> {
+            reads.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void waitingCallersGetTheFailure() throws Exception {
+        Object key = Arrays.asList("fail", 2);
+        CompletableFuture<String> first = loadInBackground(() -> singleFlight.load(key, () -> {
+            blockingRead("unused");
+            throw new SQLException("Connection lost");
+        }), false);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = loadInBackground(() -> singleFlight.load(key, () -> blockingRead("other")), true);
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof SQLException);
+        assertEquals("Connection lost", failure.getCause().getCause().getMessage());
+        assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void invalidateDropsFinishedResults() throws Exception {
+        Object key = Arrays.asList("invalidate", 1);
+        assertEquals("before", singleFlight.load(key, () -> "before"));
+
+        singleFlight.invalidate();
+
+        assertEquals("after", singleFlight.load(key, () -> "after"));
+    }
+
+    @Test
+    void readStartedAfterWriteDoesNotShareOlderRead() throws Exception {
+        Object key = Arrays.asList("invalidate", 2);
+        CompletableFuture<String> stale = loadInBackground(() -> singleFlight.load(key, () -> blockingRead("before")), false);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        singleFlight.invalidate();
+
+        assertEquals("after", singleFlight.load(key, () -> "after"));
+        release.countDown();
+        assertEquals("before", stale.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void everyCallerGetsItsOwnList() throws Exception {
+        Object key = Arrays.asList("list", 1);
+        List<String> rows = Arrays.asList("101", "102");
+
+        List<String> first = singleFlight.loadList(key, () -> rows);
+        List<String> second = singleFlight.loadList(key, () -> rows);
+
+        assertEquals(rows, first);
+        assertEquals(rows, second);
+        assertNotSame(first, second);
+    }
+}
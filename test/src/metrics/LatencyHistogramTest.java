@@ -0,0 +1,86 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    // Values are reported as the middle of their sub-bucket, 1/32 of a power of two wide
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 64;
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+        assertEquals(0.0, histogram.getMeanNanos());
+        assertArrayEquals(new long[3], histogram.getValuesAtQuantiles(0.5, 0.95, 0.99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (long value = 0; value < 64; value++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(1_000_000);
+
+            assertEquals(value, histogram.getValueAtQuantile(0.5), "value " + value);
+        }
+    }
+
+    @Test
+    void valuesAreReportedWithinBucketPrecision() {
+        for (long value = 64; value < (1L << 44); value = value * 3 / 2 + 7) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            // Larger value so the maximum does not cap the result
+            histogram.record(Long.MAX_VALUE);
+
+            long reported = histogram.getValueAtQuantile(0.5);
+            double error = Math.abs(reported - value) / (double) value;
+            assertTrue(error <= MAX_RELATIVE_ERROR, value + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void quantilesOfUniformValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        long[] values = histogram.getValuesAtQuantiles(0.5, 0.95, 0.99, 1.0);
+        assertEquals(5_000_000, values[0], 5_000_000 * MAX_RELATIVE_ERROR);
+        assertEquals(9_500_000, values[1], 9_500_000 * MAX_RELATIVE_ERROR);
+        assertEquals(9_900_000, values[2], 9_900_000 * MAX_RELATIVE_ERROR);
+        assertEquals(10_000_000, values[3]);
+        assertEquals(histogram.getValueAtQuantile(0.95), values[1]);
+        assertEquals(5_000_500.0, histogram.getMeanNanos(), 0.001);
+    }
+
+    @Test
+    void quantileNeverExceedsMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertEquals(1_000_001, histogram.getValueAtQuantile(1.0));
+        assertEquals(1_000_001, histogram.getMaxNanos());
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtQuantile(0.5));
+        // Counted in the top bucket, beyond 2^44 ns
+        assertTrue(histogram.getValueAtQuantile(1.0) > 1L << 44);
+        assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+        assertEquals(2, histogram.getCount());
+    }
+}
@@ -0,0 +1,194 @@
+package paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class KeyedDiffTest {
+
+    private static final class Row {
+        final int id;
+        final String name;
+
+        Row(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + name;
+        }
+    }
+
+    /**
+     * Applies the edits to a copy of the old list, in the order they are reported
+     */
+    private static final class Recorder implements KeyedDiff.Patch<Row> {
+        final List<Row> rows;
+        int removed = 0;
+        int inserted = 0;
+        int updated = 0;
+
+        Recorder(List<Row> oldRows) {
+            this.rows = new ArrayList<>(oldRows);
+        }
+
+        @Override
+        public void removed(int index, Row oldItem) {
+            assertSame(oldItem, rows.remove(index));
+            removed++;
+        }
+
+        @Override
+        public void inserted(int index, Row newItem) {
+            rows.add(index, newItem);
+            inserted++;
+        }
+
+        @Override
+        public void updated(int index, Row oldItem, Row newItem) {
+            assertSame(oldItem, rows.get(index));
+            rows.set(index, newItem);
+            updated++;
+        }
+    }
+
+    private static Recorder diff(List<Row> oldRows, List<Row> newRows) {
+        Recorder recorder = new Recorder(oldRows);
+        int edits = KeyedDiff.diff(oldRows, newRows, row -> row.id, row -> row.name, recorder);
+        assertEquals(recorder.removed + recorder.inserted + recorder.updated, edits);
+        return recorder;
+    }
+
+    private static List<Row> rows(int... ids) {
+        List<Row> rows = new ArrayList<>();
+        for (int id : ids) {
+            rows.add(new Row(id, "row " + id));
+        }
+        return rows;
+    }
+
+    @Test
+    void identicalListsHaveNoEdits() {
+        List<Row> rows = rows(1, 2, 3);
+        Recorder recorder = diff(rows, rows(1, 2, 3));
+
+        assertEquals(0, recorder.removed + recorder.inserted + recorder.updated);
+    }
+
+    @Test
+    void emptyLists() {
+        assertEquals(3, diff(rows(), rows(1, 2, 3)).inserted);
+        assertEquals(3, diff(rows(1, 2, 3), rows()).removed);
+    }
+
+    @Test
+    void movedRowIsOneRemovalAndOneInsertion() {
+        List<Row> oldRows = rows(1, 2, 3, 4, 5);
+        List<Row> newRows = Arrays.asList(oldRows.get(1), oldRows.get(2), oldRows.get(3), oldRows.get(4), oldRows.get(0));
+        Recorder recorder = diff(oldRows, newRows);
+
+        assertEquals(newRows, recorder.rows);
+        assertEquals(1, recorder.removed);
+        assertEquals(1, recorder.inserted);
+        assertEquals(0, recorder.updated);
+    }
+
+    @Test
+    void reversedListKeepsOneRow() {
+        List<Row> oldRows = rows(1, 2, 3, 4);
+        List<Row> newRows = new ArrayList<>(oldRows);
+        Collections.reverse(newRows);
+        Recorder recorder = diff(oldRows, newRows);
+
+        assertEquals(newRows, recorder.rows);
+        assertEquals(3, recorder.removed);
+        assertEquals(3, recorder.inserted);
+    }
+
+    @Test
+    void changedContentIsUpdatedAtItsNewIndex() {
+        List<Row> oldRows = rows(1, 2, 3);
+        List<Row> newRows = Arrays.asList(new Row(0, "new"), oldRows.get(0), new Row(2, "renamed"), oldRows.get(2));
+        Recorder recorder = diff(oldRows, newRows);
+
+        assertEquals(newRows, recorder.rows);
+        assertEquals(0, recorder.removed);
+        assertEquals(1, recorder.inserted);
+        assertEquals(1, recorder.updated);
+    }
+
+    @Test
+    void oldContentsOverrideRowsModifiedInPlace() {
+        List<Row> oldRows = rows(1, 2);
+        List<Row> newRows = new ArrayList<>(oldRows);
+        Recorder recorder = new Recorder(oldRows);
+        // Row 2 was displayed as "before" and has been edited in place since
+        int edits = KeyedDiff.diff(oldRows, Arrays.asList("row 1", "before"), newRows,
+                row -> row.id, row -> row.name, recorder);
+
+        assertEquals(1, edits);
+        assertEquals(1, recorder.updated);
+    }
+
+    @Test
+    void randomEditsTurnOldListIntoNewList() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<Row> oldRows = new ArrayList<>();
+            List<Row> newRows = new ArrayList<>();
+            for (int id = 0; id < 30; id++) {
+                boolean inOld = random.nextInt(4) != 0;
+                boolean inNew = random.nextInt(4) != 0;
+                Row row = new Row(id, "row " + id);
+                if (inOld) {
+                    oldRows.add(row);
+                }
+                if (inNew) {
+                    newRows.add(random.nextInt(5) == 0 ? new Row(id, "edited " + id) : row);
+                }
+            }
+            Collections.shuffle(oldRows, random);
+            Collections.shuffle(newRows, random);
+
+            Recorder recorder = diff(oldRows, newRows);
+            assertEquals(newRows, recorder.rows, "round " + round);
+            // Only rows outside the longest run that kept its order are moved
+            assertEquals(longestKeptRun(oldRows, newRows), oldRows.size() - recorder.removed, "round " + round);
+        }
+    }
+
+    /**
+     * Length of the longest run of old rows in the same relative order in the new list (quadratic reference)
+     */
+    private static int longestKeptRun(List<Row> oldRows, List<Row> newRows) {
+        List<Integer> newIndexes = new ArrayList<>();
+        for (Row row : oldRows) {
+            for (int i = 0; i < newRows.size(); i++) {
+                if (newRows.get(i).id == row.id) {
+                    newIndexes.add(i);
+                }
+            }
+        }
+        int[] longest = new int[newIndexes.size()];
+        int best = 0;
+        for (int i = 0; i < newIndexes.size(); i++) {
+            longest[i] = 1;
+            for (int j = 0; j < i; j++) {
+                if (newIndexes.get(j) < newIndexes.get(i)) {
+                    longest[i] = Math.max(longest[i], longest[j] + 1);
+                }
+            }
+            best = Math.max(best, longest[i]);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,72 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("101"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("guest" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("guest" + i + "@example.com"), "key " + i);
+        }
+        assertEquals(10_000, filter.getInsertions());
+        assertEquals(10_000, filter.getCapacity());
+    }
+
+    @Test
+    void falsePositiveRateIsNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("room-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("room-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% of 100,000 absent keys, with room for the variance of the hash
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+    }
+
+    @Test
+    void overfilledSmallFilterStaysInRange() {
+        // One 64-bit word: every bit index, including those from negative
+        // hash combinations, must fall inside it
+        BloomFilter filter = new BloomFilter(1, 0.5);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put(Integer.toString(i));
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain(Integer.toString(i)));
+        }
+        assertEquals(1, filter.getCapacity());
+    }
+
+    @Test
+    void invalidSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}